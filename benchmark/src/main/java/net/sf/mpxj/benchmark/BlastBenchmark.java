@@ -0,0 +1,102 @@
+/*
+ * file:       BlastBenchmark.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.sf.mpxj.primavera.common.Blast;
+import net.sf.mpxj.primavera.common.FastBlast;
+
+/**
+ * Measures the time taken to decompress PKWare Compression Library data,
+ * as found in P3 PRX and SureTrak STX archives, using the bit at a time
+ * Blast implementation and the table driven FastBlast implementation.
+ * The data is a generated project, written in a text format and in
+ * a binary format, then compressed.
+ */
+@State(Scope.Benchmark) @BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.MILLISECONDS) @Warmup(iterations = 5) @Measurement(iterations = 5) @Fork(1) public class BlastBenchmark
+{
+   /**
+    * Generate and compress the test data.
+    */
+   @Setup(Level.Trial) public void setup() throws Exception
+   {
+      byte[] data = Format.valueOf(format).write(ProjectGenerator.generate(2000));
+      m_data = new DclCompressor(codedLiterals, 6).compress(data);
+   }
+
+   /**
+    * Decompress using Blast.
+    *
+    * @return decompressed data
+    */
+   @Benchmark public byte[] blast() throws IOException
+   {
+      ByteArrayOutputStream os = new ByteArrayOutputStream();
+      new Blast().blast(new ByteArrayInputStream(m_data), os);
+      return os.toByteArray();
+   }
+
+   /**
+    * Decompress using FastBlast.
+    *
+    * @return decompressed data
+    */
+   @Benchmark public byte[] fastBlast() throws IOException
+   {
+      ByteArrayOutputStream os = new ByteArrayOutputStream();
+      new FastBlast().blast(new ByteArrayInputStream(m_data), os);
+      return os.toByteArray();
+   }
+
+   @Param(
+   {
+      "MPX",
+      "SNAPSHOT"
+   }) public String format;
+
+   @Param(
+   {
+      "false",
+      "true"
+   }) public boolean codedLiterals;
+
+   private byte[] m_data;
+}
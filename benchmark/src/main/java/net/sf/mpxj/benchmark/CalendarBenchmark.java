@@ -0,0 +1,130 @@
+/*
+ * file:       CalendarBenchmark.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+
+package net.sf.mpxj.benchmark;
+
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.ProjectCalendar;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.common.LruProjectCalendarCache;
+
+/**
+ * Measures the cost of the date and working time calculations
+ * performed by ProjectCalendar. Each invocation processes a fixed set
+ * of randomly generated inputs. Setting the cache capacity to 1
+ * effectively disables the calendar cache, so the calculation
+ * itself is measured rather than the cache lookup.
+ */
+@State(Scope.Benchmark) @BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.MICROSECONDS) @Warmup(iterations = 5) @Measurement(iterations = 5) @Fork(1) public class CalendarBenchmark
+{
+   /**
+    * Generate the calendar and the sample dates and durations.
+    */
+   @Setup(Level.Trial) public void setup()
+   {
+      ProjectFile project = ProjectGenerator.generate(1);
+      project.getProjectConfig().setCalendarCache(new LruProjectCalendarCache(cacheCapacity));
+      m_calendar = project.getDefaultCalendar();
+
+      Random random = new Random(SEED);
+      long projectStart = ProjectGenerator.getProjectStart().getTime();
+      for (int index = 0; index < SAMPLE_COUNT; index++)
+      {
+         long start = projectStart + random.nextInt(RANGE_DAYS) * MILLIS_PER_DAY + random.nextInt(MINUTES_PER_DAY) * MILLIS_PER_MINUTE;
+         long end = start + random.nextInt(maxDays) * MILLIS_PER_DAY + random.nextInt(MINUTES_PER_DAY) * MILLIS_PER_MINUTE;
+         m_starts[index] = new Date(start);
+         m_ends[index] = new Date(end);
+         m_durations[index] = Duration.getInstance(random.nextInt(maxDays * 8), net.sf.mpxj.TimeUnit.HOURS);
+      }
+   }
+
+   /**
+    * Calculate the working time between pairs of dates.
+    *
+    * @param blackhole consumes the results
+    */
+   @Benchmark @OperationsPerInvocation(SAMPLE_COUNT) public void getWork(Blackhole blackhole)
+   {
+      for (int index = 0; index < SAMPLE_COUNT; index++)
+      {
+         blackhole.consume(m_calendar.getWork(m_starts[index], m_ends[index], net.sf.mpxj.TimeUnit.HOURS));
+      }
+   }
+
+   /**
+    * Calculate the date a given amount of working time after a start date.
+    *
+    * @param blackhole consumes the results
+    */
+   @Benchmark @OperationsPerInvocation(SAMPLE_COUNT) public void getDate(Blackhole blackhole)
+   {
+      for (int index = 0; index < SAMPLE_COUNT; index++)
+      {
+         blackhole.consume(m_calendar.getDate(m_starts[index], m_durations[index], false));
+      }
+   }
+
+   @Param(
+   {
+      "1",
+      "10000"
+   }) public int cacheCapacity;
+
+   @Param(
+   {
+      "10",
+      "250"
+   }) public int maxDays;
+
+   private ProjectCalendar m_calendar;
+   private final Date[] m_starts = new Date[SAMPLE_COUNT];
+   private final Date[] m_ends = new Date[SAMPLE_COUNT];
+   private final Duration[] m_durations = new Duration[SAMPLE_COUNT];
+
+   private static final int SAMPLE_COUNT = 1000;
+   private static final long SEED = 42;
+   private static final int RANGE_DAYS = 3650;
+   private static final int MINUTES_PER_DAY = 24 * 60;
+   private static final long MILLIS_PER_MINUTE = 60 * 1000L;
+   private static final long MILLIS_PER_DAY = MINUTES_PER_DAY * MILLIS_PER_MINUTE;
+}
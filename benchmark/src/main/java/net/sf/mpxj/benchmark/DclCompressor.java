@@ -0,0 +1,435 @@
+/*
+ * file:       DclCompressor.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * Generates data compressed using the PKWare Data Compression Library
+ * format, as found in P3 PRX and SureTrak STX archives. This is a simple
+ * greedy compressor, intended only to produce realistic input for the
+ * decompression benchmark.
+ */
+final class DclCompressor
+{
+   /**
+    * Constructor.
+    *
+    * @param codedLiterals true if literals are Huffman coded
+    * @param dict log2(dictionary size) - 6, in the range 4..6
+    */
+   public DclCompressor(boolean codedLiterals, int dict)
+   {
+      m_codedLiterals = codedLiterals;
+      m_dict = dict;
+   }
+
+   /**
+    * Compress data.
+    *
+    * @param data uncompressed data
+    * @return compressed data
+    */
+   public byte[] compress(byte[] data)
+   {
+      m_output = new ByteArrayOutputStream();
+      m_bitbuf = 0;
+      m_bitcnt = 0;
+
+      putBits(m_codedLiterals ? 1 : 0, 8);
+      putBits(m_dict, 8);
+
+      int window = 64 << m_dict;
+      int[] head = new int[1 << HASH_BITS];
+      int[] prev = new int[data.length];
+      Arrays.fill(head, -1);
+
+      int pos = 0;
+      while (pos < data.length)
+      {
+         int bestLength = 0;
+         int bestDistance = 0;
+
+         if (pos + 2 < data.length)
+         {
+            int hash = hash(data, pos);
+            int candidate = head[hash];
+            int chain = 0;
+            while (candidate != -1 && pos - candidate <= window && chain++ < MAX_CHAIN)
+            {
+               int length = 0;
+               int maxLength = Math.min(MAX_LENGTH, data.length - pos);
+               while (length < maxLength && data[candidate + length] == data[pos + length])
+               {
+                  ++length;
+               }
+
+               if (length > bestLength)
+               {
+                  bestLength = length;
+                  bestDistance = pos - candidate;
+               }
+               candidate = prev[candidate];
+            }
+         }
+
+         int step;
+         if (bestLength >= 3)
+         {
+            putBits(1, 1);
+            putLength(bestLength);
+            putDistance(bestDistance, bestLength);
+            step = bestLength;
+         }
+         else
+         {
+            putBits(0, 1);
+            int value = data[pos] & 0xFF;
+            if (m_codedLiterals)
+            {
+               putCode(LITCODE, value);
+            }
+            else
+            {
+               putBits(value, 8);
+            }
+            step = 1;
+         }
+
+         while (step-- > 0)
+         {
+            if (pos + 2 < data.length)
+            {
+               int hash = hash(data, pos);
+               prev[pos] = head[hash];
+               head[hash] = pos;
+            }
+            ++pos;
+         }
+      }
+
+      //
+      // End code
+      //
+      putBits(1, 1);
+      putLength(519);
+
+      if (m_bitcnt != 0)
+      {
+         m_output.write(m_bitbuf);
+      }
+
+      return m_output.toByteArray();
+   }
+
+   /**
+    * Write a length code and its extra bits.
+    *
+    * @param length copy length
+    */
+   private void putLength(int length)
+   {
+      int symbol = 0;
+      while (length < BASE[symbol] || length >= BASE[symbol] + (1 << EXTRA[symbol]))
+      {
+         ++symbol;
+      }
+      putCode(LENCODE, symbol);
+      putBits(length - BASE[symbol], EXTRA[symbol]);
+   }
+
+   /**
+    * Write a distance code and its extra bits.
+    *
+    * @param distance copy distance
+    * @param length copy length
+    */
+   private void putDistance(int distance, int length)
+   {
+      int bits = length == 2 ? 2 : m_dict;
+      int value = distance - 1;
+      putCode(DISTCODE, value >> bits);
+      putBits(value & ((1 << bits) - 1), bits);
+   }
+
+   /**
+    * Write a Huffman code. Codes are written inverted, most significant bit first.
+    *
+    * @param code code table
+    * @param symbol symbol to write
+    */
+   private void putCode(int[][] code, int symbol)
+   {
+      int value = code[0][symbol];
+      for (int bit = code[1][symbol] - 1; bit >= 0; bit--)
+      {
+         putBits(((value >> bit) & 1) ^ 1, 1);
+      }
+   }
+
+   /**
+    * Write bits, least significant bit first.
+    *
+    * @param value bit values
+    * @param count number of bits
+    */
+   private void putBits(int value, int count)
+   {
+      m_bitbuf |= value << m_bitcnt;
+      m_bitcnt += count;
+      while (m_bitcnt >= 8)
+      {
+         m_output.write(m_bitbuf & 0xFF);
+         m_bitbuf >>>= 8;
+         m_bitcnt -= 8;
+      }
+   }
+
+   /**
+    * Hash the three bytes at the given position.
+    *
+    * @param data data
+    * @param pos position
+    * @return hash value
+    */
+   private static int hash(byte[] data, int pos)
+   {
+      int value = (data[pos] & 0xFF) << 16 | (data[pos + 1] & 0xFF) << 8 | (data[pos + 2] & 0xFF);
+      return (value * 0x9E3779B1) >>> (32 - HASH_BITS);
+   }
+
+   /**
+    * Generate a canonical Huffman code from compact repeated code lengths,
+    * using the same ordering as blast.c.
+    *
+    * @param rep repeated code lengths
+    * @return array containing the code for each symbol, and the length of each code
+    */
+   private static int[][] createCode(int[] rep)
+   {
+      int[] lengths = new int[256];
+      int symbolCount = 0;
+      for (int value : rep)
+      {
+         for (int count = (value >> 4) + 1; count > 0; count--)
+         {
+            lengths[symbolCount++] = value & 15;
+         }
+      }
+
+      int[] codes = new int[symbolCount];
+      int code = 0;
+      for (int len = 1; len <= 13; len++)
+      {
+         for (int symbol = 0; symbol < symbolCount; symbol++)
+         {
+            if (lengths[symbol] == len)
+            {
+               codes[symbol] = code++;
+            }
+         }
+         code <<= 1;
+      }
+
+      return new int[][]
+      {
+         codes,
+         Arrays.copyOf(lengths, symbolCount)
+      };
+   }
+
+   private final boolean m_codedLiterals;
+   private final int m_dict;
+   private ByteArrayOutputStream m_output;
+   private int m_bitbuf;
+   private int m_bitcnt;
+
+   private static final int HASH_BITS = 15;
+   private static final int MAX_CHAIN = 16;
+   private static final int MAX_LENGTH = 518;
+
+   private static final int[] BASE =
+   {
+      3,
+      2,
+      4,
+      5,
+      6,
+      7,
+      8,
+      9,
+      10,
+      12,
+      16,
+      24,
+      40,
+      72,
+      136,
+      264
+   };
+
+   private static final int[] EXTRA =
+   {
+      0,
+      0,
+      0,
+      0,
+      0,
+      0,
+      0,
+      0,
+      1,
+      2,
+      3,
+      4,
+      5,
+      6,
+      7,
+      8
+   };
+
+   private static final int[][] LITCODE = createCode(new int[]
+   {
+      11,
+      124,
+      8,
+      7,
+      28,
+      7,
+      188,
+      13,
+      76,
+      4,
+      10,
+      8,
+      12,
+      10,
+      12,
+      10,
+      8,
+      23,
+      8,
+      9,
+      7,
+      6,
+      7,
+      8,
+      7,
+      6,
+      55,
+      8,
+      23,
+      24,
+      12,
+      11,
+      7,
+      9,
+      11,
+      12,
+      6,
+      7,
+      22,
+      5,
+      7,
+      24,
+      6,
+      11,
+      9,
+      6,
+      7,
+      22,
+      7,
+      11,
+      38,
+      7,
+      9,
+      8,
+      25,
+      11,
+      8,
+      11,
+      9,
+      12,
+      8,
+      12,
+      5,
+      38,
+      5,
+      38,
+      5,
+      11,
+      7,
+      5,
+      6,
+      21,
+      6,
+      10,
+      53,
+      8,
+      7,
+      24,
+      10,
+      27,
+      44,
+      253,
+      253,
+      253,
+      252,
+      252,
+      252,
+      13,
+      12,
+      45,
+      12,
+      45,
+      12,
+      61,
+      12,
+      45,
+      44,
+      173
+   });
+
+   private static final int[][] LENCODE = createCode(new int[]
+   {
+      2,
+      35,
+      36,
+      53,
+      38,
+      23
+   });
+
+   private static final int[][] DISTCODE = createCode(new int[]
+   {
+      2,
+      20,
+      53,
+      230,
+      247,
+      151,
+      248
+   });
+}
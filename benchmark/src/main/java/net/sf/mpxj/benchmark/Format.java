@@ -0,0 +1,155 @@
+/*
+ * file:       Format.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+
+package net.sf.mpxj.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.json.JsonReader;
+import net.sf.mpxj.json.JsonWriter;
+import net.sf.mpxj.mpx.MPXReader;
+import net.sf.mpxj.mpx.MPXWriter;
+import net.sf.mpxj.mspdi.MSPDIReader;
+import net.sf.mpxj.mspdi.MSPDIWriter;
+import net.sf.mpxj.planner.PlannerReader;
+import net.sf.mpxj.planner.PlannerWriter;
+import net.sf.mpxj.primavera.PrimaveraPMFileReader;
+import net.sf.mpxj.primavera.PrimaveraPMFileWriter;
+import net.sf.mpxj.reader.ProjectReader;
+import net.sf.mpxj.snapshot.SnapshotReader;
+import net.sf.mpxj.snapshot.SnapshotWriter;
+import net.sf.mpxj.writer.ProjectWriter;
+
+/**
+ * File formats used by the reader and writer benchmarks.
+ */
+public enum Format
+{
+   MPX
+   {
+      @Override public ProjectReader getReader()
+      {
+         return new MPXReader();
+      }
+
+      @Override public ProjectWriter getWriter()
+      {
+         return new MPXWriter();
+      }
+   },
+
+   MSPDI
+   {
+      @Override public ProjectReader getReader()
+      {
+         return new MSPDIReader();
+      }
+
+      @Override public ProjectWriter getWriter()
+      {
+         return new MSPDIWriter();
+      }
+   },
+
+   PLANNER
+   {
+      @Override public ProjectReader getReader()
+      {
+         return new PlannerReader();
+      }
+
+      @Override public ProjectWriter getWriter()
+      {
+         return new PlannerWriter();
+      }
+   },
+
+   PMXML
+   {
+      @Override public ProjectReader getReader()
+      {
+         return new PrimaveraPMFileReader();
+      }
+
+      @Override public ProjectWriter getWriter()
+      {
+         return new PrimaveraPMFileWriter();
+      }
+   },
+
+   JSON
+   {
+      @Override public ProjectReader getReader()
+      {
+         return new JsonReader();
+      }
+
+      @Override public ProjectWriter getWriter()
+      {
+         return new JsonWriter();
+      }
+   },
+
+   SNAPSHOT
+   {
+      @Override public ProjectReader getReader()
+      {
+         return new SnapshotReader();
+      }
+
+      @Override public ProjectWriter getWriter()
+      {
+         return new SnapshotWriter();
+      }
+   };
+
+   /**
+    * Create a reader for this format.
+    *
+    * @return ProjectReader instance
+    */
+   public abstract ProjectReader getReader();
+
+   /**
+    * Create a writer for this format.
+    *
+    * @return ProjectWriter instance
+    */
+   public abstract ProjectWriter getWriter();
+
+   /**
+    * Write a project in this format.
+    *
+    * @param project project to write
+    * @return file data
+    */
+   public byte[] write(ProjectFile project) throws IOException
+   {
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      getWriter().write(project, stream);
+      return stream.toByteArray();
+   }
+}
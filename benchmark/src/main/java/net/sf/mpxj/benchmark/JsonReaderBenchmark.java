@@ -0,0 +1,85 @@
+/*
+ * file:       JsonReaderBenchmark.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+
+package net.sf.mpxj.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.sf.mpxj.MPXJException;
+import net.sf.mpxj.ProjectFile;
+
+/**
+ * Measures the throughput of JsonReader against MSPDIReader, with each
+ * reading the same generated project written in its own format.
+ */
+@State(Scope.Benchmark) @BenchmarkMode(Mode.Throughput) @OutputTimeUnit(TimeUnit.SECONDS) @Warmup(iterations = 5) @Measurement(iterations = 5) @Fork(1) public class JsonReaderBenchmark
+{
+   /**
+    * Generate the project and write it in the required format.
+    */
+   @Setup(Level.Trial) public void setup() throws Exception
+   {
+      m_format = Format.valueOf(format);
+      m_data = m_format.write(ProjectGenerator.generate(taskCount));
+   }
+
+   /**
+    * Read the project.
+    *
+    * @return project read from the file data
+    */
+   @Benchmark public ProjectFile read() throws MPXJException
+   {
+      return m_format.getReader().read(new ByteArrayInputStream(m_data));
+   }
+
+   @Param(
+   {
+      "JSON",
+      "MSPDI"
+   }) public String format;
+
+   @Param(
+   {
+      "1000",
+      "10000"
+   }) public int taskCount;
+
+   private Format m_format;
+   private byte[] m_data;
+}
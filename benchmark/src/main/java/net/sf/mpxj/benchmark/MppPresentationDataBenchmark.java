@@ -0,0 +1,127 @@
+/*
+ * file:       MppPresentationDataBenchmark.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+
+package net.sf.mpxj.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.sf.mpxj.MPXJException;
+import net.sf.mpxj.mpp.MPPReader;
+
+/**
+ * Measures the time taken to read each of the MPP files in a directory,
+ * with presentation data decoded when the file is read, and with
+ * presentation data decoded on demand. By default the MPXJ test data
+ * directory is used, so the benchmark should be run from the root of
+ * the MPXJ source tree, or the directory parameter should be supplied.
+ * Files which can't be read, for example password protected files,
+ * are ignored.
+ */
+@State(Scope.Benchmark) @BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.MILLISECONDS) @Warmup(iterations = 5) @Measurement(iterations = 5) @Fork(1) public class MppPresentationDataBenchmark
+{
+   /**
+    * Read the content of each MPP file in the directory.
+    */
+   @Setup(Level.Trial) public void setup() throws Exception
+   {
+      File[] files = new File(directory).listFiles();
+      if (files == null)
+      {
+         throw new IllegalArgumentException("Directory not found: " + directory);
+      }
+
+      for (File file : files)
+      {
+         if (!file.getName().endsWith(".mpp"))
+         {
+            continue;
+         }
+
+         byte[] data = Files.readAllBytes(file.toPath());
+         try
+         {
+            new MPPReader().read(new ByteArrayInputStream(data));
+         }
+
+         catch (Exception ex)
+         {
+            continue;
+         }
+
+         m_data.add(data);
+      }
+
+      if (m_data.isEmpty())
+      {
+         throw new IllegalArgumentException("No MPP files found in: " + directory);
+      }
+   }
+
+   /**
+    * Read each of the MPP files.
+    *
+    * @param blackhole consumes the projects read
+    */
+   @Benchmark public void read(Blackhole blackhole) throws MPXJException
+   {
+      for (byte[] data : m_data)
+      {
+         MPPReader reader = new MPPReader();
+         reader.setLoadPresentationDataOnDemand(onDemand);
+         blackhole.consume(reader.read(new ByteArrayInputStream(data)));
+      }
+   }
+
+   @Param(
+   {
+      "junit/data"
+   }) public String directory;
+
+   @Param(
+   {
+      "false",
+      "true"
+   }) public boolean onDemand;
+
+   private final List<byte[]> m_data = new ArrayList<byte[]>();
+}
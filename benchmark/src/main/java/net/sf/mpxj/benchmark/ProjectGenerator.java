@@ -0,0 +1,229 @@
+/*
+ * file:       ProjectGenerator.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+
+package net.sf.mpxj.benchmark;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.Priority;
+import net.sf.mpxj.ProjectCalendar;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.RelationType;
+import net.sf.mpxj.Resource;
+import net.sf.mpxj.ResourceAssignment;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.TimeUnit;
+
+/**
+ * Generates synthetic projects used as benchmark inputs. Projects are
+ * generated from a fixed seed, so the same parameters always produce
+ * the same project.
+ */
+public final class ProjectGenerator
+{
+   /**
+    * Private constructor to prevent instantiation.
+    */
+   private ProjectGenerator()
+   {
+      // Utility class
+   }
+
+   /**
+    * Generate a project. Tasks are grouped under summary tasks, each
+    * leaf task has a single resource assignment, and most leaf tasks
+    * have a finish-start predecessor. Start and finish dates are
+    * calculated using the project calendar.
+    *
+    * @param taskCount number of leaf tasks to generate
+    * @return generated project
+    */
+   public static ProjectFile generate(int taskCount)
+   {
+      Random random = new Random(SEED);
+      ProjectFile file = new ProjectFile();
+      file.getProjectProperties().setName("Generated Project");
+      Date projectStart = getProjectStart();
+      file.getProjectProperties().setStartDate(projectStart);
+
+      ProjectCalendar calendar = generateCalendar(file);
+
+      List<Resource> resources = new ArrayList<Resource>();
+      int resourceCount = Math.max(1, taskCount / TASKS_PER_RESOURCE);
+      for (int index = 1; index <= resourceCount; index++)
+      {
+         Resource resource = file.addResource();
+         resource.setName("Resource " + index);
+         resource.setMaxUnits(Double.valueOf(100));
+         resources.add(resource);
+      }
+
+      Task summary = null;
+      Task previous = null;
+      for (int index = 1; index <= taskCount; index++)
+      {
+         if (summary == null || index % TASKS_PER_SUMMARY == 1)
+         {
+            summary = file.addTask();
+            summary.setName("Summary " + (index / TASKS_PER_SUMMARY + 1));
+            summary.setSummary(true);
+            setProgress(summary);
+         }
+
+         Task task = summary.addTask();
+         task.setName("Task " + index);
+         task.setText(1, "Text " + random.nextInt(100));
+         task.setNumber(1, Double.valueOf(random.nextInt(1000)));
+         setProgress(task);
+
+         Duration duration = Duration.getInstance(1 + random.nextInt(MAX_TASK_DAYS), TimeUnit.DAYS);
+         task.setDuration(duration);
+
+         Date start = projectStart;
+         if (previous != null && random.nextInt(10) != 0)
+         {
+            task.addPredecessor(previous, RelationType.FINISH_START, null);
+            start = calendar.getNextWorkStart(previous.getFinish());
+         }
+
+         Date finish = calendar.getDate(start, duration, false);
+         task.setStart(start);
+         task.setFinish(finish);
+
+         Duration work = Duration.getInstance(duration.getDuration() * 8, TimeUnit.HOURS);
+         task.setWork(work);
+
+         ResourceAssignment assignment = task.addResourceAssignment(resources.get(random.nextInt(resources.size())));
+         assignment.setStart(start);
+         assignment.setFinish(finish);
+         assignment.setWork(work);
+         assignment.setRemainingWork(work);
+         assignment.setUnits(Double.valueOf(100));
+
+         updateSummary(summary, task);
+         previous = task;
+      }
+
+      return file;
+   }
+
+   /**
+    * Retrieve the start date used by generated projects.
+    *
+    * @return project start date
+    */
+   public static Date getProjectStart()
+   {
+      Calendar cal = Calendar.getInstance();
+      cal.clear();
+      cal.set(2018, Calendar.JANUARY, 1, 8, 0);
+      return cal.getTime();
+   }
+
+   /**
+    * Create the project calendar, including a set of holidays
+    * for each year covered by the generated projects.
+    *
+    * @param file parent project
+    * @return project calendar
+    */
+   private static ProjectCalendar generateCalendar(ProjectFile file)
+   {
+      ProjectCalendar calendar = file.addDefaultBaseCalendar();
+      Calendar cal = Calendar.getInstance();
+      for (int year = 2018; year < 2018 + CALENDAR_YEARS; year++)
+      {
+         for (int[] holiday : HOLIDAYS)
+         {
+            cal.clear();
+            cal.set(year, holiday[0], holiday[1]);
+            Date date = cal.getTime();
+            calendar.addCalendarException(date, date);
+         }
+      }
+      return calendar;
+   }
+
+   /**
+    * Populate the priority and progress attributes of a task.
+    *
+    * @param task task to update
+    */
+   private static void setProgress(Task task)
+   {
+      task.setPriority(Priority.getInstance(Priority.MEDIUM));
+      task.setPercentageComplete(Double.valueOf(0));
+      task.setPercentageWorkComplete(Double.valueOf(0));
+   }
+
+   /**
+    * Extend the dates of a summary task to include a child task.
+    *
+    * @param summary summary task
+    * @param task child task
+    */
+   private static void updateSummary(Task summary, Task task)
+   {
+      if (summary.getStart() == null || task.getStart().before(summary.getStart()))
+      {
+         summary.setStart(task.getStart());
+      }
+
+      if (summary.getFinish() == null || task.getFinish().after(summary.getFinish()))
+      {
+         summary.setFinish(task.getFinish());
+      }
+   }
+
+   private static final long SEED = 42;
+   private static final int TASKS_PER_SUMMARY = 10;
+   private static final int TASKS_PER_RESOURCE = 20;
+   private static final int MAX_TASK_DAYS = 10;
+   private static final int CALENDAR_YEARS = 20;
+
+   private static final int[][] HOLIDAYS =
+   {
+      {
+         Calendar.JANUARY,
+         1
+      },
+      {
+         Calendar.MAY,
+         1
+      },
+      {
+         Calendar.DECEMBER,
+         25
+      },
+      {
+         Calendar.DECEMBER,
+         26
+      }
+   };
+}
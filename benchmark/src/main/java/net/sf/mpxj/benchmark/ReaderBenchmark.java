@@ -0,0 +1,86 @@
+/*
+ * file:       ReaderBenchmark.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+
+package net.sf.mpxj.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.sf.mpxj.MPXJException;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.reader.UniversalProjectReader;
+
+/**
+ * Measures the time taken by UniversalProjectReader to read a generated
+ * project from each of the file formats MPXJ can both read and write.
+ */
+@State(Scope.Benchmark) @BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.MILLISECONDS) @Warmup(iterations = 5) @Measurement(iterations = 5) @Fork(1) public class ReaderBenchmark
+{
+   /**
+    * Generate the project and write it in the required format.
+    */
+   @Setup(Level.Trial) public void setup() throws Exception
+   {
+      m_data = Format.valueOf(format).write(ProjectGenerator.generate(taskCount));
+   }
+
+   /**
+    * Read the project.
+    *
+    * @return project read from the file data
+    */
+   @Benchmark public ProjectFile read() throws MPXJException
+   {
+      return new UniversalProjectReader().read(new ByteArrayInputStream(m_data));
+   }
+
+   @Param(
+   {
+      "MPX",
+      "MSPDI",
+      "PLANNER",
+      "PMXML"
+   }) public String format;
+
+   @Param(
+   {
+      "1000",
+      "10000"
+   }) public int taskCount;
+
+   private byte[] m_data;
+}
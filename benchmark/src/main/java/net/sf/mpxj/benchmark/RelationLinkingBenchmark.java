@@ -0,0 +1,158 @@
+/*
+ * file:       RelationLinkingBenchmark.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+
+package net.sf.mpxj.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.RelationType;
+import net.sf.mpxj.Task;
+
+/**
+ * Measures the cost of linking tasks with relations in a large project,
+ * in the way a reader does once all of the tasks have been read: each
+ * relation is described by the Unique IDs of the two tasks involved,
+ * which are used to look up the tasks before the relation is added.
+ * A new project without relations is generated for each iteration.
+ */
+@State(Scope.Benchmark) @BenchmarkMode(Mode.SingleShotTime) @OutputTimeUnit(TimeUnit.MILLISECONDS) @Warmup(iterations = 10) @Measurement(iterations = 20) @Fork(1) public class RelationLinkingBenchmark
+{
+   /**
+    * Generate the Unique IDs of the tasks linked by each relation. Each task
+    * follows the previous task, and some tasks also follow a randomly
+    * selected earlier task.
+    */
+   @Setup(Level.Trial) public void setupRelations()
+   {
+      Random random = new Random(SEED);
+      int[] predecessors = new int[taskCount * 2];
+      int[] successors = new int[taskCount * 2];
+      int count = 0;
+
+      for (int index = 2; index <= taskCount; index++)
+      {
+         predecessors[count] = index - 1;
+         successors[count] = index;
+         ++count;
+
+         if (random.nextInt(RANDOM_PREDECESSOR_RATIO) == 0)
+         {
+            predecessors[count] = 1 + random.nextInt(index - 1);
+            successors[count] = index;
+            ++count;
+         }
+      }
+
+      m_relationCount = count;
+      m_predecessorUniqueIDs = predecessors;
+      m_successorUniqueIDs = successors;
+   }
+
+   /**
+    * Generate a project containing tasks with Unique IDs from 1 to the task count.
+    */
+   @Setup(Level.Iteration) public void setupProject()
+   {
+      m_file = new ProjectFile();
+      m_file.getProjectConfig().setAutoTaskUniqueID(false);
+      for (int index = 1; index <= taskCount; index++)
+      {
+         Task task = m_file.addTask();
+         task.setUniqueID(Integer.valueOf(index));
+         task.setName("Task " + index);
+      }
+   }
+
+   /**
+    * Look up the tasks involved in each relation using int Unique IDs.
+    *
+    * @param blackhole consumes the results
+    */
+   @Benchmark public void lookupTasks(Blackhole blackhole)
+   {
+      for (int index = 0; index < m_relationCount; index++)
+      {
+         blackhole.consume(m_file.getTaskByUniqueID(m_predecessorUniqueIDs[index]));
+         blackhole.consume(m_file.getTaskByUniqueID(m_successorUniqueIDs[index]));
+      }
+   }
+
+   /**
+    * Look up the tasks involved in each relation using boxed Unique IDs.
+    *
+    * @param blackhole consumes the results
+    */
+   @Benchmark public void lookupTasksBoxed(Blackhole blackhole)
+   {
+      for (int index = 0; index < m_relationCount; index++)
+      {
+         blackhole.consume(m_file.getTaskByUniqueID(Integer.valueOf(m_predecessorUniqueIDs[index])));
+         blackhole.consume(m_file.getTaskByUniqueID(Integer.valueOf(m_successorUniqueIDs[index])));
+      }
+   }
+
+   /**
+    * Look up the tasks involved in each relation, and add the relation.
+    *
+    * @param blackhole consumes the results
+    */
+   @Benchmark public void linkRelations(Blackhole blackhole)
+   {
+      for (int index = 0; index < m_relationCount; index++)
+      {
+         Task predecessor = m_file.getTaskByUniqueID(m_predecessorUniqueIDs[index]);
+         Task successor = m_file.getTaskByUniqueID(m_successorUniqueIDs[index]);
+         blackhole.consume(successor.addPredecessor(predecessor, RelationType.FINISH_START, null));
+      }
+   }
+
+   @Param(
+   {
+      "100000"
+   }) public int taskCount;
+
+   private ProjectFile m_file;
+   private int m_relationCount;
+   private int[] m_predecessorUniqueIDs;
+   private int[] m_successorUniqueIDs;
+
+   private static final long SEED = 42;
+   private static final int RANDOM_PREDECESSOR_RATIO = 5;
+}
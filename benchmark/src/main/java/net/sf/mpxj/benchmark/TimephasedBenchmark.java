@@ -0,0 +1,120 @@
+/*
+ * file:       TimephasedBenchmark.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+
+package net.sf.mpxj.benchmark;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.sf.mpxj.DateRange;
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.ProjectCalendar;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.TimephasedWork;
+import net.sf.mpxj.mpp.TimescaleUnits;
+import net.sf.mpxj.utility.TimephasedUtility;
+import net.sf.mpxj.utility.TimescaleUtility;
+
+/**
+ * Measures the time taken to split timephased work into timescale
+ * segments, as used when presenting timephased data in a timescale view.
+ */
+@State(Scope.Benchmark) @BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.MICROSECONDS) @Warmup(iterations = 5) @Measurement(iterations = 5) @Fork(1) public class TimephasedBenchmark
+{
+   /**
+    * Generate the timephased work and the timescale.
+    */
+   @Setup(Level.Trial) public void setup()
+   {
+      ProjectFile project = ProjectGenerator.generate(1);
+      m_calendar = project.getDefaultCalendar();
+      m_units = TimescaleUnits.valueOf(units);
+
+      //
+      // Create one block of timephased work per week, alternating
+      // between full time and part time work.
+      //
+      Date start = ProjectGenerator.getProjectStart();
+      m_work = new ArrayList<TimephasedWork>();
+      for (int index = 0; index < weeks; index++)
+      {
+         Date finish = m_calendar.getDate(start, Duration.getInstance(5, net.sf.mpxj.TimeUnit.DAYS), false);
+         double hoursPerDay = index % 2 == 0 ? 8 : 4;
+
+         TimephasedWork work = new TimephasedWork();
+         work.setStart(start);
+         work.setFinish(finish);
+         work.setAmountPerDay(Duration.getInstance(hoursPerDay, net.sf.mpxj.TimeUnit.HOURS));
+         work.setTotalAmount(Duration.getInstance(hoursPerDay * 5, net.sf.mpxj.TimeUnit.HOURS));
+         m_work.add(work);
+
+         start = m_calendar.getNextWorkStart(finish);
+      }
+
+      int segmentCount = m_units == TimescaleUnits.DAYS ? weeks * 7 : weeks;
+      m_dates = new TimescaleUtility().createTimescale(ProjectGenerator.getProjectStart(), m_units, segmentCount);
+   }
+
+   /**
+    * Segment the timephased work.
+    *
+    * @return work per timescale segment
+    */
+   @Benchmark public List<Duration> segmentWork()
+   {
+      return new TimephasedUtility().segmentWork(m_calendar, m_work, m_units, m_dates);
+   }
+
+   @Param(
+   {
+      "DAYS",
+      "WEEKS"
+   }) public String units;
+
+   @Param(
+   {
+      "52",
+      "520"
+   }) public int weeks;
+
+   private ProjectCalendar m_calendar;
+   private TimescaleUnits m_units;
+   private List<TimephasedWork> m_work;
+   private ArrayList<DateRange> m_dates;
+}
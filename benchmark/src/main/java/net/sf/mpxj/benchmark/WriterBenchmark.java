@@ -0,0 +1,102 @@
+/*
+ * file:       WriterBenchmark.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+
+package net.sf.mpxj.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.writer.ProjectWriter;
+
+/**
+ * Measures the time taken to write a generated project in each of the
+ * main output formats. Output is discarded rather than buffered, so the
+ * results are not affected by the cost of growing an in-memory buffer.
+ */
+@State(Scope.Benchmark) @BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.MILLISECONDS) @Warmup(iterations = 5) @Measurement(iterations = 5) @Fork(1) public class WriterBenchmark
+{
+   /**
+    * Generate the project.
+    */
+   @Setup(Level.Trial) public void setup()
+   {
+      m_project = ProjectGenerator.generate(taskCount);
+      m_format = Format.valueOf(format);
+   }
+
+   /**
+    * Write the project.
+    *
+    * @param blackhole consumes the output
+    */
+   @Benchmark public void write(final Blackhole blackhole) throws IOException
+   {
+      ProjectWriter writer = m_format.getWriter();
+      writer.write(m_project, new OutputStream()
+      {
+         @Override public void write(int b)
+         {
+            blackhole.consume(b);
+         }
+
+         @Override public void write(byte[] b, int off, int len)
+         {
+            blackhole.consume(len);
+         }
+      });
+   }
+
+   @Param(
+   {
+      "MSPDI",
+      "MPX",
+      "JSON",
+      "SNAPSHOT"
+   }) public String format;
+
+   @Param(
+   {
+      "1000",
+      "10000"
+   }) public int taskCount;
+
+   private ProjectFile m_project;
+   private Format m_format;
+}
@@ -0,0 +1,66 @@
+/*
+ * file:       ArrayFieldStorage.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj;
+
+/**
+ * Default field storage implementation. Field values are held in an
+ * array with one slot per field. This provides the fastest access
+ * to field values at the cost of allocating a slot for every field,
+ * whether or not it is populated.
+ */
+public final class ArrayFieldStorage implements FieldStorage
+{
+   /**
+    * Constructor.
+    *
+    * @param size number of fields
+    */
+   public ArrayFieldStorage(int size)
+   {
+      m_values = new Object[size];
+   }
+
+   @Override public Object get(int index)
+   {
+      return m_values[index];
+   }
+
+   @Override public void set(int index, Object value)
+   {
+      m_values[index] = value;
+   }
+
+   private final Object[] m_values;
+
+   /**
+    * Factory used to create array field storage instances.
+    */
+   public static final FieldStorageFactory FACTORY = new FieldStorageFactory()
+   {
+      @Override public FieldStorage newInstance(Class<? extends FieldType> type, int size)
+      {
+         return new ArrayFieldStorage(size);
+      }
+   };
+}
@@ -0,0 +1,352 @@
+/*
+ * file:       CompactFieldStorage.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Field storage implementation optimised for memory use rather than speed.
+ * Most fields of a typical task, resource or assignment are never populated,
+ * so rather than allocating a slot for every field, populated values are
+ * held in a sparse map sorted by field index. The most frequently used
+ * date, duration and numeric fields are held in primitive columns
+ * rather than as objects.
+ *
+ * Values held in primitive columns are copied rather than retained:
+ * a new Date, Double or Duration instance is created each time one of
+ * these values is retrieved. Unlike ArrayFieldStorage, modifying a Date
+ * instance after it has been stored, or modifying a Date instance
+ * returned by this class, will not change the stored value. Retrieved
+ * values are equal to, but not the same instance as, the stored values.
+ */
+public final class CompactFieldStorage implements FieldStorage
+{
+   /**
+    * Constructor.
+    *
+    * @param type field type class
+    */
+   public CompactFieldStorage(Class<? extends FieldType> type)
+   {
+      m_layout = LAYOUTS.get(type);
+   }
+
+   @Override public Object get(int index)
+   {
+      Object result;
+      int column = getColumn(index);
+      if (column != -1 && m_columnTypes != null && m_columnTypes[column] != NOT_IN_COLUMN)
+      {
+         result = getColumnValue(column);
+      }
+      else
+      {
+         int position = find(index);
+         result = position < 0 ? null : m_values[position];
+      }
+      return result;
+   }
+
+   @Override public void set(int index, Object value)
+   {
+      int column = getColumn(index);
+      if (column != -1 && setColumnValue(column, value))
+      {
+         remove(index);
+      }
+      else
+      {
+         if (column != -1 && m_columnTypes != null)
+         {
+            m_columnTypes[column] = NOT_IN_COLUMN;
+         }
+
+         if (value == null)
+         {
+            remove(index);
+         }
+         else
+         {
+            put(index, value);
+         }
+      }
+   }
+
+   /**
+    * Retrieve the column used to hold a field.
+    *
+    * @param index field index
+    * @return column index, or -1 if this field is not held in a column
+    */
+   private int getColumn(int index)
+   {
+      return m_layout == null ? -1 : m_layout.m_columns[index];
+   }
+
+   /**
+    * Retrieve a value from a primitive column.
+    *
+    * @param column column index
+    * @return field value
+    */
+   private Object getColumnValue(int column)
+   {
+      Object result;
+      long bits = m_columnValues[column];
+      int type = m_columnTypes[column];
+
+      switch (type)
+      {
+         case DOUBLE_COLUMN:
+         {
+            result = Double.valueOf(Double.longBitsToDouble(bits));
+            break;
+         }
+
+         case DATE_COLUMN:
+         {
+            result = new Date(bits);
+            break;
+         }
+
+         default:
+         {
+            result = Duration.getInstance(Double.longBitsToDouble(bits), TimeUnit.getInstance(type - DURATION_COLUMN));
+            break;
+         }
+      }
+
+      return result;
+   }
+
+   /**
+    * Attempt to store a value in a primitive column. Only values of
+    * exactly the Double, Date and Duration classes are stored in columns,
+    * to ensure that the value retrieved is equal to the value stored.
+    *
+    * @param column column index
+    * @param value field value
+    * @return true if the value has been stored in the column
+    */
+   private boolean setColumnValue(int column, Object value)
+   {
+      long bits;
+      byte type;
+
+      if (value == null)
+      {
+         return false;
+      }
+
+      Class<?> valueClass = value.getClass();
+      if (valueClass == Double.class)
+      {
+         bits = Double.doubleToRawLongBits(((Double) value).doubleValue());
+         type = DOUBLE_COLUMN;
+      }
+      else
+      {
+         if (valueClass == Date.class)
+         {
+            bits = ((Date) value).getTime();
+            type = DATE_COLUMN;
+         }
+         else
+         {
+            if (valueClass == Duration.class && ((Duration) value).getUnits() != null)
+            {
+               Duration duration = (Duration) value;
+               bits = Double.doubleToRawLongBits(duration.getDuration());
+               type = (byte) (DURATION_COLUMN + duration.getUnits().getValue());
+            }
+            else
+            {
+               return false;
+            }
+         }
+      }
+
+      if (m_columnTypes == null)
+      {
+         m_columnTypes = new byte[m_layout.m_columnCount];
+         m_columnValues = new long[m_columnTypes.length];
+      }
+
+      m_columnTypes[column] = type;
+      m_columnValues[column] = bits;
+      return true;
+   }
+
+   /**
+    * Find the position of a field in the sparse map.
+    *
+    * @param index field index
+    * @return position if found, otherwise a negative value as returned by a binary search
+    */
+   private int find(int index)
+   {
+      int low = 0;
+      int high = m_size - 1;
+
+      while (low <= high)
+      {
+         int mid = (low + high) >>> 1;
+         int key = m_keys[mid];
+         if (key < index)
+         {
+            low = mid + 1;
+         }
+         else
+         {
+            if (key > index)
+            {
+               high = mid - 1;
+            }
+            else
+            {
+               return mid;
+            }
+         }
+      }
+
+      return -(low + 1);
+   }
+
+   /**
+    * Add or replace a value in the sparse map.
+    *
+    * @param index field index
+    * @param value field value
+    */
+   private void put(int index, Object value)
+   {
+      int position = find(index);
+      if (position >= 0)
+      {
+         m_values[position] = value;
+      }
+      else
+      {
+         position = -(position + 1);
+
+         if (m_size == m_keys.length)
+         {
+            int capacity = m_size == 0 ? INITIAL_CAPACITY : m_size + (m_size >> 1);
+            int[] keys = new int[capacity];
+            Object[] values = new Object[capacity];
+            System.arraycopy(m_keys, 0, keys, 0, m_size);
+            System.arraycopy(m_values, 0, values, 0, m_size);
+            m_keys = keys;
+            m_values = values;
+         }
+
+         System.arraycopy(m_keys, position, m_keys, position + 1, m_size - position);
+         System.arraycopy(m_values, position, m_values, position + 1, m_size - position);
+         m_keys[position] = index;
+         m_values[position] = value;
+         ++m_size;
+      }
+   }
+
+   /**
+    * Remove a value from the sparse map.
+    *
+    * @param index field index
+    */
+   private void remove(int index)
+   {
+      int position = find(index);
+      if (position >= 0)
+      {
+         --m_size;
+         System.arraycopy(m_keys, position + 1, m_keys, position, m_size - position);
+         System.arraycopy(m_values, position + 1, m_values, position, m_size - position);
+         m_values[m_size] = null;
+      }
+   }
+
+   private final ColumnLayout m_layout;
+   private byte[] m_columnTypes;
+   private long[] m_columnValues;
+   private int[] m_keys = EMPTY_KEYS;
+   private Object[] m_values = EMPTY_VALUES;
+   private int m_size;
+
+   private static final byte NOT_IN_COLUMN = 0;
+   private static final byte DOUBLE_COLUMN = 1;
+   private static final byte DATE_COLUMN = 2;
+   private static final byte DURATION_COLUMN = 3;
+
+   private static final int INITIAL_CAPACITY = 8;
+   private static final int[] EMPTY_KEYS = new int[0];
+   private static final Object[] EMPTY_VALUES = new Object[0];
+
+   private static final Map<Class<? extends FieldType>, ColumnLayout> LAYOUTS = new HashMap<Class<? extends FieldType>, ColumnLayout>();
+   static
+   {
+      LAYOUTS.put(TaskField.class, new ColumnLayout(TaskField.MAX_VALUE, TaskField.START, TaskField.FINISH, TaskField.DURATION, TaskField.WORK, TaskField.COST, TaskField.ACTUAL_START, TaskField.ACTUAL_FINISH, TaskField.ACTUAL_DURATION, TaskField.ACTUAL_WORK, TaskField.ACTUAL_COST, TaskField.REMAINING_DURATION, TaskField.REMAINING_WORK, TaskField.REMAINING_COST, TaskField.EARLY_START, TaskField.EARLY_FINISH, TaskField.LATE_START, TaskField.LATE_FINISH, TaskField.BASELINE_START, TaskField.BASELINE_FINISH, TaskField.BASELINE_DURATION, TaskField.BASELINE_WORK, TaskField.BASELINE_COST, TaskField.CREATED, TaskField.CONSTRAINT_DATE, TaskField.STOP, TaskField.RESUME, TaskField.FIXED_COST, TaskField.BCWS, TaskField.BCWP, TaskField.ACWP, TaskField.PERCENT_COMPLETE, TaskField.PERCENT_WORK_COMPLETE, TaskField.DEADLINE));
+      LAYOUTS.put(ResourceField.class, new ColumnLayout(ResourceField.MAX_VALUE, ResourceField.START, ResourceField.FINISH, ResourceField.WORK, ResourceField.ACTUAL_WORK, ResourceField.REMAINING_WORK, ResourceField.OVERTIME_WORK, ResourceField.COST, ResourceField.ACTUAL_COST, ResourceField.REMAINING_COST, ResourceField.BASELINE_WORK, ResourceField.BASELINE_COST, ResourceField.MAX_UNITS, ResourceField.PEAK, ResourceField.CREATED));
+      LAYOUTS.put(AssignmentField.class, new ColumnLayout(AssignmentField.MAX_VALUE, AssignmentField.START, AssignmentField.FINISH, AssignmentField.WORK, AssignmentField.ACTUAL_WORK, AssignmentField.REMAINING_WORK, AssignmentField.OVERTIME_WORK, AssignmentField.COST, AssignmentField.ACTUAL_COST, AssignmentField.REMAINING_COST, AssignmentField.ASSIGNMENT_UNITS, AssignmentField.ACTUAL_START, AssignmentField.ACTUAL_FINISH, AssignmentField.BASELINE_START, AssignmentField.BASELINE_FINISH, AssignmentField.BASELINE_WORK, AssignmentField.BASELINE_COST, AssignmentField.CREATED, AssignmentField.LEVELING_DELAY, AssignmentField.ASSIGNMENT_DELAY, AssignmentField.STOP, AssignmentField.RESUME));
+   }
+
+   /**
+    * Maps the fields of one type to the primitive columns used to hold them.
+    */
+   private static final class ColumnLayout
+   {
+      /**
+       * Constructor.
+       *
+       * @param size number of fields of this type
+       * @param fields fields to be held in columns
+       */
+      public ColumnLayout(int size, FieldType... fields)
+      {
+         m_columns = new int[size];
+         Arrays.fill(m_columns, -1);
+         for (int index = 0; index < fields.length; index++)
+         {
+            m_columns[fields[index].getValue()] = index;
+         }
+         m_columnCount = fields.length;
+      }
+
+      final int[] m_columns;
+      final int m_columnCount;
+   }
+
+   /**
+    * Factory used to create compact field storage instances.
+    */
+   public static final FieldStorageFactory FACTORY = new FieldStorageFactory()
+   {
+      @Override public FieldStorage newInstance(Class<? extends FieldType> type, int size)
+      {
+         return new CompactFieldStorage(type);
+      }
+   };
+}
@@ -0,0 +1,60 @@
+/*
+ * file:       FieldLoader.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj;
+
+/**
+ * Implementations of this interface are used by readers to supply
+ * field values to Task, Resource and ResourceAssignment instances
+ * on demand. Rather than decoding every field when an entity is read,
+ * the entity retains a reference to a loader, and asks the loader
+ * for each field value the first time that field is requested.
+ * Once a field has been loaded, or explicitly set, the loader is
+ * not consulted again for that field, and once every field the loader
+ * can supply has been loaded or set, the loader is released.
+ */
+public interface FieldLoader
+{
+   /**
+    * Determine if this loader is able to supply a value for the given field.
+    *
+    * @param field field type
+    * @return true if a value can be loaded for this field
+    */
+   public boolean contains(FieldType field);
+
+   /**
+    * Retrieve the number of fields for which contains returns true.
+    *
+    * @return number of fields this loader is able to supply
+    */
+   public int getFieldCount();
+
+   /**
+    * Load the value of a field.
+    *
+    * @param field field type
+    * @return field value
+    */
+   public Object load(FieldType field);
+}
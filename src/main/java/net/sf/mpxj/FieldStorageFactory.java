@@ -0,0 +1,40 @@
+/*
+ * file:       FieldStorageFactory.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj;
+
+/**
+ * Implementations of this interface create the storage used
+ * to hold the field values of a Task, Resource or ResourceAssignment.
+ */
+public interface FieldStorageFactory
+{
+   /**
+    * Create a new storage instance.
+    *
+    * @param type field type class, for example TaskField
+    * @param size number of fields of this type
+    * @return new storage instance
+    */
+   public FieldStorage newInstance(Class<? extends FieldType> type, int size);
+}
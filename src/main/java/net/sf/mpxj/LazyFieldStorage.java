@@ -0,0 +1,324 @@
+/*
+ * file:       LazyFieldStorage.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Field storage used by entities whose field values are supplied on demand
+ * by a FieldLoader. While only a few fields are in use their values are held
+ * in a small array, and storage for all of the entity's fields is allocated
+ * only when more fields are used. Once every field the loader can supply
+ * has been loaded or set, the loader, and with it the raw data it holds, is
+ * released and this class simply delegates to the underlying storage.
+ * Loading a field updates the storage, so loading is synchronized to allow
+ * the entity to be read by multiple threads.
+ */
+final class LazyFieldStorage implements FieldStorage
+{
+   /**
+    * Constructor. Values held by the entity's current storage for fields
+    * which the loader can't supply are retained.
+    *
+    * @param factory factory used to create the underlying storage
+    * @param type field type class
+    * @param size number of fields of this type
+    * @param previous the entity's current storage
+    * @param loader field loader
+    */
+   public LazyFieldStorage(FieldStorageFactory factory, Class<? extends FieldType> type, int size, FieldStorage previous, FieldLoader loader)
+   {
+      m_factory = factory;
+      m_type = type;
+      m_size = size;
+      m_fields = FIELDS.get(type);
+
+      for (int index = 0; index < size; index++)
+      {
+         Object value = previous.get(index);
+         if (value != null && (m_fields[index] == null || !loader.contains(m_fields[index])))
+         {
+            put(index, value);
+         }
+      }
+
+      m_loader = loader;
+   }
+
+   @Override public Object get(int index)
+   {
+      if (m_loader == null)
+      {
+         return m_storage.get(index);
+      }
+      return load(index);
+   }
+
+   @Override public void set(int index, Object value)
+   {
+      if (m_loader == null)
+      {
+         m_storage.set(index, value);
+      }
+      else
+      {
+         store(index, value);
+      }
+   }
+
+   /**
+    * Retrieve a field value, loading it first if required.
+    *
+    * @param index field index
+    * @return field value
+    */
+   private synchronized Object load(int index)
+   {
+      if (m_loader != null && markLoaded(index))
+      {
+         put(index, m_loader.load(m_fields[index]));
+         fieldLoaded();
+      }
+      return getValue(index);
+   }
+
+   /**
+    * Store a field value. Once a value has been stored the field
+    * will not be retrieved from the field loader.
+    *
+    * @param index field index
+    * @param value field value
+    */
+   private synchronized void store(int index, Object value)
+   {
+      boolean loaded = m_loader != null && markLoaded(index);
+      put(index, value);
+      if (loaded)
+      {
+         fieldLoaded();
+      }
+   }
+
+   /**
+    * Record that a field has been loaded or set.
+    *
+    * @param index field index
+    * @return true if this field has not been loaded or set before, and the loader can supply it
+    */
+   private boolean markLoaded(int index)
+   {
+      if (m_loaded == null)
+      {
+         m_loaded = new BitSet(m_size);
+         m_remaining = m_loader.getFieldCount();
+         if (m_remaining == 0)
+         {
+            release();
+            return false;
+         }
+      }
+
+      boolean result = false;
+      if (!m_loaded.get(index))
+      {
+         m_loaded.set(index);
+         FieldType field = m_fields[index];
+         result = field != null && m_loader.contains(field);
+      }
+      return result;
+   }
+
+   /**
+    * Called when a field the loader can supply has been loaded or set.
+    * Once all such fields have been loaded or set, the loader is released.
+    */
+   private void fieldLoaded()
+   {
+      if (--m_remaining == 0)
+      {
+         release();
+      }
+   }
+
+   /**
+    * Release the loader once it has no more fields to supply.
+    */
+   private void release()
+   {
+      allocateStorage();
+      m_loaded = null;
+      m_loader = null;
+   }
+
+   /**
+    * Store a value, in the small array if storage for all fields
+    * has not yet been allocated.
+    *
+    * @param index field index
+    * @param value field value
+    */
+   private void put(int index, Object value)
+   {
+      if (m_storage != null)
+      {
+         m_storage.set(index, value);
+         return;
+      }
+
+      int position = find(index);
+      if (position >= 0)
+      {
+         m_values[position] = value;
+         return;
+      }
+
+      if (value == null)
+      {
+         return;
+      }
+
+      if (m_count == m_indexes.length)
+      {
+         if (m_count == MAX_CAPACITY)
+         {
+            allocateStorage();
+            m_storage.set(index, value);
+            return;
+         }
+
+         int capacity = m_count == 0 ? INITIAL_CAPACITY : m_count * 2;
+         int[] indexes = new int[capacity];
+         Object[] values = new Object[capacity];
+         System.arraycopy(m_indexes, 0, indexes, 0, m_count);
+         System.arraycopy(m_values, 0, values, 0, m_count);
+         m_indexes = indexes;
+         m_values = values;
+      }
+
+      position = -(position + 1);
+      System.arraycopy(m_indexes, position, m_indexes, position + 1, m_count - position);
+      System.arraycopy(m_values, position, m_values, position + 1, m_count - position);
+      m_indexes[position] = index;
+      m_values[position] = value;
+      ++m_count;
+   }
+
+   /**
+    * Retrieve a value, from the small array if storage for all
+    * fields has not yet been allocated.
+    *
+    * @param index field index
+    * @return field value
+    */
+   private Object getValue(int index)
+   {
+      Object result;
+      if (m_storage == null)
+      {
+         int position = find(index);
+         result = position < 0 ? null : m_values[position];
+      }
+      else
+      {
+         result = m_storage.get(index);
+      }
+      return result;
+   }
+
+   /**
+    * Find the position of a field in the small array.
+    *
+    * @param index field index
+    * @return position if found, otherwise a negative value as returned by a binary search
+    */
+   private int find(int index)
+   {
+      return Arrays.binarySearch(m_indexes, 0, m_count, index);
+   }
+
+   /**
+    * Allocate storage for all fields, and move the values
+    * from the small array into it.
+    */
+   private void allocateStorage()
+   {
+      if (m_storage == null)
+      {
+         FieldStorage storage = m_factory.newInstance(m_type, m_size);
+         for (int loop = 0; loop < m_count; loop++)
+         {
+            storage.set(m_indexes[loop], m_values[loop]);
+         }
+         m_storage = storage;
+         m_indexes = null;
+         m_values = null;
+         m_count = 0;
+      }
+   }
+
+   private final FieldStorageFactory m_factory;
+   private final Class<? extends FieldType> m_type;
+   private final int m_size;
+   private final FieldType[] m_fields;
+   private volatile FieldLoader m_loader;
+   private FieldStorage m_storage;
+   private BitSet m_loaded;
+   private int m_remaining;
+   private int m_count;
+   private int[] m_indexes = EMPTY_INDEXES;
+   private Object[] m_values = EMPTY_VALUES;
+
+   private static final int INITIAL_CAPACITY = 8;
+   private static final int MAX_CAPACITY = 128;
+   private static final int[] EMPTY_INDEXES = new int[0];
+   private static final Object[] EMPTY_VALUES = new Object[0];
+
+   private static final Map<Class<? extends FieldType>, FieldType[]> FIELDS = new HashMap<Class<? extends FieldType>, FieldType[]>();
+   static
+   {
+      FIELDS.put(TaskField.class, getFields(TaskField.values(), TaskField.MAX_VALUE));
+      FIELDS.put(ResourceField.class, getFields(ResourceField.values(), ResourceField.MAX_VALUE));
+      FIELDS.put(AssignmentField.class, getFields(AssignmentField.values(), AssignmentField.MAX_VALUE));
+   }
+
+   /**
+    * Create an array of fields indexed by field value.
+    *
+    * @param values fields of one type
+    * @param size number of fields of this type
+    * @return array of fields
+    */
+   private static FieldType[] getFields(FieldType[] values, int size)
+   {
+      FieldType[] result = new FieldType[size];
+      for (FieldType field : values)
+      {
+         result[field.getValue()] = field;
+      }
+      return result;
+   }
+}
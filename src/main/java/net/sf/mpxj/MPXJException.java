@@ -120,4 +120,9 @@ public final class MPXJException extends Exception
     * Password protected file error message.
     */
    public static final String PASSWORD_PROTECTED_ENTER_PASSWORD = "File is password protected. Please enter password.";
+
+   /**
+    * Loop in task relationships error message.
+    */
+   public static final String SCHEDULE_LOOP = "Task relationships contain a loop";
 }
@@ -0,0 +1,44 @@
+/*
+ * file:       PresentationDataLoader.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj;
+
+/**
+ * Implementations of this interface are used by readers to supply
+ * presentation data (tables, views, filters, groups and saved view state)
+ * to a ProjectFile on demand. Rather than decoding this data when the
+ * project is read, the reader retains the raw data it needs and
+ * the project asks the loader to decode each type of presentation data
+ * the first time it is requested. The project ensures that each
+ * type of data is requested at most once, and that requests are
+ * not made concurrently.
+ */
+public interface PresentationDataLoader
+{
+   /**
+    * Decode presentation data of the given type and add it to the project.
+    *
+    * @param type presentation data type
+    */
+   public void load(PresentationDataType type);
+}
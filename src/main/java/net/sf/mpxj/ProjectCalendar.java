@@ -30,8 +30,7 @@ import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
-import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import net.sf.mpxj.common.DateHelper;
 import net.sf.mpxj.common.NumberHelper;
@@ -356,7 +355,9 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
     */
    public Date getStartTime(Date date)
    {
-      Date result = m_startTimeCache.get(date);
+      // The start time depends only on the day, so the time of day is not part of the key
+      CacheKey key = new CacheKey(this, START_TIME, DateHelper.getDayStartDate(date).getTime(), 0);
+      Date result = (Date) getCache().get(key);
       if (result == null)
       {
          ProjectCalendarDateRanges ranges = getRanges(date, null, null);
@@ -369,7 +370,10 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
             result = ranges.getRange(0).getStart();
          }
          result = DateHelper.getCanonicalTime(result);
-         m_startTimeCache.put(new Date(date.getTime()), result);
+         if (result != null)
+         {
+            getCache().put(key, result);
+         }
       }
       return result;
    }
@@ -436,20 +440,41 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
       //       that wreak havoc on the comparisons.
       double remainingMinutes = NumberHelper.round(duration.convertUnits(TimeUnit.MINUTES, properties).getDuration(), 2);
 
+      ProjectCalendarIndex index = getIndex();
+      if (index != null && remainingMinutes > 0 && index.covers(startDate))
+      {
+         Calendar cal = Calendar.getInstance();
+         Boolean endOfWorkingPeriod = index.getEarliestDate(index.getCumulativeWork(startDate.getTime()) + Math.round(remainingMinutes * DateHelper.MS_PER_MINUTE), cal);
+         if (endOfWorkingPeriod != null)
+         {
+            if (returnNextWorkStart && endOfWorkingPeriod.booleanValue())
+            {
+               updateToNextWorkStart(cal);
+            }
+            return cal.getTime();
+         }
+      }
+
+      CacheKey key = new CacheKey(this, returnNextWorkStart ? DATE_NEXT_WORK_START : DATE, startDate.getTime(), Double.doubleToLongBits(remainingMinutes));
+      Date cachedResult = (Date) getCache().get(key);
+      if (cachedResult != null)
+      {
+         return new Date(cachedResult.getTime());
+      }
+
       //
       // Can we skip come computation by working forward from the
       // last call to this method?
       //
-      Date getDateLastStartDate = m_getDateLastStartDate;
-      double getDateLastRemainingMinutes = m_getDateLastRemainingMinutes;
-
-      m_getDateLastStartDate = startDate;
-      m_getDateLastRemainingMinutes = remainingMinutes;
+      long version = getVersion();
+      double originalRemainingMinutes = remainingMinutes;
+      Date originalStartDate = startDate;
+      GetDateState lastState = m_getDateLastState;
 
-      if (m_getDateLastResult != null && DateHelper.compare(startDate, getDateLastStartDate) == 0 && remainingMinutes >= getDateLastRemainingMinutes)
+      if (lastState != null && lastState.m_version == version && DateHelper.compare(startDate, lastState.m_startDate) == 0 && remainingMinutes >= lastState.m_remainingMinutes)
       {
-         startDate = m_getDateLastResult;
-         remainingMinutes = remainingMinutes - getDateLastRemainingMinutes;
+         startDate = lastState.m_result;
+         remainingMinutes = remainingMinutes - lastState.m_remainingMinutes;
       }
 
       Calendar cal = Calendar.getInstance();
@@ -593,13 +618,15 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
          }
       }
 
-      m_getDateLastResult = cal.getTime();
+      m_getDateLastState = new GetDateState(version, originalStartDate, originalRemainingMinutes, cal.getTime());
       if (returnNextWorkStart)
       {
          updateToNextWorkStart(cal);
       }
 
-      return cal.getTime();
+      Date result = cal.getTime();
+      getCache().put(key, new Date(result.getTime()));
+      return result;
    }
 
    /**
@@ -619,6 +646,24 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
       //       comparisons work as sometimes the double ends up with some extra e.g. .0000000000003
       //       that wreak havoc on the comparisons.
       double remainingMinutes = NumberHelper.round(duration.convertUnits(TimeUnit.MINUTES, properties).getDuration(), 2);
+
+      ProjectCalendarIndex index = getIndex();
+      if (index != null && remainingMinutes > 0 && index.covers(finishDate))
+      {
+         Calendar cal = Calendar.getInstance();
+         if (index.getLatestDate(index.getCumulativeWork(finishDate.getTime()) - Math.round(remainingMinutes * DateHelper.MS_PER_MINUTE), cal))
+         {
+            return cal.getTime();
+         }
+      }
+
+      CacheKey key = new CacheKey(this, START_DATE, finishDate.getTime(), Double.doubleToLongBits(remainingMinutes));
+      Date cachedResult = (Date) getCache().get(key);
+      if (cachedResult != null)
+      {
+         return new Date(cachedResult.getTime());
+      }
+
       Calendar cal = Calendar.getInstance();
       cal.setTime(finishDate);
       Calendar startCal = Calendar.getInstance();
@@ -759,7 +804,9 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
          }
       }
 
-      return cal.getTime();
+      Date result = cal.getTime();
+      getCache().put(key, new Date(result.getTime()));
+      return result;
    }
 
    /**
@@ -871,7 +918,6 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
             if (calTime.getTime() >= rangeEnd.getTime())
             {
                finishTime = rangeEnd;
-               break;
             }
          }
 
@@ -942,10 +988,18 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
     */
    public boolean isWorkingDate(Date date)
    {
-      Calendar cal = DateHelper.popCalendar(date);
-      Day day = Day.getInstance(cal.get(Calendar.DAY_OF_WEEK));
-      DateHelper.pushCalendar(cal);
-      return isWorkingDate(date, day);
+      // Working days depend only on the day, so the time of day is not part of the key
+      CacheKey key = new CacheKey(this, WORKING_DATE, DateHelper.getDayStartDate(date).getTime(), 0);
+      Boolean result = (Boolean) getCache().get(key);
+      if (result == null)
+      {
+         Calendar cal = DateHelper.popCalendar(date);
+         Day day = Day.getInstance(cal.get(Calendar.DAY_OF_WEEK));
+         DateHelper.pushCalendar(cal);
+         result = Boolean.valueOf(isWorkingDate(date, day));
+         getCache().put(key, result);
+      }
+      return result.booleanValue();
    }
 
    /**
@@ -1201,8 +1255,14 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
     */
    public Duration getWork(Date startDate, Date endDate, TimeUnit format)
    {
-      DateRange range = new DateRange(startDate, endDate);
-      Long cachedResult = m_workingDateCache.get(range);
+      ProjectCalendarIndex index = getIndex();
+      if (index != null && index.covers(startDate) && index.covers(endDate))
+      {
+         return convertFormat(index.getWork(startDate, endDate), format);
+      }
+
+      CacheKey key = new CacheKey(this, WORK, startDate.getTime(), endDate.getTime());
+      Long cachedResult = (Long) getCache().get(key);
       long totalTime = 0;
 
       if (cachedResult == null)
@@ -1303,7 +1363,7 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
             totalTime = -totalTime;
          }
 
-         m_workingDateCache.put(range, Long.valueOf(totalTime));
+         getCache().put(key, Long.valueOf(totalTime));
       }
       else
       {
@@ -1862,17 +1922,149 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
    }
 
    /**
-    * Utility method to clear cached calendar data.
+    * Utility method to clear cached calendar data. Rather than removing
+    * entries from the cache, we simply allocate a new version for this
+    * calendar. Cache keys include the version, so existing entries for this
+    * calendar, and any calendars derived from it, will no longer be
+    * retrieved and will be aged out of the cache.
     */
    private void clearWorkingDateCache()
    {
-      m_workingDateCache.clear();
-      m_startTimeCache.clear();
-      m_getDateLastResult = null;
-      for (ProjectCalendar calendar : m_derivedCalendars)
+      m_version = VERSION_COUNTER.incrementAndGet();
+      m_getDateLastState = null;
+      m_index = null;
+   }
+
+   /**
+    * Compile this calendar into an index covering the project's dates.
+    * The index covers the period from a year before the project start
+    * date to a year after the project finish date.
+    *
+    * @return calendar index
+    * @see #compileIndex(Date, Date)
+    */
+   public ProjectCalendarIndex compileIndex()
+   {
+      ProjectProperties properties = getParentFile().getProjectProperties();
+      Date startDate = properties.getStartDate();
+      Date finishDate = properties.getFinishDate();
+      if (startDate == null)
       {
-         calendar.clearWorkingDateCache();
+         startDate = finishDate == null ? new Date() : finishDate;
       }
+
+      if (finishDate == null)
+      {
+         finishDate = startDate;
+      }
+
+      Calendar cal = DateHelper.popCalendar(startDate);
+      cal.add(Calendar.YEAR, -1);
+      startDate = cal.getTime();
+      cal.setTime(finishDate);
+      cal.add(Calendar.YEAR, 1);
+      finishDate = cal.getTime();
+      DateHelper.pushCalendar(cal);
+
+      return compileIndex(startDate, finishDate);
+   }
+
+   /**
+    * Compile this calendar into an index covering the supplied range of
+    * dates. Once an index is present, calls to getWork, getDate and
+    * getStartDate whose arguments fall within the indexed range are
+    * answered using the index rather than by walking the calendar day
+    * by day. Calls outside the indexed range fall back to the
+    * original calculation.
+    *
+    * The index is automatically rebuilt on next use if this calendar,
+    * or any calendar it is derived from, is modified.
+    *
+    * @param startDate first date covered by the index
+    * @param finishDate last date covered by the index
+    * @return calendar index
+    */
+   public synchronized ProjectCalendarIndex compileIndex(Date startDate, Date finishDate)
+   {
+      m_indexStartDate = startDate;
+      m_indexFinishDate = finishDate;
+      m_index = new ProjectCalendarIndex(this, startDate, finishDate, getVersion());
+      return m_index;
+   }
+
+   /**
+    * Discard any index built for this calendar.
+    */
+   public synchronized void removeIndex()
+   {
+      m_indexStartDate = null;
+      m_indexFinishDate = null;
+      m_index = null;
+   }
+
+   /**
+    * Retrieve the index for this calendar, rebuilding it if the calendar
+    * has changed since the index was built.
+    *
+    * @return calendar index, or null if no index has been compiled
+    */
+   public ProjectCalendarIndex getIndex()
+   {
+      // Avoid taking the lock if no index has been compiled
+      if (m_indexStartDate == null)
+      {
+         return null;
+      }
+
+      ProjectCalendarIndex index = m_index;
+      if (index == null || index.getVersion() != getVersion())
+      {
+         index = rebuildIndex();
+      }
+      return index;
+   }
+
+   /**
+    * Rebuild the index for this calendar, if one is required.
+    *
+    * @return calendar index, or null if no index has been compiled
+    */
+   private synchronized ProjectCalendarIndex rebuildIndex()
+   {
+      if (m_indexStartDate != null && (m_index == null || m_index.getVersion() != getVersion()))
+      {
+         m_index = new ProjectCalendarIndex(this, m_indexStartDate, m_indexFinishDate, getVersion());
+      }
+      return m_index;
+   }
+
+   /**
+    * Retrieve the version of this calendar's data. As versions are
+    * allocated from a single increasing counter, taking the highest version
+    * found when walking up the chain of parent calendars gives us a value
+    * which changes whenever this calendar or any of its parents changes.
+    *
+    * @return calendar version
+    */
+   private long getVersion()
+   {
+      long version = m_version;
+      ProjectCalendar parent = getParent();
+      if (parent != null)
+      {
+         version = Math.max(version, parent.getVersion());
+      }
+      return version;
+   }
+
+   /**
+    * Retrieve the cache used to memoize date calculations.
+    *
+    * @return calendar cache
+    */
+   private ProjectCalendarCache getCache()
+   {
+      return m_projectFile.getProjectConfig().getCalendarCache();
    }
 
    /**
@@ -1883,7 +2075,7 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
     * @param day optional day instance
     * @return working hours
     */
-   private ProjectCalendarDateRanges getRanges(Date date, Calendar cal, Day day)
+   ProjectCalendarDateRanges getRanges(Date date, Calendar cal, Day day)
    {
       ProjectCalendarDateRanges ranges = getException(date);
       if (ranges == null)
@@ -1912,7 +2104,7 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
    /**
     * Ensure exceptions are sorted.
     */
-   private void sortExceptions()
+   private synchronized void sortExceptions()
    {
       if (!m_exceptionsSorted)
       {
@@ -1926,7 +2118,7 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
     * Where we find recurring exception definitions, we generate individual
     * exceptions for each recurrence to ensure that we account for them correctly.
     */
-   private void populateExpandedExceptions()
+   private synchronized void populateExpandedExceptions()
    {
       if (!m_exceptions.isEmpty() && m_expandedExceptions.isEmpty())
       {
@@ -1960,7 +2152,7 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
    /**
     * Ensure work weeks are sorted.
     */
-   private void sortWorkWeeks()
+   private synchronized void sortWorkWeeks()
    {
       if (!m_weeksSorted)
       {
@@ -2020,13 +2212,24 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
    private ArrayList<ProjectCalendar> m_derivedCalendars = new ArrayList<ProjectCalendar>();
 
    /**
-    * Caches used to speed up date calculations.
+    * Version of this calendar's data, used to construct cache keys.
+    */
+   private volatile long m_version = VERSION_COUNTER.incrementAndGet();
+
+   /**
+    * Details of the last call to getDate, used to speed up
+    * consecutive calls with the same start date.
     */
-   private Map<DateRange, Long> m_workingDateCache = new WeakHashMap<DateRange, Long>();
-   private Map<Date, Date> m_startTimeCache = new WeakHashMap<Date, Date>();
-   private Date m_getDateLastStartDate;
-   private double m_getDateLastRemainingMinutes;
-   private Date m_getDateLastResult;
+   private volatile GetDateState m_getDateLastState;
+
+   /**
+    * Optional compiled form of this calendar, and the dates it covers.
+    * The start date is volatile as it is read without holding the lock
+    * to determine if an index has been compiled.
+    */
+   private volatile ProjectCalendarIndex m_index;
+   private volatile Date m_indexStartDate;
+   private Date m_indexFinishDate;
 
    /**
     * Work week definitions.
@@ -2051,4 +2254,101 @@ public final class ProjectCalendar extends ProjectCalendarWeek implements Projec
     * and take an alternative approach.
     */
    private static final int MAX_NONWORKING_DAYS = 1000;
+
+   /**
+    * Source of calendar versions.
+    */
+   private static final AtomicLong VERSION_COUNTER = new AtomicLong();
+
+   /**
+    * Cache key types.
+    */
+   private static final int WORK = 0;
+   private static final int START_TIME = 1;
+   private static final int WORKING_DATE = 2;
+   private static final int DATE = 3;
+   private static final int DATE_NEXT_WORK_START = 4;
+   private static final int START_DATE = 5;
+
+   /**
+    * Immutable key used to store calculation results in the calendar cache.
+    */
+   private static final class CacheKey
+   {
+      /**
+       * Constructor.
+       *
+       * @param calendar calendar performing the calculation
+       * @param type calculation type
+       * @param value1 first calculation argument
+       * @param value2 second calculation argument
+       */
+      public CacheKey(ProjectCalendar calendar, int type, long value1, long value2)
+      {
+         m_calendar = calendar;
+         m_calendarVersion = calendar.getVersion();
+         m_type = type;
+         m_value1 = value1;
+         m_value2 = value2;
+      }
+
+      @Override public int hashCode()
+      {
+         long hash = System.identityHashCode(m_calendar);
+         hash = hash * 31 + m_calendarVersion;
+         hash = hash * 31 + m_type;
+         hash = hash * 31 + m_value1;
+         hash = hash * 31 + m_value2;
+         return (int) (hash ^ (hash >>> 32));
+      }
+
+      @Override public boolean equals(Object obj)
+      {
+         if (this == obj)
+         {
+            return true;
+         }
+
+         if (!(obj instanceof CacheKey))
+         {
+            return false;
+         }
+
+         CacheKey other = (CacheKey) obj;
+         return m_calendar == other.m_calendar && m_calendarVersion == other.m_calendarVersion && m_type == other.m_type && m_value1 == other.m_value1 && m_value2 == other.m_value2;
+      }
+
+      private final ProjectCalendar m_calendar;
+      private final long m_calendarVersion;
+      private final int m_type;
+      private final long m_value1;
+      private final long m_value2;
+   }
+
+   /**
+    * Immutable record of the arguments to and result of a call to getDate.
+    */
+   private static final class GetDateState
+   {
+      /**
+       * Constructor.
+       *
+       * @param version calendar version
+       * @param startDate start date
+       * @param remainingMinutes duration in minutes
+       * @param result calculated date
+       */
+      public GetDateState(long version, Date startDate, double remainingMinutes, Date result)
+      {
+         m_version = version;
+         m_startDate = startDate;
+         m_remainingMinutes = remainingMinutes;
+         m_result = result;
+      }
+
+      final long m_version;
+      final Date m_startDate;
+      final double m_remainingMinutes;
+      final Date m_result;
+   }
 }
@@ -0,0 +1,81 @@
+/*
+ * file:       ProjectCalendarCache.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj;
+
+/**
+ * Implementations of this interface are used by ProjectCalendar instances
+ * to memoize the results of date and duration calculations. A single cache
+ * is shared by all calendars belonging to a project, and may be accessed
+ * concurrently by multiple threads, so implementations must be thread safe.
+ *
+ * Keys are supplied by the calendar and are immutable. Keys include
+ * a version stamp which changes whenever a calendar is modified, so cached
+ * values never need to be explicitly invalidated: stale entries are
+ * simply never requested again, and should be aged out by the cache's
+ * eviction policy.
+ */
+public interface ProjectCalendarCache
+{
+   /**
+    * Retrieve a cached value.
+    *
+    * @param key cache key
+    * @return cached value, or null if the key is not present
+    */
+   public Object get(Object key);
+
+   /**
+    * Add a value to the cache.
+    *
+    * @param key cache key
+    * @param value value to cache
+    */
+   public void put(Object key, Object value);
+
+   /**
+    * Remove all entries from the cache.
+    */
+   public void clear();
+
+   /**
+    * Retrieve the number of entries currently held by the cache.
+    *
+    * @return entry count
+    */
+   public int size();
+
+   /**
+    * Retrieve the number of requests which were satisfied by the cache.
+    *
+    * @return hit count
+    */
+   public long getHitCount();
+
+   /**
+    * Retrieve the number of requests which were not satisfied by the cache.
+    *
+    * @return miss count
+    */
+   public long getMissCount();
+}
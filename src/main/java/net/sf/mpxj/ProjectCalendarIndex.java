@@ -0,0 +1,475 @@
+/*
+ * file:       ProjectCalendarIndex.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj;
+
+import java.util.Calendar;
+import java.util.Date;
+
+import net.sf.mpxj.common.DateHelper;
+
+/**
+ * A compiled form of a ProjectCalendar covering a fixed range of dates.
+ * The working hours for each day in the range are resolved once, taking
+ * account of exceptions, work weeks and parent calendars. A running total
+ * of the working time at the start of each day is maintained, which allows
+ * the amount of work between two dates, or the date at which a given
+ * amount of work completes, to be determined using a binary search rather
+ * than by walking the calendar day by day.
+ *
+ * Instances of this class are immutable, and are created and managed
+ * by the ProjectCalendar class.
+ */
+public final class ProjectCalendarIndex
+{
+   /**
+    * Constructor.
+    *
+    * @param calendar calendar to index
+    * @param startDate first date covered by the index
+    * @param finishDate last date covered by the index
+    * @param version calendar version from which this index was built
+    */
+   ProjectCalendarIndex(ProjectCalendar calendar, Date startDate, Date finishDate, long version)
+   {
+      m_version = version;
+
+      Calendar cal = DateHelper.popCalendar(DateHelper.getDayStartDate(startDate));
+      long finish = DateHelper.getDayStartDate(finishDate).getTime();
+
+      int dayCount = 0;
+      Calendar counter = DateHelper.popCalendar(cal.getTimeInMillis());
+      while (counter.getTimeInMillis() <= finish)
+      {
+         ++dayCount;
+         counter.add(Calendar.DAY_OF_YEAR, 1);
+      }
+      DateHelper.pushCalendar(counter);
+
+      m_dayStart = new long[dayCount + 1];
+      m_cumulativeWork = new long[dayCount + 1];
+      m_rangeOffset = new int[dayCount + 1];
+
+      long[] rangeStart = new long[dayCount * 2];
+      long[] rangeEnd = new long[dayCount * 2];
+      int rangeCount = 0;
+      long cumulativeWork = 0;
+
+      for (int dayIndex = 0; dayIndex < dayCount; dayIndex++)
+      {
+         Date date = cal.getTime();
+         m_dayStart[dayIndex] = date.getTime();
+         m_cumulativeWork[dayIndex] = cumulativeWork;
+         m_rangeOffset[dayIndex] = rangeCount;
+
+         Day day = Day.getInstance(cal.get(Calendar.DAY_OF_WEEK));
+         ProjectCalendarDateRanges ranges = calendar.getRanges(date, cal, day);
+         for (DateRange range : ranges)
+         {
+            Date start = range.getStart();
+            Date end = range.getEnd();
+            if (start == null || end == null)
+            {
+               continue;
+            }
+
+            long startTime = getTimeOfDay(start);
+            long endTime = getTimeOfDay(end);
+
+            //
+            // Handle the case where the end of the range is at midnight -
+            // this will show up as the start and end days not matching
+            //
+            if (DateHelper.getDayStartDate(start).getTime() != DateHelper.getDayStartDate(end).getTime())
+            {
+               endTime += DateHelper.MS_PER_DAY;
+            }
+
+            if (endTime <= startTime)
+            {
+               continue;
+            }
+
+            if (rangeCount == rangeStart.length)
+            {
+               rangeStart = grow(rangeStart);
+               rangeEnd = grow(rangeEnd);
+            }
+
+            rangeStart[rangeCount] = startTime;
+            rangeEnd[rangeCount] = endTime;
+            ++rangeCount;
+            cumulativeWork += (endTime - startTime);
+         }
+         sortRanges(rangeStart, rangeEnd, m_rangeOffset[dayIndex], rangeCount);
+
+         cal.add(Calendar.DAY_OF_YEAR, 1);
+      }
+
+      m_dayStart[dayCount] = cal.getTimeInMillis();
+      m_cumulativeWork[dayCount] = cumulativeWork;
+      m_rangeOffset[dayCount] = rangeCount;
+      DateHelper.pushCalendar(cal);
+
+      m_rangeStart = rangeStart;
+      m_rangeEnd = rangeEnd;
+   }
+
+   /**
+    * Retrieve the first date covered by this index.
+    *
+    * @return start date
+    */
+   public Date getStartDate()
+   {
+      return new Date(m_dayStart[0]);
+   }
+
+   /**
+    * Retrieve the date immediately after the last date covered by this index.
+    *
+    * @return finish date
+    */
+   public Date getFinishDate()
+   {
+      return new Date(m_dayStart[m_dayStart.length - 1]);
+   }
+
+   /**
+    * Determine if the supplied date falls within the range covered by this index.
+    *
+    * @param date date to test
+    * @return true if the date is covered by this index
+    */
+   public boolean covers(Date date)
+   {
+      long time = date.getTime();
+      return time >= m_dayStart[0] && time < m_dayStart[m_dayStart.length - 1];
+   }
+
+   /**
+    * Retrieve the amount of work between two dates, in milliseconds.
+    * If the start date is after the end date, the result is negative.
+    * Both dates must be covered by this index.
+    *
+    * @param startDate start date
+    * @param endDate end date
+    * @return amount of work in milliseconds
+    */
+   public long getWork(Date startDate, Date endDate)
+   {
+      return getCumulativeWork(endDate.getTime()) - getCumulativeWork(startDate.getTime());
+   }
+
+   /**
+    * Retrieve the amount of work carried out from the start of the
+    * index to the supplied date, in milliseconds.
+    *
+    * @param time date as a timestamp
+    * @return amount of work in milliseconds
+    */
+   long getCumulativeWork(long time)
+   {
+      int dayIndex = getDayIndex(time);
+      long timeOfDay = getTimeOfDay(time);
+      long result = m_cumulativeWork[dayIndex];
+
+      for (int rangeIndex = m_rangeOffset[dayIndex]; rangeIndex < m_rangeOffset[dayIndex + 1]; rangeIndex++)
+      {
+         long rangeStart = m_rangeStart[rangeIndex];
+         if (timeOfDay <= rangeStart)
+         {
+            break;
+         }
+         result += (Math.min(timeOfDay, m_rangeEnd[rangeIndex]) - rangeStart);
+      }
+
+      return result;
+   }
+
+   /**
+    * Retrieve the total amount of work covered by this index.
+    *
+    * @return amount of work in milliseconds
+    */
+   long getTotalWork()
+   {
+      return m_cumulativeWork[m_cumulativeWork.length - 1];
+   }
+
+   /**
+    * Find the earliest date at which the cumulative work from the start
+    * of the index reaches the target value. The calendar supplied is
+    * set to the date found.
+    *
+    * @param work target cumulative work, must be greater than zero
+    * @param cal calendar instance, set to the result
+    * @return true if the result is at the end of a working period, false
+    * if it falls within a working period, or null if the target is
+    * beyond the end of the index
+    */
+   Boolean getEarliestDate(long work, Calendar cal)
+   {
+      if (work <= 0 || work > getTotalWork())
+      {
+         return null;
+      }
+
+      //
+      // Find the first day whose cumulative work at the end of the day
+      // reaches the target.
+      //
+      int low = 0;
+      int high = m_cumulativeWork.length - 2;
+      while (low < high)
+      {
+         int mid = (low + high) >>> 1;
+         if (m_cumulativeWork[mid + 1] >= work)
+         {
+            high = mid;
+         }
+         else
+         {
+            low = mid + 1;
+         }
+      }
+
+      int dayIndex = low;
+      long remaining = work - m_cumulativeWork[dayIndex];
+      for (int rangeIndex = m_rangeOffset[dayIndex]; rangeIndex < m_rangeOffset[dayIndex + 1]; rangeIndex++)
+      {
+         long rangeLength = m_rangeEnd[rangeIndex] - m_rangeStart[rangeIndex];
+         if (remaining <= rangeLength)
+         {
+            setTimeOfDay(cal, m_dayStart[dayIndex], m_rangeStart[rangeIndex] + remaining);
+            return Boolean.valueOf(remaining == rangeLength);
+         }
+         remaining -= rangeLength;
+      }
+
+      return null;
+   }
+
+   /**
+    * Find the latest date at which the cumulative work from the start
+    * of the index is equal to the target value. The calendar supplied is
+    * set to the date found.
+    *
+    * @param work target cumulative work
+    * @param cal calendar instance, set to the result
+    * @return true if a date was found, false if the target is outside the index
+    */
+   boolean getLatestDate(long work, Calendar cal)
+   {
+      if (work < 0 || work >= getTotalWork())
+      {
+         return false;
+      }
+
+      //
+      // Find the last day whose cumulative work at the start of the day
+      // does not exceed the target.
+      //
+      int low = 0;
+      int high = m_cumulativeWork.length - 2;
+      while (low < high)
+      {
+         int mid = (low + high + 1) >>> 1;
+         if (m_cumulativeWork[mid] <= work)
+         {
+            low = mid;
+         }
+         else
+         {
+            high = mid - 1;
+         }
+      }
+
+      int dayIndex = low;
+      long remaining = work - m_cumulativeWork[dayIndex];
+      for (int rangeIndex = m_rangeOffset[dayIndex]; rangeIndex < m_rangeOffset[dayIndex + 1]; rangeIndex++)
+      {
+         long rangeLength = m_rangeEnd[rangeIndex] - m_rangeStart[rangeIndex];
+         if (remaining < rangeLength)
+         {
+            setTimeOfDay(cal, m_dayStart[dayIndex], m_rangeStart[rangeIndex] + remaining);
+            return true;
+         }
+         remaining -= rangeLength;
+      }
+
+      return false;
+   }
+
+   /**
+    * Retrieve the version of the calendar from which this index was built.
+    *
+    * @return calendar version
+    */
+   long getVersion()
+   {
+      return m_version;
+   }
+
+   /**
+    * Retrieve the index of the day containing the supplied timestamp.
+    *
+    * @param time timestamp
+    * @return day index
+    */
+   private int getDayIndex(long time)
+   {
+      int low = 0;
+      int high = m_dayStart.length - 2;
+      while (low < high)
+      {
+         int mid = (low + high + 1) >>> 1;
+         if (m_dayStart[mid] <= time)
+         {
+            low = mid;
+         }
+         else
+         {
+            high = mid - 1;
+         }
+      }
+      return low;
+   }
+
+   /**
+    * Set a calendar to a time of day on a given day. The time of day
+    * may be up to and including midnight at the end of the day.
+    *
+    * @param cal calendar to update
+    * @param dayStart start of the required day
+    * @param timeOfDay time of day in milliseconds
+    */
+   private void setTimeOfDay(Calendar cal, long dayStart, long timeOfDay)
+   {
+      cal.setTimeInMillis(dayStart);
+      if (timeOfDay >= DateHelper.MS_PER_DAY)
+      {
+         cal.add(Calendar.DAY_OF_YEAR, 1);
+         timeOfDay -= DateHelper.MS_PER_DAY;
+      }
+      cal.set(Calendar.HOUR_OF_DAY, (int) (timeOfDay / DateHelper.MS_PER_HOUR));
+      cal.set(Calendar.MINUTE, (int) ((timeOfDay % DateHelper.MS_PER_HOUR) / DateHelper.MS_PER_MINUTE));
+      cal.set(Calendar.SECOND, (int) ((timeOfDay % DateHelper.MS_PER_MINUTE) / 1000));
+      cal.set(Calendar.MILLISECOND, (int) (timeOfDay % 1000));
+   }
+
+   /**
+    * Retrieve the time of day represented by a date, in milliseconds.
+    *
+    * @param date date
+    * @return time of day
+    */
+   private static long getTimeOfDay(Date date)
+   {
+      return getTimeOfDay(date.getTime());
+   }
+
+   /**
+    * Retrieve the time of day represented by a timestamp, in milliseconds.
+    * This is the "wall clock" time rather than the elapsed time since
+    * midnight, which is consistent with the way calendar hours are compared
+    * elsewhere.
+    *
+    * @param time timestamp
+    * @return time of day
+    */
+   private static long getTimeOfDay(long time)
+   {
+      Calendar cal = DateHelper.popCalendar(time);
+      long result = cal.get(Calendar.HOUR_OF_DAY) * DateHelper.MS_PER_HOUR + cal.get(Calendar.MINUTE) * DateHelper.MS_PER_MINUTE + cal.get(Calendar.SECOND) * 1000 + cal.get(Calendar.MILLISECOND);
+      DateHelper.pushCalendar(cal);
+      return result;
+   }
+
+   /**
+    * Working ranges for a day will normally be supplied in order,
+    * but we sort them here to be sure. The number of ranges is small,
+    * so a simple insertion sort is sufficient.
+    *
+    * @param rangeStart range start times
+    * @param rangeEnd range end times
+    * @param fromIndex index of the first range for the day
+    * @param toIndex index after the last range for the day
+    */
+   private static void sortRanges(long[] rangeStart, long[] rangeEnd, int fromIndex, int toIndex)
+   {
+      for (int index = fromIndex + 1; index < toIndex; index++)
+      {
+         long start = rangeStart[index];
+         long end = rangeEnd[index];
+         int insertIndex = index - 1;
+         while (insertIndex >= fromIndex && rangeStart[insertIndex] > start)
+         {
+            rangeStart[insertIndex + 1] = rangeStart[insertIndex];
+            rangeEnd[insertIndex + 1] = rangeEnd[insertIndex];
+            --insertIndex;
+         }
+         rangeStart[insertIndex + 1] = start;
+         rangeEnd[insertIndex + 1] = end;
+      }
+   }
+
+   /**
+    * Double the size of an array.
+    *
+    * @param array original array
+    * @return new array
+    */
+   private static long[] grow(long[] array)
+   {
+      long[] result = new long[Math.max(16, array.length * 2)];
+      System.arraycopy(array, 0, result, 0, array.length);
+      return result;
+   }
+
+   private final long m_version;
+
+   /**
+    * Timestamp of the start of each day, with an additional
+    * entry representing the end of the last day.
+    */
+   private final long[] m_dayStart;
+
+   /**
+    * Total working time before the start of each day, with an
+    * additional entry representing the total for the whole index.
+    */
+   private final long[] m_cumulativeWork;
+
+   /**
+    * Offset of the first working range for each day, with an additional
+    * entry representing the total number of ranges.
+    */
+   private final int[] m_rangeOffset;
+
+   /**
+    * Start and end of each working range, as milliseconds from midnight.
+    */
+   private final long[] m_rangeStart;
+   private final long[] m_rangeEnd;
+}
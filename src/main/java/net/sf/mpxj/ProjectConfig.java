@@ -23,6 +23,7 @@
 
 package net.sf.mpxj;
 
+import net.sf.mpxj.common.LruProjectCalendarCache;
 import net.sf.mpxj.common.NumberHelper;
 
 /**
@@ -289,6 +290,65 @@ public class ProjectConfig
       return ++m_resourceID;
    }
 
+   /**
+    * Retrieve the cache used by calendars in this project to memoize
+    * date and duration calculations.
+    *
+    * @return calendar cache
+    */
+   public ProjectCalendarCache getCalendarCache()
+   {
+      return m_calendarCache;
+   }
+
+   /**
+    * Set the cache used by calendars in this project to memoize
+    * date and duration calculations. This allows the default cache
+    * to be replaced by an alternative implementation, for example
+    * one with a different capacity or eviction policy.
+    *
+    * @param cache calendar cache
+    */
+   public void setCalendarCache(ProjectCalendarCache cache)
+   {
+      if (cache == null)
+      {
+         throw new IllegalArgumentException("Calendar cache must not be null");
+      }
+      m_calendarCache = cache;
+   }
+
+   /**
+    * Retrieve the factory used to create the storage which holds field
+    * values for tasks, resources and resource assignments.
+    *
+    * @return field storage factory
+    */
+   public FieldStorageFactory getFieldStorageFactory()
+   {
+      return m_fieldStorageFactory;
+   }
+
+   /**
+    * Set the factory used to create the storage which holds field values
+    * for tasks, resources and resource assignments. This only affects
+    * entities created after the factory has been set. For example
+    * CompactFieldStorage.FACTORY can be used to reduce the memory used
+    * by large projects, at the cost of slower access to field values.
+    * The MPPReader and MSPDIReader classes allow the factory to be
+    * selected for projects they read.
+    *
+    * @param factory field storage factory
+    */
+   public void setFieldStorageFactory(FieldStorageFactory factory)
+   {
+      if (factory == null)
+      {
+         throw new IllegalArgumentException("Field storage factory must not be null");
+      }
+      m_fieldStorageFactory = factory;
+   }
+
    /**
     * This method is called to ensure that after a project file has been
     * read, the cached unique ID values used to generate new unique IDs
@@ -448,4 +508,13 @@ public class ProjectConfig
     */
    private int m_resourceID;
 
+   /**
+    * Cache shared by all calendars in this project.
+    */
+   private volatile ProjectCalendarCache m_calendarCache = new LruProjectCalendarCache();
+
+   /**
+    * Factory used to create field storage for tasks, resources and assignments.
+    */
+   private FieldStorageFactory m_fieldStorageFactory = ArrayFieldStorage.FACTORY;
 }
@@ -23,9 +23,7 @@
 
 package net.sf.mpxj;
 
-import java.util.HashMap;
-import java.util.Map;
-
+import net.sf.mpxj.common.IntObjectMap;
 import net.sf.mpxj.common.NumberHelper;
 
 /**
@@ -93,6 +91,17 @@ public abstract class ProjectEntityContainer<T extends ProjectEntityWithUniqueID
     * @return entity instance or null
     */
    public T getByUniqueID(Integer id)
+   {
+      return id == null ? null : m_uniqueIDMap.get(id.intValue());
+   }
+
+   /**
+    * Retrieve an entity by its Unique ID.
+    *
+    * @param id entity Unique ID
+    * @return entity instance or null
+    */
+   public T getByUniqueID(int id)
    {
       return m_uniqueIDMap.get(id);
    }
@@ -104,7 +113,10 @@ public abstract class ProjectEntityContainer<T extends ProjectEntityWithUniqueID
     */
    public void unmapUniqueID(Integer id)
    {
-      m_uniqueIDMap.remove(id);
+      if (id != null)
+      {
+         m_uniqueIDMap.remove(id.intValue());
+      }
    }
 
    /**
@@ -115,11 +127,14 @@ public abstract class ProjectEntityContainer<T extends ProjectEntityWithUniqueID
     */
    public void mapUniqueID(Integer id, T entity)
    {
-      m_uniqueIDMap.put(id, entity);
+      if (id != null)
+      {
+         m_uniqueIDMap.put(id.intValue(), entity);
+      }
    }
 
    protected final ProjectFile m_projectFile;
-   protected Map<Integer, T> m_uniqueIDMap = new HashMap<Integer, T>();
+   protected IntObjectMap<T> m_uniqueIDMap = new IntObjectMap<T>();
 
    /**
     * Maximum unique ID value MS Project will accept.
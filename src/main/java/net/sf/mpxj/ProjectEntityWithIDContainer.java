@@ -24,9 +24,8 @@
 package net.sf.mpxj;
 
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
 
+import net.sf.mpxj.common.IntObjectMap;
 import net.sf.mpxj.common.NumberHelper;
 
 /**
@@ -80,6 +79,17 @@ public abstract class ProjectEntityWithIDContainer<T extends ProjectEntityWithID
     * @return entity instance or null
     */
    public T getByID(Integer id)
+   {
+      return id == null ? null : m_idMap.get(id.intValue());
+   }
+
+   /**
+    * Retrieve an entity by its ID.
+    *
+    * @param id entity ID
+    * @return entity instance or null
+    */
+   public T getByID(int id)
    {
       return m_idMap.get(id);
    }
@@ -91,7 +101,10 @@ public abstract class ProjectEntityWithIDContainer<T extends ProjectEntityWithID
     */
    public void unmapID(Integer id)
    {
-      m_idMap.remove(id);
+      if (id != null)
+      {
+         m_idMap.remove(id.intValue());
+      }
    }
 
    /**
@@ -102,8 +115,11 @@ public abstract class ProjectEntityWithIDContainer<T extends ProjectEntityWithID
     */
    public void mapID(Integer id, T entity)
    {
-      m_idMap.put(id, entity);
+      if (id != null)
+      {
+         m_idMap.put(id.intValue(), entity);
+      }
    }
 
-   protected Map<Integer, T> m_idMap = new HashMap<Integer, T>();
+   protected IntObjectMap<T> m_idMap = new IntObjectMap<T>();
 }
@@ -24,8 +24,10 @@
 package net.sf.mpxj;
 
 import java.util.Date;
+import java.util.EnumSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 import net.sf.mpxj.common.NumberHelper;
 
@@ -321,6 +323,19 @@ public final class ProjectFile implements ChildTaskContainer
       return m_calendars.getByUniqueID(calendarID);
    }
 
+   /**
+    * Retrieves the calendar referred to by the supplied unique ID
+    * value. This method will return null if the required calendar is not
+    * located.
+    *
+    * @param calendarID calendar unique ID
+    * @return ProjectCalendar instance
+    */
+   public ProjectCalendar getCalendarByUniqueID(int calendarID)
+   {
+      return m_calendars.getByUniqueID(calendarID);
+   }
+
    /**
     * This method is used to calculate the duration of work between two fixed
     * dates according to the work schedule defined in the named calendar. The
@@ -374,6 +389,18 @@ public final class ProjectFile implements ChildTaskContainer
       return m_tasks.getByID(id);
    }
 
+   /**
+    * This method allows an arbitrary task to be retrieved based
+    * on its ID field.
+    *
+    * @param id task identified
+    * @return the requested task, or null if not found
+    */
+   public Task getTaskByID(int id)
+   {
+      return m_tasks.getByID(id);
+   }
+
    /**
     * This method allows an arbitrary task to be retrieved based
     * on its UniqueID field.
@@ -386,6 +413,18 @@ public final class ProjectFile implements ChildTaskContainer
       return m_tasks.getByUniqueID(id);
    }
 
+   /**
+    * This method allows an arbitrary task to be retrieved based
+    * on its UniqueID field.
+    *
+    * @param id task identified
+    * @return the requested task, or null if not found
+    */
+   public Task getTaskByUniqueID(int id)
+   {
+      return m_tasks.getByUniqueID(id);
+   }
+
    /**
     * This method allows an arbitrary resource to be retrieved based
     * on its ID field.
@@ -398,6 +437,18 @@ public final class ProjectFile implements ChildTaskContainer
       return m_resources.getByID(id);
    }
 
+   /**
+    * This method allows an arbitrary resource to be retrieved based
+    * on its ID field.
+    *
+    * @param id resource identified
+    * @return the requested resource, or null if not found
+    */
+   public Resource getResourceByID(int id)
+   {
+      return m_resources.getByID(id);
+   }
+
    /**
     * This method allows an arbitrary resource to be retrieved based
     * on its UniqueID field.
@@ -410,6 +461,18 @@ public final class ProjectFile implements ChildTaskContainer
       return m_resources.getByUniqueID(id);
    }
 
+   /**
+    * This method allows an arbitrary resource to be retrieved based
+    * on its UniqueID field.
+    *
+    * @param id resource identified
+    * @return the requested resource, or null if not found
+    */
+   public Resource getResourceByUniqueID(int id)
+   {
+      return m_resources.getByUniqueID(id);
+   }
+
    /**
     * This method is used to recreate the hierarchical structure of the
     * project file from scratch. The method sorts the list of all tasks,
@@ -540,6 +603,8 @@ public final class ProjectFile implements ChildTaskContainer
     */
    public ViewContainer getViews()
    {
+      loadPresentationData(PresentationDataType.VIEWS);
+      loadPresentationData(PresentationDataType.VIEW_STATE);
       return m_views;
    }
 
@@ -550,6 +615,7 @@ public final class ProjectFile implements ChildTaskContainer
     */
    public TableContainer getTables()
    {
+      loadPresentationData(PresentationDataType.TABLES);
       return m_tables;
    }
 
@@ -560,6 +626,7 @@ public final class ProjectFile implements ChildTaskContainer
     */
    public FilterContainer getFilters()
    {
+      loadPresentationData(PresentationDataType.FILTERS);
       return m_filters;
    }
 
@@ -570,9 +637,63 @@ public final class ProjectFile implements ChildTaskContainer
     */
    public GroupContainer getGroups()
    {
+      loadPresentationData(PresentationDataType.GROUPS);
       return m_groups;
    }
 
+   /**
+    * Used by readers to supply presentation data on demand. Each type of
+    * presentation data is requested from the loader the first time the
+    * corresponding container is retrieved from this project.
+    *
+    * @param loader presentation data loader
+    */
+   public void setPresentationDataLoader(PresentationDataLoader loader)
+   {
+      synchronized (m_presentationDataLock)
+      {
+         m_pendingPresentationData.clear();
+         if (loader != null)
+         {
+            m_pendingPresentationData.addAll(EnumSet.allOf(PresentationDataType.class));
+         }
+         m_presentationDataLoader = loader;
+      }
+   }
+
+   /**
+    * Ensure that presentation data of the given type has been loaded.
+    * Loading takes place at most once for each type. The loader is
+    * released once all types of presentation data have been loaded.
+    *
+    * @param type presentation data type
+    */
+   private void loadPresentationData(PresentationDataType type)
+   {
+      if (m_presentationDataLoader != null)
+      {
+         synchronized (m_presentationDataLock)
+         {
+            PresentationDataLoader loader = m_presentationDataLoader;
+            if (loader != null && m_pendingPresentationData.remove(type))
+            {
+               try
+               {
+                  loader.load(type);
+               }
+
+               finally
+               {
+                  if (m_pendingPresentationData.isEmpty())
+                  {
+                     m_presentationDataLoader = null;
+                  }
+               }
+            }
+         }
+      }
+   }
+
    /**
     * Retrieves all the subprojects for this project.
     *
@@ -622,6 +743,16 @@ public final class ProjectFile implements ChildTaskContainer
    {
       return m_dataLinks;
    }
+
+   /**
+    * Retrieves the index of relations between tasks in this project.
+    *
+    * @return relations
+    */
+   public RelationContainer getRelations()
+   {
+      return m_relations;
+   }
    
    /**
     * Retrieves the default calendar for this project based on the calendar name
@@ -695,4 +826,8 @@ public final class ProjectFile implements ChildTaskContainer
    private final CustomFieldContainer m_customFields = new CustomFieldContainer();
    private final ActivityCodeContainer m_activityCodes = new ActivityCodeContainer();
    private final DataLinkContainer m_dataLinks = new DataLinkContainer();
+   private final RelationContainer m_relations = new RelationContainer();
+   private final Object m_presentationDataLock = new Object();
+   private final Set<PresentationDataType> m_pendingPresentationData = EnumSet.noneOf(PresentationDataType.class);
+   private volatile PresentationDataLoader m_presentationDataLoader;
 }
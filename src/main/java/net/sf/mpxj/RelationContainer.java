@@ -0,0 +1,284 @@
+/*
+ * file:       RelationContainer.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+
+package net.sf.mpxj;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Provides indexed access to the relations between the tasks in a project.
+ * The predecessor and successor lists held by each task form the adjacency
+ * lists for the project's task graph. This class maintains an index
+ * keyed by the pair of tasks involved in each relation, allowing a relation
+ * between two tasks to be found without scanning these lists, and provides
+ * methods to traverse the graph. The index is updated by Task.addPredecessor
+ * and Task.removePredecessor, and when a task is removed from the project
+ * its relations with other tasks are removed.
+ */
+public final class RelationContainer
+{
+   /**
+    * Retrieve the predecessor relation linking two tasks. Where more than
+    * one relation links the two tasks, the first relation in the successor
+    * task's predecessor list is returned.
+    *
+    * @param predecessor predecessor task
+    * @param successor successor task
+    * @return Relation instance or null if the tasks are not related
+    */
+   public Relation getRelation(Task predecessor, Task successor)
+   {
+      return getPredecessor(successor, predecessor);
+   }
+
+   /**
+    * Retrieve all tasks which directly or indirectly precede the supplied task.
+    * Tasks are returned in breadth first order, nearest predecessors first.
+    *
+    * @param task start task
+    * @return set of predecessor tasks
+    */
+   public Set<Task> getAllPredecessors(Task task)
+   {
+      return traverse(task, null, true);
+   }
+
+   /**
+    * Retrieve all tasks which directly or indirectly follow the supplied task.
+    * Tasks are returned in breadth first order, nearest successors first.
+    *
+    * @param task start task
+    * @return set of successor tasks
+    */
+   public Set<Task> getAllSuccessors(Task task)
+   {
+      return traverse(task, null, false);
+   }
+
+   /**
+    * Determine if there is a chain of relations leading from the predecessor
+    * task to the successor task.
+    *
+    * @param predecessor predecessor task
+    * @param successor successor task
+    * @return true if a path exists between the two tasks
+    */
+   public boolean hasPath(Task predecessor, Task successor)
+   {
+      return traverse(predecessor, successor, false).contains(successor);
+   }
+
+   /**
+    * Retrieve the first relation in a task's predecessor list
+    * which refers to the target task.
+    *
+    * @param task task owning the predecessor list
+    * @param target target task
+    * @return Relation instance or null if not found
+    */
+   Relation getPredecessor(Task task, Task target)
+   {
+      return m_predecessors.get(new RelationKey(task, target));
+   }
+
+   /**
+    * Retrieve the first relation in a task's successor list
+    * which refers to the target task.
+    *
+    * @param task task owning the successor list
+    * @param target target task
+    * @return Relation instance or null if not found
+    */
+   Relation getSuccessor(Task task, Task target)
+   {
+      return m_successors.get(new RelationKey(task, target));
+   }
+
+   /**
+    * Update the index when a relation has been appended to
+    * a task's predecessor list.
+    *
+    * @param relation new relation
+    */
+   void addPredecessor(Relation relation)
+   {
+      add(m_predecessors, relation);
+   }
+
+   /**
+    * Update the index when a relation has been appended to
+    * a task's successor list.
+    *
+    * @param relation new relation
+    */
+   void addSuccessor(Relation relation)
+   {
+      add(m_successors, relation);
+   }
+
+   /**
+    * Update the index when a relation has been removed from
+    * a task's predecessor list.
+    *
+    * @param relation removed relation
+    */
+   void removePredecessor(Relation relation)
+   {
+      remove(m_predecessors, relation, relation.getSourceTask().getPredecessors());
+   }
+
+   /**
+    * Update the index when a relation has been removed from
+    * a task's successor list.
+    *
+    * @param relation removed relation
+    */
+   void removeSuccessor(Relation relation)
+   {
+      remove(m_successors, relation, relation.getSourceTask().getSuccessors());
+   }
+
+   /**
+    * Add a relation to an index, unless an earlier relation
+    * between the same tasks is already present.
+    *
+    * @param index target index
+    * @param relation new relation
+    */
+   private void add(Map<RelationKey, Relation> index, Relation relation)
+   {
+      RelationKey key = new RelationKey(relation.getSourceTask(), relation.getTargetTask());
+      if (!index.containsKey(key))
+      {
+         index.put(key, relation);
+      }
+   }
+
+   /**
+    * Remove a relation from an index. If the relation was indexed, the
+    * next relation between the same tasks, if any, takes its place.
+    *
+    * @param index target index
+    * @param relation removed relation
+    * @param list list from which the relation has been removed
+    */
+   private void remove(Map<RelationKey, Relation> index, Relation relation, List<Relation> list)
+   {
+      RelationKey key = new RelationKey(relation.getSourceTask(), relation.getTargetTask());
+      if (index.get(key) == relation)
+      {
+         index.remove(key);
+         for (Relation candidate : list)
+         {
+            if (candidate.getTargetTask() == relation.getTargetTask())
+            {
+               index.put(key, candidate);
+               break;
+            }
+         }
+      }
+   }
+
+   /**
+    * Breadth first traversal of the task graph.
+    *
+    * @param task start task
+    * @param target stop when this task is reached, or null to visit all reachable tasks
+    * @param predecessors true to follow predecessors, false to follow successors
+    * @return tasks visited, excluding the start task unless it is part of a loop
+    */
+   private Set<Task> traverse(Task task, Task target, boolean predecessors)
+   {
+      Set<Task> result = new LinkedHashSet<Task>();
+      Deque<Task> queue = new ArrayDeque<Task>();
+      queue.add(task);
+
+      while (!queue.isEmpty())
+      {
+         Task current = queue.removeFirst();
+         for (Relation relation : predecessors ? current.getPredecessors() : current.getSuccessors())
+         {
+            Task next = relation.getTargetTask();
+            if (result.add(next))
+            {
+               if (next == target)
+               {
+                  return result;
+               }
+               queue.addLast(next);
+            }
+         }
+      }
+
+      return result;
+   }
+
+   /**
+    * Key representing the task owning a relation list,
+    * and the task referred to by a relation in that list.
+    * Tasks are compared by identity.
+    */
+   private static final class RelationKey
+   {
+      /**
+       * Constructor.
+       *
+       * @param task task owning the relation list
+       * @param target target task
+       */
+      public RelationKey(Task task, Task target)
+      {
+         m_task = task;
+         m_target = target;
+      }
+
+      @Override public int hashCode()
+      {
+         return 31 * System.identityHashCode(m_task) + System.identityHashCode(m_target);
+      }
+
+      @Override public boolean equals(Object obj)
+      {
+         boolean result = false;
+         if (obj instanceof RelationKey)
+         {
+            RelationKey key = (RelationKey) obj;
+            result = key.m_task == m_task && key.m_target == m_target;
+         }
+         return result;
+      }
+
+      private final Task m_task;
+      private final Task m_target;
+   }
+
+   private final Map<RelationKey, Relation> m_predecessors = new HashMap<RelationKey, Relation>();
+   private final Map<RelationKey, Relation> m_successors = new HashMap<RelationKey, Relation>();
+}
@@ -48,6 +48,7 @@ public final class Resource extends ProjectEntity implements Comparable<Resource
    Resource(ProjectFile file)
    {
       super(file);
+      m_fields = file.getProjectConfig().getFieldStorageFactory().newInstance(ResourceField.class, ResourceField.MAX_VALUE);
 
       setType(ResourceType.WORK);
       ProjectConfig config = file.getProjectConfig();
@@ -2328,7 +2329,7 @@ public final class Resource extends ProjectEntity implements Comparable<Resource
     */
    @Override public Object getCachedValue(FieldType field)
    {
-      return (field == null ? null : m_array[field.getValue()]);
+      return (field == null ? null : getFieldValue(field));
    }
 
    /**
@@ -2376,7 +2377,7 @@ public final class Resource extends ProjectEntity implements Comparable<Resource
 
             default:
             {
-               result = m_array[field.getValue()];
+               result = getFieldValue(field);
                break;
             }
          }
@@ -2392,12 +2393,11 @@ public final class Resource extends ProjectEntity implements Comparable<Resource
    {
       if (field != null)
       {
-         int index = field.getValue();
          if (m_eventsEnabled)
          {
-            fireFieldChangeEvent((ResourceField) field, m_array[index], value);
+            fireFieldChangeEvent((ResourceField) field, getFieldValue(field), value);
          }
-         m_array[index] = value;
+         setFieldValue(field, value);
       }
    }
 
@@ -2439,35 +2439,35 @@ public final class Resource extends ProjectEntity implements Comparable<Resource
          case COST:
          case BASELINE_COST:
          {
-            m_array[ResourceField.COST_VARIANCE.getValue()] = null;
+            setFieldValue(ResourceField.COST_VARIANCE, null);
             break;
          }
 
          case WORK:
          case BASELINE_WORK:
          {
-            m_array[ResourceField.WORK_VARIANCE.getValue()] = null;
+            setFieldValue(ResourceField.WORK_VARIANCE, null);
             break;
          }
 
          case BCWP:
          case ACWP:
          {
-            m_array[ResourceField.CV.getValue()] = null;
-            m_array[ResourceField.SV.getValue()] = null;
+            setFieldValue(ResourceField.CV, null);
+            setFieldValue(ResourceField.SV, null);
             break;
          }
 
          case BCWS:
          {
-            m_array[ResourceField.SV.getValue()] = null;
+            setFieldValue(ResourceField.SV, null);
             break;
          }
 
          case PEAK:
          case MAX_UNITS:
          {
-            m_array[ResourceField.OVERALLOCATED.getValue()] = null;
+            setFieldValue(ResourceField.OVERALLOCATED, null);
             break;
          }
 
@@ -2523,6 +2523,41 @@ public final class Resource extends ProjectEntity implements Comparable<Resource
       set(field, (value ? Boolean.TRUE : Boolean.FALSE));
    }
 
+   /**
+    * Supply a loader which will be used to retrieve field values on demand.
+    * Values previously held by this resource for fields which the loader
+    * can supply are replaced by the loaded values. This method is intended
+    * for use by readers rather than by client code.
+    *
+    * @param loader field loader
+    */
+   public void setFieldLoader(FieldLoader loader)
+   {
+      m_fields = new LazyFieldStorage(getParentFile().getProjectConfig().getFieldStorageFactory(), ResourceField.class, ResourceField.MAX_VALUE, m_fields, loader);
+   }
+
+   /**
+    * Retrieve a field value.
+    *
+    * @param field field type
+    * @return field value
+    */
+   private Object getFieldValue(FieldType field)
+   {
+      return m_fields.get(field.getValue());
+   }
+
+   /**
+    * Store a field value.
+    *
+    * @param field field type
+    * @param value field value
+    */
+   private void setFieldValue(FieldType field, Object value)
+   {
+      m_fields.set(field.getValue(), value);
+   }
+
    /**
     * Disable events firing when fields are updated.
     */
@@ -2587,9 +2622,9 @@ public final class Resource extends ProjectEntity implements Comparable<Resource
    }
 
    /**
-    * Array of field values.
+    * Field values.
     */
-   private Object[] m_array = new Object[ResourceField.MAX_VALUE];
+   private FieldStorage m_fields;
 
    /**
     * List of all assignments for this resource.
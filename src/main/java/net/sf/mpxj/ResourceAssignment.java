@@ -51,6 +51,7 @@ public final class ResourceAssignment extends ProjectEntity implements ProjectEn
    public ResourceAssignment(ProjectFile file, Task task)
    {
       super(file);
+      m_fields = file.getProjectConfig().getFieldStorageFactory().newInstance(AssignmentField.class, AssignmentField.MAX_VALUE);
 
       if (file.getProjectConfig().getAutoAssignmentUniqueID() == true)
       {
@@ -2704,12 +2705,11 @@ public final class ResourceAssignment extends ProjectEntity implements ProjectEn
    {
       if (field != null)
       {
-         int index = field.getValue();
          if (m_eventsEnabled)
          {
-            fireFieldChangeEvent((AssignmentField) field, m_array[index], value);
+            fireFieldChangeEvent((AssignmentField) field, getFieldValue(field), value);
          }
-         m_array[index] = value;
+         setFieldValue(field, value);
       }
    }
 
@@ -2740,46 +2740,71 @@ public final class ResourceAssignment extends ProjectEntity implements ProjectEn
       //
       switch (field)
       {
+         case UNIQUE_ID:
+         {
+            // Only remap assignments which have been added to the container,
+            // temporary assignments created by writers are not indexed.
+            // Assignments are added to their task and the container together,
+            // so the task's short list is checked rather than the container.
+            ResourceAssignmentContainer container = getParentFile().getResourceAssignments();
+            boolean added;
+            if (oldValue == null)
+            {
+               added = m_task != null && m_task.getResourceAssignments().contains(this);
+            }
+            else
+            {
+               added = container.getByUniqueID((Integer) oldValue) == this;
+            }
+
+            if (added)
+            {
+               container.unmapUniqueID((Integer) oldValue);
+               container.mapUniqueID((Integer) newValue, this);
+            }
+            break;
+         }
+
          case START:
          case BASELINE_START:
          {
-            m_array[AssignmentField.START_VARIANCE.getValue()] = null;
+            setFieldValue(AssignmentField.START_VARIANCE, null);
             break;
          }
 
          case FINISH:
          case BASELINE_FINISH:
          {
-            m_array[AssignmentField.FINISH_VARIANCE.getValue()] = null;
+            setFieldValue(AssignmentField.FINISH_VARIANCE, null);
             break;
          }
 
          case BCWP:
          case ACWP:
          {
-            m_array[AssignmentField.CV.getValue()] = null;
-            m_array[AssignmentField.SV.getValue()] = null;
+            setFieldValue(AssignmentField.CV, null);
+            setFieldValue(AssignmentField.SV, null);
             break;
          }
 
          case COST:
          case BASELINE_COST:
          {
-            m_array[AssignmentField.COST_VARIANCE.getValue()] = null;
+            setFieldValue(AssignmentField.COST_VARIANCE, null);
             break;
          }
 
          case WORK:
          case BASELINE_WORK:
          {
-            m_array[AssignmentField.WORK_VARIANCE.getValue()] = null;
+            setFieldValue(AssignmentField.WORK_VARIANCE, null);
             break;
          }
 
          case ACTUAL_OVERTIME_COST:
          case REMAINING_OVERTIME_COST:
          {
-            m_array[AssignmentField.OVERTIME_COST.getValue()] = null;
+            setFieldValue(AssignmentField.OVERTIME_COST, null);
             break;
          }
 
@@ -2829,7 +2854,7 @@ public final class ResourceAssignment extends ProjectEntity implements ProjectEn
     */
    @Override public Object getCachedValue(FieldType field)
    {
-      return (field == null ? null : m_array[field.getValue()]);
+      return (field == null ? null : getFieldValue(field));
    }
 
    /**
@@ -2841,14 +2866,47 @@ public final class ResourceAssignment extends ProjectEntity implements ProjectEn
 
       if (field != null)
       {
-         int fieldValue = field.getValue();
-
-         result = m_array[fieldValue];
+         result = getFieldValue(field);
       }
 
       return (result);
    }
 
+   /**
+    * Supply a loader which will be used to retrieve field values on demand.
+    * Values previously held by this assignment for fields which the loader
+    * can supply are replaced by the loaded values. This method is intended
+    * for use by readers rather than by client code.
+    *
+    * @param loader field loader
+    */
+   public void setFieldLoader(FieldLoader loader)
+   {
+      m_fields = new LazyFieldStorage(getParentFile().getProjectConfig().getFieldStorageFactory(), AssignmentField.class, AssignmentField.MAX_VALUE, m_fields, loader);
+   }
+
+   /**
+    * Retrieve a field value.
+    *
+    * @param field field type
+    * @return field value
+    */
+   private Object getFieldValue(FieldType field)
+   {
+      return m_fields.get(field.getValue());
+   }
+
+   /**
+    * Store a field value.
+    *
+    * @param field field type
+    * @param value field value
+    */
+   private void setFieldValue(FieldType field, Object value)
+   {
+      m_fields.set(field.getValue(), value);
+   }
+
    /**
     * Disable events firing when fields are updated.
     */
@@ -2866,9 +2924,9 @@ public final class ResourceAssignment extends ProjectEntity implements ProjectEn
    }
 
    /**
-    * Array of field values.
+    * Field values.
     */
-   private Object[] m_array = new Object[AssignmentField.MAX_VALUE];
+   private FieldStorage m_fields;
 
    private boolean m_eventsEnabled = true;
 
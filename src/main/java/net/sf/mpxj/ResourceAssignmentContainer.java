@@ -38,8 +38,14 @@ public class ResourceAssignmentContainer extends ProjectEntityContainer<Resource
       super(projectFile);
    }
 
+   @Override protected void added(ResourceAssignment assignment)
+   {
+      mapUniqueID(assignment.getUniqueID(), assignment);
+   }
+
    @Override public void removed(ResourceAssignment assignment)
    {
+      unmapUniqueID(assignment.getUniqueID());
       assignment.getTask().removeResourceAssignment(assignment);
       Resource resource = assignment.getResource();
       if (resource != null)
@@ -44,8 +44,8 @@ public class ResourceContainer extends ProjectEntityWithIDContainer<Resource>
 
    @Override public void removed(Resource resource)
    {
-      m_uniqueIDMap.remove(resource.getUniqueID());
-      m_idMap.remove(resource.getID());
+      unmapUniqueID(resource.getUniqueID());
+      unmapID(resource.getID());
 
       Iterator<ResourceAssignment> iter = m_projectFile.getResourceAssignments().iterator();
       Integer resourceUniqueID = resource.getUniqueID();
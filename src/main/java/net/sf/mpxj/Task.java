@@ -50,6 +50,7 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
    Task(ProjectFile file, Task parent)
    {
       super(file);
+      m_fields = file.getProjectConfig().getFieldStorageFactory().newInstance(TaskField.class, TaskField.MAX_VALUE);
 
       setType(TaskType.FIXED_UNITS);
       setConstraintType(ConstraintType.AS_SOON_AS_POSSIBLE);
@@ -493,6 +494,9 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
          lag = Duration.getInstance(0, TimeUnit.DAYS);
       }
 
+      RelationContainer predecessorRelations = getParentFile().getRelations();
+      RelationContainer successorRelations = targetTask.getParentFile().getRelations();
+
       //
       // Retrieve the list of predecessors
       //
@@ -502,19 +506,9 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
       // Ensure that there is only one predecessor relationship between
       // these two tasks.
       //
-      Relation predecessorRelation = null;
-      Iterator<Relation> iter = predecessorList.iterator();
-      while (iter.hasNext() == true)
+      Relation predecessorRelation = predecessorRelations.getPredecessor(this, targetTask);
+      if (predecessorRelation != null && (predecessorRelation.getType() != type || predecessorRelation.getLag().compareTo(lag) != 0))
       {
-         predecessorRelation = iter.next();
-         if (predecessorRelation.getTargetTask() == targetTask)
-         {
-            if (predecessorRelation.getType() != type || predecessorRelation.getLag().compareTo(lag) != 0)
-            {
-               predecessorRelation = null;
-            }
-            break;
-         }
          predecessorRelation = null;
       }
 
@@ -525,6 +519,7 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
       {
          predecessorRelation = new Relation(this, targetTask, type, lag);
          predecessorList.add(predecessorRelation);
+         predecessorRelations.addPredecessor(predecessorRelation);
       }
 
       //
@@ -536,19 +531,9 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
       // Ensure that there is only one successor relationship between
       // these two tasks.
       //
-      Relation successorRelation = null;
-      iter = successorList.iterator();
-      while (iter.hasNext() == true)
+      Relation successorRelation = successorRelations.getSuccessor(targetTask, this);
+      if (successorRelation != null && (successorRelation.getType() != type || successorRelation.getLag().compareTo(lag) != 0))
       {
-         successorRelation = iter.next();
-         if (successorRelation.getTargetTask() == this)
-         {
-            if (successorRelation.getType() != type || successorRelation.getLag().compareTo(lag) != 0)
-            {
-               successorRelation = null;
-            }
-            break;
-         }
          successorRelation = null;
       }
 
@@ -559,6 +544,7 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
       {
          successorRelation = new Relation(targetTask, this, type, lag);
          successorList.add(successorRelation);
+         successorRelations.addSuccessor(successorRelation);
       }
 
       return (predecessorRelation);
@@ -2353,7 +2339,11 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
    }
 
    /**
-    * Retrieves the list of predecessors for this task.
+    * Retrieves the list of predecessors for this task. Relations should
+    * be added and removed using the addPredecessor and removePredecessor
+    * methods rather than by modifying this list, to ensure that the
+    * successor list of the other task and the project's RelationContainer
+    * are kept up to date.
     *
     * @return list of predecessor Relation instances
     */
@@ -2363,7 +2353,8 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
    }
 
    /**
-    * Retrieves the list of successors for this task.
+    * Retrieves the list of successors for this task. As with the
+    * predecessor list, this list should not be modified directly.
     *
     * @return list of successor Relation instances
     */
@@ -4636,7 +4627,7 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
       // Retrieve the list of predecessors
       //
       List<Relation> predecessorList = getPredecessors();
-      if (!predecessorList.isEmpty())
+      if (!predecessorList.isEmpty() && getParentFile().getRelations().getPredecessor(this, targetTask) != null)
       {
          //
          // Ensure that we have a valid lag duration
@@ -4650,7 +4641,8 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
          // Ensure that there is a predecessor relationship between
          // these two tasks, and remove it.
          //
-         matchFound = removeRelation(predecessorList, targetTask, type, lag);
+         Relation predecessorRelation = removeRelation(predecessorList, targetTask, type, lag);
+         matchFound = predecessorRelation != null;
 
          //
          // If we have removed a predecessor, then we must remove the
@@ -4658,6 +4650,8 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
          //
          if (matchFound)
          {
+            getParentFile().getRelations().removePredecessor(predecessorRelation);
+
             //
             // Retrieve the list of successors
             //
@@ -4668,7 +4662,11 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
                // Ensure that there is a successor relationship between
                // these two tasks, and remove it.
                //
-               removeRelation(successorList, this, type, lag);
+               Relation successorRelation = removeRelation(successorList, this, type, lag);
+               if (successorRelation != null)
+               {
+                  targetTask.getParentFile().getRelations().removeSuccessor(successorRelation);
+               }
             }
          }
       }
@@ -4683,23 +4681,26 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
     * @param targetTask target relationship task
     * @param type target relationship type
     * @param lag target relationship lag
-    * @return true if a relationship was removed
+    * @return the relation removed, or null if no relation was removed
     */
-   private boolean removeRelation(List<Relation> relationList, Task targetTask, RelationType type, Duration lag)
+   private Relation removeRelation(List<Relation> relationList, Task targetTask, RelationType type, Duration lag)
    {
-      boolean matchFound = false;
+      Relation result = null;
       for (Relation relation : relationList)
       {
          if (relation.getTargetTask() == targetTask)
          {
             if (relation.getType() == type && relation.getLag().compareTo(lag) == 0)
             {
-               matchFound = relationList.remove(relation);
+               if (relationList.remove(relation))
+               {
+                  result = relation;
+               }
                break;
             }
          }
       }
-      return matchFound;
+      return result;
    }
 
    /**
@@ -4723,7 +4724,7 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
     */
    @Override public Object getCachedValue(FieldType field)
    {
-      return (field == null ? null : m_array[field.getValue()]);
+      return (field == null ? null : getFieldValue(field));
    }
 
    /**
@@ -4817,7 +4818,7 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
 
             default:
             {
-               result = m_array[field.getValue()];
+               result = getFieldValue(field);
                break;
             }
          }
@@ -4833,12 +4834,11 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
    {
       if (field != null)
       {
-         int index = field.getValue();
          if (m_eventsEnabled)
          {
-            fireFieldChangeEvent((TaskField) field, m_array[index], value);
+            fireFieldChangeEvent((TaskField) field, getFieldValue(field), value);
          }
-         m_array[index] = value;
+         setFieldValue(field, value);
       }
    }
 
@@ -4872,88 +4872,88 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
          case START:
          case BASELINE_START:
          {
-            m_array[TaskField.START_VARIANCE.getValue()] = null;
+            setFieldValue(TaskField.START_VARIANCE, null);
             break;
          }
 
          case FINISH:
          case BASELINE_FINISH:
          {
-            m_array[TaskField.FINISH_VARIANCE.getValue()] = null;
+            setFieldValue(TaskField.FINISH_VARIANCE, null);
             break;
          }
 
          case COST:
          case BASELINE_COST:
          {
-            m_array[TaskField.COST_VARIANCE.getValue()] = null;
+            setFieldValue(TaskField.COST_VARIANCE, null);
             break;
          }
 
          case DURATION:
          {
-            m_array[TaskField.DURATION_VARIANCE.getValue()] = null;
-            m_array[TaskField.COMPLETE_THROUGH.getValue()] = null;
+            setFieldValue(TaskField.DURATION_VARIANCE, null);
+            setFieldValue(TaskField.COMPLETE_THROUGH, null);
             break;
          }
 
          case BASELINE_DURATION:
          {
-            m_array[TaskField.DURATION_VARIANCE.getValue()] = null;
+            setFieldValue(TaskField.DURATION_VARIANCE, null);
             break;
          }
 
          case WORK:
          case BASELINE_WORK:
          {
-            m_array[TaskField.WORK_VARIANCE.getValue()] = null;
+            setFieldValue(TaskField.WORK_VARIANCE, null);
             break;
          }
 
          case BCWP:
          case ACWP:
          {
-            m_array[TaskField.CV.getValue()] = null;
-            m_array[TaskField.SV.getValue()] = null;
+            setFieldValue(TaskField.CV, null);
+            setFieldValue(TaskField.SV, null);
             break;
          }
 
          case BCWS:
          {
-            m_array[TaskField.SV.getValue()] = null;
+            setFieldValue(TaskField.SV, null);
             break;
          }
 
          case START_SLACK:
          case FINISH_SLACK:
          {
-            m_array[TaskField.TOTAL_SLACK.getValue()] = null;
-            m_array[TaskField.CRITICAL.getValue()] = null;
+            setFieldValue(TaskField.TOTAL_SLACK, null);
+            setFieldValue(TaskField.CRITICAL, null);
             break;
          }
 
          case EARLY_FINISH:
          case LATE_FINISH:
          {
-            m_array[TaskField.FINISH_SLACK.getValue()] = null;
-            m_array[TaskField.TOTAL_SLACK.getValue()] = null;
-            m_array[TaskField.CRITICAL.getValue()] = null;
+            setFieldValue(TaskField.FINISH_SLACK, null);
+            setFieldValue(TaskField.TOTAL_SLACK, null);
+            setFieldValue(TaskField.CRITICAL, null);
             break;
          }
 
          case EARLY_START:
          case LATE_START:
          {
-            m_array[TaskField.START_SLACK.getValue()] = null;
-            m_array[TaskField.TOTAL_SLACK.getValue()] = null;
-            m_array[TaskField.CRITICAL.getValue()] = null;
+            setFieldValue(TaskField.START_SLACK, null);
+            setFieldValue(TaskField.TOTAL_SLACK, null);
+            setFieldValue(TaskField.CRITICAL, null);
             break;
          }
 
          case ACTUAL_START:
          case PERCENT_COMPLETE:
          {
-            m_array[TaskField.COMPLETE_THROUGH.getValue()] = null;
+            setFieldValue(TaskField.COMPLETE_THROUGH, null);
             break;
          }
 
@@ -5019,26 +5019,30 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
 
    /**
     * Utility method used to determine if the supplied task
-    * is a predecessor of the current task.
+    * is a predecessor of the current task. Tasks are matched by
+    * identity rather than by unique ID, so a task from a different
+    * project which happens to share a unique ID with a predecessor
+    * of this task is not treated as a predecessor.
     *
     * @param task potential predecessor task
     * @return Boolean flag
     */
    public boolean isPredecessor(Task task)
    {
-      return isRelated(task, getPredecessors());
+      return getParentFile().getRelations().getPredecessor(this, task) != null;
    }
 
    /**
     * Utility method used to determine if the supplied task
-    * is a successor of the current task.
+    * is a successor of the current task. As with isPredecessor,
+    * tasks are matched by identity rather than by unique ID.
     *
     * @param task potential successor task
     * @return Boolean flag
     */
    public boolean isSucessor(Task task)
    {
-      return isRelated(task, getSuccessors());
+      return getParentFile().getRelations().getSuccessor(this, task) != null;
    }
 
    /**
@@ -5052,25 +5056,38 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
    }
    
    /**
-    * Internal method used to test for the existence of a relationship
-    * with a task.
+    * Supply a loader which will be used to retrieve field values on demand.
+    * Values previously held by this task for fields which the loader
+    * can supply are replaced by the loaded values. This method is intended
+    * for use by readers rather than by client code.
     *
-    * @param task target task
-    * @param list list of relationships
-    * @return boolean flag
+    * @param loader field loader
     */
-   private boolean isRelated(Task task, List<Relation> list)
+   public void setFieldLoader(FieldLoader loader)
    {
-      boolean result = false;
-      for (Relation relation : list)
-      {
-         if (relation.getTargetTask().getUniqueID().intValue() == task.getUniqueID().intValue())
-         {
-            result = true;
-            break;
-         }
-      }
-      return result;
+      m_fields = new LazyFieldStorage(getParentFile().getProjectConfig().getFieldStorageFactory(), TaskField.class, TaskField.MAX_VALUE, m_fields, loader);
+   }
+
+   /**
+    * Retrieve a field value.
+    *
+    * @param field field type
+    * @return field value
+    */
+   private Object getFieldValue(FieldType field)
+   {
+      return m_fields.get(field.getValue());
+   }
+
+   /**
+    * Store a field value.
+    *
+    * @param field field type
+    * @param value field value
+    */
+   private void setFieldValue(FieldType field, Object value)
+   {
+      m_fields.set(field.getValue(), value);
    }
 
    /**
@@ -5090,9 +5107,9 @@ public final class Task extends ProjectEntity implements Comparable<Task>, Proje
    }
 
    /**
-    * Array of field values.
+    * Field values.
     */
-   private Object[] m_array = new Object[TaskField.MAX_VALUE];
+   private FieldStorage m_fields;
 
    /**
     * This is a reference to the parent task, as specified by the
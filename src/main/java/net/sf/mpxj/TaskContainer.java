@@ -23,6 +23,7 @@
 
 package net.sf.mpxj;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -65,8 +66,8 @@ public class TaskContainer extends ProjectEntityWithIDContainer<Task>
       //
       // Remove the task from the file and its parent task
       //
-      m_uniqueIDMap.remove(task.getUniqueID());
-      m_idMap.remove(task.getID());
+      unmapUniqueID(task.getUniqueID());
+      unmapID(task.getID());
 
       Task parentTask = task.getParentTask();
       if (parentTask != null)
@@ -78,6 +79,19 @@ public class TaskContainer extends ProjectEntityWithIDContainer<Task>
          m_projectFile.getChildTasks().remove(task);
       }
 
+      //
+      // Remove all relations between this task and other tasks
+      //
+      for (Relation relation : new ArrayList<Relation>(task.getPredecessors()))
+      {
+         task.removePredecessor(relation.getTargetTask(), relation.getType(), relation.getLag());
+      }
+
+      for (Relation relation : new ArrayList<Relation>(task.getSuccessors()))
+      {
+         relation.getTargetTask().removePredecessor(task, relation.getType(), relation.getLag());
+      }
+
       //
       // Remove all resource assignments
       //
@@ -123,7 +137,7 @@ public class TaskContainer extends ProjectEntityWithIDContainer<Task>
    {
       clear();
 
-      int currentID = (getByID(Integer.valueOf(0)) == null ? 1 : 0);
+      int currentID = (getByID(0) == null ? 1 : 0);
       for (Task task : m_projectFile.getChildTasks())
       {
          task.setID(Integer.valueOf(currentID++));
@@ -235,7 +249,7 @@ public class TaskContainer extends ProjectEntityWithIDContainer<Task>
 
    @Override protected int firstUniqueID()
    {
-      Task firstEntity = getByID(Integer.valueOf(0));
+      Task firstEntity = getByID(0);
       return firstEntity == null ? 1 : 0;
    }
 }
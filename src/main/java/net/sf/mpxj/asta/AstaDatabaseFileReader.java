@@ -136,6 +136,29 @@ public final class AstaDatabaseFileReader implements ProjectReader
       }
    }
 
+   /**
+    * Read a project from an open connection to a SQLite-based Asta PP database.
+    * The connection is not closed by this method.
+    *
+    * @param connection database connection
+    * @return ProjectFile instance
+    * @throws MPXJException
+    */
+   public ProjectFile read(Connection connection) throws MPXJException
+   {
+      try
+      {
+         m_connection = connection;
+         m_projectID = Integer.valueOf(0);
+         return read();
+      }
+
+      finally
+      {
+         m_connection = null;
+      }
+   }
+
    /**
     * Read a project from the current data source.
     *
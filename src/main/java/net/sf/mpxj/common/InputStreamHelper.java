@@ -23,10 +23,12 @@
 
 package net.sf.mpxj.common;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipException;
 import java.util.zip.ZipInputStream;
@@ -51,16 +53,7 @@ public class InputStreamHelper
       {
          File file = File.createTempFile("mpxj", tempFileSuffix);
          outputStream = new FileOutputStream(file);
-         byte[] buffer = new byte[1024];
-         while (true)
-         {
-            int bytesRead = inputStream.read(buffer);
-            if (bytesRead == -1)
-            {
-               break;
-            }
-            outputStream.write(buffer, 0, bytesRead);
-         }
+         copy(inputStream, outputStream);
          return file;
       }
 
@@ -73,6 +66,55 @@ public class InputStreamHelper
       }
    }
 
+   /**
+    * Copy all of the data from an InputStream to an OutputStream.
+    *
+    * @param inputStream data source
+    * @param outputStream data destination
+    * @return number of bytes copied
+    */
+   public static long copy(InputStream inputStream, OutputStream outputStream) throws IOException
+   {
+      return copy(inputStream, outputStream, Long.MAX_VALUE);
+   }
+
+   /**
+    * Copy the data from an InputStream to an OutputStream, stopping
+    * once more than limit bytes have been copied. If the number of bytes
+    * returned is greater than the limit, the InputStream has not been
+    * read to the end.
+    *
+    * @param inputStream data source
+    * @param outputStream data destination
+    * @param limit maximum number of bytes to copy
+    * @return number of bytes copied
+    */
+   public static long copy(InputStream inputStream, OutputStream outputStream, long limit) throws IOException
+   {
+      byte[] buffer = new byte[BUFFER_SIZE];
+      long count = 0;
+      int bytesRead;
+      while (count <= limit && (bytesRead = inputStream.read(buffer)) != -1)
+      {
+         outputStream.write(buffer, 0, bytesRead);
+         count += bytesRead;
+      }
+      return count;
+   }
+
+   /**
+    * Read all of the data from an InputStream.
+    *
+    * @param inputStream data source
+    * @return data read from the stream
+    */
+   public static byte[] read(InputStream inputStream) throws IOException
+   {
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      copy(inputStream, outputStream);
+      return outputStream.toByteArray();
+   }
+
    /**
     * Expands a zip file input stream into a temporary directory.
     *
@@ -137,13 +179,10 @@ public class InputStreamHelper
          }
 
          FileOutputStream fos = new FileOutputStream(file);
-         byte[] bytes = new byte[1024];
-         int length;
-         while ((length = zip.read(bytes)) >= 0)
-         {
-            fos.write(bytes, 0, length);
-         }
+         copy(zip, fos);
          fos.close();
       }
    }
+
+   private static final int BUFFER_SIZE = 8192;
 }
@@ -0,0 +1,246 @@
+/*
+ * file:       IntIntMap.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.common;
+
+import java.util.Arrays;
+
+/**
+ * A map of int keys to int values. Entries are held in a pair of parallel
+ * arrays using open addressing with linear probing, which avoids the
+ * boxed keys and per entry objects required by the collections framework.
+ * This class is intended to be used to build compact indexes, and is not
+ * thread safe.
+ */
+public final class IntIntMap
+{
+   /**
+    * Constructor.
+    */
+   public IntIntMap()
+   {
+      this(DEFAULT_EXPECTED_SIZE);
+   }
+
+   /**
+    * Constructor.
+    *
+    * @param expectedSize number of entries the map is expected to hold
+    */
+   public IntIntMap(int expectedSize)
+   {
+      int capacity = MIN_CAPACITY;
+      while (capacity * LOAD_FACTOR_MULTIPLIER < expectedSize * LOAD_FACTOR_DIVISOR)
+      {
+         capacity <<= 1;
+      }
+      allocate(capacity);
+   }
+
+   /**
+    * Add an entry to the map, replacing any existing value for this key.
+    *
+    * @param key key
+    * @param value value
+    */
+   public void put(int key, int value)
+   {
+      if (key == EMPTY)
+      {
+         if (!m_containsEmptyKey)
+         {
+            m_containsEmptyKey = true;
+            ++m_size;
+         }
+         m_emptyKeyValue = value;
+         return;
+      }
+
+      int slot = findSlot(key);
+      if (m_keys[slot] == EMPTY)
+      {
+         m_keys[slot] = key;
+         ++m_size;
+         ++m_used;
+         m_values[slot] = value;
+         if (m_used > m_threshold)
+         {
+            allocate(m_keys.length << 1);
+         }
+      }
+      else
+      {
+         m_values[slot] = value;
+      }
+   }
+
+   /**
+    * Retrieve the value associated with a key.
+    *
+    * @param key key
+    * @param defaultValue value returned if the key is not present
+    * @return value associated with the key, or the default value
+    */
+   public int get(int key, int defaultValue)
+   {
+      int result;
+      if (key == EMPTY)
+      {
+         result = m_containsEmptyKey ? m_emptyKeyValue : defaultValue;
+      }
+      else
+      {
+         int slot = findSlot(key);
+         result = m_keys[slot] == EMPTY ? defaultValue : m_values[slot];
+      }
+      return result;
+   }
+
+   /**
+    * Determine if the map contains the given key.
+    *
+    * @param key key
+    * @return true if the key is present
+    */
+   public boolean containsKey(int key)
+   {
+      return key == EMPTY ? m_containsEmptyKey : m_keys[findSlot(key)] != EMPTY;
+   }
+
+   /**
+    * Retrieve the number of entries in the map.
+    *
+    * @return number of entries
+    */
+   public int size()
+   {
+      return m_size;
+   }
+
+   /**
+    * Retrieve the keys present in the map, in ascending order.
+    *
+    * @return array of keys
+    */
+   public int[] keys()
+   {
+      int[] result = new int[m_size];
+      int index = 0;
+      if (m_containsEmptyKey)
+      {
+         result[index++] = EMPTY;
+      }
+
+      for (int key : m_keys)
+      {
+         if (key != EMPTY)
+         {
+            result[index++] = key;
+         }
+      }
+
+      Arrays.sort(result);
+      return result;
+   }
+
+   @Override public String toString()
+   {
+      return "[IntIntMap size=" + m_size + "]";
+   }
+
+   /**
+    * Locate the slot which either holds the given key, or which
+    * is the empty slot into which the key should be placed.
+    *
+    * @param key key
+    * @return slot index
+    */
+   private int findSlot(int key)
+   {
+      int mask = m_keys.length - 1;
+      int slot = hash(key) & mask;
+      while (m_keys[slot] != EMPTY && m_keys[slot] != key)
+      {
+         slot = (slot + 1) & mask;
+      }
+      return slot;
+   }
+
+   /**
+    * Allocate storage with the given capacity, and copy any
+    * existing entries into it.
+    *
+    * @param capacity new capacity, must be a power of two
+    */
+   private void allocate(int capacity)
+   {
+      int[] oldKeys = m_keys;
+      int[] oldValues = m_values;
+
+      m_keys = new int[capacity];
+      m_values = new int[capacity];
+      m_threshold = (capacity * LOAD_FACTOR_MULTIPLIER) / LOAD_FACTOR_DIVISOR;
+      Arrays.fill(m_keys, EMPTY);
+
+      if (oldKeys != null)
+      {
+         for (int index = 0; index < oldKeys.length; index++)
+         {
+            int key = oldKeys[index];
+            if (key != EMPTY)
+            {
+               int slot = findSlot(key);
+               m_keys[slot] = key;
+               m_values[slot] = oldValues[index];
+            }
+         }
+      }
+   }
+
+   /**
+    * Spread the bits of the key to reduce clustering when
+    * keys are sequential or share a common stride.
+    *
+    * @param key key
+    * @return hash value
+    */
+   private static int hash(int key)
+   {
+      int result = key * 0x9E3779B9;
+      return result ^ (result >>> 16);
+   }
+
+   private int[] m_keys;
+   private int[] m_values;
+   private int m_size;
+   private int m_used;
+   private int m_threshold;
+   private boolean m_containsEmptyKey;
+   private int m_emptyKeyValue;
+
+   private static final int EMPTY = Integer.MIN_VALUE;
+   private static final int MIN_CAPACITY = 8;
+   private static final int DEFAULT_EXPECTED_SIZE = 16;
+   private static final int LOAD_FACTOR_MULTIPLIER = 3;
+   private static final int LOAD_FACTOR_DIVISOR = 4;
+}
@@ -0,0 +1,266 @@
+/*
+ * file:       IntObjectMap.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+
+package net.sf.mpxj.common;
+
+/**
+ * A map of int keys to object values. Entries are held in a pair of parallel
+ * arrays using open addressing with linear probing, which avoids the
+ * boxed keys and per entry objects required by the collections framework.
+ * A slot is empty when its value is null, so null values are not stored:
+ * adding a null value removes any existing entry for the key.
+ * This class is not thread safe.
+ *
+ * @param <V> value type
+ */
+public final class IntObjectMap<V>
+{
+   /**
+    * Constructor.
+    */
+   public IntObjectMap()
+   {
+      this(DEFAULT_EXPECTED_SIZE);
+   }
+
+   /**
+    * Constructor.
+    *
+    * @param expectedSize number of entries the map is expected to hold
+    */
+   public IntObjectMap(int expectedSize)
+   {
+      int capacity = MIN_CAPACITY;
+      while (capacity * LOAD_FACTOR_MULTIPLIER < expectedSize * LOAD_FACTOR_DIVISOR)
+      {
+         capacity <<= 1;
+      }
+      allocate(capacity);
+   }
+
+   /**
+    * Add an entry to the map, replacing any existing value for this key.
+    *
+    * @param key key
+    * @param value value
+    * @return previous value associated with the key, or null
+    */
+   public V put(int key, V value)
+   {
+      if (value == null)
+      {
+         return remove(key);
+      }
+
+      int slot = findSlot(key);
+      V result = getValue(slot);
+      if (result == null)
+      {
+         m_keys[slot] = key;
+         ++m_size;
+      }
+      m_values[slot] = value;
+
+      if (m_size > m_threshold)
+      {
+         allocate(m_keys.length << 1);
+      }
+
+      return result;
+   }
+
+   /**
+    * Retrieve the value associated with a key.
+    *
+    * @param key key
+    * @return value associated with the key, or null
+    */
+   public V get(int key)
+   {
+      return getValue(findSlot(key));
+   }
+
+   /**
+    * Remove the entry for a key.
+    *
+    * @param key key
+    * @return value previously associated with the key, or null
+    */
+   public V remove(int key)
+   {
+      int slot = findSlot(key);
+      V result = getValue(slot);
+      if (result != null)
+      {
+         deleteSlot(slot);
+         --m_size;
+      }
+      return result;
+   }
+
+   /**
+    * Determine if the map contains the given key.
+    *
+    * @param key key
+    * @return true if the key is present
+    */
+   public boolean containsKey(int key)
+   {
+      return m_values[findSlot(key)] != null;
+   }
+
+   /**
+    * Retrieve the number of entries in the map.
+    *
+    * @return number of entries
+    */
+   public int size()
+   {
+      return m_size;
+   }
+
+   /**
+    * Remove all entries from the map.
+    */
+   public void clear()
+   {
+      m_keys = null;
+      m_values = null;
+      allocate(MIN_CAPACITY);
+      m_size = 0;
+   }
+
+   @Override public String toString()
+   {
+      return "[IntObjectMap size=" + m_size + "]";
+   }
+
+   /**
+    * Locate the slot which either holds the given key, or which
+    * is the empty slot into which the key should be placed.
+    *
+    * @param key key
+    * @return slot index
+    */
+   private int findSlot(int key)
+   {
+      int mask = m_keys.length - 1;
+      int slot = hash(key) & mask;
+      while (m_values[slot] != null && m_keys[slot] != key)
+      {
+         slot = (slot + 1) & mask;
+      }
+      return slot;
+   }
+
+   /**
+    * Empty a slot, moving any following entries in the same probe
+    * sequence back to ensure that they can still be found.
+    *
+    * @param slot slot index
+    */
+   private void deleteSlot(int slot)
+   {
+      int mask = m_keys.length - 1;
+      int gap = slot;
+      int next = (gap + 1) & mask;
+      while (m_values[next] != null)
+      {
+         int home = hash(m_keys[next]) & mask;
+         // move the entry if its home slot does not lie in the range (gap, next]
+         if (((next - home) & mask) >= ((next - gap) & mask))
+         {
+            m_keys[gap] = m_keys[next];
+            m_values[gap] = m_values[next];
+            gap = next;
+         }
+         next = (next + 1) & mask;
+      }
+      m_values[gap] = null;
+   }
+
+   /**
+    * Allocate storage with the given capacity, and copy any
+    * existing entries into it.
+    *
+    * @param capacity new capacity, must be a power of two
+    */
+   private void allocate(int capacity)
+   {
+      int[] oldKeys = m_keys;
+      Object[] oldValues = m_values;
+
+      m_keys = new int[capacity];
+      m_values = new Object[capacity];
+      m_threshold = (capacity * LOAD_FACTOR_MULTIPLIER) / LOAD_FACTOR_DIVISOR;
+
+      if (oldValues != null)
+      {
+         for (int index = 0; index < oldValues.length; index++)
+         {
+            Object value = oldValues[index];
+            if (value != null)
+            {
+               int slot = findSlot(oldKeys[index]);
+               m_keys[slot] = oldKeys[index];
+               m_values[slot] = value;
+            }
+         }
+      }
+   }
+
+   /**
+    * Retrieve the value held in a slot.
+    *
+    * @param slot slot index
+    * @return value, or null if the slot is empty
+    */
+   @SuppressWarnings("unchecked") private V getValue(int slot)
+   {
+      return (V) m_values[slot];
+   }
+
+   /**
+    * Spread the bits of the key to reduce clustering when
+    * keys are sequential or share a common stride.
+    *
+    * @param key key
+    * @return hash value
+    */
+   private static int hash(int key)
+   {
+      int result = key * 0x9E3779B9;
+      return result ^ (result >>> 16);
+   }
+
+   private int[] m_keys;
+   private Object[] m_values;
+   private int m_size;
+   private int m_threshold;
+
+   private static final int MIN_CAPACITY = 8;
+   private static final int DEFAULT_EXPECTED_SIZE = 16;
+   private static final int LOAD_FACTOR_MULTIPLIER = 3;
+   private static final int LOAD_FACTOR_DIVISOR = 4;
+}
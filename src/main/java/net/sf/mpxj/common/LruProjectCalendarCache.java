@@ -0,0 +1,199 @@
+/*
+ * file:       LruProjectCalendarCache.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.common;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.sf.mpxj.ProjectCalendarCache;
+
+/**
+ * Default ProjectCalendarCache implementation. The cache is bounded,
+ * and evicts the least recently used entries once it is full. To reduce
+ * contention between threads the cache is split into a number of
+ * independently locked segments, each of which holds an equal share
+ * of the total capacity.
+ */
+public final class LruProjectCalendarCache implements ProjectCalendarCache
+{
+   /**
+    * Constructor. Creates a cache with the default capacity.
+    */
+   public LruProjectCalendarCache()
+   {
+      this(DEFAULT_CAPACITY);
+   }
+
+   /**
+    * Constructor.
+    *
+    * @param capacity maximum number of entries held by the cache
+    */
+   public LruProjectCalendarCache(int capacity)
+   {
+      if (capacity < 1)
+      {
+         throw new IllegalArgumentException("Capacity must be greater than zero");
+      }
+
+      int segmentCount = Math.min(MAX_SEGMENTS, Integer.highestOneBit(capacity));
+      int segmentCapacity = capacity / segmentCount;
+
+      m_segments = new Segment[segmentCount];
+      for (int index = 0; index < segmentCount; index++)
+      {
+         m_segments[index] = new Segment(segmentCapacity);
+      }
+      m_capacity = capacity;
+   }
+
+   @Override public Object get(Object key)
+   {
+      Segment segment = getSegment(key);
+      Object result;
+      synchronized (segment)
+      {
+         result = segment.get(key);
+      }
+
+      if (result == null)
+      {
+         m_missCount.incrementAndGet();
+      }
+      else
+      {
+         m_hitCount.incrementAndGet();
+      }
+
+      return result;
+   }
+
+   @Override public void put(Object key, Object value)
+   {
+      Segment segment = getSegment(key);
+      synchronized (segment)
+      {
+         segment.put(key, value);
+      }
+   }
+
+   @Override public void clear()
+   {
+      for (Segment segment : m_segments)
+      {
+         synchronized (segment)
+         {
+            segment.clear();
+         }
+      }
+   }
+
+   @Override public int size()
+   {
+      int result = 0;
+      for (Segment segment : m_segments)
+      {
+         synchronized (segment)
+         {
+            result += segment.size();
+         }
+      }
+      return result;
+   }
+
+   @Override public long getHitCount()
+   {
+      return m_hitCount.get();
+   }
+
+   @Override public long getMissCount()
+   {
+      return m_missCount.get();
+   }
+
+   /**
+    * Retrieve the maximum number of entries held by this cache.
+    *
+    * @return cache capacity
+    */
+   public int getCapacity()
+   {
+      return m_capacity;
+   }
+
+   /**
+    * Select the segment responsible for a key.
+    *
+    * @param key cache key
+    * @return segment
+    */
+   private Segment getSegment(Object key)
+   {
+      int hash = key.hashCode();
+      hash ^= (hash >>> 16);
+      return m_segments[hash & (m_segments.length - 1)];
+   }
+
+   /**
+    * An individual cache segment, implemented as an access-ordered map
+    * which discards its eldest entry when full.
+    */
+   private static final class Segment extends LinkedHashMap<Object, Object>
+   {
+      /**
+       * Constructor.
+       *
+       * @param capacity maximum number of entries held by this segment
+       */
+      public Segment(int capacity)
+      {
+         super(16, 0.75f, true);
+         m_segmentCapacity = capacity;
+      }
+
+      @Override protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest)
+      {
+         return size() > m_segmentCapacity;
+      }
+
+      private final int m_segmentCapacity;
+      private static final long serialVersionUID = 1L;
+   }
+
+   private final Segment[] m_segments;
+   private final int m_capacity;
+   private final AtomicLong m_hitCount = new AtomicLong();
+   private final AtomicLong m_missCount = new AtomicLong();
+
+   /**
+    * Default maximum number of entries.
+    */
+   public static final int DEFAULT_CAPACITY = 50000;
+
+   /**
+    * Maximum number of segments, must be a power of two.
+    */
+   private static final int MAX_SEGMENTS = 16;
+}
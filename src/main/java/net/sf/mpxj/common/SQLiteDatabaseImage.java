@@ -0,0 +1,458 @@
+/*
+ * file:       SQLiteDatabaseImage.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.common;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads the schema of a SQLite database held in memory as a byte array.
+ * This allows the table names to be determined without writing the database
+ * to disk, so a database which doesn't contain a schedule can be rejected
+ * without creating a temporary file. The content of the tables is not read
+ * by this class, readers access it through the SQLite JDBC driver.
+ */
+public final class SQLiteDatabaseImage
+{
+   /**
+    * Constructor.
+    *
+    * @param data SQLite database file content
+    */
+   public SQLiteDatabaseImage(byte[] data) throws IOException
+   {
+      m_data = data;
+
+      if (data.length < 100 || !new String(data, 0, HEADER.length(), CharsetHelper.UTF8).equals(HEADER))
+      {
+         throw new IOException("Not a SQLite database");
+      }
+
+      m_pageSize = getShort(16);
+      if (m_pageSize == 1)
+      {
+         m_pageSize = 65536;
+      }
+      m_usableSize = m_pageSize - (data[20] & 0xFF);
+
+      switch (getInt(56))
+      {
+         case 2:
+         {
+            m_charset = CharsetHelper.UTF16LE;
+            break;
+         }
+
+         case 3:
+         {
+            m_charset = Charset.forName("UTF-16BE");
+            break;
+         }
+
+         default:
+         {
+            m_charset = CharsetHelper.UTF8;
+            break;
+         }
+      }
+
+      readSchema();
+   }
+
+   /**
+    * Retrieve the names of the tables and views in this database, in upper case.
+    *
+    * @return table names
+    */
+   public Set<String> getTableNames()
+   {
+      return m_tableNames;
+   }
+
+   /**
+    * Read the names of the tables and views from the schema table.
+    */
+   private void readSchema() throws IOException
+   {
+      List<Object[]> schema = new ArrayList<Object[]>();
+
+      try
+      {
+         readTablePage(1, schema, 0);
+      }
+
+      catch (RuntimeException ex)
+      {
+         throw new IOException("Invalid SQLite database", ex);
+      }
+
+      for (Object[] row : schema)
+      {
+         if (row.length < 5 || !(row[SCHEMA_TYPE] instanceof String) || !(row[SCHEMA_NAME] instanceof String))
+         {
+            throw new IOException("Invalid SQLite schema");
+         }
+
+         String type = (String) row[SCHEMA_TYPE];
+         if ("table".equals(type) || "view".equals(type))
+         {
+            m_tableNames.add(((String) row[SCHEMA_NAME]).toUpperCase());
+         }
+      }
+   }
+
+   /**
+    * Read each row in a table b-tree page, and its children.
+    *
+    * @param page page number
+    * @param rows list to which rows are added
+    * @param depth depth of this page in the tree
+    */
+   private void readTablePage(int page, List<Object[]> rows, int depth) throws IOException
+   {
+      if (depth > MAX_DEPTH)
+      {
+         throw new IOException("Invalid SQLite b-tree");
+      }
+
+      int pageOffset = getPageOffset(page);
+      int headerOffset = pageOffset + (page == 1 ? 100 : 0);
+      int pageType = m_data[headerOffset] & 0xFF;
+      int cellCount = getShort(headerOffset + 3);
+
+      switch (pageType)
+      {
+         case INTERIOR_TABLE_PAGE:
+         {
+            for (int index = 0; index < cellCount; index++)
+            {
+               int cellOffset = pageOffset + getShort(headerOffset + 12 + (index * 2));
+               readTablePage(getInt(cellOffset), rows, depth + 1);
+            }
+            readTablePage(getInt(headerOffset + 8), rows, depth + 1);
+            break;
+         }
+
+         case LEAF_TABLE_PAGE:
+         {
+            for (int index = 0; index < cellCount; index++)
+            {
+               m_offset = pageOffset + getShort(headerOffset + 8 + (index * 2));
+               long payloadSize = readVarint();
+               readVarint(); // row ID
+               rows.add(readRecord(readPayload((int) payloadSize)));
+            }
+            break;
+         }
+
+         default:
+         {
+            throw new IOException("Unexpected SQLite page type " + pageType);
+         }
+      }
+   }
+
+   /**
+    * Read the payload of a cell, starting at the current offset,
+    * following the chain of overflow pages if necessary.
+    *
+    * @param payloadSize total payload size
+    * @return payload
+    */
+   private byte[] readPayload(int payloadSize) throws IOException
+   {
+      if (payloadSize < 0 || payloadSize > m_data.length)
+      {
+         throw new IOException("Invalid SQLite payload");
+      }
+
+      int maxLocal = m_usableSize - 35;
+      int localSize;
+      if (payloadSize <= maxLocal)
+      {
+         localSize = payloadSize;
+      }
+      else
+      {
+         int minLocal = ((m_usableSize - 12) * 32 / 255) - 23;
+         localSize = minLocal + ((payloadSize - minLocal) % (m_usableSize - 4));
+         if (localSize > maxLocal)
+         {
+            localSize = minLocal;
+         }
+      }
+
+      byte[] payload = new byte[payloadSize];
+      System.arraycopy(m_data, m_offset, payload, 0, localSize);
+
+      int payloadOffset = localSize;
+      int overflowPage = payloadSize > localSize ? getInt(m_offset + localSize) : 0;
+      while (payloadOffset < payloadSize)
+      {
+         int pageOffset = getPageOffset(overflowPage);
+         int length = Math.min(payloadSize - payloadOffset, m_usableSize - 4);
+         System.arraycopy(m_data, pageOffset + 4, payload, payloadOffset, length);
+         payloadOffset += length;
+         overflowPage = getInt(pageOffset);
+      }
+
+      return payload;
+   }
+
+   /**
+    * Decode a record.
+    *
+    * @param payload record data
+    * @return column values
+    */
+   private Object[] readRecord(byte[] payload) throws IOException
+   {
+      byte[] data = m_data;
+      m_data = payload;
+
+      try
+      {
+         m_offset = 0;
+         int headerSize = (int) readVarint();
+         List<Long> types = new ArrayList<Long>();
+         while (m_offset < headerSize)
+         {
+            types.add(Long.valueOf(readVarint()));
+         }
+
+         Object[] values = new Object[types.size()];
+         int offset = headerSize;
+         for (int index = 0; index < values.length; index++)
+         {
+            long type = types.get(index).longValue();
+            int size = getValueSize(type);
+            values[index] = getValue(payload, offset, type, size);
+            offset += size;
+         }
+         return values;
+      }
+
+      finally
+      {
+         m_data = data;
+      }
+   }
+
+   /**
+    * Determine the number of bytes used to store a value.
+    *
+    * @param type serial type
+    * @return value size
+    */
+   private int getValueSize(long type) throws IOException
+   {
+      if (type >= 12)
+      {
+         return (int) ((type - 12) / 2);
+      }
+
+      if (type < 0 || type == 10 || type == 11)
+      {
+         throw new IOException("Invalid SQLite serial type " + type);
+      }
+
+      return VALUE_SIZES[(int) type];
+   }
+
+   /**
+    * Decode a value.
+    *
+    * @param payload record data
+    * @param offset value offset
+    * @param type serial type
+    * @param size value size
+    * @return value
+    */
+   private Object getValue(byte[] payload, int offset, long type, int size)
+   {
+      Object result;
+
+      if (type >= 12)
+      {
+         if ((type & 1) == 0)
+         {
+            byte[] blob = new byte[size];
+            System.arraycopy(payload, offset, blob, 0, size);
+            result = blob;
+         }
+         else
+         {
+            result = new String(payload, offset, size, m_charset);
+         }
+      }
+      else
+      {
+         switch ((int) type)
+         {
+            case 0:
+            {
+               result = null;
+               break;
+            }
+
+            case 7:
+            {
+               result = Double.valueOf(Double.longBitsToDouble(getLong(payload, offset, size)));
+               break;
+            }
+
+            case 8:
+            {
+               result = Long.valueOf(0);
+               break;
+            }
+
+            case 9:
+            {
+               result = Long.valueOf(1);
+               break;
+            }
+
+            default:
+            {
+               result = Long.valueOf(getLong(payload, offset, size));
+               break;
+            }
+         }
+      }
+
+      return result;
+   }
+
+   /**
+    * Read a variable length integer from the current offset.
+    *
+    * @return integer value
+    */
+   private long readVarint()
+   {
+      long result = 0;
+      for (int index = 0; index < 8; index++)
+      {
+         int value = m_data[m_offset++] & 0xFF;
+         result = (result << 7) | (value & 0x7F);
+         if ((value & 0x80) == 0)
+         {
+            return result;
+         }
+      }
+      return (result << 8) | (m_data[m_offset++] & 0xFF);
+   }
+
+   /**
+    * Read a signed big endian integer.
+    *
+    * @param data data
+    * @param offset offset into data
+    * @param size integer size in bytes
+    * @return integer value
+    */
+   private static long getLong(byte[] data, int offset, int size)
+   {
+      long result = data[offset];
+      for (int index = 1; index < size; index++)
+      {
+         result = (result << 8) | (data[offset + index] & 0xFF);
+      }
+      return result;
+   }
+
+   /**
+    * Retrieve the offset of a page.
+    *
+    * @param page page number
+    * @return page offset
+    */
+   private int getPageOffset(int page) throws IOException
+   {
+      long offset = (long) (page - 1) * m_pageSize;
+      if (page < 1 || offset + m_pageSize > m_data.length)
+      {
+         throw new IOException("Invalid SQLite page number " + page);
+      }
+      return (int) offset;
+   }
+
+   /**
+    * Read an unsigned big endian two byte integer.
+    *
+    * @param offset offset into data
+    * @return integer value
+    */
+   private int getShort(int offset)
+   {
+      return ((m_data[offset] & 0xFF) << 8) | (m_data[offset + 1] & 0xFF);
+   }
+
+   /**
+    * Read a big endian four byte integer.
+    *
+    * @param offset offset into data
+    * @return integer value
+    */
+   private int getInt(int offset)
+   {
+      return (int) getLong(m_data, offset, 4);
+   }
+
+   private byte[] m_data;
+   private int m_offset;
+   private int m_pageSize;
+   private final int m_usableSize;
+   private final Charset m_charset;
+   private final Set<String> m_tableNames = new HashSet<String>();
+
+   private static final String HEADER = "SQLite format 3\u0000";
+
+   private static final int INTERIOR_TABLE_PAGE = 0x05;
+   private static final int LEAF_TABLE_PAGE = 0x0D;
+   private static final int MAX_DEPTH = 64;
+
+   private static final int SCHEMA_TYPE = 0;
+   private static final int SCHEMA_NAME = 1;
+
+   private static final int[] VALUE_SIZES =
+   {
+      0,
+      1,
+      2,
+      3,
+      4,
+      6,
+      8,
+      8,
+      0,
+      0
+   };
+
+}
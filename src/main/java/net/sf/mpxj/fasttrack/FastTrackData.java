@@ -24,20 +24,30 @@
 package net.sf.mpxj.fasttrack;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import net.sf.mpxj.TimeUnit;
 import net.sf.mpxj.common.CharsetHelper;
+import net.sf.mpxj.common.InputStreamHelper;
 
 /**
  * Read tables of data from a FastTrack file.
@@ -45,53 +55,96 @@ import net.sf.mpxj.common.CharsetHelper;
 class FastTrackData
 {
    /**
-    * Read a FastTrack file.
+    * Read a FastTrack file. The file is memory mapped rather than
+    * being read into memory.
     *
     * @param file FastTrack file
     */
    public void process(File file) throws Exception
    {
-      openLogFile();
-
-      int blockIndex = 0;
-      int length = (int) file.length();
-      m_buffer = new byte[length];
-      FileInputStream is = new FileInputStream(file);
+      RandomAccessFile raf = new RandomAccessFile(file, "r");
       try
       {
-         int bytesRead = is.read(m_buffer);
-         if (bytesRead != length)
-         {
-            throw new RuntimeException("Read count different");
-         }
+         FileChannel channel = raf.getChannel();
+         process(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
       }
+
       finally
       {
-         is.close();
+         raf.close();
       }
+   }
+
+   /**
+    * Read FastTrack data from a stream.
+    *
+    * @param is input stream
+    */
+   public void process(InputStream is) throws Exception
+   {
+      process(ByteBuffer.wrap(InputStreamHelper.read(is)));
+   }
+
+   /**
+    * Set the executor used to decode column data. If an executor is
+    * supplied, the columns in each block are decoded as a separate task,
+    * otherwise all columns are decoded on the calling thread.
+    *
+    * @param executor executor, or null
+    */
+   public void setExecutor(ExecutorService executor)
+   {
+      m_executor = executor;
+   }
+
+   /**
+    * Read FastTrack data from a buffer.
+    *
+    * A single scan of the buffer locates every block boundary, table name
+    * and column. Column data is then decoded from copies of the regions of
+    * the buffer occupied by the tables we are interested in, and finally the
+    * decoded columns are added to their tables in the order they appear
+    * in the file.
+    *
+    * @param buffer FastTrack data
+    */
+   private void process(ByteBuffer buffer) throws Exception
+   {
+      openLogFile();
 
-      List<Integer> blocks = new ArrayList<Integer>();
-      for (int index = 64; index < m_buffer.length - 11; index++)
+      try
       {
-         if (matchPattern(PARENT_BLOCK_PATTERNS, index))
+         m_buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+         int[][] matches = SCANNER.scan(m_buffer, 0, m_buffer.limit());
+         m_tableMatches = matches[TABLE_BLOCK_PATTERN_INDEX];
+         m_childMatches = matches[CHILD_BLOCK_PATTERN_INDEX];
+
+         List<Block> blocks = getBlocks(matches);
+         List<Block> columnBlocks = readTableBlocks(blocks);
+         decodeColumnBlocks(columnBlocks);
+
+         for (Block block : blocks)
          {
-            blocks.add(Integer.valueOf(index));
+            logBlock(block.m_index, block.m_startIndex, block.m_length);
+            if (block.m_tableBlock)
+            {
+               m_currentTable = block.m_table;
+               m_currentFields.clear();
+            }
+            else
+            {
+               addColumns(block);
+            }
          }
       }
 
-      int startIndex = 0;
-      for (int endIndex : blocks)
+      finally
       {
-         int blockLength = endIndex - startIndex;
-         readBlock(blockIndex, startIndex, blockLength);
-         startIndex = endIndex;
-         ++blockIndex;
+         m_buffer = null;
+         m_tableMatches = null;
+         m_childMatches = null;
+         closeLogFile();
       }
-
-      int blockLength = m_buffer.length - startIndex;
-      readBlock(blockIndex, startIndex, blockLength);
-
-      closeLogFile();
    }
 
    /**
@@ -131,121 +184,253 @@ class FastTrackData
    }
 
    /**
-    * Read a block of data from the FastTrack file and determine if
-    * it contains a table definition, or columns.
+    * Split the file into blocks, using the locations of the parent
+    * block patterns.
     *
-    * @param blockIndex index of the current block
-    * @param startIndex start index of the block in the file
-    * @param blockLength block length
+    * @param matches pattern match locations
+    * @return list of blocks
     */
-   private void readBlock(int blockIndex, int startIndex, int blockLength) throws Exception
+   private List<Block> getBlocks(int[][] matches)
    {
-      logBlock(blockIndex, startIndex, blockLength);
+      int length = m_buffer.limit();
+      int count = 0;
+      for (int index = 0; index < PARENT_BLOCK_PATTERNS.length; index++)
+      {
+         count += matches[index].length;
+      }
 
-      if (blockLength < 128)
+      int[] boundaries = new int[count];
+      count = 0;
+      for (int index = 0; index < PARENT_BLOCK_PATTERNS.length; index++)
       {
-         readTableBlock(startIndex, blockLength);
+         System.arraycopy(matches[index], 0, boundaries, count, matches[index].length);
+         count += matches[index].length;
       }
-      else
+      Arrays.sort(boundaries);
+
+      List<Block> blocks = new ArrayList<Block>();
+      int startIndex = 0;
+      for (int endIndex : boundaries)
       {
-         readColumnBlock(startIndex, blockLength);
+         if (endIndex >= 64 && endIndex < length - 11)
+         {
+            blocks.add(new Block(blocks.size(), startIndex, endIndex - startIndex));
+            startIndex = endIndex;
+         }
       }
+      blocks.add(new Block(blocks.size(), startIndex, length - startIndex));
+
+      return blocks;
    }
 
    /**
-    * Read the name of a table and prepare to populate it with column data.
+    * Identify blocks which contain a table definition, and blocks which
+    * contain columns. Tables are created for each table definition we are
+    * interested in, and the columns which belong to these tables are located.
     *
-    * @param startIndex start of the block
-    * @param blockLength length of the block
+    * @param blocks list of all blocks
+    * @return list of blocks containing columns to be decoded
     */
-   private void readTableBlock(int startIndex, int blockLength)
+   private List<Block> readTableBlocks(List<Block> blocks)
    {
-      for (int index = startIndex; index < (startIndex + blockLength - 11); index++)
+      //
+      // Blocks less than 128 bytes long may contain a table definition.
+      // All columns which follow a table definition belong to that table.
+      //
+      for (Block block : blocks)
       {
-         if (matchPattern(TABLE_BLOCK_PATTERNS, index))
+         if (block.m_length < 128)
          {
-            int offset = index + 7;
-            int nameLength = FastTrackUtility.getInt(m_buffer, offset);
-            offset += 4;
-            String name = new String(m_buffer, offset, nameLength, CharsetHelper.UTF16LE).toUpperCase();
-            FastTrackTableType type = REQUIRED_TABLES.get(name);
-            if (type != null)
+            int index = findMatch(m_tableMatches, block.m_startIndex, block.m_startIndex + block.m_length - 11);
+            block.m_tableBlock = index != -1;
+            if (block.m_tableBlock)
             {
-               m_currentTable = new FastTrackTable(type, this);
-               m_tables.put(type, m_currentTable);
+               int offset = index + 7;
+               int nameLength = m_buffer.getInt(offset);
+               offset += 4;
+               String name = new String(getBytes(offset, nameLength), CharsetHelper.UTF16LE).toUpperCase();
+               FastTrackTableType type = REQUIRED_TABLES.get(name);
+               if (type != null)
+               {
+                  block.m_table = new FastTrackTable(type, this);
+                  m_tables.put(type, block.m_table);
+               }
             }
-            else
+         }
+      }
+
+      //
+      // Column data for the tables we are interested in is decoded from
+      // a copy of the region of the file occupied by the table.
+      //
+      List<Block> columnBlocks = new ArrayList<Block>();
+      FastTrackTable currentTable = null;
+      byte[] tableData = null;
+      int tableStartIndex = 0;
+
+      for (int blockIndex = 0; blockIndex < blocks.size(); blockIndex++)
+      {
+         Block block = blocks.get(blockIndex);
+         if (block.m_tableBlock)
+         {
+            currentTable = block.m_table;
+            tableData = null;
+            tableStartIndex = block.m_startIndex;
+            if (currentTable != null)
+            {
+               tableData = getBytes(tableStartIndex, getTableEndIndex(blocks, blockIndex) - tableStartIndex);
+            }
+         }
+         else
+         {
+            if (block.m_length >= 128 && currentTable != null)
             {
-               m_currentTable = null;
+               block.m_table = currentTable;
+               block.m_data = tableData;
+               block.m_dataOffset = tableStartIndex;
+               block.m_columns = getColumns(block);
+               columnBlocks.add(block);
             }
-            m_currentFields.clear();
-            break;
          }
       }
+
+      return columnBlocks;
    }
 
    /**
-    * Read multiple columns from a block.
+    * Determine where a table ends, which is either at the start of the next
+    * table definition, or at the end of the file.
     *
-    * @param startIndex start of the block
-    * @param blockLength length of the block
+    * @param blocks list of all blocks
+    * @param blockIndex index of the block containing the table definition
+    * @return end of the table
     */
-   private void readColumnBlock(int startIndex, int blockLength) throws Exception
+   private int getTableEndIndex(List<Block> blocks, int blockIndex)
    {
-      int endIndex = startIndex + blockLength;
-      List<Integer> blocks = new ArrayList<Integer>();
-      for (int index = startIndex; index < endIndex - 11; index++)
+      for (int index = blockIndex + 1; index < blocks.size(); index++)
       {
-         if (matchChildBlock(index))
+         Block block = blocks.get(index);
+         if (block.m_tableBlock)
          {
-            int childBlockStart = index - 2;
-            blocks.add(Integer.valueOf(childBlockStart));
+            return block.m_startIndex;
          }
       }
-      blocks.add(Integer.valueOf(endIndex));
+      return m_buffer.limit();
+   }
 
-      int childBlockStart = -1;
-      for (int childBlockEnd : blocks)
+   /**
+    * Locate the columns in a block.
+    *
+    * @param block block containing columns
+    * @return list of columns
+    */
+   private List<ColumnData> getColumns(Block block)
+   {
+      int endIndex = block.m_startIndex + block.m_length;
+      List<Integer> offsets = new ArrayList<Integer>();
+      int index = findMatchIndex(m_childMatches, block.m_startIndex);
+      while (index < m_childMatches.length && m_childMatches[index] < endIndex - 11)
       {
-         if (childBlockStart != -1)
+         int match = m_childMatches[index];
+         if (isChildBlock(match))
          {
-            int childblockLength = childBlockEnd - childBlockStart;
-            try
+            offsets.add(Integer.valueOf(match - 2));
+         }
+         ++index;
+      }
+      offsets.add(Integer.valueOf(endIndex));
+
+      List<ColumnData> columns = new ArrayList<ColumnData>();
+      for (int offsetIndex = 0; offsetIndex < offsets.size() - 1; offsetIndex++)
+      {
+         int startIndex = offsets.get(offsetIndex).intValue();
+         columns.add(new ColumnData(startIndex, offsets.get(offsetIndex + 1).intValue() - startIndex));
+      }
+      return columns;
+   }
+
+   /**
+    * Decode the columns in each block, concurrently if an executor has been supplied.
+    *
+    * @param blocks blocks containing columns
+    */
+   private void decodeColumnBlocks(List<Block> blocks) throws Exception
+   {
+      if (m_executor == null)
+      {
+         for (Block block : blocks)
+         {
+            block.decode();
+         }
+      }
+      else
+      {
+         List<Future<Void>> futures = new ArrayList<Future<Void>>(blocks.size());
+         for (final Block block : blocks)
+         {
+            futures.add(m_executor.submit(new Callable<Void>()
+            {
+               @Override public Void call() throws Exception
+               {
+                  block.decode();
+                  return null;
+               }
+            }));
+         }
+
+         try
+         {
+            for (Future<Void> future : futures)
             {
-               readColumn(childBlockStart, childblockLength);
+               future.get();
             }
-            catch (UnexpectedStructureException ex)
+         }
+
+         catch (ExecutionException ex)
+         {
+            Throwable cause = ex.getCause();
+            if (cause instanceof Exception)
             {
-               logUnexpectedStructure();
+               throw (Exception) cause;
+            }
+            throw (Error) cause;
+         }
+
+         finally
+         {
+            for (Future<Void> future : futures)
+            {
+               future.cancel(true);
             }
          }
-         childBlockStart = childBlockEnd;
       }
    }
 
    /**
-    * Read data for a single column.
+    * Add the decoded columns from a block to the current table.
     *
-    * @param startIndex block start
-    * @param length block length
+    * @param block block containing columns
     */
-   private void readColumn(int startIndex, int length) throws Exception
+   private void addColumns(Block block)
    {
-      if (m_currentTable != null)
+      if (block.m_columns == null)
       {
-         int value = FastTrackUtility.getByte(m_buffer, startIndex);
-         Class<?> klass = COLUMN_MAP[value];
-         if (klass == null)
-         {
-            klass = UnknownColumn.class;
-         }
+         return;
+      }
 
-         FastTrackColumn column = (FastTrackColumn) klass.newInstance();
+      for (ColumnData data : block.m_columns)
+      {
+         FastTrackColumn column = data.m_column;
          m_currentColumn = column;
 
-         logColumnData(startIndex, length);
+         logColumnData(data.m_startIndex, data.m_length);
+
+         if (data.m_unexpectedStructure)
+         {
+            logUnexpectedStructure();
+            continue;
+         }
 
-         column.read(m_currentTable.getType(), m_buffer, startIndex, length);
          FastTrackField type = column.getType();
 
          //
@@ -266,77 +451,62 @@ class FastTrackData
    }
 
    /**
-    * Locate a feature in the file by match a byte pattern.
+    * Find the first match which starts within a region.
     *
-    * @param patterns patterns to match
-    * @param bufferIndex start index
-    * @return true if the bytes at the position match a pattern
+    * @param matches sorted match offsets
+    * @param startIndex start of the region
+    * @param endIndex end of the region (exclusive)
+    * @return offset of the first match, or -1 if no match is found
     */
-   private final boolean matchPattern(byte[][] patterns, int bufferIndex)
+   private int findMatch(int[] matches, int startIndex, int endIndex)
    {
-      boolean match = false;
-      for (byte[] pattern : patterns)
-      {
-         int index = 0;
-         match = true;
-         for (byte b : pattern)
-         {
-            if (b != m_buffer[bufferIndex + index])
-            {
-               match = false;
-               break;
-            }
-            ++index;
-         }
-         if (match)
-         {
-            break;
-         }
-      }
-      return match;
+      int index = findMatchIndex(matches, startIndex);
+      return index < matches.length && matches[index] < endIndex ? matches[index] : -1;
    }
 
    /**
-    * Locate a child block by byte pattern and validate by
-    * checking the length of the string we are expecting
-    * to follow the pattern.
-    * 
-    * @param bufferIndex start index
-    * @return true if a child block starts at this point
+    * Find the index of the first match at or after the given offset.
+    *
+    * @param matches sorted match offsets
+    * @param startIndex offset
+    * @return index into the matches array
     */
-   private final boolean matchChildBlock(int bufferIndex)
+   private int findMatchIndex(int[] matches, int startIndex)
    {
-      //
-      // Match the pattern we see at the start of the child block
-      //
-      int index = 0;
-      for (byte b : CHILD_BLOCK_PATTERN)
-      {
-         if (b != m_buffer[bufferIndex + index])
-         {
-            return false;
-         }
-         ++index;
-      }
+      int index = Arrays.binarySearch(matches, startIndex);
+      return index < 0 ? -(index + 1) : index;
+   }
 
-      //
-      // The first step will produce false positives. To handle this, we should find
-      // the name of the block next, and check to ensure that the length
-      // of the name makes sense.
-      //
-      int nameLength = FastTrackUtility.getInt(m_buffer, bufferIndex + index);
-
-//      System.out.println("Name length: " + nameLength);
-//      
-//      if (nameLength > 0 && nameLength < 100)
-//      {
-//         String name = new String(m_buffer, bufferIndex+index+4, nameLength, CharsetHelper.UTF16LE);
-//         System.out.println("Name: " + name);
-//      }
-      
+   /**
+    * Validate a child block pattern match by checking the length
+    * of the name we are expecting to follow the pattern, as the
+    * pattern alone will produce false positives.
+    *
+    * @param matchIndex offset of the pattern match
+    * @return true if a child block starts at this point
+    */
+   private boolean isChildBlock(int matchIndex)
+   {
+      int nameLength = m_buffer.getInt(matchIndex + CHILD_BLOCK_PATTERN.length);
       return nameLength > 0 && nameLength < 100;
    }
 
+   /**
+    * Copy bytes from the file.
+    *
+    * @param startIndex start offset
+    * @param length number of bytes
+    * @return copied bytes
+    */
+   private byte[] getBytes(int startIndex, int length)
+   {
+      byte[] result = new byte[length];
+      ByteBuffer buffer = m_buffer.duplicate();
+      buffer.position(startIndex);
+      buffer.get(result);
+      return result;
+   }
+
    /**
     * Update the default time unit for durations based on data read from the file.
     *
@@ -440,7 +610,7 @@ class FastTrackData
          m_log.println("Block Index: " + blockIndex);
          m_log.println("Length: " + blockLength + " (" + Integer.toHexString(blockLength) + ")");
          m_log.println();
-         m_log.println(FastTrackUtility.hexdump(m_buffer, startIndex, blockLength, true, 16, ""));
+         m_log.println(FastTrackUtility.hexdump(getBytes(startIndex, blockLength), 0, blockLength, true, 16, ""));
          m_log.flush();
       }
    }
@@ -456,7 +626,7 @@ class FastTrackData
       if (m_log != null)
       {
          m_log.println();
-         m_log.println(FastTrackUtility.hexdump(m_buffer, startIndex, length, true, 16, ""));
+         m_log.println(FastTrackUtility.hexdump(getBytes(startIndex, length), 0, length, true, 16, ""));
          m_log.println();
          m_log.flush();
       }
@@ -488,7 +658,89 @@ class FastTrackData
       }
    }
 
-   private byte[] m_buffer;
+   /**
+    * A block of data from the file.
+    */
+   private static final class Block
+   {
+      /**
+       * Constructor.
+       *
+       * @param index block index
+       * @param startIndex offset of the block in the file
+       * @param length block length
+       */
+      public Block(int index, int startIndex, int length)
+      {
+         m_index = index;
+         m_startIndex = startIndex;
+         m_length = length;
+      }
+
+      /**
+       * Decode the columns in this block.
+       */
+      public void decode() throws Exception
+      {
+         for (ColumnData data : m_columns)
+         {
+            int startIndex = data.m_startIndex - m_dataOffset;
+            int value = FastTrackUtility.getByte(m_data, startIndex);
+            Class<?> klass = COLUMN_MAP[value];
+            if (klass == null)
+            {
+               klass = UnknownColumn.class;
+            }
+
+            data.m_column = (FastTrackColumn) klass.newInstance();
+            try
+            {
+               data.m_column.read(m_table.getType(), m_data, startIndex, data.m_length);
+            }
+            catch (UnexpectedStructureException ex)
+            {
+               data.m_unexpectedStructure = true;
+            }
+         }
+      }
+
+      final int m_index;
+      final int m_startIndex;
+      final int m_length;
+      boolean m_tableBlock;
+      FastTrackTable m_table;
+      byte[] m_data;
+      int m_dataOffset;
+      List<ColumnData> m_columns;
+   }
+
+   /**
+    * The location of a column in the file, and the decoded column data.
+    */
+   private static final class ColumnData
+   {
+      /**
+       * Constructor.
+       *
+       * @param startIndex offset of the column in the file
+       * @param length column length
+       */
+      public ColumnData(int startIndex, int length)
+      {
+         m_startIndex = startIndex;
+         m_length = length;
+      }
+
+      final int m_startIndex;
+      final int m_length;
+      FastTrackColumn m_column;
+      boolean m_unexpectedStructure;
+   }
+
+   private ByteBuffer m_buffer;
+   private int[] m_tableMatches;
+   private int[] m_childMatches;
+   private ExecutorService m_executor;
    private String m_logFile;
    private PrintWriter m_log;
    private final Map<FastTrackTableType, FastTrackTable> m_tables = new EnumMap<FastTrackTableType, FastTrackTable>(FastTrackTableType.class);
@@ -564,19 +816,33 @@ class FastTrackData
       0x00
    };
 
-   private static final byte[][] TABLE_BLOCK_PATTERNS =
+   private static final byte[] TABLE_BLOCK_PATTERN =
    {
-      {
-         0x00,
-         0x00,
-         0x00,
-         0x65,
-         0x00,
-         0x01,
-         0x00
-      }
+      0x00,
+      0x00,
+      0x00,
+      0x65,
+      0x00,
+      0x01,
+      0x00
    };
 
+   private static final int TABLE_BLOCK_PATTERN_INDEX = PARENT_BLOCK_PATTERNS.length;
+   private static final int CHILD_BLOCK_PATTERN_INDEX = TABLE_BLOCK_PATTERN_INDEX + 1;
+
+   /**
+    * Scanner locating parent block, table block and child block patterns.
+    */
+   private static final PatternScanner SCANNER;
+   static
+   {
+      byte[][] patterns = new byte[CHILD_BLOCK_PATTERN_INDEX + 1][];
+      System.arraycopy(PARENT_BLOCK_PATTERNS, 0, patterns, 0, PARENT_BLOCK_PATTERNS.length);
+      patterns[TABLE_BLOCK_PATTERN_INDEX] = TABLE_BLOCK_PATTERN;
+      patterns[CHILD_BLOCK_PATTERN_INDEX] = CHILD_BLOCK_PATTERN;
+      SCANNER = new PatternScanner(patterns);
+   }
+
    private static final Class<?>[] COLUMN_MAP = new Class<?>[256];
    static
    {
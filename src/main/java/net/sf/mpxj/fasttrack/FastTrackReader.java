@@ -24,7 +24,6 @@
 package net.sf.mpxj.fasttrack;
 
 import java.io.File;
-import java.io.IOException;
 import java.io.InputStream;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -32,6 +31,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -45,8 +45,6 @@ import net.sf.mpxj.RelationType;
 import net.sf.mpxj.Resource;
 import net.sf.mpxj.ResourceAssignment;
 import net.sf.mpxj.Task;
-import net.sf.mpxj.common.FileHelper;
-import net.sf.mpxj.common.InputStreamHelper;
 import net.sf.mpxj.common.NumberHelper;
 import net.sf.mpxj.listener.ProjectListener;
 import net.sf.mpxj.reader.ProjectReader;
@@ -78,6 +76,17 @@ public final class FastTrackReader implements ProjectReader
       m_projectListeners.add(listener);
    }
 
+   /**
+    * Set the executor used to decode column data. By default all
+    * column data is decoded on the calling thread.
+    *
+    * @param executor executor, or null
+    */
+   public void setExecutor(ExecutorService executor)
+   {
+      m_executor = executor;
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -91,20 +100,20 @@ public final class FastTrackReader implements ProjectReader
     */
    @Override public ProjectFile read(InputStream inputStream) throws MPXJException
    {
-      File file = null;
-
       try
       {
-         file = InputStreamHelper.writeStreamToTempFile(inputStream, ".fts");
-         return read(file);
+         m_data = new FastTrackData();
+         m_data.setExecutor(m_executor);
+         m_data.process(inputStream);
+         return read();
       }
-      catch (IOException ex)
+      catch (Exception ex)
       {
          throw new MPXJException(MPXJException.INVALID_FILE, ex);
       }
       finally
       {
-         FileHelper.deleteQuietly(file);
+         m_data = null;
       }
    }
 
@@ -116,6 +125,7 @@ public final class FastTrackReader implements ProjectReader
       try
       {
          m_data = new FastTrackData();
+         m_data.setExecutor(m_executor);
          // Uncomment this to write debug data to a log file
          // m_data.setLogFile("c:/temp/project1.txt");
          m_data.process(file);
@@ -660,6 +670,7 @@ public final class FastTrackReader implements ProjectReader
    }
 
    private FastTrackData m_data;
+   private ExecutorService m_executor;
    private ProjectFile m_project;
    private EventManager m_eventManager;
    private List<ProjectListener> m_projectListeners;
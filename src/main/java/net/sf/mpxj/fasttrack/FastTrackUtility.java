@@ -229,6 +229,7 @@ final class FastTrackUtility
       while (getShort(buffer, nextOffset) != value)
       {
          ++nextOffset;
+         validateOffset(buffer, nextOffset + 1);
       }
       nextOffset += 2;
 
@@ -0,0 +1,181 @@
+/*
+ * file:       PatternScanner.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+
+package net.sf.mpxj.fasttrack;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.LinkedList;
+
+/**
+ * Locates every occurrence of a set of byte patterns in a single pass
+ * over a buffer. The patterns are compiled into a deterministic automaton
+ * (Aho-Corasick), so the cost of a scan is proportional to the size of the
+ * buffer, regardless of the number or length of the patterns. Overlapping
+ * matches are all reported.
+ */
+final class PatternScanner
+{
+   /**
+    * Constructor.
+    *
+    * @param patterns patterns to locate, a maximum of 64 patterns is supported
+    */
+   public PatternScanner(byte[][] patterns)
+   {
+      if (patterns.length > 64)
+      {
+         throw new IllegalArgumentException("Too many patterns");
+      }
+
+      m_patternLengths = new int[patterns.length];
+
+      int maxStates = 1;
+      for (byte[] pattern : patterns)
+      {
+         maxStates += pattern.length;
+      }
+
+      int[] transitions = new int[maxStates * 256];
+      long[] output = new long[maxStates];
+      Arrays.fill(transitions, -1);
+
+      //
+      // Build a trie from the patterns
+      //
+      int stateCount = 1;
+      for (int patternIndex = 0; patternIndex < patterns.length; patternIndex++)
+      {
+         byte[] pattern = patterns[patternIndex];
+         m_patternLengths[patternIndex] = pattern.length;
+
+         int state = 0;
+         for (byte b : pattern)
+         {
+            int index = state * 256 + (b & 0xFF);
+            if (transitions[index] == -1)
+            {
+               transitions[index] = stateCount++;
+            }
+            state = transitions[index];
+         }
+         output[state] |= (1L << patternIndex);
+      }
+
+      //
+      // Add failure transitions, breadth first, so that each state
+      // has a transition for every possible byte value
+      //
+      int[] failure = new int[stateCount];
+      LinkedList<Integer> queue = new LinkedList<Integer>();
+      for (int value = 0; value < 256; value++)
+      {
+         int next = transitions[value];
+         if (next == -1)
+         {
+            transitions[value] = 0;
+         }
+         else
+         {
+            failure[next] = 0;
+            queue.add(Integer.valueOf(next));
+         }
+      }
+
+      while (!queue.isEmpty())
+      {
+         int state = queue.removeFirst().intValue();
+         for (int value = 0; value < 256; value++)
+         {
+            int index = state * 256 + value;
+            int next = transitions[index];
+            int fallback = transitions[failure[state] * 256 + value];
+            if (next == -1)
+            {
+               transitions[index] = fallback;
+            }
+            else
+            {
+               failure[next] = fallback;
+               output[next] |= output[fallback];
+               queue.add(Integer.valueOf(next));
+            }
+         }
+      }
+
+      m_transitions = Arrays.copyOf(transitions, stateCount * 256);
+      m_output = Arrays.copyOf(output, stateCount);
+   }
+
+   /**
+    * Scan a region of a buffer. For each pattern an array is returned
+    * containing the offsets at which the pattern starts, in ascending
+    * order. Only matches which lie entirely within the region are reported.
+    *
+    * @param buffer buffer to scan
+    * @param startIndex offset of the start of the region
+    * @param endIndex offset of the end of the region (exclusive)
+    * @return match offsets for each pattern
+    */
+   public int[][] scan(ByteBuffer buffer, int startIndex, int endIndex)
+   {
+      int[][] result = new int[m_patternLengths.length][16];
+      int[] counts = new int[m_patternLengths.length];
+      int[] transitions = m_transitions;
+      long[] output = m_output;
+
+      int state = 0;
+      for (int index = startIndex; index < endIndex; index++)
+      {
+         state = transitions[(state << 8) + (buffer.get(index) & 0xFF)];
+         long matches = output[state];
+         while (matches != 0)
+         {
+            int patternIndex = Long.numberOfTrailingZeros(matches);
+            matches &= (matches - 1);
+
+            int[] offsets = result[patternIndex];
+            int count = counts[patternIndex];
+            if (count == offsets.length)
+            {
+               offsets = Arrays.copyOf(offsets, count * 2);
+               result[patternIndex] = offsets;
+            }
+            offsets[count] = index - m_patternLengths[patternIndex] + 1;
+            counts[patternIndex] = count + 1;
+         }
+      }
+
+      for (int patternIndex = 0; patternIndex < result.length; patternIndex++)
+      {
+         result[patternIndex] = Arrays.copyOf(result[patternIndex], counts[patternIndex]);
+      }
+
+      return result;
+   }
+
+   private final int[] m_patternLengths;
+   private final int[] m_transitions;
+   private final long[] m_output;
+}
@@ -803,8 +803,8 @@ public final class GanttProjectReader extends AbstractProjectReader
    {
       for (Depend depend : gpTask.getDepend())
       {
-         Task task1 = m_projectFile.getTaskByUniqueID(Integer.valueOf(NumberHelper.getInt(gpTask.getId()) + 1));
-         Task task2 = m_projectFile.getTaskByUniqueID(Integer.valueOf(NumberHelper.getInt(depend.getId()) + 1));
+         Task task1 = m_projectFile.getTaskByUniqueID(NumberHelper.getInt(gpTask.getId()) + 1);
+         Task task2 = m_projectFile.getTaskByUniqueID(NumberHelper.getInt(depend.getId()) + 1);
          if (task1 != null && task2 != null)
          {
             Duration lag = Duration.getInstance(NumberHelper.getInt(depend.getDifference()), TimeUnit.DAYS);
@@ -0,0 +1,1099 @@
+/*
+ * file:       JsonReader.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import net.sf.mpxj.AccrueType;
+import net.sf.mpxj.AssignmentField;
+import net.sf.mpxj.BookingType;
+import net.sf.mpxj.CodePage;
+import net.sf.mpxj.ConstraintType;
+import net.sf.mpxj.CurrencySymbolPosition;
+import net.sf.mpxj.DataType;
+import net.sf.mpxj.DateOrder;
+import net.sf.mpxj.DateRange;
+import net.sf.mpxj.Day;
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.EarnedValueMethod;
+import net.sf.mpxj.EventManager;
+import net.sf.mpxj.FieldContainer;
+import net.sf.mpxj.FieldType;
+import net.sf.mpxj.FieldTypeClass;
+import net.sf.mpxj.FileVersion;
+import net.sf.mpxj.MPXJException;
+import net.sf.mpxj.Priority;
+import net.sf.mpxj.ProjectConfig;
+import net.sf.mpxj.ProjectDateFormat;
+import net.sf.mpxj.ProjectField;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.ProjectProperties;
+import net.sf.mpxj.ProjectTimeFormat;
+import net.sf.mpxj.Rate;
+import net.sf.mpxj.Relation;
+import net.sf.mpxj.RelationType;
+import net.sf.mpxj.Resource;
+import net.sf.mpxj.ResourceAssignment;
+import net.sf.mpxj.ResourceField;
+import net.sf.mpxj.ResourceRequestType;
+import net.sf.mpxj.ResourceType;
+import net.sf.mpxj.ScheduleFrom;
+import net.sf.mpxj.SubProject;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.TaskField;
+import net.sf.mpxj.TaskType;
+import net.sf.mpxj.TimeUnit;
+import net.sf.mpxj.WorkContour;
+import net.sf.mpxj.WorkGroup;
+import net.sf.mpxj.common.CharsetHelper;
+import net.sf.mpxj.json.JsonStreamReader.Token;
+import net.sf.mpxj.listener.ProjectListener;
+import net.sf.mpxj.reader.AbstractProjectReader;
+
+/**
+ * This class creates a new ProjectFile instance by reading a JSON file
+ * written by the JsonWriter class. The file is read in a single pass,
+ * with only the fields of the current task, resource or assignment
+ * held in memory before they are applied to the project.
+ *
+ * Note that as the JSON format does not include calendars, durations are
+ * restored using the units recorded in the file where available, and the
+ * project's default units otherwise.
+ */
+public final class JsonReader extends AbstractProjectReader
+{
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void addProjectListener(ProjectListener listener)
+   {
+      if (m_projectListeners == null)
+      {
+         m_projectListeners = new LinkedList<ProjectListener>();
+      }
+      m_projectListeners.add(listener);
+   }
+
+   /**
+    * Retrieve the encoding used when reading the JSON file.
+    *
+    * @return encoding
+    */
+   public Charset getEncoding()
+   {
+      return m_encoding;
+   }
+
+   /**
+    * Set the encoding used when reading the JSON file.
+    *
+    * @param encoding encoding to use
+    */
+   public void setEncoding(Charset encoding)
+   {
+      m_encoding = encoding;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public ProjectFile read(InputStream stream) throws MPXJException
+   {
+      try
+      {
+         m_projectFile = new ProjectFile();
+         m_eventManager = m_projectFile.getEventManager();
+         m_reader = new JsonStreamReader(stream, m_encoding);
+         m_dateFormat = new SimpleDateFormat(DATE_FORMAT);
+         m_relations = new ArrayList<PendingRelations>();
+
+         ProjectConfig config = m_projectFile.getProjectConfig();
+         config.setAutoTaskID(false);
+         config.setAutoTaskUniqueID(false);
+         config.setAutoResourceID(false);
+         config.setAutoResourceUniqueID(false);
+         config.setAutoOutlineLevel(false);
+         config.setAutoOutlineNumber(false);
+         config.setAutoWBS(false);
+         config.setAutoAssignmentUniqueID(false);
+
+         m_eventManager.addProjectListeners(m_projectListeners);
+
+         expect(Token.START_OBJECT);
+         while (m_reader.nextToken() == Token.NAME)
+         {
+            String name = m_reader.getText();
+            if (name.equals("custom_fields"))
+            {
+               readCustomFields();
+            }
+            else
+            {
+               if (name.equals("property_values"))
+               {
+                  readProperties();
+               }
+               else
+               {
+                  if (name.equals("resources"))
+                  {
+                     readResources();
+                  }
+                  else
+                  {
+                     if (name.equals("tasks"))
+                     {
+                        readTasks();
+                     }
+                     else
+                     {
+                        if (name.equals("assignments"))
+                        {
+                           readAssignments();
+                        }
+                        else
+                        {
+                           m_reader.skipValue();
+                        }
+                     }
+                  }
+               }
+            }
+         }
+
+         //
+         // Ensure that the unique ID counters are correct
+         //
+         config.updateUniqueCounters();
+
+         return m_projectFile;
+      }
+
+      catch (IOException ex)
+      {
+         throw new MPXJException(MPXJException.READ_ERROR, ex);
+      }
+
+      catch (ParseException ex)
+      {
+         throw new MPXJException("Failed to parse file", ex);
+      }
+
+      finally
+      {
+         m_projectFile = null;
+         m_eventManager = null;
+         m_reader = null;
+         m_dateFormat = null;
+         m_relations = null;
+      }
+   }
+
+   /**
+    * Read custom field aliases.
+    */
+   private void readCustomFields() throws IOException, ParseException
+   {
+      expect(Token.START_LIST);
+      while (m_reader.nextToken() == Token.START_OBJECT)
+      {
+         String fieldTypeClass = null;
+         String fieldType = null;
+         String alias = null;
+
+         while (m_reader.nextToken() == Token.NAME)
+         {
+            String name = m_reader.getText();
+            m_reader.nextToken();
+            if (name.equals("field_type_class"))
+            {
+               fieldTypeClass = m_reader.getText();
+            }
+            else
+            {
+               if (name.equals("field_type"))
+               {
+                  fieldType = m_reader.getText();
+               }
+               else
+               {
+                  if (name.equals("field_alias"))
+                  {
+                     alias = m_reader.getText();
+                  }
+               }
+            }
+         }
+
+         Map<String, FieldType> fields = CUSTOM_FIELD_MAP.get(fieldTypeClass);
+         FieldType field = fields == null ? null : fields.get(fieldType);
+         if (field != null)
+         {
+            m_projectFile.getCustomFields().getCustomField(field).setAlias(alias);
+         }
+      }
+   }
+
+   /**
+    * Read project properties.
+    */
+   private void readProperties() throws IOException, ParseException
+   {
+      expect(Token.START_OBJECT);
+      Map<FieldType, Object> values = readFields(PROJECT_FIELDS);
+
+      //
+      // False values are not written, so ensure that any
+      // default values are replaced
+      //
+      for (FieldType field : PROJECT_FIELDS.values())
+      {
+         if (field.getDataType() == DataType.BOOLEAN && !values.containsKey(field))
+         {
+            values.put(field, Boolean.FALSE);
+         }
+      }
+
+      //
+      // Work units are only written if they differ from the duration units
+      //
+      if (!values.containsKey(ProjectField.DEFAULT_WORK_UNITS))
+      {
+         TimeUnit units = (TimeUnit) values.get(ProjectField.DEFAULT_DURATION_UNITS);
+         values.put(ProjectField.DEFAULT_WORK_UNITS, units == null ? m_projectFile.getProjectProperties().getDefaultDurationUnits() : units);
+      }
+
+      setFields(m_projectFile.getProjectProperties(), values);
+   }
+
+   /**
+    * Read resources.
+    */
+   private void readResources() throws IOException, ParseException
+   {
+      expect(Token.START_LIST);
+      while (m_reader.nextToken() == Token.START_OBJECT)
+      {
+         Map<FieldType, Object> values = readFields(RESOURCE_FIELDS);
+         Resource resource = m_projectFile.addResource();
+         resource.setUniqueID(getInteger(values.remove(ResourceField.UNIQUE_ID)));
+         resource.setID(getInteger(values.remove(ResourceField.ID)));
+         setFields(resource, values);
+         m_eventManager.fireResourceReadEvent(resource);
+      }
+   }
+
+   /**
+    * Read tasks. Tasks are written depth first, so the parent of each task
+    * will already have been read. Relationships between tasks are created
+    * once all tasks have been read.
+    */
+   private void readTasks() throws IOException, ParseException
+   {
+      expect(Token.START_LIST);
+      while (m_reader.nextToken() == Token.START_OBJECT)
+      {
+         Map<FieldType, Object> values = readFields(TASK_FIELDS);
+
+         Task parent = m_projectFile.getTaskByUniqueID(getInteger(values.remove(TaskField.PARENT_TASK_UNIQUE_ID)));
+         Task task = parent == null ? m_projectFile.addTask() : parent.addTask();
+         task.setUniqueID(getInteger(values.remove(TaskField.UNIQUE_ID)));
+         task.setID(getInteger(values.remove(TaskField.ID)));
+
+         @SuppressWarnings("unchecked")
+         List<PendingRelation> predecessors = (List<PendingRelation>) values.remove(TaskField.PREDECESSORS);
+         if (predecessors != null)
+         {
+            m_relations.add(new PendingRelations(task, predecessors));
+         }
+         values.remove(TaskField.SUCCESSORS);
+
+         //
+         // False values are not written, so ensure that the
+         // critical flag is not recalculated if it is missing
+         //
+         if (!values.containsKey(TaskField.CRITICAL))
+         {
+            values.put(TaskField.CRITICAL, Boolean.FALSE);
+         }
+
+         setFields(task, values);
+         m_eventManager.fireTaskReadEvent(task);
+      }
+
+      //
+      // The hierarchy is taken from the file, but we still
+      // need the list of all tasks to be in ID order
+      //
+      Collections.sort(m_projectFile.getTasks());
+
+      readRelations();
+   }
+
+   /**
+    * Create the relationships between tasks.
+    */
+   private void readRelations()
+   {
+      ProjectProperties properties = m_projectFile.getProjectProperties();
+      for (PendingRelations pending : m_relations)
+      {
+         for (PendingRelation predecessor : pending.m_predecessors)
+         {
+            Task target = m_projectFile.getTaskByUniqueID(predecessor.m_taskUniqueID);
+            if (target != null)
+            {
+               Duration lag = getDuration(predecessor.m_lag, properties.getDefaultDurationUnits());
+               Relation relation = pending.m_task.addPredecessor(target, predecessor.m_type, lag);
+               m_eventManager.fireRelationReadEvent(relation);
+            }
+         }
+      }
+      m_relations.clear();
+   }
+
+   /**
+    * Read resource assignments.
+    */
+   private void readAssignments() throws IOException, ParseException
+   {
+      expect(Token.START_LIST);
+      while (m_reader.nextToken() == Token.START_OBJECT)
+      {
+         Map<FieldType, Object> values = readFields(ASSIGNMENT_FIELDS);
+         values.put(AssignmentField.TASK_UNIQUE_ID, getInteger(values.get(AssignmentField.TASK_UNIQUE_ID)));
+         values.put(AssignmentField.RESOURCE_UNIQUE_ID, getInteger(values.get(AssignmentField.RESOURCE_UNIQUE_ID)));
+         values.put(AssignmentField.UNIQUE_ID, getInteger(values.get(AssignmentField.UNIQUE_ID)));
+
+         Task task = m_projectFile.getTaskByUniqueID((Integer) values.get(AssignmentField.TASK_UNIQUE_ID));
+         if (task != null)
+         {
+            ResourceAssignment assignment = new ResourceAssignment(m_projectFile, task);
+            setFields(assignment, values);
+            task.addResourceAssignment(assignment);
+            m_eventManager.fireAssignmentReadEvent(assignment);
+         }
+      }
+   }
+
+   /**
+    * Read the fields of an object into a map. The opening brace of the
+    * object is expected to have been consumed.
+    *
+    * @param fields map of JSON attribute names to field types
+    * @return map of field types to values
+    */
+   private Map<FieldType, Object> readFields(Map<String, FieldType> fields) throws IOException, ParseException
+   {
+      Map<FieldType, Object> result = new LinkedHashMap<FieldType, Object>();
+      while (m_reader.nextToken() == Token.NAME)
+      {
+         String name = m_reader.getText();
+         FieldType field = fields.get(name);
+         if (field != null)
+         {
+            Object value = readValue(field);
+            if (value != null)
+            {
+               result.put(field, value);
+            }
+         }
+         else
+         {
+            field = name.endsWith(TEXT_SUFFIX) ? fields.get(name.substring(0, name.length() - TEXT_SUFFIX.length())) : null;
+            if (field != null)
+            {
+               m_reader.nextToken();
+               result.put(field, m_reader.getText());
+            }
+            else
+            {
+               m_reader.skipValue();
+            }
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Apply a set of field values to a field container. Durations are
+    * held in the file as a number of seconds, and are converted to
+    * the units recorded alongside them, or to the project's default units.
+    *
+    * @param container target container
+    * @param values field values
+    */
+   private void setFields(FieldContainer container, Map<FieldType, Object> values)
+   {
+      ProjectProperties properties = m_projectFile.getProjectProperties();
+      for (Map.Entry<FieldType, Object> entry : values.entrySet())
+      {
+         FieldType field = entry.getKey();
+         Object value = entry.getValue();
+
+         if (value instanceof Long)
+         {
+            FieldType unitsField = UNITS_FIELD_MAP.get(field);
+            TimeUnit units = unitsField == null ? null : (TimeUnit) values.get(unitsField);
+            if (units == null)
+            {
+               units = field.getDataType() == DataType.WORK ? properties.getDefaultWorkUnits() : properties.getDefaultDurationUnits();
+            }
+            value = getDuration(((Long) value).longValue(), units);
+         }
+
+         container.set(field, value);
+      }
+   }
+
+   /**
+    * Read a field value.
+    *
+    * @param field field type
+    * @return field value
+    */
+   private Object readValue(FieldType field) throws IOException, ParseException
+   {
+      Object result;
+      Token token = m_reader.nextToken();
+      if (token == Token.NULL)
+      {
+         result = null;
+      }
+      else
+      {
+         DataType type = field.getDataType();
+         switch (type)
+         {
+            case INTEGER:
+            case SHORT:
+            {
+               result = Integer.valueOf((int) m_reader.getLong());
+               break;
+            }
+
+            case PERCENTAGE:
+            case CURRENCY:
+            case NUMERIC:
+            case UNITS:
+            {
+               result = Double.valueOf(m_reader.getDouble());
+               break;
+            }
+
+            case BOOLEAN:
+            {
+               result = Boolean.valueOf(m_reader.getBoolean());
+               break;
+            }
+
+            case WORK:
+            case DURATION:
+            {
+               result = Long.valueOf(m_reader.getLong());
+               break;
+            }
+
+            case DELAY:
+            {
+               result = parseDuration(m_reader.getText());
+               break;
+            }
+
+            case RATE:
+            {
+               result = parseRate(m_reader.getText());
+               break;
+            }
+
+            case DATE:
+            {
+               result = m_dateFormat.parse(m_reader.getText());
+               break;
+            }
+
+            case PRIORITY:
+            {
+               result = Priority.getInstance((int) m_reader.getLong());
+               break;
+            }
+
+            case CHAR:
+            {
+               String text = m_reader.getText();
+               result = text.isEmpty() ? null : Character.valueOf(text.charAt(0));
+               break;
+            }
+
+            case GUID:
+            {
+               result = UUID.fromString(m_reader.getText());
+               break;
+            }
+
+            case RELATION_LIST:
+            {
+               result = readRelationList();
+               break;
+            }
+
+            case MAP:
+            {
+               result = readMap();
+               break;
+            }
+
+            case DATE_RANGE_LIST:
+            {
+               result = readDateRangeList();
+               break;
+            }
+
+            case SUBPROJECT:
+            {
+               result = readSubProject();
+               break;
+            }
+
+            default:
+            {
+               Map<String, Object> enumValues = FIELD_ENUM_MAP.get(field);
+               if (enumValues == null)
+               {
+                  enumValues = ENUM_MAP.get(type);
+               }
+               result = enumValues == null ? m_reader.getText() : enumValues.get(m_reader.getText());
+               break;
+            }
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Read a list of predecessors.
+    *
+    * @return list of relations to be created once all tasks have been read
+    */
+   private List<PendingRelation> readRelationList() throws IOException
+   {
+      List<PendingRelation> result = new ArrayList<PendingRelation>();
+      while (m_reader.nextToken() == Token.START_OBJECT)
+      {
+         PendingRelation relation = new PendingRelation();
+         while (m_reader.nextToken() == Token.NAME)
+         {
+            String name = m_reader.getText();
+            m_reader.nextToken();
+            if (name.equals("task_unique_id"))
+            {
+               relation.m_taskUniqueID = Integer.valueOf((int) m_reader.getLong());
+            }
+            else
+            {
+               if (name.equals("lag"))
+               {
+                  relation.m_lag = m_reader.getLong();
+               }
+               else
+               {
+                  if (name.equals("type"))
+                  {
+                     relation.m_type = (RelationType) RELATION_TYPE_MAP.get(m_reader.getText());
+                  }
+               }
+            }
+         }
+         result.add(relation);
+      }
+      return result;
+   }
+
+   /**
+    * Read a map. The type of each value is inferred from its JSON representation.
+    *
+    * @return map
+    */
+   private Map<String, Object> readMap() throws IOException
+   {
+      Map<String, Object> result = new HashMap<String, Object>();
+      while (m_reader.nextToken() == Token.NAME)
+      {
+         String name = m_reader.getText();
+         Object value;
+         switch (m_reader.nextToken())
+         {
+            case NUMBER:
+            {
+               double number = m_reader.getDouble();
+               if (number == Math.rint(number) && number >= Integer.MIN_VALUE && number <= Integer.MAX_VALUE && m_reader.getText().indexOf('.') == -1)
+               {
+                  value = Integer.valueOf((int) number);
+               }
+               else
+               {
+                  value = Double.valueOf(number);
+               }
+               break;
+            }
+
+            case BOOLEAN:
+            {
+               value = Boolean.valueOf(m_reader.getBoolean());
+               break;
+            }
+
+            case STRING:
+            {
+               String text = m_reader.getText();
+               ParsePosition position = new ParsePosition(0);
+               Date date = m_dateFormat.parse(text, position);
+               value = date != null && position.getIndex() == text.length() ? date : text;
+               break;
+            }
+
+            case START_OBJECT:
+            case START_LIST:
+            {
+               skipRemainder();
+               value = null;
+               break;
+            }
+
+            default:
+            {
+               value = null;
+               break;
+            }
+         }
+
+         if (value != null)
+         {
+            result.put(name, value);
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Read a list of date ranges.
+    *
+    * @return list of date ranges
+    */
+   private List<DateRange> readDateRangeList() throws IOException, ParseException
+   {
+      List<DateRange> result = new LinkedList<DateRange>();
+      while (m_reader.nextToken() == Token.START_OBJECT)
+      {
+         Date start = null;
+         Date end = null;
+         while (m_reader.nextToken() == Token.NAME)
+         {
+            String name = m_reader.getText();
+            m_reader.nextToken();
+            if (name.equals("start"))
+            {
+               start = m_dateFormat.parse(m_reader.getText());
+            }
+            else
+            {
+               if (name.equals("end"))
+               {
+                  end = m_dateFormat.parse(m_reader.getText());
+               }
+            }
+         }
+         result.add(new DateRange(start, end));
+      }
+      return result;
+   }
+
+   /**
+    * Read a subproject.
+    *
+    * @return subproject
+    */
+   private SubProject readSubProject() throws IOException
+   {
+      SubProject result = new SubProject();
+      while (m_reader.nextToken() == Token.NAME)
+      {
+         String name = m_reader.getText();
+         m_reader.nextToken();
+         if (name.equals("dos_file_name"))
+         {
+            result.setDosFileName(m_reader.getText());
+         }
+         else
+         {
+            if (name.equals("dos_full_path"))
+            {
+               result.setDosFullPath(m_reader.getText());
+            }
+            else
+            {
+               if (name.equals("file_name"))
+               {
+                  result.setFileName(m_reader.getText());
+               }
+               else
+               {
+                  if (name.equals("full_path"))
+                  {
+                     result.setFullPath(m_reader.getText());
+                  }
+                  else
+                  {
+                     if (name.equals("task_unique_id"))
+                     {
+                        result.setTaskUniqueID(Integer.valueOf((int) m_reader.getLong()));
+                     }
+                     else
+                     {
+                        if (name.equals("unique_id_offset"))
+                        {
+                           result.setUniqueIDOffset(Integer.valueOf((int) m_reader.getLong()));
+                        }
+                        else
+                        {
+                           if (name.equals("all_external_task_unique_ids"))
+                           {
+                              readExternalTaskUniqueIDs(result);
+                           }
+                           else
+                           {
+                              skipRemainder();
+                           }
+                        }
+                     }
+                  }
+               }
+            }
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Read the list of external task unique IDs for a subproject.
+    *
+    * @param subProject parent subproject
+    */
+   private void readExternalTaskUniqueIDs(SubProject subProject) throws IOException
+   {
+      while (m_reader.nextToken() == Token.START_OBJECT)
+      {
+         while (m_reader.nextToken() == Token.NAME)
+         {
+            m_reader.nextToken();
+            subProject.addExternalTaskUniqueID(Integer.valueOf((int) m_reader.getLong()));
+         }
+      }
+   }
+
+   /**
+    * Parse a duration represented as a number followed by a units suffix.
+    *
+    * @param text duration text
+    * @return Duration instance
+    */
+   private Duration parseDuration(String text)
+   {
+      int index = getUnitsIndex(text);
+      TimeUnit units = (TimeUnit) TIME_UNIT_MAP.get(text.substring(index));
+      return units == null ? null : Duration.getInstance(Double.parseDouble(text.substring(0, index)), units);
+   }
+
+   /**
+    * Parse a rate represented as a number followed by a units suffix.
+    *
+    * @param text rate text
+    * @return Rate instance
+    */
+   private Rate parseRate(String text)
+   {
+      int index = getUnitsIndex(text);
+      TimeUnit units = (TimeUnit) TIME_UNIT_MAP.get(text.substring(index));
+      return units == null ? null : new Rate(Double.parseDouble(text.substring(0, index)), units);
+   }
+
+   /**
+    * Locate the start of the units suffix following a number.
+    *
+    * @param text text to examine
+    * @return index of the units suffix
+    */
+   private int getUnitsIndex(String text)
+   {
+      int index = text.length();
+      while (index > 0 && !Character.isDigit(text.charAt(index - 1)))
+      {
+         --index;
+      }
+      return index;
+   }
+
+   /**
+    * Zero values are not written, so treat a missing
+    * identifier as zero.
+    *
+    * @param value identifier read from the file
+    * @return identifier
+    */
+   private Integer getInteger(Object value)
+   {
+      return value == null ? Integer.valueOf(0) : (Integer) value;
+   }
+
+   /**
+    * Convert a duration in seconds to the required units.
+    *
+    * @param seconds duration in seconds
+    * @param units required units
+    * @return Duration instance
+    */
+   private Duration getDuration(long seconds, TimeUnit units)
+   {
+      return Duration.convertUnits(seconds / 60.0, TimeUnit.MINUTES, units, m_projectFile.getProjectProperties());
+   }
+
+   /**
+    * Consume the remainder of an object or list whose opening token
+    * has already been read.
+    */
+   private void skipRemainder() throws IOException
+   {
+      int depth = 1;
+      while (depth > 0)
+      {
+         switch (m_reader.nextToken())
+         {
+            case START_OBJECT:
+            case START_LIST:
+            {
+               ++depth;
+               break;
+            }
+
+            case END_OBJECT:
+            case END_LIST:
+            {
+               --depth;
+               break;
+            }
+
+            case END_DOCUMENT:
+            {
+               throw new IOException("Unexpected end of JSON data");
+            }
+
+            default:
+            {
+               break;
+            }
+         }
+      }
+   }
+
+   /**
+    * Ensure that the next token is of the expected type.
+    *
+    * @param expected expected token
+    */
+   private void expect(Token expected) throws IOException
+   {
+      Token token = m_reader.nextToken();
+      if (token != expected)
+      {
+         throw new IOException("Expected " + expected + " but found " + token);
+      }
+   }
+
+   /**
+    * Create a map of JSON attribute names to field types.
+    *
+    * @param fields field types
+    * @return map of names to field types
+    */
+   private static Map<String, FieldType> getFieldMap(FieldType[] fields)
+   {
+      Map<String, FieldType> result = new HashMap<String, FieldType>();
+      for (FieldType field : fields)
+      {
+         result.put(field.name().toLowerCase(), field);
+      }
+      return result;
+   }
+
+   /**
+    * Populate a map of duration fields to the fields holding their units.
+    *
+    * @param fields map of JSON attribute names to field types
+    */
+   private static void addUnitsFields(Map<String, FieldType> fields)
+   {
+      for (Map.Entry<String, FieldType> entry : fields.entrySet())
+      {
+         String name = entry.getKey();
+         if (name.endsWith(UNITS_SUFFIX) && entry.getValue().getDataType() == DataType.TIME_UNITS)
+         {
+            FieldType field = fields.get(name.substring(0, name.length() - UNITS_SUFFIX.length()));
+            if (field != null && (field.getDataType() == DataType.DURATION || field.getDataType() == DataType.WORK))
+            {
+               UNITS_FIELD_MAP.put(field, entry.getValue());
+            }
+         }
+      }
+   }
+
+   /**
+    * Create a map of the text representation of enum values to the values themselves.
+    *
+    * @param values enum values
+    * @return map of text to values
+    */
+   private static Map<String, Object> getEnumMap(Object[] values)
+   {
+      Map<String, Object> result = new HashMap<String, Object>();
+      for (Object value : values)
+      {
+         result.put(value.toString(), value);
+      }
+      return result;
+   }
+
+   /**
+    * Predecessor read from the file, created once all tasks have been read.
+    */
+   private static final class PendingRelation
+   {
+      Integer m_taskUniqueID;
+      long m_lag;
+      RelationType m_type;
+   }
+
+   /**
+    * Predecessors of a single task.
+    */
+   private static final class PendingRelations
+   {
+      /**
+       * Constructor.
+       *
+       * @param task successor task
+       * @param predecessors predecessors
+       */
+      public PendingRelations(Task task, List<PendingRelation> predecessors)
+      {
+         m_task = task;
+         m_predecessors = predecessors;
+      }
+
+      final Task m_task;
+      final List<PendingRelation> m_predecessors;
+   }
+
+   private ProjectFile m_projectFile;
+   private EventManager m_eventManager;
+   private JsonStreamReader m_reader;
+   private DateFormat m_dateFormat;
+   private List<PendingRelations> m_relations;
+   private List<ProjectListener> m_projectListeners;
+   private Charset m_encoding = DEFAULT_ENCODING;
+
+   private static final Charset DEFAULT_ENCODING = CharsetHelper.UTF8;
+   private static final String DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.S";
+   private static final String TEXT_SUFFIX = "_text";
+   private static final String UNITS_SUFFIX = "_units";
+
+   private static final Map<String, FieldType> PROJECT_FIELDS = getFieldMap(ProjectField.values());
+   private static final Map<String, FieldType> RESOURCE_FIELDS = getFieldMap(ResourceField.values());
+   private static final Map<String, FieldType> TASK_FIELDS = getFieldMap(TaskField.values());
+   private static final Map<String, FieldType> ASSIGNMENT_FIELDS = getFieldMap(AssignmentField.values());
+
+   private static final Map<String, Map<String, FieldType>> CUSTOM_FIELD_MAP = new HashMap<String, Map<String, FieldType>>();
+   static
+   {
+      CUSTOM_FIELD_MAP.put(FieldTypeClass.PROJECT.name().toLowerCase(), PROJECT_FIELDS);
+      CUSTOM_FIELD_MAP.put(FieldTypeClass.RESOURCE.name().toLowerCase(), RESOURCE_FIELDS);
+      CUSTOM_FIELD_MAP.put(FieldTypeClass.TASK.name().toLowerCase(), TASK_FIELDS);
+      CUSTOM_FIELD_MAP.put(FieldTypeClass.ASSIGNMENT.name().toLowerCase(), ASSIGNMENT_FIELDS);
+   }
+
+   private static final Map<FieldType, FieldType> UNITS_FIELD_MAP = new HashMap<FieldType, FieldType>();
+   static
+   {
+      addUnitsFields(RESOURCE_FIELDS);
+      addUnitsFields(TASK_FIELDS);
+      addUnitsFields(ASSIGNMENT_FIELDS);
+   }
+
+   private static final Map<String, Object> TIME_UNIT_MAP = getEnumMap(TimeUnit.values());
+   private static final Map<String, Object> RELATION_TYPE_MAP = getEnumMap(RelationType.values());
+
+   private static final Map<DataType, Map<String, Object>> ENUM_MAP = new HashMap<DataType, Map<String, Object>>();
+   static
+   {
+      ENUM_MAP.put(DataType.ACCRUE, getEnumMap(AccrueType.values()));
+      ENUM_MAP.put(DataType.CONSTRAINT, getEnumMap(ConstraintType.values()));
+      ENUM_MAP.put(DataType.TASK_TYPE, getEnumMap(TaskType.values()));
+      ENUM_MAP.put(DataType.RESOURCE_TYPE, getEnumMap(ResourceType.values()));
+      ENUM_MAP.put(DataType.WORKGROUP, getEnumMap(WorkGroup.values()));
+      ENUM_MAP.put(DataType.EARNED_VALUE_METHOD, getEnumMap(EarnedValueMethod.values()));
+      ENUM_MAP.put(DataType.RESOURCE_REQUEST_TYPE, getEnumMap(ResourceRequestType.values()));
+      ENUM_MAP.put(DataType.CURRENCY_SYMBOL_POSITION, getEnumMap(CurrencySymbolPosition.values()));
+      ENUM_MAP.put(DataType.DATE_ORDER, getEnumMap(DateOrder.values()));
+      ENUM_MAP.put(DataType.PROJECT_TIME_FORMAT, getEnumMap(ProjectTimeFormat.values()));
+      ENUM_MAP.put(DataType.PROJECT_DATE_FORMAT, getEnumMap(ProjectDateFormat.values()));
+      ENUM_MAP.put(DataType.SCHEDULE_FROM, getEnumMap(ScheduleFrom.values()));
+      ENUM_MAP.put(DataType.DAY, getEnumMap(Day.values()));
+      ENUM_MAP.put(DataType.MPX_FILE_VERSION, getEnumMap(FileVersion.values()));
+      ENUM_MAP.put(DataType.MPX_CODE_PAGE, getEnumMap(CodePage.values()));
+      ENUM_MAP.put(DataType.BOOKING_TYPE, getEnumMap(BookingType.values()));
+      ENUM_MAP.put(DataType.TIME_UNITS, TIME_UNIT_MAP);
+      ENUM_MAP.put(DataType.RATE_UNITS, TIME_UNIT_MAP);
+      ENUM_MAP.put(DataType.WORK_UNITS, TIME_UNIT_MAP);
+   }
+
+   private static final Map<FieldType, Map<String, Object>> FIELD_ENUM_MAP = new HashMap<FieldType, Map<String, Object>>();
+   static
+   {
+      FIELD_ENUM_MAP.put(AssignmentField.WORK_CONTOUR, getEnumMap(WorkContour.values()));
+   }
+}
@@ -0,0 +1,458 @@
+/*
+ * file:       JsonStreamReader.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+
+/**
+ * Pull parser used to read JSON data. Rather than building a tree
+ * representing the whole document, the caller retrieves one token at a time
+ * using the {@code nextToken} method, and can examine the text of the most
+ * recent name, string or number token using {@code getText}.
+ * Separators between values are consumed by the parser and are not
+ * reported to the caller.
+ */
+public class JsonStreamReader
+{
+   /**
+    * Tokens returned by the parser.
+    */
+   public enum Token
+   {
+      START_OBJECT,
+      END_OBJECT,
+      START_LIST,
+      END_LIST,
+      NAME,
+      STRING,
+      NUMBER,
+      BOOLEAN,
+      NULL,
+      END_DOCUMENT
+   }
+
+   /**
+    * Constructor.
+    *
+    * @param stream input stream
+    * @param encoding input stream encoding
+    */
+   public JsonStreamReader(InputStream stream, Charset encoding)
+   {
+      m_reader = new InputStreamReader(stream, encoding);
+   }
+
+   /**
+    * Retrieve the next token from the input.
+    *
+    * @return next token
+    */
+   public Token nextToken() throws IOException
+   {
+      Token result;
+      int c = skipWhitespace();
+
+      switch (c)
+      {
+         case -1:
+         {
+            result = Token.END_DOCUMENT;
+            break;
+         }
+
+         case '{':
+         {
+            result = Token.START_OBJECT;
+            break;
+         }
+
+         case '}':
+         {
+            result = Token.END_OBJECT;
+            break;
+         }
+
+         case '[':
+         {
+            result = Token.START_LIST;
+            break;
+         }
+
+         case ']':
+         {
+            result = Token.END_LIST;
+            break;
+         }
+
+         case '"':
+         {
+            readString();
+            if (skipWhitespace() == ':')
+            {
+               result = Token.NAME;
+            }
+            else
+            {
+               unread();
+               result = Token.STRING;
+            }
+            break;
+         }
+
+         case 't':
+         {
+            readLiteral("true");
+            m_boolean = true;
+            result = Token.BOOLEAN;
+            break;
+         }
+
+         case 'f':
+         {
+            readLiteral("false");
+            m_boolean = false;
+            result = Token.BOOLEAN;
+            break;
+         }
+
+         case 'n':
+         {
+            readLiteral("null");
+            result = Token.NULL;
+            break;
+         }
+
+         default:
+         {
+            unread();
+            readNumber();
+            result = Token.NUMBER;
+            break;
+         }
+      }
+
+      return result;
+   }
+
+   /**
+    * Consume the next value from the input. If the value is an object
+    * or a list, the whole of its content is consumed.
+    */
+   public void skipValue() throws IOException
+   {
+      int depth = 0;
+      do
+      {
+         switch (nextToken())
+         {
+            case START_OBJECT:
+            case START_LIST:
+            {
+               ++depth;
+               break;
+            }
+
+            case END_OBJECT:
+            case END_LIST:
+            {
+               --depth;
+               break;
+            }
+
+            case END_DOCUMENT:
+            {
+               throw new IOException("Unexpected end of JSON data");
+            }
+
+            default:
+            {
+               break;
+            }
+         }
+      }
+      while (depth > 0);
+   }
+
+   /**
+    * Retrieve the text of the most recent name, string or number token.
+    *
+    * @return token text
+    */
+   public String getText()
+   {
+      return m_text.toString();
+   }
+
+   /**
+    * Retrieve the value of the most recent number token as a long.
+    *
+    * @return long value
+    */
+   public long getLong()
+   {
+      String text = getText();
+      long result;
+      try
+      {
+         result = Long.parseLong(text);
+      }
+
+      catch (NumberFormatException ex)
+      {
+         result = (long) Double.parseDouble(text);
+      }
+      return result;
+   }
+
+   /**
+    * Retrieve the value of the most recent number token as a double.
+    *
+    * @return double value
+    */
+   public double getDouble()
+   {
+      return Double.parseDouble(getText());
+   }
+
+   /**
+    * Retrieve the value of the most recent boolean token.
+    *
+    * @return boolean value
+    */
+   public boolean getBoolean()
+   {
+      return m_boolean;
+   }
+
+   /**
+    * Read a string, the opening quote having already been consumed.
+    */
+   private void readString() throws IOException
+   {
+      m_text.setLength(0);
+      while (true)
+      {
+         int c = read();
+         switch (c)
+         {
+            case -1:
+            {
+               throw new IOException("Unterminated JSON string");
+            }
+
+            case '"':
+            {
+               return;
+            }
+
+            case '\\':
+            {
+               m_text.append(readEscape());
+               break;
+            }
+
+            default:
+            {
+               m_text.append((char) c);
+               break;
+            }
+         }
+      }
+   }
+
+   /**
+    * Read an escape sequence, the backslash having already been consumed.
+    *
+    * @return escaped character
+    */
+   private char readEscape() throws IOException
+   {
+      char result;
+      int c = read();
+      switch (c)
+      {
+         case 'b':
+         {
+            result = '\b';
+            break;
+         }
+
+         case 'f':
+         {
+            result = '\f';
+            break;
+         }
+
+         case 'n':
+         {
+            result = '\n';
+            break;
+         }
+
+         case 'r':
+         {
+            result = '\r';
+            break;
+         }
+
+         case 't':
+         {
+            result = '\t';
+            break;
+         }
+
+         case 'u':
+         {
+            int value = 0;
+            for (int index = 0; index < 4; index++)
+            {
+               int digit = Character.digit(read(), 16);
+               if (digit == -1)
+               {
+                  throw new IOException("Invalid JSON unicode escape");
+               }
+               value = (value << 4) | digit;
+            }
+            result = (char) value;
+            break;
+         }
+
+         case -1:
+         {
+            throw new IOException("Unterminated JSON string");
+         }
+
+         default:
+         {
+            result = (char) c;
+            break;
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Read a number. Any characters up to the next separator are treated
+    * as part of the number, allowing values such as NaN to be read.
+    */
+   private void readNumber() throws IOException
+   {
+      m_text.setLength(0);
+      while (true)
+      {
+         int c = read();
+         if (c == -1 || c == ',' || c == '}' || c == ']' || c == ':' || Character.isWhitespace(c))
+         {
+            unread();
+            break;
+         }
+         m_text.append((char) c);
+      }
+
+      if (m_text.length() == 0)
+      {
+         throw new IOException("Unexpected character in JSON data");
+      }
+   }
+
+   /**
+    * Ensure that the input contains the expected literal, the first
+    * character having already been consumed.
+    *
+    * @param literal expected literal
+    */
+   private void readLiteral(String literal) throws IOException
+   {
+      for (int index = 1; index < literal.length(); index++)
+      {
+         if (read() != literal.charAt(index))
+         {
+            throw new IOException("Expected " + literal + " in JSON data");
+         }
+      }
+   }
+
+   /**
+    * Skip whitespace and value separators.
+    *
+    * @return the next character, or -1 at the end of the input
+    */
+   private int skipWhitespace() throws IOException
+   {
+      int c;
+      do
+      {
+         c = read();
+      }
+      while (c == ',' || Character.isWhitespace(c));
+      return c;
+   }
+
+   /**
+    * Read a single character from the input.
+    *
+    * @return character, or -1 at the end of the input
+    */
+   private int read() throws IOException
+   {
+      if (m_position == m_length)
+      {
+         if (m_length == -1)
+         {
+            return -1;
+         }
+
+         m_length = m_reader.read(m_buffer);
+         m_position = 0;
+         if (m_length == -1)
+         {
+            m_position = -1;
+            return -1;
+         }
+      }
+      return m_buffer[m_position++];
+   }
+
+   /**
+    * Return the most recently read character to the input.
+    */
+   private void unread()
+   {
+      if (m_length != -1)
+      {
+         --m_position;
+      }
+   }
+
+   private final Reader m_reader;
+   private final char[] m_buffer = new char[8192];
+   private final StringBuilder m_text = new StringBuilder();
+   private int m_position;
+   private int m_length;
+   private boolean m_boolean;
+}
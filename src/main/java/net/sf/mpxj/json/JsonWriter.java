@@ -303,7 +303,15 @@ public final class JsonWriter extends AbstractProjectWriter
    private void writeField(FieldType field, Object value) throws IOException
    {
       String fieldName = field.name().toLowerCase();
-      writeField(fieldName, field.getDataType(), value);
+      if (field == ProjectField.DEFAULT_DURATION_UNITS)
+      {
+         // Written in full as other time units are written relative to this value
+         writeStringField(fieldName, value);
+      }
+      else
+      {
+         writeField(fieldName, field.getDataType(), value);
+      }
    }
 
    /**
@@ -475,8 +483,11 @@ public final class JsonWriter extends AbstractProjectWriter
             if (val.getDuration() != 0)
             {
                Duration minutes = val.convertUnits(TimeUnit.MINUTES, m_projectFile.getProjectProperties());
-               long seconds = (long) (minutes.getDuration() * 60.0);
-               m_writer.writeNameValuePair(fieldName, seconds);
+               long seconds = Math.round(minutes.getDuration() * 60.0);
+               if (seconds != 0)
+               {
+                  m_writer.writeNameValuePair(fieldName, seconds);
+               }
             }
          }
       }
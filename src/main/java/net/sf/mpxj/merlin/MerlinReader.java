@@ -159,33 +159,28 @@ public final class MerlinReader implements ProjectReader
     */
    private ProjectFile readFile(File file) throws MPXJException
    {
+      Connection connection = null;
+
       try
       {
          String url = "jdbc:sqlite:" + file.getAbsolutePath();
          Properties props = new Properties();
-         m_connection = org.sqlite.JDBC.createConnection(url, props);
-
-         m_documentBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-
-         XPathFactory xPathfactory = XPathFactory.newInstance();
-         XPath xpath = xPathfactory.newXPath();
-         m_dayTimeIntervals = xpath.compile("/array/dayTimeInterval");
-         m_entityMap = new HashMap<String, Integer>();
-         return read();
+         connection = org.sqlite.JDBC.createConnection(url, props);
+         return read(connection);
       }
 
-      catch (Exception ex)
+      catch (SQLException ex)
       {
          throw new MPXJException(MPXJException.INVALID_FORMAT, ex);
       }
 
       finally
       {
-         if (m_connection != null)
+         if (connection != null)
          {
             try
             {
-               m_connection.close();
+               connection.close();
             }
 
             catch (SQLException ex)
@@ -193,7 +188,38 @@ public final class MerlinReader implements ProjectReader
                // silently ignore exceptions when closing connection
             }
          }
+      }
+   }
 
+   /**
+    * Read a project from an open connection to a Merlin SQLite database.
+    * The connection is not closed by this method.
+    *
+    * @param connection database connection
+    * @return ProjectFile instance
+    */
+   public ProjectFile read(Connection connection) throws MPXJException
+   {
+      try
+      {
+         m_connection = connection;
+         m_documentBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+
+         XPathFactory xPathfactory = XPathFactory.newInstance();
+         XPath xpath = xPathfactory.newXPath();
+         m_dayTimeIntervals = xpath.compile("/array/dayTimeInterval");
+         m_entityMap = new HashMap<String, Integer>();
+         return read();
+      }
+
+      catch (Exception ex)
+      {
+         throw new MPXJException(MPXJException.INVALID_FORMAT, ex);
+      }
+
+      finally
+      {
+         m_connection = null;
          m_documentBuilder = null;
          m_dayTimeIntervals = null;
          m_entityMap = null;
@@ -0,0 +1,81 @@
+/*
+ * file:       AbstractPresentationDataLoader.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.mpp;
+
+import java.io.IOException;
+
+import org.apache.poi.poifs.filesystem.DirectoryEntry;
+
+import net.sf.mpxj.PresentationDataLoader;
+import net.sf.mpxj.PresentationDataType;
+
+/**
+ * Common implementation used by the MPP readers to decode presentation
+ * data on demand. The source file may have been closed by the time the
+ * data is requested, so the raw content of the directories holding the
+ * presentation data is copied when the project is read.
+ */
+abstract class AbstractPresentationDataLoader implements PresentationDataLoader
+{
+   @Override public void load(PresentationDataType type)
+   {
+      try
+      {
+         process(type);
+      }
+
+      catch (IOException ex)
+      {
+         throw new RuntimeException(ex);
+      }
+   }
+
+   /**
+    * Decode presentation data of the given type.
+    *
+    * @param type presentation data type
+    */
+   protected abstract void process(PresentationDataType type) throws IOException;
+
+   /**
+    * Take a copy of the raw content of the directories holding presentation
+    * data from the view directory of an MPP file.
+    *
+    * @param viewDir view directory
+    * @return presentation data snapshot
+    */
+   protected static DirectorySnapshot snapshotPresentationData(DirectoryEntry viewDir) throws IOException
+   {
+      return new DirectorySnapshot(viewDir, PRESENTATION_DIRECTORIES);
+   }
+
+   private static final String[] PRESENTATION_DIRECTORIES =
+   {
+      "CTable",
+      "CV_iew",
+      "CFilter",
+      "CGrouping",
+      "CEdl"
+   };
+}
@@ -108,8 +108,8 @@ public class ConstraintFactory
             // int index2 = consFixed2Data.getIndexFromOffset(MPPUtility.getInt(metaData2, 4));
             // byte[] data2 = consFixed2Data.getByteArrayValue(index2);
 
-            Task task1 = file.getTaskByUniqueID(Integer.valueOf(taskID1));
-            Task task2 = file.getTaskByUniqueID(Integer.valueOf(taskID2));
+            Task task1 = file.getTaskByUniqueID(taskID1);
+            Task task2 = file.getTaskByUniqueID(taskID2);
             if (task1 != null && task2 != null)
             {
                RelationType type = RelationType.getInstance(MPPUtility.getShort(data, 12));
@@ -22,7 +22,6 @@
  */
 package net.sf.mpxj.mpp;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
@@ -96,7 +95,7 @@ class DataLinkFactory
     */
    private void process(byte[] data, Map<String, DataLink> map) throws IOException
    {
-      Props props = new Props14(new ByteArrayInputStream(data));
+      Props props = new Props14(data);
       //System.out.println(props);
 
       String dataLinkID = props.getUnicodeString(PATH);
@@ -0,0 +1,183 @@
+/*
+ * file:       DirectorySnapshot.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+
+package net.sf.mpxj.mpp;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.poifs.filesystem.DirectoryEntry;
+import org.apache.poi.poifs.filesystem.DocumentEntry;
+import org.apache.poi.poifs.filesystem.DocumentInputStream;
+import org.apache.poi.poifs.filesystem.Entry;
+
+/**
+ * Holds a copy of the raw content of the documents found in a set of
+ * directories, allowing these documents to be read once the file
+ * they were taken from has been closed.
+ */
+final class DirectorySnapshot
+{
+   /**
+    * Constructor.
+    *
+    * @param parent parent directory
+    * @param directories names of the child directories to copy
+    */
+   public DirectorySnapshot(DirectoryEntry parent, String[] directories) throws IOException
+   {
+      for (String directoryName : directories)
+      {
+         if (!parent.hasEntry(directoryName))
+         {
+            continue;
+         }
+
+         Entry directory = parent.getEntry(directoryName);
+         if (!directory.isDirectoryEntry())
+         {
+            continue;
+         }
+
+         for (Entry entry : (DirectoryEntry) directory)
+         {
+            if (entry.isDocumentEntry())
+            {
+               m_documents.put(getKey(directoryName, entry.getName()), readDocument((DocumentEntry) entry));
+            }
+         }
+      }
+   }
+
+   /**
+    * Determine if a document is present.
+    *
+    * @param directory directory name
+    * @param name document name
+    * @return true if the document is present
+    */
+   public boolean hasEntry(String directory, String name)
+   {
+      return m_documents.containsKey(getKey(directory, name));
+   }
+
+   /**
+    * Retrieve an input stream for a document. Mirrors the behaviour of
+    * the POI file system, which raises a FileNotFoundException if the
+    * document does not exist.
+    *
+    * @param directory directory name
+    * @param name document name
+    * @return input stream
+    */
+   public InputStream getInputStream(String directory, String name) throws IOException
+   {
+      String key = getKey(directory, name);
+      if (!m_documents.containsKey(key))
+      {
+         throw new FileNotFoundException(key);
+      }
+
+      byte[] data = m_documents.get(key);
+      if (data == null)
+      {
+         throw new IndexOutOfBoundsException("Unable to read " + key);
+      }
+
+      return new SnapshotInputStream(data);
+   }
+
+   /**
+    * Read the content of a document. Some sample files contain documents
+    * whose content cannot be read in full. Rather than failing
+    * here, we record this and raise the error when the document is used,
+    * as would happen if the document were read directly from the file.
+    *
+    * @param entry document entry
+    * @return document content, or null if the document cannot be read
+    */
+   private byte[] readDocument(DocumentEntry entry) throws IOException
+   {
+      byte[] result;
+      DocumentInputStream is = new DocumentInputStream(entry);
+      try
+      {
+         result = new byte[is.available()];
+         is.readFully(result);
+      }
+
+      catch (IndexOutOfBoundsException ex)
+      {
+         result = null;
+      }
+
+      finally
+      {
+         is.close();
+      }
+
+      return result;
+   }
+
+   /**
+    * Generate the key used to identify a document.
+    *
+    * @param directory directory name
+    * @param name document name
+    * @return key
+    */
+   private String getKey(String directory, String name)
+   {
+      return directory + "/" + name;
+   }
+
+   /**
+    * Input stream used to read a document from the snapshot. This matches
+    * the behaviour of the POI document input stream, which returns zero
+    * rather than end of file when asked to read zero bytes.
+    */
+   private static final class SnapshotInputStream extends ByteArrayInputStream
+   {
+      /**
+       * Constructor.
+       *
+       * @param data document content
+       */
+      public SnapshotInputStream(byte[] data)
+      {
+         super(data);
+      }
+
+      @Override public synchronized int read(byte[] b, int off, int len)
+      {
+         return len == 0 ? 0 : super.read(b, off, len);
+      }
+   }
+
+   private final Map<String, byte[]> m_documents = new HashMap<String, byte[]>();
+}
@@ -59,17 +59,29 @@ class DocumentInputStreamFactory
    public InputStream getInstance(DirectoryEntry directory, String name) throws IOException
    {
       DocumentEntry entry = (DocumentEntry) directory.getEntry(name);
-      InputStream stream;
+      return getInstance(new DocumentInputStream(entry));
+   }
+
+   /**
+    * Wrap an existing input stream with one which can deal with
+    * "encrypted" data if required.
+    *
+    * @param stream input stream
+    * @return new input stream
+    */
+   public InputStream getInstance(InputStream stream)
+   {
+      InputStream result;
       if (m_encrypted)
       {
-         stream = new EncryptedDocumentInputStream(entry, m_encryptionCode);
+         result = new EncryptedDocumentInputStream(stream, m_encryptionCode);
       }
       else
       {
-         stream = new DocumentInputStream(entry);
+         result = stream;
       }
 
-      return stream;
+      return result;
    }
 
    /**
@@ -46,7 +46,18 @@ final class EncryptedDocumentInputStream extends InputStream
    public EncryptedDocumentInputStream(DocumentEntry entry, int mask)
       throws IOException
    {
-      m_dis = new DocumentInputStream(entry);
+      this(new DocumentInputStream(entry), mask);
+   }
+
+   /**
+    * Constructor.
+    *
+    * @param stream stream containing encrypted data
+    * @param mask the mask used to decrypt the stream.
+    */
+   public EncryptedDocumentInputStream(InputStream stream, int mask)
+   {
+      m_dis = stream;
       m_mask = mask;
    }
 
@@ -76,7 +87,7 @@ final class EncryptedDocumentInputStream extends InputStream
    /**
     * {@inheritDoc}
     */
-   @Override public int available()
+   @Override public int available() throws IOException
    {
       return m_dis.available();
    }
@@ -84,7 +95,7 @@ final class EncryptedDocumentInputStream extends InputStream
    /**
     * {@inheritDoc}
     */
-   @Override public void close()
+   @Override public void close() throws IOException
    {
       m_dis.close();
    }
@@ -108,7 +119,7 @@ final class EncryptedDocumentInputStream extends InputStream
    /**
     * {@inheritDoc}
     */
-   @Override public synchronized void reset()
+   @Override public synchronized void reset() throws IOException
    {
       m_dis.reset();
    }
@@ -121,6 +132,6 @@ final class EncryptedDocumentInputStream extends InputStream
       return m_dis.skip(n);
    }
 
-   private final DocumentInputStream m_dis;
+   private final InputStream m_dis;
    private final int m_mask;
 }
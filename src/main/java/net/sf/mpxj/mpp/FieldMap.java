@@ -29,10 +29,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import net.sf.mpxj.AccrueType;
+import net.sf.mpxj.AssignmentField;
 import net.sf.mpxj.BookingType;
 import net.sf.mpxj.ConstraintType;
 import net.sf.mpxj.CustomFieldContainer;
@@ -44,7 +48,9 @@ import net.sf.mpxj.FieldType;
 import net.sf.mpxj.Priority;
 import net.sf.mpxj.ProjectProperties;
 import net.sf.mpxj.Rate;
+import net.sf.mpxj.ResourceField;
 import net.sf.mpxj.ResourceRequestType;
+import net.sf.mpxj.TaskField;
 import net.sf.mpxj.TaskType;
 import net.sf.mpxj.TimeUnit;
 import net.sf.mpxj.WorkGroup;
@@ -195,6 +201,7 @@ abstract class FieldMap
             System.out.println(ByteArrayHelper.hexdump(data, index, 28, false) + " " + item + " mpxjDataType=" + item.getType().getDataType() + " index=" + index);
          }
          m_map.put(type, item);
+         m_containerItems.clear();
 
          index += 28;
       }
@@ -340,6 +347,7 @@ abstract class FieldMap
                int varDataKey = (typeValue & 0xFFFF);
                FieldItem item = new FieldItem(type, FieldLocation.VAR_DATA, 0, 0, varDataKey, 0, 0);
                m_map.put(type, item);
+               m_containerItems.clear();
                //System.out.println(item);
             }
             //System.out.println((type == null ? "?" : type.getClass().getSimpleName() + "." + type) + " " + Integer.toHexString(typeValue));
@@ -416,6 +424,7 @@ abstract class FieldMap
       {
          m_map.put(item.getType(), item);
       }
+      m_containerItems.clear();
    }
 
    /**
@@ -431,16 +440,79 @@ abstract class FieldMap
    public void populateContainer(Class<? extends FieldType> type, FieldContainer container, Integer id, byte[][] fixedData, Var2Data varData)
    {
       //System.out.println(container.getClass().getSimpleName()+": " + id);
-      for (FieldItem item : m_map.values())
+      for (FieldItem item : getContainerItems(type))
       {
-         if (item.getType().getClass().equals(type))
+         //System.out.println(item.m_type);
+         Object value = item.read(id, fixedData, varData);
+         //System.out.println(item.m_type.getClass().getSimpleName() + "." + item.m_type +  ": " + value);
+         container.set(item.getType(), value);
+      }
+   }
+
+   /**
+    * Restrict the fields written to containers by populateContainer to
+    * those in the supplied set. Fields which are needed to build the
+    * structure of the project are always read. Passing null means
+    * that all fields will be read.
+    *
+    * @param filter set of fields to read, or null to read all fields
+    */
+   public void setFieldFilter(Set<FieldType> filter)
+   {
+      if (filter == null)
+      {
+         m_filter = null;
+      }
+      else
+      {
+         m_filter = new HashSet<FieldType>(filter);
+         m_filter.addAll(REQUIRED_FIELDS);
+      }
+      m_containerItems.clear();
+   }
+
+   /**
+    * Retrieve the field item for a specific field, provided that it would
+    * be read for the given container type, taking into account any field filter.
+    *
+    * @param type expected type
+    * @param field field type
+    * @return field item, or null if the field will not be read
+    */
+   FieldItem getContainerItem(Class<? extends FieldType> type, FieldType field)
+   {
+      FieldItem result = m_map.get(field);
+      if (result != null && (!field.getClass().equals(type) || (m_filter != null && !m_filter.contains(field))))
+      {
+         result = null;
+      }
+      return result;
+   }
+
+   /**
+    * Retrieve the field items which will be read for a given container
+    * type, taking into account any field filter.
+    *
+    * @param type expected type
+    * @return field items
+    */
+   synchronized FieldItem[] getContainerItems(Class<? extends FieldType> type)
+   {
+      FieldItem[] result = m_containerItems.get(type);
+      if (result == null)
+      {
+         List<FieldItem> items = new ArrayList<FieldItem>();
+         for (FieldItem item : m_map.values())
          {
-            //System.out.println(item.m_type);
-            Object value = item.read(id, fixedData, varData);
-            //System.out.println(item.m_type.getClass().getSimpleName() + "." + item.m_type +  ": " + value);
-            container.set(item.getType(), value);
+            if (item.getType().getClass().equals(type) && (m_filter == null || m_filter.contains(item.getType())))
+            {
+               items.add(item);
+            }
          }
+         result = items.toArray(new FieldItem[items.size()]);
+         m_containerItems.put(type, result);
       }
+      return result;
    }
 
    /**
@@ -569,6 +641,7 @@ abstract class FieldMap
    public void clear()
    {
       m_map.clear();
+      m_containerItems.clear();
       Arrays.fill(m_maxFixedDataSize, 0);
    }
 
@@ -1300,6 +1373,8 @@ abstract class FieldMap
    final VarDataFieldReader m_doubleVarDataReader;
    final VarDataFieldReader m_timestampVarDataReader;
    private Map<FieldType, FieldItem> m_map = new HashMap<FieldType, FieldItem>();
+   private Map<Class<? extends FieldType>, FieldItem[]> m_containerItems = new HashMap<Class<? extends FieldType>, FieldItem[]>();
+   private Set<FieldType> m_filter;
    private int[] m_maxFixedDataSize = new int[MAX_FIXED_DATA_BLOCKS];
    private boolean m_debug;
 
@@ -1332,4 +1407,73 @@ abstract class FieldMap
    };
 
    private static final int MAX_FIXED_DATA_BLOCKS = 2;
+
+   /**
+    * Fields which are always read, regardless of any field filter,
+    * as they are used when building the structure of the project.
+    */
+   private static final Set<FieldType> REQUIRED_FIELDS = new HashSet<FieldType>();
+   static
+   {
+      REQUIRED_FIELDS.add(TaskField.UNIQUE_ID);
+      REQUIRED_FIELDS.add(TaskField.ID);
+      REQUIRED_FIELDS.add(TaskField.NAME);
+      REQUIRED_FIELDS.add(TaskField.PARENT_TASK_UNIQUE_ID);
+      REQUIRED_FIELDS.add(TaskField.OUTLINE_LEVEL);
+      REQUIRED_FIELDS.add(TaskField.SUBPROJECT_TASK_ID);
+      REQUIRED_FIELDS.add(TaskField.TASK_MODE);
+      REQUIRED_FIELDS.add(TaskField.START);
+      REQUIRED_FIELDS.add(TaskField.FINISH);
+      REQUIRED_FIELDS.add(TaskField.DURATION);
+      REQUIRED_FIELDS.add(TaskField.SCHEDULED_START);
+      REQUIRED_FIELDS.add(TaskField.SCHEDULED_FINISH);
+      REQUIRED_FIELDS.add(TaskField.SCHEDULED_DURATION);
+      REQUIRED_FIELDS.add(TaskField.LATE_START);
+      REQUIRED_FIELDS.add(TaskField.LATE_FINISH);
+      REQUIRED_FIELDS.add(TaskField.CONSTRAINT_TYPE);
+      REQUIRED_FIELDS.add(TaskField.CALENDAR_UNIQUE_ID);
+      REQUIRED_FIELDS.add(TaskField.CREATED);
+      REQUIRED_FIELDS.add(TaskField.WBS);
+      REQUIRED_FIELDS.add(TaskField.IGNORE_RESOURCE_CALENDAR);
+      REQUIRED_FIELDS.add(TaskField.OUTLINE_CODE1_INDEX);
+      REQUIRED_FIELDS.add(TaskField.OUTLINE_CODE2_INDEX);
+      REQUIRED_FIELDS.add(TaskField.OUTLINE_CODE3_INDEX);
+      REQUIRED_FIELDS.add(TaskField.OUTLINE_CODE4_INDEX);
+      REQUIRED_FIELDS.add(TaskField.OUTLINE_CODE5_INDEX);
+      REQUIRED_FIELDS.add(TaskField.OUTLINE_CODE6_INDEX);
+      REQUIRED_FIELDS.add(TaskField.OUTLINE_CODE7_INDEX);
+      REQUIRED_FIELDS.add(TaskField.OUTLINE_CODE8_INDEX);
+      REQUIRED_FIELDS.add(TaskField.OUTLINE_CODE9_INDEX);
+      REQUIRED_FIELDS.add(TaskField.OUTLINE_CODE10_INDEX);
+
+      REQUIRED_FIELDS.add(ResourceField.UNIQUE_ID);
+      REQUIRED_FIELDS.add(ResourceField.ID);
+      REQUIRED_FIELDS.add(ResourceField.NAME);
+      REQUIRED_FIELDS.add(ResourceField.TYPE);
+      REQUIRED_FIELDS.add(ResourceField.CALENDAR_UNIQUE_ID);
+      REQUIRED_FIELDS.add(ResourceField.STANDARD_RATE);
+      REQUIRED_FIELDS.add(ResourceField.OVERTIME_RATE);
+      REQUIRED_FIELDS.add(ResourceField.COST_PER_USE);
+      REQUIRED_FIELDS.add(ResourceField.MAX_UNITS);
+      REQUIRED_FIELDS.add(ResourceField.OUTLINE_CODE1_INDEX);
+      REQUIRED_FIELDS.add(ResourceField.OUTLINE_CODE2_INDEX);
+      REQUIRED_FIELDS.add(ResourceField.OUTLINE_CODE3_INDEX);
+      REQUIRED_FIELDS.add(ResourceField.OUTLINE_CODE4_INDEX);
+      REQUIRED_FIELDS.add(ResourceField.OUTLINE_CODE5_INDEX);
+      REQUIRED_FIELDS.add(ResourceField.OUTLINE_CODE6_INDEX);
+      REQUIRED_FIELDS.add(ResourceField.OUTLINE_CODE7_INDEX);
+      REQUIRED_FIELDS.add(ResourceField.OUTLINE_CODE8_INDEX);
+      REQUIRED_FIELDS.add(ResourceField.OUTLINE_CODE9_INDEX);
+      REQUIRED_FIELDS.add(ResourceField.OUTLINE_CODE10_INDEX);
+
+      REQUIRED_FIELDS.add(AssignmentField.UNIQUE_ID);
+      REQUIRED_FIELDS.add(AssignmentField.TASK_UNIQUE_ID);
+      REQUIRED_FIELDS.add(AssignmentField.RESOURCE_UNIQUE_ID);
+      REQUIRED_FIELDS.add(AssignmentField.START);
+      REQUIRED_FIELDS.add(AssignmentField.FINISH);
+      REQUIRED_FIELDS.add(AssignmentField.ASSIGNMENT_UNITS);
+      REQUIRED_FIELDS.add(AssignmentField.WORK);
+      REQUIRED_FIELDS.add(AssignmentField.REMAINING_WORK);
+      REQUIRED_FIELDS.add(AssignmentField.CREATED);
+   }
 }
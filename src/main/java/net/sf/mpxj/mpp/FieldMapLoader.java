@@ -0,0 +1,147 @@
+/*
+ * file:       FieldMapLoader.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+
+package net.sf.mpxj.mpp;
+
+import net.sf.mpxj.FieldLoader;
+import net.sf.mpxj.FieldType;
+
+/**
+ * Retains the raw data read for an entity from an MPP file, allowing
+ * individual fields to be decoded on demand using one or more field maps.
+ * Where more than one field map can supply a field, the value from the
+ * field map added last is used, mirroring the behaviour of populating
+ * a container from each field map in turn.
+ */
+final class FieldMapLoader implements FieldLoader
+{
+   /**
+    * Constructor.
+    *
+    * @param type expected field type
+    * @param id entity ID
+    * @param varData var data block
+    */
+   public FieldMapLoader(Class<? extends FieldType> type, Integer id, Var2Data varData)
+   {
+      m_type = type;
+      m_id = id;
+      m_varData = varData;
+   }
+
+   /**
+    * Add a field map, and the associated fixed data.
+    *
+    * @param fieldMap field map
+    * @param fixedData fixed data blocks for this entity
+    */
+   public void add(FieldMap fieldMap, byte[][] fixedData)
+   {
+      if (fieldMap != null)
+      {
+         FieldMap[] fieldMaps = new FieldMap[m_fieldMaps.length + 1];
+         System.arraycopy(m_fieldMaps, 0, fieldMaps, 1, m_fieldMaps.length);
+         fieldMaps[0] = fieldMap;
+         m_fieldMaps = fieldMaps;
+
+         byte[][][] data = new byte[m_fixedData.length + 1][][];
+         System.arraycopy(m_fixedData, 0, data, 1, m_fixedData.length);
+         data[0] = fixedData;
+         m_fixedData = data;
+      }
+   }
+
+   @Override public boolean contains(FieldType field)
+   {
+      boolean result = false;
+      for (FieldMap fieldMap : m_fieldMaps)
+      {
+         if (fieldMap.getContainerItem(m_type, field) != null)
+         {
+            result = true;
+            break;
+         }
+      }
+      return result;
+   }
+
+   @Override public int getFieldCount()
+   {
+      int result = 0;
+      for (int index = 0; index < m_fieldMaps.length; index++)
+      {
+         for (FieldMap.FieldItem item : m_fieldMaps[index].getContainerItems(m_type))
+         {
+            if (!contains(index, item.getType()))
+            {
+               ++result;
+            }
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Determine if a field can be supplied by a field map which
+    * takes precedence over the field map at the given position.
+    *
+    * @param position field map position
+    * @param field field type
+    * @return true if a field map which takes precedence can supply this field
+    */
+   private boolean contains(int position, FieldType field)
+   {
+      boolean result = false;
+      for (int index = 0; index < position; index++)
+      {
+         if (m_fieldMaps[index].getContainerItem(m_type, field) != null)
+         {
+            result = true;
+            break;
+         }
+      }
+      return result;
+   }
+
+   @Override public Object load(FieldType field)
+   {
+      Object result = null;
+      for (int index = 0; index < m_fieldMaps.length; index++)
+      {
+         FieldMap.FieldItem item = m_fieldMaps[index].getContainerItem(m_type, field);
+         if (item != null)
+         {
+            result = item.read(m_id, m_fixedData[index], m_varData);
+            break;
+         }
+      }
+      return result;
+   }
+
+   private final Class<? extends FieldType> m_type;
+   private final Integer m_id;
+   private final Var2Data m_varData;
+   private FieldMap[] m_fieldMaps = new FieldMap[0];
+   private byte[][][] m_fixedData = new byte[0][][];
+}
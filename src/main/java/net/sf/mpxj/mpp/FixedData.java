@@ -29,6 +29,7 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 
 import net.sf.mpxj.common.ByteArrayHelper;
+import net.sf.mpxj.common.IntIntMap;
 
 /**
  * This class is used to represent the "FixedData" file entries that are
@@ -102,7 +103,7 @@ final class FixedData extends MPPComponent
       is.read(buffer);
 
       int itemCount = meta.getAdjustedItemCount();
-      m_array = new Object[itemCount];
+      m_array = new byte[itemCount][];
       m_offset = new int[itemCount];
 
       int available;
@@ -185,7 +186,7 @@ final class FixedData extends MPPComponent
       is.read(buffer);
 
       int itemCount = meta.getAdjustedItemCount();
-      m_array = new Object[itemCount];
+      m_array = new byte[itemCount][];
       m_offset = new int[itemCount];
 
       byte[] metaData;
@@ -260,7 +261,7 @@ final class FixedData extends MPPComponent
          ++itemCount;
       }
 
-      m_array = new Object[itemCount];
+      m_array = new byte[itemCount][];
       m_offset = new int[itemCount];
 
       for (int loop = 0; loop < itemCount; loop++)
@@ -289,14 +290,50 @@ final class FixedData extends MPPComponent
    {
       byte[] result = null;
 
-      if (index >= 0 && index < m_array.length && m_array[index] != null)
+      if (index >= 0 && index < m_array.length)
       {
-         result = (byte[]) m_array[index];
+         result = m_array[index];
       }
 
       return (result);
    }
 
+   /**
+    * Retrieve the length of the data item at the given index. If no data
+    * is found at the given index this method returns -1.
+    *
+    * @param index index of the data item
+    * @return item length
+    */
+   public int getItemLength(int index)
+   {
+      return (index >= 0 && index < m_array.length && m_array[index] != null ? m_array[index].length : -1);
+   }
+
+   /**
+    * Read a two byte integer from the data item at the given index.
+    *
+    * @param index index of the data item
+    * @param offset offset into the data item
+    * @return integer value
+    */
+   public int getShort(int index, int offset)
+   {
+      return (MPPUtility.getShort(m_array[index], offset));
+   }
+
+   /**
+    * Read a four byte integer from the data item at the given index.
+    *
+    * @param index index of the data item
+    * @param offset offset into the data item
+    * @return integer value
+    */
+   public int getInt(int index, int offset)
+   {
+      return (MPPUtility.getInt(m_array[index], offset));
+   }
+
    /**
     * Accessor method used to retrieve the number of items held in
     * this fixed data block. Note that this item count is made without
@@ -343,18 +380,20 @@ final class FixedData extends MPPComponent
     */
    public int getIndexFromOffset(int offset)
    {
-      int result = -1;
-
-      for (int loop = 0; loop < m_offset.length; loop++)
+      if (m_offsetIndex == null)
       {
-         if (m_offset[loop] == offset)
+         IntIntMap index = new IntIntMap(m_offset.length);
+         for (int loop = 0; loop < m_offset.length; loop++)
          {
-            result = loop;
-            break;
+            if (!index.containsKey(m_offset[loop]))
+            {
+               index.put(m_offset[loop], loop);
+            }
          }
+         m_offsetIndex = index;
       }
 
-      return (result);
+      return (m_offsetIndex.get(offset, -1));
    }
 
    /**
@@ -372,7 +411,7 @@ final class FixedData extends MPPComponent
       for (int loop = 0; loop < m_array.length; loop++)
       {
          pw.println("   Data at index: " + loop + " offset: " + m_offset[loop]);
-         pw.println("  " + ByteArrayHelper.hexdump((byte[]) m_array[loop], true));
+         pw.println("  " + ByteArrayHelper.hexdump(m_array[loop], true));
       }
       pw.println("END FixedData");
 
@@ -384,11 +423,16 @@ final class FixedData extends MPPComponent
    /**
     * An array containing all of the items of data held in this block.
     */
-   private Object[] m_array;
+   private byte[][] m_array;
 
    /**
     * Array containing offset values for each item in the array.
     */
    private int[] m_offset;
 
+   /**
+    * Index of item offsets to array indexes, built on demand.
+    */
+   private IntIntMap m_offsetIndex;
+
 }
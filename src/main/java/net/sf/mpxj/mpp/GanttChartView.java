@@ -24,7 +24,6 @@
 package net.sf.mpxj.mpp;
 
 import java.awt.Color;
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
@@ -115,7 +114,7 @@ public abstract class GanttChartView extends GenericView
       byte[] propsData = varData.getByteArray(m_id, getPropertiesID());
       if (propsData != null)
       {
-         Props9 props = new Props9(new ByteArrayInputStream(propsData));
+         Props9 props = new Props9(propsData);
          //MPPUtility.fileDump("c:\\temp\\props.txt", props.toString().getBytes());
 
          byte[] tableData = props.getByteArray(TABLE_PROPERTIES);
@@ -23,7 +23,6 @@
 
 package net.sf.mpxj.mpp;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 
 import net.sf.mpxj.ProjectFile;
@@ -58,7 +57,7 @@ public abstract class GenericView extends AbstractMppView
       byte[] propsData = varData.getByteArray(m_id, getPropertiesID());
       if (propsData != null)
       {
-         Props9 props = new Props9(new ByteArrayInputStream(propsData));
+         Props9 props = new Props9(propsData);
          //MPPUtility.fileDump("c:\\temp\\props.txt", props.toString().getBytes());
 
          byte[] tableName = props.getByteArray(TABLE_NAME);
@@ -39,6 +39,7 @@ import org.apache.poi.poifs.filesystem.DocumentInputStream;
 import net.sf.mpxj.AssignmentField;
 import net.sf.mpxj.EventManager;
 import net.sf.mpxj.MPXJException;
+import net.sf.mpxj.PresentationDataType;
 import net.sf.mpxj.ProjectCalendar;
 import net.sf.mpxj.ProjectFile;
 import net.sf.mpxj.ProjectProperties;
@@ -94,11 +95,18 @@ final class MPP12Reader implements MPPVariantReader
             if (reader.getReadPresentationData())
             {
                processViewPropertyData();
-               processTableData();
-               processViewData();
-               processFilterData();
-               processGroupData();
-               processSavedViewState();
+               if (reader.getLoadPresentationDataOnDemand())
+               {
+                  m_file.setPresentationDataLoader(new PresentationDataLoader12(this));
+               }
+               else
+               {
+                  processTableData();
+                  processViewData();
+                  processFilterData();
+                  processGroupData();
+                  processSavedViewState();
+               }
             }
          }
       }
@@ -812,8 +820,8 @@ final class MPP12Reader implements MPPVariantReader
       //
       for (int loop = 3; loop < itemCount; loop++)
       {
-         byte[] data = taskFixedData.getByteArrayValue(loop);
-         if (data != null)
+         int dataLength = taskFixedData.getItemLength(loop);
+         if (dataLength != -1)
          {
             byte[] metaData = taskFixedMeta.getByteArrayValue(loop);
 
@@ -831,7 +839,7 @@ final class MPP12Reader implements MPPVariantReader
                // So let's add the unique id for the deleted task into the map so we don't
                // accidentally include the task later.
                //
-               uniqueID = MPPUtility.getShort(data, TASK_UNIQUE_ID_FIXED_OFFSET); // Only a short stored for deleted tasks?
+               uniqueID = taskFixedData.getShort(loop, TASK_UNIQUE_ID_FIXED_OFFSET); // Only a short stored for deleted tasks?
                key = Integer.valueOf(uniqueID);
                if (taskMap.containsKey(key) == false)
                {
@@ -843,9 +851,9 @@ final class MPP12Reader implements MPPVariantReader
                //
                // Do we have a null task?
                //
-               if (data.length == NULL_TASK_BLOCK_SIZE)
+               if (dataLength == NULL_TASK_BLOCK_SIZE)
                {
-                  uniqueID = MPPUtility.getInt(data, TASK_UNIQUE_ID_FIXED_OFFSET);
+                  uniqueID = taskFixedData.getInt(loop, TASK_UNIQUE_ID_FIXED_OFFSET);
                   key = Integer.valueOf(uniqueID);
                   if (taskMap.containsKey(key) == false)
                   {
@@ -859,9 +867,9 @@ final class MPP12Reader implements MPPVariantReader
                   // the task is valid.
                   //
                   int maxSize = fieldMap.getMaxFixedDataSize(0);
-                  if (maxSize == 0 || ((data.length * 100) / maxSize) > 75)
+                  if (maxSize == 0 || ((dataLength * 100) / maxSize) > 75)
                   {
-                     uniqueID = MPPUtility.getInt(data, uniqueIdOffset);
+                     uniqueID = taskFixedData.getInt(loop, uniqueIdOffset);
                      key = Integer.valueOf(uniqueID);
 
                      // Accept this task if it does not have a deleted unique ID or it has a deleted unique ID but the name is not null
@@ -894,13 +902,13 @@ final class MPP12Reader implements MPPVariantReader
 
       for (int loop = 0; loop < itemCount; loop++)
       {
-         byte[] data = rscFixedData.getByteArrayValue(loop);
-         if (data == null || data.length < fieldMap.getMaxFixedDataSize(0))
+         int dataLength = rscFixedData.getItemLength(loop);
+         if (dataLength == -1 || dataLength < fieldMap.getMaxFixedDataSize(0))
          {
             continue;
          }
 
-         Integer uniqueID = Integer.valueOf(MPPUtility.getShort(data, 0));
+         Integer uniqueID = Integer.valueOf(rscFixedData.getShort(loop, 0));
          if (resourceMap.containsKey(uniqueID) == false)
          {
             resourceMap.put(uniqueID, Integer.valueOf(loop));
@@ -937,9 +945,11 @@ final class MPP12Reader implements MPPVariantReader
    private void processTaskData() throws IOException
    {
       FieldMap fieldMap = new FieldMap12(m_file.getProjectProperties(), m_file.getCustomFields());
+      fieldMap.setFieldFilter(m_reader.getFieldFilter());
       fieldMap.createTaskFieldMap(m_projectProps);
 
       FieldMap enterpriseCustomFieldMap = new FieldMap12(m_file.getProjectProperties(), m_file.getCustomFields());
+      enterpriseCustomFieldMap.setFieldFilter(m_reader.getFieldFilter());
       enterpriseCustomFieldMap.createEnterpriseCustomFieldMap(m_projectProps, TaskField.class);
 
       DirectoryEntry taskDir = (DirectoryEntry) m_projectDir.getEntry("TBkndTask");
@@ -1055,13 +1065,27 @@ final class MPP12Reader implements MPPVariantReader
 
          task.disableEvents();
 
-         fieldMap.populateContainer(TaskField.class, task, uniqueID, new byte[][]
+         if (m_reader.getLoadFieldsOnDemand())
+         {
+            FieldMapLoader loader = new FieldMapLoader(TaskField.class, uniqueID, taskVarData);
+            loader.add(fieldMap, new byte[][]
+            {
+               data,
+               data2
+            });
+            loader.add(enterpriseCustomFieldMap, null);
+            task.setFieldLoader(loader);
+         }
+         else
          {
-            data,
-            data2
-         }, taskVarData);
+            fieldMap.populateContainer(TaskField.class, task, uniqueID, new byte[][]
+            {
+               data,
+               data2
+            }, taskVarData);
 
-         enterpriseCustomFieldMap.populateContainer(TaskField.class, task, uniqueID, null, taskVarData);
+            enterpriseCustomFieldMap.populateContainer(TaskField.class, task, uniqueID, null, taskVarData);
+         }
 
          task.enableEvents();
 
@@ -1286,7 +1310,7 @@ final class MPP12Reader implements MPPVariantReader
       //
       TreeMap<Integer, Integer> taskMap = new TreeMap<Integer, Integer>();     
       int nextIDIncrement = ((m_nullTaskOrder.size() / 1000) + 1) * 1000;
-      int nextID = (m_file.getTaskByUniqueID(Integer.valueOf(0)) == null ? nextIDIncrement : 0);
+      int nextID = (m_file.getTaskByUniqueID(0) == null ? nextIDIncrement : 0);
       for (Map.Entry<Long, Integer> entry : m_taskOrder.entrySet())
       {
          taskMap.put(Integer.valueOf(nextID), entry.getValue());
@@ -1321,7 +1345,7 @@ final class MPP12Reader implements MPPVariantReader
       //
       // Finally, we can renumber the tasks
       //
-      nextID = (m_file.getTaskByUniqueID(Integer.valueOf(0)) == null ? 1 : 0);
+      nextID = (m_file.getTaskByUniqueID(0) == null ? 1 : 0);
       for (Map.Entry<Integer, Integer> entry : taskMap.entrySet())
       {
          Task task = m_file.getTaskByUniqueID(entry.getValue());
@@ -1683,9 +1707,11 @@ final class MPP12Reader implements MPPVariantReader
    private void processResourceData() throws IOException
    {
       FieldMap fieldMap = new FieldMap12(m_file.getProjectProperties(), m_file.getCustomFields());
+      fieldMap.setFieldFilter(m_reader.getFieldFilter());
       fieldMap.createResourceFieldMap(m_projectProps);
 
       FieldMap enterpriseCustomFieldMap = new FieldMap12(m_file.getProjectProperties(), m_file.getCustomFields());
+      enterpriseCustomFieldMap.setFieldFilter(m_reader.getFieldFilter());
       enterpriseCustomFieldMap.createEnterpriseCustomFieldMap(m_projectProps, ResourceField.class);
 
       DirectoryEntry rscDir = (DirectoryEntry) m_projectDir.getEntry("TBkndRsc");
@@ -1737,13 +1763,27 @@ final class MPP12Reader implements MPPVariantReader
          resource = m_file.addResource();
 
          resource.disableEvents();
-         fieldMap.populateContainer(ResourceField.class, resource, id, new byte[][]
+         if (m_reader.getLoadFieldsOnDemand())
          {
-            data,
-            data2
-         }, rscVarData);
+            FieldMapLoader loader = new FieldMapLoader(ResourceField.class, id, rscVarData);
+            loader.add(fieldMap, new byte[][]
+            {
+               data,
+               data2
+            });
+            loader.add(enterpriseCustomFieldMap, null);
+            resource.setFieldLoader(loader);
+         }
+         else
+         {
+            fieldMap.populateContainer(ResourceField.class, resource, id, new byte[][]
+            {
+               data,
+               data2
+            }, rscVarData);
 
-         enterpriseCustomFieldMap.populateContainer(ResourceField.class, resource, id, null, rscVarData);
+            enterpriseCustomFieldMap.populateContainer(ResourceField.class, resource, id, null, rscVarData);
+         }
 
          resource.enableEvents();
 
@@ -1854,9 +1894,11 @@ final class MPP12Reader implements MPPVariantReader
    private void processAssignmentData() throws IOException
    {
       FieldMap fieldMap = new FieldMap12(m_file.getProjectProperties(), m_file.getCustomFields());
+      fieldMap.setFieldFilter(m_reader.getFieldFilter());
       fieldMap.createAssignmentFieldMap(m_projectProps);
 
       FieldMap enterpriseCustomFieldMap = new FieldMap12(m_file.getProjectProperties(), m_file.getCustomFields());
+      enterpriseCustomFieldMap.setFieldFilter(m_reader.getFieldFilter());
       enterpriseCustomFieldMap.createEnterpriseCustomFieldMap(m_projectProps, AssignmentField.class);
 
       DirectoryEntry assnDir = (DirectoryEntry) m_projectDir.getEntry("TBkndAssn");
@@ -1868,7 +1910,7 @@ final class MPP12Reader implements MPPVariantReader
       FixedData assnFixedData = new FixedData(assnFixedMeta, m_inputStreamFactory.getInstance(assnDir, "FixedData"));
       FixedData assnFixedData2 = new FixedData(48, m_inputStreamFactory.getInstance(assnDir, "Fixed2Data"));
       ResourceAssignmentFactory factory = new ResourceAssignmentFactory();
-      factory.process(m_file, fieldMap, enterpriseCustomFieldMap, m_reader.getUseRawTimephasedData(), m_reader.getPreserveNoteFormatting(), assnVarMeta, assnVarData, assnFixedMeta, assnFixedData, assnFixedData2, assnFixedMeta.getAdjustedItemCount());
+      factory.process(m_file, fieldMap, enterpriseCustomFieldMap, m_reader.getUseRawTimephasedData(), m_reader.getPreserveNoteFormatting(), m_reader.getLoadFieldsOnDemand(), assnVarMeta, assnVarData, assnFixedMeta, assnFixedData, assnFixedData2, assnFixedMeta.getAdjustedItemCount());
    }
 
    /**
@@ -1889,11 +1931,10 @@ final class MPP12Reader implements MPPVariantReader
     */
    private void processViewData() throws IOException
    {
-      DirectoryEntry dir = (DirectoryEntry) m_viewDir.getEntry("CV_iew");
-      VarMeta viewVarMeta = new VarMeta12(new DocumentInputStream(((DocumentEntry) dir.getEntry("VarMeta"))));
-      Var2Data viewVarData = new Var2Data(viewVarMeta, new DocumentInputStream(((DocumentEntry) dir.getEntry("Var2Data"))));
-      FixedMeta fixedMeta = new FixedMeta(new DocumentInputStream(((DocumentEntry) dir.getEntry("FixedMeta"))), 10);
-      FixedData fixedData = new FixedData(138, m_inputStreamFactory.getInstance(dir, "FixedData"));
+      VarMeta viewVarMeta = new VarMeta12(getPresentationStream("CV_iew", "VarMeta"));
+      Var2Data viewVarData = new Var2Data(viewVarMeta, getPresentationStream("CV_iew", "Var2Data"));
+      FixedMeta fixedMeta = new FixedMeta(getPresentationStream("CV_iew", "FixedMeta"), 10);
+      FixedData fixedData = new FixedData(138, m_inputStreamFactory.getInstance(getPresentationStream("CV_iew", "FixedData")));
 
       int items = fixedMeta.getAdjustedItemCount();
       View view;
@@ -1924,11 +1965,9 @@ final class MPP12Reader implements MPPVariantReader
     */
    private void processTableData() throws IOException
    {
-      DirectoryEntry dir = (DirectoryEntry) m_viewDir.getEntry("CTable");
-
-      VarMeta varMeta = new VarMeta12(new DocumentInputStream(((DocumentEntry) dir.getEntry("VarMeta"))));
-      Var2Data varData = new Var2Data(varMeta, new DocumentInputStream(((DocumentEntry) dir.getEntry("Var2Data"))));
-      FixedData fixedData = new FixedData(230, new DocumentInputStream(((DocumentEntry) dir.getEntry("FixedData"))));
+      VarMeta varMeta = new VarMeta12(getPresentationStream("CTable", "VarMeta"));
+      Var2Data varData = new Var2Data(varMeta, getPresentationStream("CTable", "Var2Data"));
+      FixedData fixedData = new FixedData(230, getPresentationStream("CTable", "FixedData"));
       //System.out.println(varMeta);
       //System.out.println(varData);
       //System.out.println(fixedData);
@@ -1952,11 +1991,10 @@ final class MPP12Reader implements MPPVariantReader
     */
    private void processFilterData() throws IOException
    {
-      DirectoryEntry dir = (DirectoryEntry) m_viewDir.getEntry("CFilter");
-      FixedMeta fixedMeta = new FixedMeta(new DocumentInputStream(((DocumentEntry) dir.getEntry("FixedMeta"))), 10);
-      FixedData fixedData = new FixedData(fixedMeta, m_inputStreamFactory.getInstance(dir, "FixedData"));
-      VarMeta varMeta = new VarMeta12(new DocumentInputStream(((DocumentEntry) dir.getEntry("VarMeta"))));
-      Var2Data varData = new Var2Data(varMeta, new DocumentInputStream(((DocumentEntry) dir.getEntry("Var2Data"))));
+      FixedMeta fixedMeta = new FixedMeta(getPresentationStream("CFilter", "FixedMeta"), 10);
+      FixedData fixedData = new FixedData(fixedMeta, m_inputStreamFactory.getInstance(getPresentationStream("CFilter", "FixedData")));
+      VarMeta varMeta = new VarMeta12(getPresentationStream("CFilter", "VarMeta"));
+      Var2Data varData = new Var2Data(varMeta, getPresentationStream("CFilter", "Var2Data"));
 
       //System.out.println(fixedMeta);
       //System.out.println(fixedData);
@@ -1974,13 +2012,12 @@ final class MPP12Reader implements MPPVariantReader
     */
    private void processSavedViewState() throws IOException
    {
-      DirectoryEntry dir = (DirectoryEntry) m_viewDir.getEntry("CEdl");
-      VarMeta varMeta = new VarMeta12(new DocumentInputStream(((DocumentEntry) dir.getEntry("VarMeta"))));
-      Var2Data varData = new Var2Data(varMeta, new DocumentInputStream(((DocumentEntry) dir.getEntry("Var2Data"))));
+      VarMeta varMeta = new VarMeta12(getPresentationStream("CEdl", "VarMeta"));
+      Var2Data varData = new Var2Data(varMeta, getPresentationStream("CEdl", "Var2Data"));
       //System.out.println(varMeta);
       //System.out.println(varData);
 
-      InputStream is = new DocumentInputStream(((DocumentEntry) dir.getEntry("FixedData")));
+      InputStream is = getPresentationStream("CEdl", "FixedData");
       byte[] fixedData = new byte[is.available()];
       is.read(fixedData);
       is.close();
@@ -1990,6 +2027,31 @@ final class MPP12Reader implements MPPVariantReader
       reader.process(m_file, varData, fixedData);
    }
 
+   /**
+    * Retrieve an input stream for a document holding presentation data.
+    * When presentation data is being read on demand, the document is read
+    * from a snapshot taken when the file was read, otherwise it is read
+    * directly from the file.
+    *
+    * @param directory directory name
+    * @param name document name
+    * @return input stream
+    */
+   private InputStream getPresentationStream(String directory, String name) throws IOException
+   {
+      InputStream stream;
+      if (m_presentationData == null)
+      {
+         DirectoryEntry dir = (DirectoryEntry) m_viewDir.getEntry(directory);
+         stream = new DocumentInputStream(((DocumentEntry) dir.getEntry(name)));
+      }
+      else
+      {
+         stream = m_presentationData.getInputStream(directory, name);
+      }
+      return stream;
+   }
+
    /**
     * Read group definitions.
     *
@@ -1998,11 +2060,10 @@ final class MPP12Reader implements MPPVariantReader
     */
    private void processGroupData() throws IOException
    {
-      DirectoryEntry dir = (DirectoryEntry) m_viewDir.getEntry("CGrouping");
-      FixedMeta fixedMeta = new FixedMeta(new DocumentInputStream(((DocumentEntry) dir.getEntry("FixedMeta"))), 10);
-      FixedData fixedData = new FixedData(fixedMeta, m_inputStreamFactory.getInstance(dir, "FixedData"));
-      VarMeta varMeta = new VarMeta12(new DocumentInputStream(((DocumentEntry) dir.getEntry("VarMeta"))));
-      Var2Data varData = new Var2Data(varMeta, new DocumentInputStream(((DocumentEntry) dir.getEntry("Var2Data"))));
+      FixedMeta fixedMeta = new FixedMeta(getPresentationStream("CGrouping", "FixedMeta"), 10);
+      FixedData fixedData = new FixedData(fixedMeta, m_inputStreamFactory.getInstance(getPresentationStream("CGrouping", "FixedData")));
+      VarMeta varMeta = new VarMeta12(getPresentationStream("CGrouping", "VarMeta"));
+      Var2Data varData = new Var2Data(varMeta, getPresentationStream("CGrouping", "Var2Data"));
 
       //      System.out.println(fixedMeta);
       //      System.out.println(fixedData);
@@ -2108,6 +2169,65 @@ final class MPP12Reader implements MPPVariantReader
       return result;
    }
 
+   /**
+    * Decodes presentation data on demand, using a reader which retains
+    * only the data required for this purpose.
+    */
+   private static final class PresentationDataLoader12 extends AbstractPresentationDataLoader
+   {
+      /**
+       * Constructor.
+       *
+       * @param source reader which has just processed an MPP12 file
+       */
+      public PresentationDataLoader12(MPP12Reader source) throws IOException
+      {
+         m_reader = new MPP12Reader();
+         m_reader.m_file = source.m_file;
+         m_reader.m_presentationData = snapshotPresentationData(source.m_viewDir);
+         m_reader.m_inputStreamFactory = source.m_inputStreamFactory;
+         m_reader.m_fontBases = source.m_fontBases;
+      }
+
+      @Override protected void process(PresentationDataType type) throws IOException
+      {
+         switch (type)
+         {
+            case TABLES:
+            {
+               m_reader.processTableData();
+               break;
+            }
+
+            case VIEWS:
+            {
+               m_reader.processViewData();
+               break;
+            }
+
+            case FILTERS:
+            {
+               m_reader.processFilterData();
+               break;
+            }
+
+            case GROUPS:
+            {
+               m_reader.processGroupData();
+               break;
+            }
+
+            case VIEW_STATE:
+            {
+               m_reader.processSavedViewState();
+               break;
+            }
+         }
+      }
+
+      private final MPP12Reader m_reader;
+   }
+
    private MPPReader m_reader;
    private ProjectFile m_file;
    private EventManager m_eventManager;
@@ -2124,6 +2244,7 @@ final class MPP12Reader implements MPPVariantReader
    private Map<Integer, SubProject> m_taskSubProjects;
    private DirectoryEntry m_projectDir;
    private DirectoryEntry m_viewDir;
+   private DirectorySnapshot m_presentationData;
    private Map<Long, Integer> m_taskOrder;
    private Map<Integer, Integer> m_nullTaskOrder;
    private DocumentInputStreamFactory m_inputStreamFactory;
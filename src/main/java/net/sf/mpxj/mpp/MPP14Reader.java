@@ -26,6 +26,7 @@ package net.sf.mpxj.mpp;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -33,6 +34,10 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
 
 import org.apache.poi.poifs.filesystem.DirectoryEntry;
 import org.apache.poi.poifs.filesystem.DocumentEntry;
@@ -43,6 +48,7 @@ import net.sf.mpxj.Duration;
 import net.sf.mpxj.EventManager;
 import net.sf.mpxj.FieldContainer;
 import net.sf.mpxj.MPXJException;
+import net.sf.mpxj.PresentationDataType;
 import net.sf.mpxj.ProjectCalendar;
 import net.sf.mpxj.ProjectFile;
 import net.sf.mpxj.ProjectProperties;
@@ -85,6 +91,7 @@ final class MPP14Reader implements MPPVariantReader
 
          if (!reader.getReadPropertiesOnly())
          {
+            prepareDirectories();
             processSubProjectData();
             processGraphicalIndicators();
             processCustomValueLists();
@@ -99,11 +106,18 @@ final class MPP14Reader implements MPPVariantReader
             if (reader.getReadPresentationData())
             {
                processViewPropertyData();
-               processTableData();
-               processViewData();
-               processFilterData();
-               processGroupData();
-               processSavedViewState();
+               if (reader.getLoadPresentationDataOnDemand())
+               {
+                  m_file.setPresentationDataLoader(new PresentationDataLoader14(this));
+               }
+               else
+               {
+                  processTableData();
+                  processViewData();
+                  processFilterData();
+                  processGroupData();
+                  processSavedViewState();
+               }
             }
          }
       }
@@ -196,6 +210,89 @@ final class MPP14Reader implements MPPVariantReader
       m_parentTasks = null;
       m_taskOrder = null;
       m_nullTaskOrder = null;
+
+      if (m_preparedDirectories != null)
+      {
+         for (FutureTask<PreparedDirectory> task : m_preparedDirectories.values())
+         {
+            task.cancel(true);
+         }
+         m_preparedDirectories = null;
+      }
+   }
+
+   /**
+    * Set up the parsing of the task, resource and assignment directories.
+    * If the reader has been given an executor, the raw content of these
+    * directories is read here on the calling thread, as the POI file system
+    * does not support concurrent reads. Parsing this content is then
+    * submitted to the executor, and takes place while the rest of the
+    * file is read. Without an executor, each directory is parsed on the
+    * calling thread when it is first required.
+    */
+   private void prepareDirectories() throws IOException
+   {
+      ExecutorService executor = m_reader.getExecutor();
+      m_preparedDirectories = new HashMap<String, FutureTask<PreparedDirectory>>();
+
+      for (int index = 0; index < PREPARED_DIRECTORY_NAMES.length; index++)
+      {
+         String name = PREPARED_DIRECTORY_NAMES[index];
+         PreparedDirectory directory = new PreparedDirectory(m_projectDir, name, PREPARED_DIRECTORY_FIXED_META_ITEM_SIZES[index]);
+         FutureTask<PreparedDirectory> task = new FutureTask<PreparedDirectory>(directory);
+         if (executor != null)
+         {
+            directory.snapshot();
+            executor.execute(task);
+         }
+         m_preparedDirectories.put(name, task);
+      }
+   }
+
+   /**
+    * Retrieve a parsed task, resource or assignment directory. If parsing
+    * has not yet started on the executor, the directory is parsed on the
+    * calling thread, otherwise we wait for parsing to complete.
+    *
+    * @param name directory name
+    * @return parsed directory
+    */
+   private PreparedDirectory getPreparedDirectory(String name) throws IOException
+   {
+      FutureTask<PreparedDirectory> task = m_preparedDirectories.get(name);
+      task.run();
+
+      try
+      {
+         return task.get();
+      }
+
+      catch (InterruptedException ex)
+      {
+         Thread.currentThread().interrupt();
+         throw new InterruptedIOException(ex.getMessage());
+      }
+
+      catch (ExecutionException ex)
+      {
+         Throwable cause = ex.getCause();
+         if (cause instanceof IOException)
+         {
+            throw (IOException) cause;
+         }
+
+         if (cause instanceof RuntimeException)
+         {
+            throw (RuntimeException) cause;
+         }
+
+         if (cause instanceof Error)
+         {
+            throw (Error) cause;
+         }
+
+         throw new IOException(cause);
+      }
    }
 
    /**
@@ -823,8 +920,8 @@ final class MPP14Reader implements MPPVariantReader
       //
       for (int loop = 3; loop < itemCount; loop++)
       {
-         byte[] data = taskFixedData.getByteArrayValue(loop);
-         if (data != null)
+         int dataLength = taskFixedData.getItemLength(loop);
+         if (dataLength != -1)
          {
             byte[] metaData = taskFixedMeta.getByteArrayValue(loop);
 
@@ -842,7 +939,7 @@ final class MPP14Reader implements MPPVariantReader
                // So let's add the unique id for the deleted task into the map so we don't
                // accidentally include the task later.
                //
-               uniqueID = MPPUtility.getShort(data, TASK_UNIQUE_ID_FIXED_OFFSET); // Only a short stored for deleted tasks?
+               uniqueID = taskFixedData.getShort(loop, TASK_UNIQUE_ID_FIXED_OFFSET); // Only a short stored for deleted tasks?
                key = Integer.valueOf(uniqueID);
                if (taskMap.containsKey(key) == false)
                {
@@ -854,9 +951,9 @@ final class MPP14Reader implements MPPVariantReader
                //
                // Do we have a null task?
                //
-               if (data.length == NULL_TASK_BLOCK_SIZE)
+               if (dataLength == NULL_TASK_BLOCK_SIZE)
                {
-                  uniqueID = MPPUtility.getInt(data, TASK_UNIQUE_ID_FIXED_OFFSET);
+                  uniqueID = taskFixedData.getInt(loop, TASK_UNIQUE_ID_FIXED_OFFSET);
                   key = Integer.valueOf(uniqueID);
                   if (taskMap.containsKey(key) == false)
                   {
@@ -870,9 +967,9 @@ final class MPP14Reader implements MPPVariantReader
                   // the task is valid.
                   //
                   int maxSize = fieldMap.getMaxFixedDataSize(0);
-                  if (maxSize == 0 || ((data.length * 100) / maxSize) > 75)
+                  if (maxSize == 0 || ((dataLength * 100) / maxSize) > 75)
                   {
-                     uniqueID = MPPUtility.getInt(data, uniqueIdOffset);
+                     uniqueID = taskFixedData.getInt(loop, uniqueIdOffset);
                      key = Integer.valueOf(uniqueID);
 
                      // Accept this task if it does not have a deleted unique ID or it has a deleted unique ID but the name is not null
@@ -907,13 +1004,13 @@ final class MPP14Reader implements MPPVariantReader
 
       for (int loop = 0; loop < itemCount; loop++)
       {
-         byte[] data = rscFixedData.getByteArrayValue(loop);
-         if (data == null || data.length < maxFixedDataSize)
+         int dataLength = rscFixedData.getItemLength(loop);
+         if (dataLength == -1 || dataLength < maxFixedDataSize)
          {
             continue;
          }
 
-         Integer uniqueID = Integer.valueOf(MPPUtility.getShort(data, uniqueIdOffset));
+         Integer uniqueID = Integer.valueOf(rscFixedData.getShort(loop, uniqueIdOffset));
          if (resourceMap.containsKey(uniqueID) == false)
          {
             resourceMap.put(uniqueID, Integer.valueOf(loop));
@@ -950,18 +1047,20 @@ final class MPP14Reader implements MPPVariantReader
    private void processTaskData() throws IOException
    {
       FieldMap fieldMap = new FieldMap14(m_file.getProjectProperties(), m_file.getCustomFields());
+      fieldMap.setFieldFilter(m_reader.getFieldFilter());
       fieldMap.createTaskFieldMap(m_projectProps);
 
       FieldMap enterpriseCustomFieldMap = new FieldMap14(m_file.getProjectProperties(), m_file.getCustomFields());
+      enterpriseCustomFieldMap.setFieldFilter(m_reader.getFieldFilter());
       enterpriseCustomFieldMap.createEnterpriseCustomFieldMap(m_projectProps, TaskField.class);
 
-      DirectoryEntry taskDir = (DirectoryEntry) m_projectDir.getEntry("TBkndTask");
-      VarMeta taskVarMeta = new VarMeta12(new DocumentInputStream(((DocumentEntry) taskDir.getEntry("VarMeta"))));
-      Var2Data taskVarData = new Var2Data(taskVarMeta, new DocumentInputStream(((DocumentEntry) taskDir.getEntry("Var2Data"))));
-      FixedMeta taskFixedMeta = new FixedMeta(new DocumentInputStream(((DocumentEntry) taskDir.getEntry("FixedMeta"))), 47);
-      FixedData taskFixedData = new FixedData(taskFixedMeta, new DocumentInputStream(((DocumentEntry) taskDir.getEntry("FixedData"))), fieldMap.getMaxFixedDataSize(0));
-      FixedMeta taskFixed2Meta = new FixedMeta(new DocumentInputStream(((DocumentEntry) taskDir.getEntry("Fixed2Meta"))), taskFixedData, 92, 93, 94, 95);
-      FixedData taskFixed2Data = new FixedData(taskFixed2Meta, new DocumentInputStream(((DocumentEntry) taskDir.getEntry("Fixed2Data"))));
+      PreparedDirectory taskDir = getPreparedDirectory("TBkndTask");
+      VarMeta taskVarMeta = taskDir.getVarMeta();
+      Var2Data taskVarData = taskDir.getVarData();
+      FixedMeta taskFixedMeta = taskDir.getFixedMeta();
+      FixedData taskFixedData = new FixedData(taskFixedMeta, taskDir.getInputStream("FixedData"), fieldMap.getMaxFixedDataSize(0));
+      FixedMeta taskFixed2Meta = new FixedMeta(taskDir.getInputStream("Fixed2Meta"), taskFixedData, 92, 93, 94, 95);
+      FixedData taskFixed2Data = new FixedData(taskFixed2Meta, taskDir.getInputStream("Fixed2Data"));
 
       //      System.out.println(taskFixedMeta);
       //      System.out.println(taskFixedData);
@@ -975,7 +1074,7 @@ final class MPP14Reader implements MPPVariantReader
       // Process aliases
       if (taskDir.hasEntry("Props"))
       {
-         Props14 props = new Props14(m_inputStreamFactory.getInstance(taskDir, "Props"));
+         Props14 props = new Props14(m_inputStreamFactory.getInstance(taskDir.getInputStream("Props")));
          new CustomFieldAliasReader(m_file.getCustomFields(), props.getByteArray(TASK_FIELD_NAME_ALIASES)).process();
       }
       
@@ -1081,13 +1180,27 @@ final class MPP14Reader implements MPPVariantReader
 
          task.disableEvents();
 
-         fieldMap.populateContainer(TaskField.class, task, uniqueID, new byte[][]
+         if (m_reader.getLoadFieldsOnDemand())
+         {
+            FieldMapLoader loader = new FieldMapLoader(TaskField.class, uniqueID, taskVarData);
+            loader.add(fieldMap, new byte[][]
+            {
+               data,
+               data2
+            });
+            loader.add(enterpriseCustomFieldMap, null);
+            task.setFieldLoader(loader);
+         }
+         else
          {
-            data,
-            data2
-         }, taskVarData);
+            fieldMap.populateContainer(TaskField.class, task, uniqueID, new byte[][]
+            {
+               data,
+               data2
+            }, taskVarData);
 
-         enterpriseCustomFieldMap.populateContainer(TaskField.class, task, uniqueID, null, taskVarData);
+            enterpriseCustomFieldMap.populateContainer(TaskField.class, task, uniqueID, null, taskVarData);
+         }
 
          task.enableEvents();
 
@@ -1314,7 +1427,7 @@ final class MPP14Reader implements MPPVariantReader
       //
       TreeMap<Integer, Integer> taskMap = new TreeMap<Integer, Integer>();
       int nextIDIncrement = ((m_nullTaskOrder.size() / 1000) + 1) * 1000;
-      int nextID = (m_file.getTaskByUniqueID(Integer.valueOf(0)) == null ? nextIDIncrement : 0);
+      int nextID = (m_file.getTaskByUniqueID(0) == null ? nextIDIncrement : 0);
       for (Map.Entry<Long, Integer> entry : m_taskOrder.entrySet())
       {
          taskMap.put(Integer.valueOf(nextID), entry.getValue());
@@ -1353,7 +1466,7 @@ final class MPP14Reader implements MPPVariantReader
       //
       // Finally, we can renumber the tasks
       //
-      nextID = (m_file.getTaskByUniqueID(Integer.valueOf(0)) == null ? 1 : 0);
+      nextID = (m_file.getTaskByUniqueID(0) == null ? 1 : 0);
       for (Map.Entry<Integer, Integer> entry : taskMap.entrySet())
       {
          Task task = m_file.getTaskByUniqueID(entry.getValue());
@@ -1579,18 +1692,20 @@ final class MPP14Reader implements MPPVariantReader
    private void processResourceData() throws IOException
    {
       FieldMap fieldMap = new FieldMap14(m_file.getProjectProperties(), m_file.getCustomFields());
+      fieldMap.setFieldFilter(m_reader.getFieldFilter());
       fieldMap.createResourceFieldMap(m_projectProps);
 
       FieldMap enterpriseCustomFieldMap = new FieldMap14(m_file.getProjectProperties(), m_file.getCustomFields());
+      enterpriseCustomFieldMap.setFieldFilter(m_reader.getFieldFilter());
       enterpriseCustomFieldMap.createEnterpriseCustomFieldMap(m_projectProps, ResourceField.class);
 
-      DirectoryEntry rscDir = (DirectoryEntry) m_projectDir.getEntry("TBkndRsc");
-      VarMeta rscVarMeta = new VarMeta12(new DocumentInputStream(((DocumentEntry) rscDir.getEntry("VarMeta"))));
-      Var2Data rscVarData = new Var2Data(rscVarMeta, new DocumentInputStream(((DocumentEntry) rscDir.getEntry("Var2Data"))));
-      FixedMeta rscFixedMeta = new FixedMeta(new DocumentInputStream(((DocumentEntry) rscDir.getEntry("FixedMeta"))), 37);
-      FixedData rscFixedData = new FixedData(rscFixedMeta, m_inputStreamFactory.getInstance(rscDir, "FixedData"));
-      FixedMeta rscFixed2Meta = new FixedMeta(new DocumentInputStream(((DocumentEntry) rscDir.getEntry("Fixed2Meta"))), 50);
-      FixedData rscFixed2Data = new FixedData(rscFixed2Meta, m_inputStreamFactory.getInstance(rscDir, "Fixed2Data"));
+      PreparedDirectory rscDir = getPreparedDirectory("TBkndRsc");
+      VarMeta rscVarMeta = rscDir.getVarMeta();
+      Var2Data rscVarData = rscDir.getVarData();
+      FixedMeta rscFixedMeta = rscDir.getFixedMeta();
+      FixedData rscFixedData = new FixedData(rscFixedMeta, m_inputStreamFactory.getInstance(rscDir.getInputStream("FixedData")));
+      FixedMeta rscFixed2Meta = new FixedMeta(rscDir.getInputStream("Fixed2Meta"), 50);
+      FixedData rscFixed2Data = new FixedData(rscFixed2Meta, m_inputStreamFactory.getInstance(rscDir.getInputStream("Fixed2Data")));
 
       //System.out.println(rscVarMeta);
       //System.out.println(rscVarData);
@@ -1602,7 +1717,7 @@ final class MPP14Reader implements MPPVariantReader
       // Process aliases
       if (rscDir.hasEntry("Props"))
       {
-         Props14 props = new Props14(m_inputStreamFactory.getInstance(rscDir, "Props"));
+         Props14 props = new Props14(m_inputStreamFactory.getInstance(rscDir.getInputStream("Props")));
          new CustomFieldAliasReader(m_file.getCustomFields(), props.getByteArray(RESOURCE_FIELD_NAME_ALIASES)).process();
       }
       
@@ -1660,13 +1775,27 @@ final class MPP14Reader implements MPPVariantReader
 
          resource.disableEvents();
 
-         fieldMap.populateContainer(ResourceField.class, resource, id, new byte[][]
+         if (m_reader.getLoadFieldsOnDemand())
+         {
+            FieldMapLoader loader = new FieldMapLoader(ResourceField.class, id, rscVarData);
+            loader.add(fieldMap, new byte[][]
+            {
+               data,
+               data2
+            });
+            loader.add(enterpriseCustomFieldMap, null);
+            resource.setFieldLoader(loader);
+         }
+         else
          {
-            data,
-            data2
-         }, rscVarData);
+            fieldMap.populateContainer(ResourceField.class, resource, id, new byte[][]
+            {
+               data,
+               data2
+            }, rscVarData);
 
-         enterpriseCustomFieldMap.populateContainer(ResourceField.class, resource, id, null, rscVarData);
+            enterpriseCustomFieldMap.populateContainer(ResourceField.class, resource, id, null, rscVarData);
+         }
 
          resource.enableEvents();
 
@@ -1756,22 +1885,24 @@ final class MPP14Reader implements MPPVariantReader
    private void processAssignmentData() throws IOException
    {
       FieldMap fieldMap = new FieldMap14(m_file.getProjectProperties(), m_file.getCustomFields());
+      fieldMap.setFieldFilter(m_reader.getFieldFilter());
       fieldMap.createAssignmentFieldMap(m_projectProps);
 
       FieldMap enterpriseCustomFieldMap = new FieldMap14(m_file.getProjectProperties(), m_file.getCustomFields());
+      enterpriseCustomFieldMap.setFieldFilter(m_reader.getFieldFilter());
       enterpriseCustomFieldMap.createEnterpriseCustomFieldMap(m_projectProps, AssignmentField.class);
 
-      DirectoryEntry assnDir = (DirectoryEntry) m_projectDir.getEntry("TBkndAssn");
-      VarMeta assnVarMeta = new VarMeta12(new DocumentInputStream(((DocumentEntry) assnDir.getEntry("VarMeta"))));
-      Var2Data assnVarData = new Var2Data(assnVarMeta, new DocumentInputStream(((DocumentEntry) assnDir.getEntry("Var2Data"))));
-      FixedMeta assnFixedMeta = new FixedMeta(new DocumentInputStream(((DocumentEntry) assnDir.getEntry("FixedMeta"))), 34);
-      FixedData assnFixedData = new FixedData(110, m_inputStreamFactory.getInstance(assnDir, "FixedData"));
-      FixedData assnFixedData2 = new FixedData(48, m_inputStreamFactory.getInstance(assnDir, "Fixed2Data"));
+      PreparedDirectory assnDir = getPreparedDirectory("TBkndAssn");
+      VarMeta assnVarMeta = assnDir.getVarMeta();
+      Var2Data assnVarData = assnDir.getVarData();
+      FixedMeta assnFixedMeta = assnDir.getFixedMeta();
+      FixedData assnFixedData = new FixedData(110, m_inputStreamFactory.getInstance(assnDir.getInputStream("FixedData")));
+      FixedData assnFixedData2 = new FixedData(48, m_inputStreamFactory.getInstance(assnDir.getInputStream("Fixed2Data")));
       //FixedMeta assnFixedMeta2 = new FixedMeta(new DocumentInputStream(((DocumentEntry) assnDir.getEntry("Fixed2Meta"))), 53);
       //Props props = new Props14(new DocumentInputStream(((DocumentEntry) assnDir.getEntry("Props"))));
 
       ResourceAssignmentFactory factory = new ResourceAssignmentFactory();
-      factory.process(m_file, fieldMap, enterpriseCustomFieldMap, m_reader.getUseRawTimephasedData(), m_reader.getPreserveNoteFormatting(), assnVarMeta, assnVarData, assnFixedMeta, assnFixedData, assnFixedData2, assnFixedMeta.getItemCount());
+      factory.process(m_file, fieldMap, enterpriseCustomFieldMap, m_reader.getUseRawTimephasedData(), m_reader.getPreserveNoteFormatting(), m_reader.getLoadFieldsOnDemand(), assnVarMeta, assnVarData, assnFixedMeta, assnFixedData, assnFixedData2, assnFixedMeta.getItemCount());
    }
 
    /**
@@ -1792,11 +1923,10 @@ final class MPP14Reader implements MPPVariantReader
     */
    private void processViewData() throws IOException
    {
-      DirectoryEntry dir = (DirectoryEntry) m_viewDir.getEntry("CV_iew");
-      VarMeta viewVarMeta = new VarMeta12(new DocumentInputStream(((DocumentEntry) dir.getEntry("VarMeta"))));
-      Var2Data viewVarData = new Var2Data(viewVarMeta, new DocumentInputStream(((DocumentEntry) dir.getEntry("Var2Data"))));
-      FixedMeta fixedMeta = new FixedMeta(new DocumentInputStream(((DocumentEntry) dir.getEntry("FixedMeta"))), 10);
-      FixedData fixedData = new FixedData(138, m_inputStreamFactory.getInstance(dir, "FixedData"));
+      VarMeta viewVarMeta = new VarMeta12(getPresentationStream("CV_iew", "VarMeta"));
+      Var2Data viewVarData = new Var2Data(viewVarMeta, getPresentationStream("CV_iew", "Var2Data"));
+      FixedMeta fixedMeta = new FixedMeta(getPresentationStream("CV_iew", "FixedMeta"), 10);
+      FixedData fixedData = new FixedData(138, m_inputStreamFactory.getInstance(getPresentationStream("CV_iew", "FixedData")));
 
       int items = fixedMeta.getAdjustedItemCount();
       View view;
@@ -1827,11 +1957,9 @@ final class MPP14Reader implements MPPVariantReader
     */
    private void processTableData() throws IOException
    {
-      DirectoryEntry dir = (DirectoryEntry) m_viewDir.getEntry("CTable");
-
-      VarMeta varMeta = new VarMeta12(new DocumentInputStream(((DocumentEntry) dir.getEntry("VarMeta"))));
-      Var2Data varData = new Var2Data(varMeta, new DocumentInputStream(((DocumentEntry) dir.getEntry("Var2Data"))));
-      FixedData fixedData = new FixedData(230, new DocumentInputStream(((DocumentEntry) dir.getEntry("FixedData"))));
+      VarMeta varMeta = new VarMeta12(getPresentationStream("CTable", "VarMeta"));
+      Var2Data varData = new Var2Data(varMeta, getPresentationStream("CTable", "Var2Data"));
+      FixedData fixedData = new FixedData(230, getPresentationStream("CTable", "FixedData"));
       //System.out.println(varMeta);
       //System.out.println(varData);
       //System.out.println(fixedData);
@@ -1855,8 +1983,6 @@ final class MPP14Reader implements MPPVariantReader
     */
    private void processFilterData() throws IOException
    {
-      DirectoryEntry dir = (DirectoryEntry) m_viewDir.getEntry("CFilter");
-
       FixedMeta fixedMeta;
       FixedData fixedData;
       VarMeta varMeta;
@@ -1864,10 +1990,10 @@ final class MPP14Reader implements MPPVariantReader
 
       try
       {
-         fixedMeta = new FixedMeta(new DocumentInputStream(((DocumentEntry) dir.getEntry("FixedMeta"))), 10);
-         fixedData = new FixedData(fixedMeta, m_inputStreamFactory.getInstance(dir, "FixedData"));
-         varMeta = new VarMeta12(new DocumentInputStream(((DocumentEntry) dir.getEntry("VarMeta"))));
-         varData = new Var2Data(varMeta, new DocumentInputStream(((DocumentEntry) dir.getEntry("Var2Data"))));
+         fixedMeta = new FixedMeta(getPresentationStream("CFilter", "FixedMeta"), 10);
+         fixedData = new FixedData(fixedMeta, m_inputStreamFactory.getInstance(getPresentationStream("CFilter", "FixedData")));
+         varMeta = new VarMeta12(getPresentationStream("CFilter", "VarMeta"));
+         varData = new Var2Data(varMeta, getPresentationStream("CFilter", "Var2Data"));
       }
 
       catch (IndexOutOfBoundsException ex)
@@ -1900,13 +2026,12 @@ final class MPP14Reader implements MPPVariantReader
     */
    private void processSavedViewState() throws IOException
    {
-      DirectoryEntry dir = (DirectoryEntry) m_viewDir.getEntry("CEdl");
-      VarMeta varMeta = new VarMeta12(new DocumentInputStream(((DocumentEntry) dir.getEntry("VarMeta"))));
-      Var2Data varData = new Var2Data(varMeta, new DocumentInputStream(((DocumentEntry) dir.getEntry("Var2Data"))));
+      VarMeta varMeta = new VarMeta12(getPresentationStream("CEdl", "VarMeta"));
+      Var2Data varData = new Var2Data(varMeta, getPresentationStream("CEdl", "Var2Data"));
       //System.out.println(varMeta);
       //System.out.println(varData);
 
-      InputStream is = new DocumentInputStream(((DocumentEntry) dir.getEntry("FixedData")));
+      InputStream is = getPresentationStream("CEdl", "FixedData");
       byte[] fixedData = new byte[is.available()];
       is.read(fixedData);
       is.close();
@@ -1916,6 +2041,31 @@ final class MPP14Reader implements MPPVariantReader
       reader.process(m_file, varData, fixedData);
    }
 
+   /**
+    * Retrieve an input stream for a document holding presentation data.
+    * When presentation data is being read on demand, the document is read
+    * from a snapshot taken when the file was read, otherwise it is read
+    * directly from the file.
+    *
+    * @param directory directory name
+    * @param name document name
+    * @return input stream
+    */
+   private InputStream getPresentationStream(String directory, String name) throws IOException
+   {
+      InputStream stream;
+      if (m_presentationData == null)
+      {
+         DirectoryEntry dir = (DirectoryEntry) m_viewDir.getEntry(directory);
+         stream = new DocumentInputStream(((DocumentEntry) dir.getEntry(name)));
+      }
+      else
+      {
+         stream = m_presentationData.getInputStream(directory, name);
+      }
+      return stream;
+   }
+
    /**
     * Read group definitions.
     *
@@ -1923,11 +2073,10 @@ final class MPP14Reader implements MPPVariantReader
     */
    private void processGroupData() throws IOException
    {
-      DirectoryEntry dir = (DirectoryEntry) m_viewDir.getEntry("CGrouping");
-      FixedMeta fixedMeta = new FixedMeta(new DocumentInputStream(((DocumentEntry) dir.getEntry("FixedMeta"))), 10);
-      FixedData fixedData = new FixedData(fixedMeta, m_inputStreamFactory.getInstance(dir, "FixedData"));
-      VarMeta varMeta = new VarMeta12(new DocumentInputStream(((DocumentEntry) dir.getEntry("VarMeta"))));
-      Var2Data varData = new Var2Data(varMeta, new DocumentInputStream(((DocumentEntry) dir.getEntry("Var2Data"))));
+      FixedMeta fixedMeta = new FixedMeta(getPresentationStream("CGrouping", "FixedMeta"), 10);
+      FixedData fixedData = new FixedData(fixedMeta, m_inputStreamFactory.getInstance(getPresentationStream("CGrouping", "FixedData")));
+      VarMeta varMeta = new VarMeta12(getPresentationStream("CGrouping", "VarMeta"));
+      Var2Data varData = new Var2Data(varMeta, getPresentationStream("CGrouping", "Var2Data"));
 
       //System.out.println(fixedMeta);
       //System.out.println(fixedData);
@@ -2082,6 +2231,187 @@ final class MPP14Reader implements MPPVariantReader
    //      {108, 16},
    //   };
 
+   /**
+    * Holds the blocks read from a task, resource or assignment directory
+    * which can be parsed without reference to the rest of the file.
+    * Once a snapshot of the directory has been taken these blocks can be
+    * parsed on any thread.
+    */
+   private static final class PreparedDirectory implements Callable<PreparedDirectory>
+   {
+      /**
+       * Constructor.
+       *
+       * @param parent parent directory
+       * @param name directory name
+       * @param fixedMetaItemSize fixed meta item size
+       */
+      public PreparedDirectory(DirectoryEntry parent, String name, int fixedMetaItemSize)
+      {
+         m_parent = parent;
+         m_name = name;
+         m_fixedMetaItemSize = fixedMetaItemSize;
+      }
+
+      /**
+       * Take a copy of the raw content of this directory, allowing it to
+       * be parsed on another thread.
+       */
+      public void snapshot() throws IOException
+      {
+         m_snapshot = new DirectorySnapshot(m_parent, new String[]
+         {
+            m_name
+         });
+      }
+
+      @Override public PreparedDirectory call() throws IOException
+      {
+         m_varMeta = new VarMeta12(getInputStream("VarMeta"));
+         m_varData = new Var2Data(m_varMeta, getInputStream("Var2Data"));
+         m_fixedMeta = new FixedMeta(getInputStream("FixedMeta"), m_fixedMetaItemSize);
+         return this;
+      }
+
+      /**
+       * Determine if a document is present in this directory.
+       *
+       * @param name document name
+       * @return true if the document is present
+       */
+      public boolean hasEntry(String name) throws IOException
+      {
+         return m_snapshot == null ? getDirectory().hasEntry(name) : m_snapshot.hasEntry(m_name, name);
+      }
+
+      /**
+       * Retrieve an input stream for a document in this directory.
+       *
+       * @param name document name
+       * @return input stream
+       */
+      public InputStream getInputStream(String name) throws IOException
+      {
+         InputStream stream;
+         if (m_snapshot == null)
+         {
+            stream = new DocumentInputStream(((DocumentEntry) getDirectory().getEntry(name)));
+         }
+         else
+         {
+            stream = m_snapshot.getInputStream(m_name, name);
+         }
+         return stream;
+      }
+
+      /**
+       * Retrieve the var meta block.
+       *
+       * @return var meta block
+       */
+      public VarMeta getVarMeta()
+      {
+         return m_varMeta;
+      }
+
+      /**
+       * Retrieve the var data block.
+       *
+       * @return var data block
+       */
+      public Var2Data getVarData()
+      {
+         return m_varData;
+      }
+
+      /**
+       * Retrieve the fixed meta block.
+       *
+       * @return fixed meta block
+       */
+      public FixedMeta getFixedMeta()
+      {
+         return m_fixedMeta;
+      }
+
+      /**
+       * Retrieve this directory from the file system.
+       *
+       * @return directory entry
+       */
+      private DirectoryEntry getDirectory() throws IOException
+      {
+         return (DirectoryEntry) m_parent.getEntry(m_name);
+      }
+
+      private final DirectoryEntry m_parent;
+      private final String m_name;
+      private final int m_fixedMetaItemSize;
+      private DirectorySnapshot m_snapshot;
+      private VarMeta m_varMeta;
+      private Var2Data m_varData;
+      private FixedMeta m_fixedMeta;
+   }
+
+   /**
+    * Decodes presentation data on demand, using a reader which retains
+    * only the data required for this purpose.
+    */
+   private static final class PresentationDataLoader14 extends AbstractPresentationDataLoader
+   {
+      /**
+       * Constructor.
+       *
+       * @param source reader which has just processed an MPP14 file
+       */
+      public PresentationDataLoader14(MPP14Reader source) throws IOException
+      {
+         m_reader = new MPP14Reader();
+         m_reader.m_file = source.m_file;
+         m_reader.m_presentationData = snapshotPresentationData(source.m_viewDir);
+         m_reader.m_inputStreamFactory = source.m_inputStreamFactory;
+         m_reader.m_fontBases = source.m_fontBases;
+      }
+
+      @Override protected void process(PresentationDataType type) throws IOException
+      {
+         switch (type)
+         {
+            case TABLES:
+            {
+               m_reader.processTableData();
+               break;
+            }
+
+            case VIEWS:
+            {
+               m_reader.processViewData();
+               break;
+            }
+
+            case FILTERS:
+            {
+               m_reader.processFilterData();
+               break;
+            }
+
+            case GROUPS:
+            {
+               m_reader.processGroupData();
+               break;
+            }
+
+            case VIEW_STATE:
+            {
+               m_reader.processSavedViewState();
+               break;
+            }
+         }
+      }
+
+      private final MPP14Reader m_reader;
+   }
+
    private MPPReader m_reader;
    private ProjectFile m_file;
    private EventManager m_eventManager;
@@ -2098,6 +2428,8 @@ final class MPP14Reader implements MPPVariantReader
    private Map<Integer, SubProject> m_taskSubProjects;
    private DirectoryEntry m_projectDir;
    private DirectoryEntry m_viewDir;
+   private DirectorySnapshot m_presentationData;
+   private Map<String, FutureTask<PreparedDirectory>> m_preparedDirectories;
    private Map<Integer, Integer> m_parentTasks;
    private Map<Long, Integer> m_taskOrder;
    private Map<Integer, Integer> m_nullTaskOrder;
@@ -2313,4 +2645,18 @@ final class MPP14Reader implements MPPVariantReader
       new MppBitFlag(ResourceField.FLAG19, 24, 0x08000, Boolean.FALSE, Boolean.TRUE),
       new MppBitFlag(ResourceField.FLAG20, 24, 0x10000, Boolean.FALSE, Boolean.TRUE)
    };
+
+   private static final String[] PREPARED_DIRECTORY_NAMES =
+   {
+      "TBkndTask",
+      "TBkndRsc",
+      "TBkndAssn"
+   };
+
+   private static final int[] PREPARED_DIRECTORY_FIXED_META_ITEM_SIZES =
+   {
+      47,
+      37,
+      34
+   };
 }
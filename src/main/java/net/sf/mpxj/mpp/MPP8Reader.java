@@ -848,8 +848,8 @@ final class MPP8Reader implements MPPVariantReader
 
                if (taskID1 != taskID2)
                {
-                  Task task1 = m_file.getTaskByUniqueID(Integer.valueOf(taskID1));
-                  Task task2 = m_file.getTaskByUniqueID(Integer.valueOf(taskID2));
+                  Task task1 = m_file.getTaskByUniqueID(taskID1);
+                  Task task2 = m_file.getTaskByUniqueID(taskID2);
                   if (task1 != null && task2 != null)
                   {
                      RelationType type = RelationType.getInstance(MPPUtility.getShort(data, 20));
@@ -1118,8 +1118,8 @@ final class MPP8Reader implements MPPVariantReader
          //
          if (MPPUtility.getByte(data, 168) != 0x02)
          {
-            Task task = m_file.getTaskByUniqueID(Integer.valueOf(MPPUtility.getInt(data, 16)));
-            Resource resource = m_file.getResourceByUniqueID(Integer.valueOf(MPPUtility.getInt(data, 20)));
+            Task task = m_file.getTaskByUniqueID(MPPUtility.getInt(data, 16));
+            Resource resource = m_file.getResourceByUniqueID(MPPUtility.getInt(data, 20));
 
             if (task != null && resource != null)
             {
@@ -1177,8 +1177,8 @@ final class MPP8Reader implements MPPVariantReader
       for (int loop = 0; loop < count; loop++)
       {
          data = assnFixedData.getByteArrayValue(loop);
-         task = m_file.getTaskByUniqueID(Integer.valueOf(MPPUtility.getInt(data, 16)));
-         resource = m_file.getResourceByUniqueID(Integer.valueOf(MPPUtility.getInt(data, 20)));
+         task = m_file.getTaskByUniqueID(MPPUtility.getInt(data, 16));
+         resource = m_file.getResourceByUniqueID(MPPUtility.getInt(data, 20));
 
          if (task == null && resource == null)
          {
@@ -42,6 +42,7 @@ import net.sf.mpxj.Duration;
 import net.sf.mpxj.EventManager;
 import net.sf.mpxj.FieldType;
 import net.sf.mpxj.MPXJException;
+import net.sf.mpxj.PresentationDataType;
 import net.sf.mpxj.ProjectCalendar;
 import net.sf.mpxj.ProjectFile;
 import net.sf.mpxj.ProjectProperties;
@@ -100,11 +101,18 @@ final class MPP9Reader implements MPPVariantReader
             if (reader.getReadPresentationData())
             {
                processViewPropertyData();
-               processTableData();
-               processViewData();
-               processFilterData();
-               processGroupData();
-               processSavedViewState();
+               if (reader.getLoadPresentationDataOnDemand())
+               {
+                  m_file.setPresentationDataLoader(new PresentationDataLoader9(this));
+               }
+               else
+               {
+                  processTableData();
+                  processViewData();
+                  processFilterData();
+                  processGroupData();
+                  processSavedViewState();
+               }
             }
          }
       }
@@ -909,8 +917,8 @@ final class MPP9Reader implements MPPVariantReader
       //
       for (int loop = 3; loop < itemCount; loop++)
       {
-         byte[] data = taskFixedData.getByteArrayValue(loop);
-         if (data != null)
+         int dataLength = taskFixedData.getItemLength(loop);
+         if (dataLength != -1)
          {
             byte[] metaData = taskFixedMeta.getByteArrayValue(loop);
 
@@ -928,7 +936,7 @@ final class MPP9Reader implements MPPVariantReader
                // So let's add the unique id for the deleted task into the map so we don't
                // accidentally include the task later.
                //
-               uniqueID = MPPUtility.getShort(data, TASK_UNIQUE_ID_FIXED_OFFSET); // Only a short stored for deleted tasks?
+               uniqueID = taskFixedData.getShort(loop, TASK_UNIQUE_ID_FIXED_OFFSET); // Only a short stored for deleted tasks?
                key = Integer.valueOf(uniqueID);
                if (taskMap.containsKey(key) == false)
                {
@@ -940,9 +948,9 @@ final class MPP9Reader implements MPPVariantReader
                //
                // Do we have a null task?
                //
-               if (data.length == NULL_TASK_BLOCK_SIZE)
+               if (dataLength == NULL_TASK_BLOCK_SIZE)
                {
-                  uniqueID = MPPUtility.getInt(data, TASK_UNIQUE_ID_FIXED_OFFSET);
+                  uniqueID = taskFixedData.getInt(loop, TASK_UNIQUE_ID_FIXED_OFFSET);
                   key = Integer.valueOf(uniqueID);
                   if (taskMap.containsKey(key) == false)
                   {
@@ -956,9 +964,9 @@ final class MPP9Reader implements MPPVariantReader
                   // the task is valid.
                   //
                   int maxSize = fieldMap.getMaxFixedDataSize(0);
-                  if (maxSize == 0 || ((data.length * 100) / maxSize) > 75)
+                  if (maxSize == 0 || ((dataLength * 100) / maxSize) > 75)
                   {
-                     uniqueID = MPPUtility.getInt(data, uniqueIdOffset);
+                     uniqueID = taskFixedData.getInt(loop, uniqueIdOffset);
                      key = Integer.valueOf(uniqueID);
                      // Accept this task if it does not have a deleted unique ID or it has a deleted unique ID but the name is not null
                      if (!taskMap.containsKey(key) || taskVarData.getUnicodeString(key, taskNameKey) != null)
@@ -990,13 +998,13 @@ final class MPP9Reader implements MPPVariantReader
 
       for (int loop = 0; loop < itemCount; loop++)
       {
-         byte[] data = rscFixedData.getByteArrayValue(loop);
-         if (data == null || data.length < fieldMap.getMaxFixedDataSize(0))
+         int dataLength = rscFixedData.getItemLength(loop);
+         if (dataLength == -1 || dataLength < fieldMap.getMaxFixedDataSize(0))
          {
             continue;
          }
 
-         Integer uniqueID = Integer.valueOf(MPPUtility.getShort(data, 0));
+         Integer uniqueID = Integer.valueOf(rscFixedData.getShort(loop, 0));
          resourceMap.put(uniqueID, Integer.valueOf(loop));
       }
 
@@ -1030,6 +1038,7 @@ final class MPP9Reader implements MPPVariantReader
    private void processTaskData() throws IOException
    {
       FieldMap fieldMap = new FieldMap9(m_file.getProjectProperties(), m_file.getCustomFields());
+      fieldMap.setFieldFilter(m_reader.getFieldFilter());
       fieldMap.createTaskFieldMap(m_projectProps);
 
       DirectoryEntry taskDir = (DirectoryEntry) m_projectDir.getEntry("TBkndTask");
@@ -1121,10 +1130,22 @@ final class MPP9Reader implements MPPVariantReader
          task = m_file.addTask();
 
          task.disableEvents();
-         fieldMap.populateContainer(TaskField.class, task, uniqueID, new byte[][]
+         if (m_reader.getLoadFieldsOnDemand())
+         {
+            FieldMapLoader loader = new FieldMapLoader(TaskField.class, uniqueID, taskVarData);
+            loader.add(fieldMap, new byte[][]
+            {
+               data
+            });
+            task.setFieldLoader(loader);
+         }
+         else
          {
-            data
-         }, taskVarData);
+            fieldMap.populateContainer(TaskField.class, task, uniqueID, new byte[][]
+            {
+               data
+            }, taskVarData);
+         }
          task.enableEvents();
 
          task.setEffortDriven((metaData[11] & 0x10) != 0);
@@ -1729,6 +1750,7 @@ final class MPP9Reader implements MPPVariantReader
    private void processResourceData() throws IOException
    {
       FieldMap fieldMap = new FieldMap9(m_file.getProjectProperties(), m_file.getCustomFields());
+      fieldMap.setFieldFilter(m_reader.getFieldFilter());
       fieldMap.createResourceFieldMap(m_projectProps);
 
       DirectoryEntry rscDir = (DirectoryEntry) m_projectDir.getEntry("TBkndRsc");
@@ -1768,10 +1790,22 @@ final class MPP9Reader implements MPPVariantReader
          resource = m_file.addResource();
 
          resource.disableEvents();
-         fieldMap.populateContainer(ResourceField.class, resource, id, new byte[][]
+         if (m_reader.getLoadFieldsOnDemand())
          {
-            data
-         }, rscVarData);
+            FieldMapLoader loader = new FieldMapLoader(ResourceField.class, id, rscVarData);
+            loader.add(fieldMap, new byte[][]
+            {
+               data
+            });
+            resource.setFieldLoader(loader);
+         }
+         else
+         {
+            fieldMap.populateContainer(ResourceField.class, resource, id, new byte[][]
+            {
+               data
+            }, rscVarData);
+         }
          resource.enableEvents();
 
          processHyperlinkData(resource, rscVarData.getByteArray(id, fieldMap.getVarDataKey(ResourceField.HYPERLINK_DATA)));
@@ -1870,6 +1904,7 @@ final class MPP9Reader implements MPPVariantReader
    private void processAssignmentData() throws IOException
    {
       FieldMap fieldMap = new FieldMap9(m_file.getProjectProperties(), m_file.getCustomFields());
+      fieldMap.setFieldFilter(m_reader.getFieldFilter());
       fieldMap.createAssignmentFieldMap(m_projectProps);
 
       DirectoryEntry assnDir = (DirectoryEntry) m_projectDir.getEntry("TBkndAssn");
@@ -1884,7 +1919,7 @@ final class MPP9Reader implements MPPVariantReader
       }
 
       ResourceAssignmentFactory factory = new ResourceAssignmentFactory();
-      factory.process(m_file, fieldMap, null, m_reader.getUseRawTimephasedData(), m_reader.getPreserveNoteFormatting(), assnVarMeta, assnVarData, assnFixedMeta, assnFixedData, null, assnFixedMeta.getAdjustedItemCount());
+      factory.process(m_file, fieldMap, null, m_reader.getUseRawTimephasedData(), m_reader.getPreserveNoteFormatting(), m_reader.getLoadFieldsOnDemand(), assnVarMeta, assnVarData, assnFixedMeta, assnFixedData, null, assnFixedMeta.getAdjustedItemCount());
    }
 
    /**
@@ -1905,11 +1940,10 @@ final class MPP9Reader implements MPPVariantReader
     */
    private void processViewData() throws IOException
    {
-      DirectoryEntry dir = (DirectoryEntry) m_viewDir.getEntry("CV_iew");
-      VarMeta viewVarMeta = new VarMeta9(new DocumentInputStream(((DocumentEntry) dir.getEntry("VarMeta"))));
-      Var2Data viewVarData = new Var2Data(viewVarMeta, new DocumentInputStream(((DocumentEntry) dir.getEntry("Var2Data"))));
-      FixedMeta fixedMeta = new FixedMeta(new DocumentInputStream(((DocumentEntry) dir.getEntry("FixedMeta"))), 10);
-      FixedData fixedData = new FixedData(122, m_inputStreamFactory.getInstance(dir, "FixedData"));
+      VarMeta viewVarMeta = new VarMeta9(getPresentationStream("CV_iew", "VarMeta"));
+      Var2Data viewVarData = new Var2Data(viewVarMeta, getPresentationStream("CV_iew", "Var2Data"));
+      FixedMeta fixedMeta = new FixedMeta(getPresentationStream("CV_iew", "FixedMeta"), 10);
+      FixedData fixedData = new FixedData(122, m_inputStreamFactory.getInstance(getPresentationStream("CV_iew", "FixedData")));
 
       int items = fixedMeta.getAdjustedItemCount();
       View view;
@@ -1944,13 +1978,12 @@ final class MPP9Reader implements MPPVariantReader
     */
    private void processTableData() throws IOException
    {
-      DirectoryEntry dir = (DirectoryEntry) m_viewDir.getEntry("CTable");
       //FixedMeta fixedMeta = new FixedMeta(getEncryptableInputStream(dir, "FixedMeta"), 9);
-      InputStream stream = m_inputStreamFactory.getInstance(dir, "FixedData");
+      InputStream stream = m_inputStreamFactory.getInstance(getPresentationStream("CTable", "FixedData"));
       int blockSize = stream.available() % 115 == 0 ? 115 : 110;
       FixedData fixedData = new FixedData(blockSize, stream);
-      VarMeta varMeta = new VarMeta9(new DocumentInputStream(((DocumentEntry) dir.getEntry("VarMeta"))));
-      Var2Data varData = new Var2Data(varMeta, new DocumentInputStream(((DocumentEntry) dir.getEntry("Var2Data"))));
+      VarMeta varMeta = new VarMeta9(getPresentationStream("CTable", "VarMeta"));
+      Var2Data varData = new Var2Data(varMeta, getPresentationStream("CTable", "Var2Data"));
 
       TableContainer container = m_file.getTables();
       TableFactory factory = new TableFactory(TABLE_COLUMN_DATA_STANDARD, TABLE_COLUMN_DATA_ENTERPRISE, TABLE_COLUMN_DATA_BASELINE);
@@ -1972,14 +2005,13 @@ final class MPP9Reader implements MPPVariantReader
     */
    private void processFilterData() throws IOException
    {
-      DirectoryEntry dir = (DirectoryEntry) m_viewDir.getEntry("CFilter");
-      //FixedMeta fixedMeta = new FixedMeta(new DocumentInputStream(((DocumentEntry) dir.getEntry("FixedMeta"))), 9);
+      //FixedMeta fixedMeta = new FixedMeta(getPresentationStream("CFilter", "FixedMeta"), 9);
       //FixedData fixedData = new FixedData(fixedMeta, getEncryptableInputStream(dir, "FixedData"));
-      InputStream stream = m_inputStreamFactory.getInstance(dir, "FixedData");
+      InputStream stream = m_inputStreamFactory.getInstance(getPresentationStream("CFilter", "FixedData"));
       int blockSize = stream.available() % 115 == 0 ? 115 : 110;
       FixedData fixedData = new FixedData(blockSize, stream, true);
-      VarMeta varMeta = new VarMeta9(new DocumentInputStream(((DocumentEntry) dir.getEntry("VarMeta"))));
-      Var2Data varData = new Var2Data(varMeta, new DocumentInputStream(((DocumentEntry) dir.getEntry("Var2Data"))));
+      VarMeta varMeta = new VarMeta9(getPresentationStream("CFilter", "VarMeta"));
+      Var2Data varData = new Var2Data(varMeta, getPresentationStream("CFilter", "Var2Data"));
 
       //System.out.println(fixedMeta);
       //System.out.println(fixedData);
@@ -1998,11 +2030,10 @@ final class MPP9Reader implements MPPVariantReader
     */
    private void processGroupData() throws IOException
    {
-      DirectoryEntry dir = (DirectoryEntry) m_viewDir.getEntry("CGrouping");
-      //FixedMeta fixedMeta = new FixedMeta(new DocumentInputStream(((DocumentEntry) dir.getEntry("FixedMeta"))), 9);
-      FixedData fixedData = new FixedData(110, m_inputStreamFactory.getInstance(dir, "FixedData"));
-      VarMeta varMeta = new VarMeta9(new DocumentInputStream(((DocumentEntry) dir.getEntry("VarMeta"))));
-      Var2Data varData = new Var2Data(varMeta, new DocumentInputStream(((DocumentEntry) dir.getEntry("Var2Data"))));
+      //FixedMeta fixedMeta = new FixedMeta(getPresentationStream("CGrouping", "FixedMeta"), 9);
+      FixedData fixedData = new FixedData(110, m_inputStreamFactory.getInstance(getPresentationStream("CGrouping", "FixedData")));
+      VarMeta varMeta = new VarMeta9(getPresentationStream("CGrouping", "VarMeta"));
+      Var2Data varData = new Var2Data(varMeta, getPresentationStream("CGrouping", "Var2Data"));
 
       //      System.out.println(fixedMeta);
       //      System.out.println(fixedData);
@@ -2020,13 +2051,12 @@ final class MPP9Reader implements MPPVariantReader
     */
    private void processSavedViewState() throws IOException
    {
-      DirectoryEntry dir = (DirectoryEntry) m_viewDir.getEntry("CEdl");
-      VarMeta varMeta = new VarMeta9(new DocumentInputStream(((DocumentEntry) dir.getEntry("VarMeta"))));
-      Var2Data varData = new Var2Data(varMeta, new DocumentInputStream(((DocumentEntry) dir.getEntry("Var2Data"))));
+      VarMeta varMeta = new VarMeta9(getPresentationStream("CEdl", "VarMeta"));
+      Var2Data varData = new Var2Data(varMeta, getPresentationStream("CEdl", "Var2Data"));
       //System.out.println(varMeta);
       //System.out.println(varData);
 
-      InputStream is = m_inputStreamFactory.getInstance(dir, "FixedData");
+      InputStream is = m_inputStreamFactory.getInstance(getPresentationStream("CEdl", "FixedData"));
       byte[] fixedData = new byte[is.available()];
       is.read(fixedData);
       //System.out.println(ByteArrayHelper.hexdump(fixedData, false, 16, ""));
@@ -2035,6 +2065,31 @@ final class MPP9Reader implements MPPVariantReader
       reader.process(m_file, varData, fixedData);
    }
 
+   /**
+    * Retrieve an input stream for a document holding presentation data.
+    * When presentation data is being read on demand, the document is read
+    * from a snapshot taken when the file was read, otherwise it is read
+    * directly from the file.
+    *
+    * @param directory directory name
+    * @param name document name
+    * @return input stream
+    */
+   private InputStream getPresentationStream(String directory, String name) throws IOException
+   {
+      InputStream stream;
+      if (m_presentationData == null)
+      {
+         DirectoryEntry dir = (DirectoryEntry) m_viewDir.getEntry(directory);
+         stream = new DocumentInputStream(((DocumentEntry) dir.getEntry(name)));
+      }
+      else
+      {
+         stream = m_presentationData.getInputStream(directory, name);
+      }
+      return stream;
+   }
+
    /**
     * Read data link definitions.
     */
@@ -2112,6 +2167,65 @@ final class MPP9Reader implements MPPVariantReader
    //      {108, 16},
    //   };
 
+   /**
+    * Decodes presentation data on demand, using a reader which retains
+    * only the data required for this purpose.
+    */
+   private static final class PresentationDataLoader9 extends AbstractPresentationDataLoader
+   {
+      /**
+       * Constructor.
+       *
+       * @param source reader which has just processed an MPP9 file
+       */
+      public PresentationDataLoader9(MPP9Reader source) throws IOException
+      {
+         m_reader = new MPP9Reader();
+         m_reader.m_file = source.m_file;
+         m_reader.m_presentationData = snapshotPresentationData(source.m_viewDir);
+         m_reader.m_inputStreamFactory = source.m_inputStreamFactory;
+         m_reader.m_fontBases = source.m_fontBases;
+      }
+
+      @Override protected void process(PresentationDataType type) throws IOException
+      {
+         switch (type)
+         {
+            case TABLES:
+            {
+               m_reader.processTableData();
+               break;
+            }
+
+            case VIEWS:
+            {
+               m_reader.processViewData();
+               break;
+            }
+
+            case FILTERS:
+            {
+               m_reader.processFilterData();
+               break;
+            }
+
+            case GROUPS:
+            {
+               m_reader.processGroupData();
+               break;
+            }
+
+            case VIEW_STATE:
+            {
+               m_reader.processSavedViewState();
+               break;
+            }
+         }
+      }
+
+      private final MPP9Reader m_reader;
+   }
+
    private MPPReader m_reader;
    private ProjectFile m_file;
    private EventManager m_eventManager;
@@ -2123,6 +2237,7 @@ final class MPP9Reader implements MPPVariantReader
    private Map<Integer, SubProject> m_taskSubProjects;
    private DirectoryEntry m_projectDir;
    private DirectoryEntry m_viewDir;
+   private DirectorySnapshot m_presentationData;
    private DocumentInputStreamFactory m_inputStreamFactory;
 
    // Signals the end of the list of subproject task unique ids
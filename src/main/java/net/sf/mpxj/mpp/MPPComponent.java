@@ -26,6 +26,7 @@ package net.sf.mpxj.mpp;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 
 /**
  * This class provides common functionality used by each of the classes
@@ -112,4 +113,43 @@ class MPPComponent
       }
       return (buffer);
    }
+
+   /**
+    * This method reads all of the data available from the input stream
+    * into a single buffer. The data is read in blocks: if POI fails
+    * part way through the stream with an IndexOutOfBoundsException
+    * (https://bz.apache.org/bugzilla/show_bug.cgi?id=61677) the data
+    * read up to that point is returned.
+    *
+    * @param is the input stream
+    * @return byte array
+    * @throws IOException on file read error
+    */
+   protected static byte[] readAvailable(InputStream is) throws IOException
+   {
+      byte[] buffer = new byte[is.available()];
+      int offset = 0;
+
+      try
+      {
+         while (offset < buffer.length)
+         {
+            int count = is.read(buffer, offset, Math.min(READ_BLOCK_SIZE, buffer.length - offset));
+            if (count < 1)
+            {
+               break;
+            }
+            offset += count;
+         }
+      }
+
+      catch (IndexOutOfBoundsException ex)
+      {
+         // Retain the data read so far
+      }
+
+      return offset == buffer.length ? buffer : Arrays.copyOf(buffer, offset);
+   }
+
+   private static final int READ_BLOCK_SIZE = 4096;
 }
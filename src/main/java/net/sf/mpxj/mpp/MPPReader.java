@@ -23,26 +23,34 @@
 
 package net.sf.mpxj.mpp;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.poi.poifs.filesystem.DirectoryEntry;
 import org.apache.poi.poifs.filesystem.DocumentEntry;
 import org.apache.poi.poifs.filesystem.DocumentInputStream;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
 
+import net.sf.mpxj.ArrayFieldStorage;
 import net.sf.mpxj.DateRange;
+import net.sf.mpxj.FieldStorageFactory;
+import net.sf.mpxj.FieldType;
 import net.sf.mpxj.MPXJException;
 import net.sf.mpxj.ProjectConfig;
 import net.sf.mpxj.ProjectFile;
 import net.sf.mpxj.ProjectProperties;
 import net.sf.mpxj.Relation;
 import net.sf.mpxj.Task;
+import net.sf.mpxj.common.StreamHelper;
 import net.sf.mpxj.listener.ProjectListener;
 import net.sf.mpxj.reader.AbstractProjectReader;
 
@@ -88,6 +96,42 @@ public final class MPPReader extends AbstractProjectReader
       }
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   @Override public ProjectFile read(String fileName) throws MPXJException
+   {
+      return read(new File(fileName));
+   }
+
+   /**
+    * Read an MPP file. The OLE compound document is opened read-only
+    * directly from the file, rather than being read into memory in its entirety,
+    * so only the parts of the file which are actually used are read.
+    *
+    * {@inheritDoc}
+    */
+   @Override public ProjectFile read(File file) throws MPXJException
+   {
+      POIFSFileSystem fs = null;
+
+      try
+      {
+         fs = new POIFSFileSystem(file, true);
+         return read(fs);
+      }
+
+      catch (IOException ex)
+      {
+         throw new MPXJException(MPXJException.READ_ERROR, ex);
+      }
+
+      finally
+      {
+         StreamHelper.closeQuietly(fs);
+      }
+   }
+
    /**
     * This method allows us to peek into the OLE compound document to extract the file format.
     * This allows the UniversalProjectReader to determine if this is an MPP file, or if
@@ -99,14 +143,54 @@ public final class MPPReader extends AbstractProjectReader
     */
    public static String getFileFormat(POIFSFileSystem fs) throws IOException
    {
-      String fileFormat = "";
+      CompObj compObj = getCompObj(fs);
+      return compObj == null ? "" : compObj.getFileFormat();
+   }
+
+   /**
+    * Peek into the OLE compound document to extract the name of the
+    * application which wrote the file.
+    *
+    * @param fs POIFSFileSystem instance
+    * @return application name, or null if this is not present
+    * @throws IOException
+    */
+   public static String getApplicationName(POIFSFileSystem fs) throws IOException
+   {
+      CompObj compObj = getCompObj(fs);
+      return compObj == null ? null : compObj.getApplicationName();
+   }
+
+   /**
+    * Peek into the OLE compound document to extract the version of the
+    * application which wrote the file.
+    *
+    * @param fs POIFSFileSystem instance
+    * @return application version, or null if this is not present
+    * @throws IOException
+    */
+   public static Integer getApplicationVersion(POIFSFileSystem fs) throws IOException
+   {
+      CompObj compObj = getCompObj(fs);
+      return compObj == null ? null : compObj.getApplicationVersion();
+   }
+
+   /**
+    * Read the CompObj stream from an OLE compound document.
+    *
+    * @param fs POIFSFileSystem instance
+    * @return CompObj instance, or null if the stream is not present
+    * @throws IOException
+    */
+   private static CompObj getCompObj(POIFSFileSystem fs) throws IOException
+   {
+      CompObj compObj = null;
       DirectoryEntry root = fs.getRoot();
       if (root.getEntryNames().contains("\1CompObj"))
       {
-         CompObj compObj = new CompObj(new DocumentInputStream((DocumentEntry) root.getEntry("\1CompObj")));
-         fileFormat = compObj.getFileFormat();
+         compObj = new CompObj(new DocumentInputStream((DocumentEntry) root.getEntry("\1CompObj")));
       }
-      return fileFormat;
+      return compObj;
    }
 
    /**
@@ -133,6 +217,7 @@ public final class MPPReader extends AbstractProjectReader
          config.setAutoWBS(false);
          config.setAutoCalendarUniqueID(false);
          config.setAutoAssignmentUniqueID(false);
+         config.setFieldStorageFactory(m_fieldStorageFactory);
 
          projectFile.getEventManager().addProjectListeners(m_projectListeners);
 
@@ -343,6 +428,138 @@ public final class MPPReader extends AbstractProjectReader
       m_readPropertiesOnly = readPropertiesOnly;
    }
 
+   /**
+    * Retrieves the set of task, resource and assignment fields which
+    * will be read from the MPP file. A null value indicates that all
+    * fields will be read.
+    *
+    * @return field filter
+    */
+   public Set<FieldType> getFieldFilter()
+   {
+      return m_fieldFilter;
+   }
+
+   /**
+    * Allows time and memory to be saved by only reading the specified
+    * task, resource and assignment fields from the MPP file. Any fields
+    * which are required to build the structure of the project (for example
+    * unique IDs, names, dates and parent task IDs) will always be read.
+    * Set this to null (the default) to read all fields.
+    *
+    * @param fieldFilter set of fields to read, or null to read all fields
+    */
+   public void setFieldFilter(Set<? extends FieldType> fieldFilter)
+   {
+      m_fieldFilter = fieldFilter == null ? null : new HashSet<FieldType>(fieldFilter);
+   }
+
+   /**
+    * Retrieves a flag indicating whether task, resource and assignment
+    * fields are decoded on demand.
+    *
+    * @return true if fields are decoded on demand
+    */
+   public boolean getLoadFieldsOnDemand()
+   {
+      return m_loadFieldsOnDemand;
+   }
+
+   /**
+    * Allows time and memory to be saved when only a small number of fields
+    * are used by deferring decoding of task, resource and assignment fields
+    * until each field is first accessed. Storage for an entity's field values
+    * is not allocated until one of its fields is accessed, so entities which
+    * are never examined only hold their raw data from the MPP file. Once every
+    * field of an entity has been decoded, its raw data is released. Each
+    * entity synchronizes while a field is decoded, so the project can still
+    * be read by multiple threads. The default value for this flag is false.
+    *
+    * @param loadFieldsOnDemand set to true to decode fields on demand
+    */
+   public void setLoadFieldsOnDemand(boolean loadFieldsOnDemand)
+   {
+      m_loadFieldsOnDemand = loadFieldsOnDemand;
+   }
+
+   /**
+    * Retrieves a flag indicating whether presentation data is decoded
+    * on demand.
+    *
+    * @return true if presentation data is decoded on demand
+    */
+   public boolean getLoadPresentationDataOnDemand()
+   {
+      return m_loadPresentationDataOnDemand;
+   }
+
+   /**
+    * Allows time to be saved when presentation data is rarely used.
+    * When this flag is set, and presentation data is being read, the raw
+    * table, view, filter, group and saved view state data is retained when
+    * an MPP9, MPP12 or MPP14 file is read. Each of these is decoded the
+    * first time the corresponding ProjectFile method is called, for example
+    * getViews or getFilters. The default value for this flag is false.
+    *
+    * @param loadPresentationDataOnDemand set to true to decode presentation data on demand
+    */
+   public void setLoadPresentationDataOnDemand(boolean loadPresentationDataOnDemand)
+   {
+      m_loadPresentationDataOnDemand = loadPresentationDataOnDemand;
+   }
+
+   /**
+    * Retrieve the executor used to parse MPP file data.
+    *
+    * @return executor, or null
+    */
+   public ExecutorService getExecutor()
+   {
+      return m_executor;
+   }
+
+   /**
+    * Set the executor used to parse MPP file data. When an executor is
+    * supplied, the task, resource and assignment data held in an MPP14 file
+    * is parsed on the executor while the rest of the file is read. The
+    * project is still built on the calling thread. By default all data
+    * is parsed on the calling thread.
+    *
+    * @param executor executor, or null
+    */
+   public void setExecutor(ExecutorService executor)
+   {
+      m_executor = executor;
+   }
+
+   /**
+    * Retrieve the factory used to create the storage which holds field
+    * values for the tasks, resources and assignments read.
+    *
+    * @return field storage factory
+    */
+   public FieldStorageFactory getFieldStorageFactory()
+   {
+      return m_fieldStorageFactory;
+   }
+
+   /**
+    * Set the factory used to create the storage which holds field values
+    * for the tasks, resources and assignments read. For example
+    * CompactFieldStorage.FACTORY can be used to reduce the memory used
+    * by large projects. The default is ArrayFieldStorage.FACTORY.
+    *
+    * @param factory field storage factory
+    */
+   public void setFieldStorageFactory(FieldStorageFactory factory)
+   {
+      if (factory == null)
+      {
+         throw new IllegalArgumentException("Field storage factory must not be null");
+      }
+      m_fieldStorageFactory = factory;
+   }
+
    /**
     * Set the read password for this Project file. This is needed in order to
     * be allowed to read a read-protected Project file.
@@ -385,6 +602,19 @@ public final class MPPReader extends AbstractProjectReader
    private boolean m_readPresentationData = true;
    private boolean m_readPropertiesOnly;
 
+   /**
+    * Set of task, resource and assignment fields to read, null to read all fields.
+    */
+   private Set<FieldType> m_fieldFilter;
+
+   /**
+    * Flag used to indicate that fields are decoded on demand.
+    */
+   private boolean m_loadFieldsOnDemand;
+   private boolean m_loadPresentationDataOnDemand;
+   private ExecutorService m_executor;
+   private FieldStorageFactory m_fieldStorageFactory = ArrayFieldStorage.FACTORY;
+
    private String m_readPassword;
    private List<ProjectListener> m_projectListeners;
 
@@ -449,6 +449,23 @@ public final class MPPUtility
       return length == 0 ? "" : new String(data, offset, length, CharsetHelper.UTF16LE);
    }
 
+   /**
+    * Reads a string of two byte characters from a region of the input array.
+    * The string finishes either at the end of the region, or when char
+    * zero is encountered. This allows a string to be read from an item
+    * held within a larger buffer without copying the item.
+    *
+    * @param data byte array of data
+    * @param offset start of the region
+    * @param length length of the region in bytes
+    * @return string value
+    */
+   public static final String getBoundedUnicodeString(byte[] data, int offset, int length)
+   {
+      int stringLength = getUnicodeStringLengthInBytes(data, offset, offset + length);
+      return stringLength == 0 ? "" : new String(data, offset, stringLength, CharsetHelper.UTF16LE);
+   }
+
    /**
     * Determine the length of a nul terminated UTF16LE string in bytes.
     *
@@ -457,17 +474,31 @@ public final class MPPUtility
     * @return length in bytes
     */
    private static final int getUnicodeStringLengthInBytes(byte[] data, int offset)
+   {
+      return data == null ? 0 : getUnicodeStringLengthInBytes(data, offset, data.length);
+   }
+
+   /**
+    * Determine the length of a nul terminated UTF16LE string in bytes,
+    * where the string may not extend beyond the given end point.
+    *
+    * @param data string data
+    * @param offset offset into string data
+    * @param end offset of the first byte beyond the end of the string data
+    * @return length in bytes
+    */
+   private static final int getUnicodeStringLengthInBytes(byte[] data, int offset, int end)
    {
       int result;
-      if (data == null || offset >= data.length)
+      if (data == null || offset >= end)
       {
          result = 0;
       }
       else
       {
-         result = data.length - offset;
+         result = end - offset;
 
-         for (int loop = offset; loop < (data.length - 1); loop += 2)
+         for (int loop = offset; loop < (end - 1); loop += 2)
          {
             if (data[loop] == 0 && data[loop + 1] == 0)
             {
@@ -490,11 +521,26 @@ public final class MPPUtility
     * @return string value
     */
    public static final String getString(byte[] data, int offset)
+   {
+      return getBoundedString(data, offset, data.length - offset);
+   }
+
+   /**
+    * Reads a string of single byte characters from a region of the input array.
+    * The string finishes either at the end of the region, or when char
+    * zero is encountered.
+    *
+    * @param data byte array of data
+    * @param offset start of the region
+    * @param length length of the region in bytes
+    * @return string value
+    */
+   public static final String getBoundedString(byte[] data, int offset, int length)
    {
       StringBuilder buffer = new StringBuilder();
       char c;
 
-      for (int loop = 0; offset + loop < data.length; loop++)
+      for (int loop = 0; loop < length; loop++)
       {
          c = (char) data[offset + loop];
 
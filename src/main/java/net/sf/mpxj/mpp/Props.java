@@ -25,12 +25,13 @@ package net.sf.mpxj.mpp;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.Arrays;
 import java.util.Date;
-import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
+import java.util.TreeSet;
 
 import net.sf.mpxj.common.ByteArrayHelper;
+import net.sf.mpxj.common.IntIntMap;
 
 /**
  * This class represents the common structure of Props files found in
@@ -49,7 +50,15 @@ class Props extends MPPComponent
     */
    public byte[] getByteArray(Integer type)
    {
-      return (m_map.get(type));
+      byte[] result = null;
+
+      int slot = getSlot(type);
+      if (slot != -1)
+      {
+         result = MPPUtility.cloneSubArray(m_buffer, m_offsets[slot], m_lengths[slot]);
+      }
+
+      return (result);
    }
 
    /**
@@ -62,10 +71,10 @@ class Props extends MPPComponent
    {
       byte result = 0;
 
-      byte[] item = m_map.get(type);
-      if (item != null)
+      int slot = getSlot(type);
+      if (slot != -1)
       {
-         result = item[0];
+         result = m_buffer[m_offsets[slot]];
       }
 
       return (result);
@@ -81,10 +90,10 @@ class Props extends MPPComponent
    {
       int result = 0;
 
-      byte[] item = m_map.get(type);
-      if (item != null)
+      int slot = getSlot(type);
+      if (slot != -1)
       {
-         result = MPPUtility.getShort(item, 0);
+         result = MPPUtility.getShort(m_buffer, m_offsets[slot]);
       }
 
       return (result);
@@ -100,10 +109,10 @@ class Props extends MPPComponent
    {
       int result = 0;
 
-      byte[] item = m_map.get(type);
-      if (item != null)
+      int slot = getSlot(type);
+      if (slot != -1)
       {
-         result = MPPUtility.getInt(item, 0);
+         result = MPPUtility.getInt(m_buffer, m_offsets[slot]);
       }
 
       return (result);
@@ -119,10 +128,10 @@ class Props extends MPPComponent
    {
       double result = 0;
 
-      byte[] item = m_map.get(type);
-      if (item != null)
+      int slot = getSlot(type);
+      if (slot != -1)
       {
-         result = MPPUtility.getDouble(item, 0);
+         result = MPPUtility.getDouble(m_buffer, m_offsets[slot]);
       }
 
       return (result);
@@ -138,10 +147,10 @@ class Props extends MPPComponent
    {
       Date result = null;
 
-      byte[] item = m_map.get(type);
-      if (item != null)
+      int slot = getSlot(type);
+      if (slot != -1)
       {
-         result = MPPUtility.getTime(item, 0);
+         result = MPPUtility.getTime(m_buffer, m_offsets[slot]);
       }
 
       return (result);
@@ -157,10 +166,10 @@ class Props extends MPPComponent
    {
       Date result = null;
 
-      byte[] item = m_map.get(type);
-      if (item != null)
+      int slot = getSlot(type);
+      if (slot != -1)
       {
-         result = MPPUtility.getTimestamp(item, 0);
+         result = MPPUtility.getTimestamp(m_buffer, m_offsets[slot]);
       }
 
       return (result);
@@ -176,10 +185,10 @@ class Props extends MPPComponent
    {
       boolean result = false;
 
-      byte[] item = m_map.get(type);
-      if (item != null)
+      int slot = getSlot(type);
+      if (slot != -1)
       {
-         result = !(MPPUtility.getShort(item, 0) == 0);
+         result = !(MPPUtility.getShort(m_buffer, m_offsets[slot]) == 0);
       }
 
       return (result);
@@ -195,10 +204,10 @@ class Props extends MPPComponent
    {
       String result = null;
 
-      byte[] item = m_map.get(type);
-      if (item != null)
+      int slot = getSlot(type);
+      if (slot != -1)
       {
-         result = MPPUtility.getUnicodeString(item, 0);
+         result = MPPUtility.getBoundedUnicodeString(m_buffer, m_offsets[slot], m_lengths[slot]);
       }
 
       return (result);
@@ -214,10 +223,10 @@ class Props extends MPPComponent
    {
       Date result = null;
 
-      byte[] item = m_map.get(type);
-      if (item != null)
+      int slot = getSlot(type);
+      if (slot != -1)
       {
-         result = MPPUtility.getDate(item, 0);
+         result = MPPUtility.getDate(m_buffer, m_offsets[slot]);
       }
 
       return (result);
@@ -230,7 +239,12 @@ class Props extends MPPComponent
     */
    public Set<Integer> keySet()
    {
-      return (m_map.keySet());
+      Set<Integer> result = new TreeSet<Integer>();
+      for (int key : m_index.keys())
+      {
+         result.add(Integer.valueOf(key));
+      }
+      return (result);
    }
 
    /**
@@ -246,10 +260,10 @@ class Props extends MPPComponent
 
       pw.println("BEGIN Props");
 
-      for (Map.Entry<Integer, byte[]> entry : m_map.entrySet())
+      for (int key : getKeys())
       {
-         pw.println("   Key: " + entry.getKey() + " Value: ");
-         pw.println(ByteArrayHelper.hexdump(entry.getValue(), true, 16, "      "));
+         pw.println("   Key: " + key + " Value: ");
+         pw.println(ByteArrayHelper.hexdump(getByteArray(Integer.valueOf(key)), true, 16, "      "));
       }
 
       pw.println("END Props");
@@ -259,6 +273,70 @@ class Props extends MPPComponent
       return (sw.toString());
    }
 
+   /**
+    * Set the buffer holding the property data. Items added to this
+    * instance are views onto this buffer, rather than copies of the data.
+    *
+    * @param buffer property data
+    */
+   protected void setBuffer(byte[] buffer)
+   {
+      m_buffer = buffer;
+   }
+
+   /**
+    * Add an item of property data. If an item with the same key has
+    * already been added, it is replaced.
+    *
+    * @param key item key
+    * @param offset offset of the item data in the buffer
+    * @param length length of the item data
+    */
+   protected void addItem(int key, int offset, int length)
+   {
+      if (offset < 0 || length < 0 || offset + length > m_buffer.length)
+      {
+         throw new IndexOutOfBoundsException("Invalid property item: offset=" + offset + " length=" + length);
+      }
+
+      int slot = m_index.get(key, -1);
+      if (slot == -1)
+      {
+         slot = m_count++;
+         if (slot == m_offsets.length)
+         {
+            int capacity = slot * 2;
+            m_offsets = Arrays.copyOf(m_offsets, capacity);
+            m_lengths = Arrays.copyOf(m_lengths, capacity);
+         }
+         m_index.put(key, slot);
+      }
+
+      m_offsets[slot] = offset;
+      m_lengths[slot] = length;
+   }
+
+   /**
+    * Retrieve the keys of the items held by this instance, in ascending order.
+    *
+    * @return item keys
+    */
+   protected int[] getKeys()
+   {
+      return m_index.keys();
+   }
+
+   /**
+    * Retrieve the slot in which the data for an item is recorded.
+    *
+    * @param type Type identifier
+    * @return slot, or -1 if the item is not present
+    */
+   private int getSlot(Integer type)
+   {
+      return type == null ? -1 : m_index.get(type.intValue(), -1);
+   }
+
    /**
     * Data types.
     */
@@ -354,5 +432,11 @@ class Props extends MPPComponent
 
    public static final Integer CUSTOM_FIELDS = Integer.valueOf(71303169);
 
-   protected TreeMap<Integer, byte[]> m_map = new TreeMap<Integer, byte[]>();
+   private byte[] m_buffer;
+   private final IntIntMap m_index = new IntIntMap();
+   private int[] m_offsets = new int[INITIAL_CAPACITY];
+   private int[] m_lengths = new int[INITIAL_CAPACITY];
+   private int m_count;
+
+   private static final int INITIAL_CAPACITY = 16;
 }
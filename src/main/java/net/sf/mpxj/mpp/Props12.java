@@ -24,11 +24,10 @@
 package net.sf.mpxj.mpp;
 
 //import java.io.FileOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 
-import net.sf.mpxj.common.StreamHelper;
-
 /**
  * This class represents the Props files found in Microsoft Project MPP12 files.
  */
@@ -41,44 +40,56 @@ final class Props12 extends Props
     */
    Props12(InputStream is)
       throws IOException
+   {
+      this(readAvailable(is));
+   }
+
+   /**
+    * Constructor, reads the property data from a byte array. The items
+    * read are views onto this array, so the caller must not modify it.
+    *
+    * @param buffer props data
+    */
+   Props12(byte[] buffer)
+      throws IOException
    {
       //FileOutputStream fos = new FileOutputStream ("c:\\temp\\props12." + System.currentTimeMillis() + ".txt");
       //PrintWriter pw = new PrintWriter (fos);
 
-      byte[] header = new byte[16];
-      byte[] data;
-      is.read(header);
+      setBuffer(buffer);
 
-      int headerCount = MPPUtility.getShort(header, 12);
+      int headerCount = buffer.length < 16 ? 0 : MPPUtility.getShort(buffer, 12);
       int foundCount = 0;
-      int availableBytes = is.available();
+      int offset = 16;
 
       while (foundCount < headerCount)
       {
-         int attrib1 = readInt(is);
-         int attrib2 = readInt(is);
-         /*int attrib3 = */readInt(is);
-         availableBytes -= 12;
+         if (buffer.length - offset < 12)
+         {
+            throw new EOFException();
+         }
+
+         int attrib1 = MPPUtility.getInt(buffer, offset);
+         int attrib2 = MPPUtility.getInt(buffer, offset + 4);
+         /*int attrib3 = MPPUtility.getInt(buffer, offset + 8);*/
+         offset += 12;
 
-         if (availableBytes < attrib1 || attrib1 < 1)
+         if (buffer.length - offset < attrib1 || attrib1 < 1)
          {
             break;
          }
 
-         data = new byte[attrib1];
-         is.read(data);
-         availableBytes -= attrib1;
-
-         m_map.put(Integer.valueOf(attrib2), data);
-         //pw.println(foundCount + " "+ attrib2 + ": " + ByteArrayHelper.hexdump(data, true));
+         addItem(attrib2, offset, attrib1);
+         offset += attrib1;
+         //pw.println(foundCount + " "+ attrib2 + ": " + ByteArrayHelper.hexdump(buffer, offset - attrib1, attrib1, true));
          ++foundCount;
 
          //
          // Align to two byte boundary
          //
-         if (data.length % 2 != 0)
+         if (attrib1 % 2 != 0)
          {
-            StreamHelper.skip(is, 1);
+            ++offset;
          }
       }
 
@@ -27,8 +27,6 @@ package net.sf.mpxj.mpp;
 import java.io.IOException;
 import java.io.InputStream;
 
-import net.sf.mpxj.common.StreamHelper;
-
 /**
  * This class represents the Props files found in Microsoft Project MPP14 files.
  */
@@ -41,17 +39,26 @@ final class Props14 extends Props
     */
    Props14(InputStream is)
       throws IOException
+   {
+      this(readAvailable(is));
+   }
+
+   /**
+    * Constructor, reads the property data from a byte array. The items
+    * read are views onto this array, so the caller must not modify it.
+    *
+    * @param buffer props data
+    */
+   Props14(byte[] buffer)
    {
       //FileOutputStream fos = new FileOutputStream ("c:\\temp\\props14." + System.currentTimeMillis() + ".txt");
       //PrintWriter pw = new PrintWriter (fos);
 
-      byte[] header = new byte[16];
-      byte[] data;
-      is.read(header);
+      setBuffer(buffer);
 
-      int headerCount = MPPUtility.getShort(header, 12);
+      int headerCount = buffer.length < 16 ? 0 : MPPUtility.getShort(buffer, 12);
       int foundCount = 0;
-      int availableBytes = is.available();
+      int offset = 16;
 
       while (foundCount < headerCount)
       {
@@ -59,49 +66,35 @@ final class Props14 extends Props
          // on Windows with a 1.7.0 JRE, but failed on the 64 bit version below:
          // OpenJDK Runtime Environment (IcedTea 2.6.11) (7u151-2.6.11-0ubuntu1.14.04.1)
          // This was the fix: if we don't have at least 12 bytes left to read, then bail out.
-         if (availableBytes < 12)
-         {
-            break;
-         }
-
-         int attrib1 = readInt(is);
-         int attrib2 = readInt(is);
-         /*int attrib3 = */readInt(is);
-         availableBytes -= 12;
-
-         if (availableBytes < attrib1 || attrib1 < 1)
+         if (buffer.length - offset < 12)
          {
             break;
          }
 
-         data = new byte[attrib1];
+         int attrib1 = MPPUtility.getInt(buffer, offset);
+         int attrib2 = MPPUtility.getInt(buffer, offset + 4);
+         /*int attrib3 = MPPUtility.getInt(buffer, offset + 8);*/
+         offset += 12;
 
-         try
+         // If POI failed part way through the stream (see
+         // https://bz.apache.org/bugzilla/show_bug.cgi?id=61677)
+         // the buffer will be truncated, and we'll bail out here.
+         if (buffer.length - offset < attrib1 || attrib1 < 1)
          {
-            is.read(data);
-         }
-
-         catch (IndexOutOfBoundsException ex)
-         {
-            // POI fails to read certain MPP files with this exception:
-            // https://bz.apache.org/bugzilla/show_bug.cgi?id=61677
-            // There is no fix presently, we just have to bail out at
-            // this point - we're unable to read any more data.
             break;
          }
 
-         availableBytes -= attrib1;
-
-         m_map.put(Integer.valueOf(attrib2), data);
-         //pw.println(foundCount + " "+ attrib2 + ": " + ByteArrayHelper.hexdump(data, true));
+         addItem(attrib2, offset, attrib1);
+         offset += attrib1;
+         //pw.println(foundCount + " "+ attrib2 + ": " + ByteArrayHelper.hexdump(buffer, offset - attrib1, attrib1, true));
          ++foundCount;
 
          //
          // Align to two byte boundary
          //
-         if (data.length % 2 != 0)
+         if (attrib1 % 2 != 0)
          {
-            StreamHelper.skip(is, 1);
+            ++offset;
          }
       }
 
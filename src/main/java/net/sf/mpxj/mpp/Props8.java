@@ -24,14 +24,13 @@
 package net.sf.mpxj.mpp;
 
 //import java.io.FileOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.util.Map;
 
 import net.sf.mpxj.common.ByteArrayHelper;
-import net.sf.mpxj.common.StreamHelper;
 
 /**
  * This class represents the Props files found in Microsoft Project MPP8 files.
@@ -57,25 +56,33 @@ final class Props8 extends Props
          //FileOutputStream fos = new FileOutputStream ("c:\\temp\\props8." + System.currentTimeMillis() + ".txt");
          //PrintWriter pw = new PrintWriter (fos);
 
-         readInt(is); // File size
-         readInt(is); // Repeat of file size
-         readInt(is); // unknown
-         int count = readShort(is); // Number of entries
-         readShort(is); // unknown
+         byte[] buffer = readAvailable(is);
+         setBuffer(buffer);
 
-         byte[] attrib = new byte[4];
+         if (buffer.length < 16)
+         {
+            throw new EOFException();
+         }
+
+         // Offset 0: file size, 4: repeat of file size, 8: unknown
+         int count = MPPUtility.getShort(buffer, 12); // Number of entries
+         // Offset 14: unknown
+         int offset = 16;
 
          for (int loop = 0; loop < count; loop++)
          {
-            int attrib1 = readInt(is);
+            if (buffer.length - offset < 12)
+            {
+               throw new EOFException();
+            }
 
-            is.read(attrib);
-            int attrib2 = MPPUtility.getInt(attrib, 0);
-            int attrib3 = MPPUtility.getByte(attrib, 2);
-            //is.read(); // attrib4
-            int attrib5 = readInt(is);
+            int attrib1 = MPPUtility.getInt(buffer, offset);
+            int attrib2 = MPPUtility.getInt(buffer, offset + 4);
+            int attrib3 = MPPUtility.getByte(buffer, offset + 6);
+            //int attrib4 = MPPUtility.getByte(buffer, offset + 7);
+            int attrib5 = MPPUtility.getInt(buffer, offset + 8);
             int size;
-            byte[] data;
+            offset += 12;
 
             if (attrib3 == 64)
             {
@@ -91,27 +98,23 @@ final class Props8 extends Props
                size = 4;
             }
 
-            if (size > 0)
-            {
-               data = new byte[size];
-               is.read(data);
-            }
-            else
+            if (size < 1 || size > buffer.length - offset)
             {
                // bail out here as we don't understand the structure
                m_complete = false;
                break;
             }
 
-            m_map.put(Integer.valueOf(attrib2), data);
-            //pw.println(attrib2 + ": " + ByteArrayHelper.hexdump(data, true));
+            addItem(attrib2, offset, size);
+            offset += size;
+            //pw.println(attrib2 + ": " + ByteArrayHelper.hexdump(buffer, offset - size, size, true));
 
             //
             // Align to two byte boundary
             //
-            if (data.length % 2 != 0)
+            if (size % 2 != 0)
             {
-               StreamHelper.skip(is, 1);
+               ++offset;
             }
          }
 
@@ -169,9 +172,9 @@ final class Props8 extends Props
          pw.println("   INCOMPLETE");
       }
 
-      for (Map.Entry<Integer, byte[]> entry : m_map.entrySet())
+      for (int key : getKeys())
       {
-         pw.println("   Key: " + entry.getKey() + " Value: " + ByteArrayHelper.hexdump(entry.getValue(), true));
+         pw.println("   Key: " + key + " Value: " + ByteArrayHelper.hexdump(getByteArray(Integer.valueOf(key)), true));
       }
 
       pw.println("END Props");
@@ -24,11 +24,10 @@
 package net.sf.mpxj.mpp;
 
 //import java.io.FileOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 
-import net.sf.mpxj.common.StreamHelper;
-
 /**
  * This class represents the Props files found in Microsoft Project MPP9 files.
  */
@@ -41,44 +40,56 @@ final class Props9 extends Props
     */
    Props9(InputStream is)
       throws IOException
+   {
+      this(readAvailable(is));
+   }
+
+   /**
+    * Constructor, reads the property data from a byte array. The items
+    * read are views onto this array, so the caller must not modify it.
+    *
+    * @param buffer props data
+    */
+   Props9(byte[] buffer)
+      throws IOException
    {
       //FileOutputStream fos = new FileOutputStream ("c:\\temp\\props9." + System.currentTimeMillis() + ".txt");
       //PrintWriter pw = new PrintWriter (fos);
 
-      byte[] header = new byte[16];
-      byte[] data;
-      is.read(header);
+      setBuffer(buffer);
 
-      int headerCount = MPPUtility.getShort(header, 12);
+      int headerCount = buffer.length < 16 ? 0 : MPPUtility.getShort(buffer, 12);
       int foundCount = 0;
-      int availableBytes = is.available();
+      int offset = 16;
 
       while (foundCount < headerCount)
       {
-         int itemSize = readInt(is);
-         int itemKey = readInt(is);
-         /*int attrib3 = */readInt(is);
-         availableBytes -= 12;
+         if (buffer.length - offset < 12)
+         {
+            throw new EOFException();
+         }
+
+         int itemSize = MPPUtility.getInt(buffer, offset);
+         int itemKey = MPPUtility.getInt(buffer, offset + 4);
+         /*int attrib3 = MPPUtility.getInt(buffer, offset + 8);*/
+         offset += 12;
 
-         if (availableBytes < itemSize || itemSize < 1)
+         if (buffer.length - offset < itemSize || itemSize < 1)
          {
             break;
          }
 
-         data = new byte[itemSize];
-         is.read(data);
-         availableBytes -= itemSize;
-
-         m_map.put(Integer.valueOf(itemKey), data);
-         //pw.println(foundCount + " "+ attrib2 + ": " + ByteArrayHelper.hexdump(data, true));
+         addItem(itemKey, offset, itemSize);
+         offset += itemSize;
+         //pw.println(foundCount + " "+ itemKey + ": " + ByteArrayHelper.hexdump(buffer, offset - itemSize, itemSize, true));
          ++foundCount;
 
          //
          // Align to two byte boundary
          //
-         if (data.length % 2 != 0)
+         if (itemSize % 2 != 0)
          {
-            StreamHelper.skip(is, 1);
+            ++offset;
          }
       }
 
@@ -38,6 +38,8 @@ final class PropsBlock extends Props
     */
    PropsBlock(byte[] data)
    {
+      setBuffer(data);
+
       int dataSize = MPPUtility.getInt(data, 0);
       int itemCount = MPPUtility.getInt(data, 4);
 
@@ -59,7 +61,7 @@ final class PropsBlock extends Props
 
       for (Integer itemOffset : offsetMap.keySet())
       {
-         populateMap(data, previousItemOffset, previousItemKey, itemOffset);
+         populateMap(previousItemOffset, previousItemKey, itemOffset);
          previousItemOffset = itemOffset;
          previousItemKey = offsetMap.get(previousItemOffset);
       }
@@ -67,27 +69,24 @@ final class PropsBlock extends Props
       if (previousItemOffset != null)
       {
          Integer itemOffset = Integer.valueOf(dataSize);
-         populateMap(data, previousItemOffset, previousItemKey, itemOffset);
+         populateMap(previousItemOffset, previousItemKey, itemOffset);
       }
    }
 
    /**
-    * Method used to extract data from the block of properties and
-    * insert the key value pair into a map.
+    * Method used to locate an item in the block of properties and
+    * add it to the index.
     *
-    * @param data block of property data
     * @param previousItemOffset previous offset
     * @param previousItemKey item key
     * @param itemOffset current item offset
     */
-   private void populateMap(byte[] data, Integer previousItemOffset, Integer previousItemKey, Integer itemOffset)
+   private void populateMap(Integer previousItemOffset, Integer previousItemKey, Integer itemOffset)
    {
       if (previousItemOffset != null)
       {
          int itemSize = itemOffset.intValue() - previousItemOffset.intValue();
-         byte[] itemData = new byte[itemSize];
-         System.arraycopy(data, previousItemOffset.intValue(), itemData, 0, itemSize);
-         m_map.put(previousItemKey, itemData);
+         addItem(previousItemKey.intValue(), previousItemOffset.intValue(), itemSize);
       }
    }
 
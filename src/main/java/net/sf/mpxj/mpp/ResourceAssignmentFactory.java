@@ -59,6 +59,7 @@ public class ResourceAssignmentFactory
     * @param enterpriseCustomFieldMap enterprise custom field map
     * @param useRawTimephasedData use raw timephased data flag
     * @param preserveNoteFormatting preserve note formatting flag
+    * @param loadFieldsOnDemand decode fields on demand flag
     * @param assnVarMeta var meta
     * @param assnVarData var data
     * @param assnFixedMeta fixed meta
@@ -66,7 +67,7 @@ public class ResourceAssignmentFactory
     * @param assnFixedData2 fixed data
     * @param count expected number of assignments
     */
-   public void process(ProjectFile file, FieldMap fieldMap, FieldMap enterpriseCustomFieldMap, boolean useRawTimephasedData, boolean preserveNoteFormatting, VarMeta assnVarMeta, Var2Data assnVarData, FixedMeta assnFixedMeta, FixedData assnFixedData, FixedData assnFixedData2, int count)
+   public void process(ProjectFile file, FieldMap fieldMap, FieldMap enterpriseCustomFieldMap, boolean useRawTimephasedData, boolean preserveNoteFormatting, boolean loadFieldsOnDemand, VarMeta assnVarMeta, Var2Data assnVarData, FixedMeta assnFixedMeta, FixedData assnFixedData, FixedData assnFixedData2, int count)
    {
       Set<Integer> set = assnVarMeta.getUniqueIdentifierSet();
       TimephasedDataFactory timephasedFactory = new TimephasedDataFactory();
@@ -139,15 +140,29 @@ public class ResourceAssignmentFactory
 
          assignment.disableEvents();
 
-         fieldMap.populateContainer(AssignmentField.class, assignment, varDataId, new byte[][]
+         if (loadFieldsOnDemand)
          {
-            data,
-            data2
-         }, assnVarData);
-
-         if (enterpriseCustomFieldMap != null)
+            FieldMapLoader loader = new FieldMapLoader(AssignmentField.class, varDataId, assnVarData);
+            loader.add(fieldMap, new byte[][]
+            {
+               data,
+               data2
+            });
+            loader.add(enterpriseCustomFieldMap, null);
+            assignment.setFieldLoader(loader);
+         }
+         else
          {
-            enterpriseCustomFieldMap.populateContainer(AssignmentField.class, assignment, varDataId, null, assnVarData);
+            fieldMap.populateContainer(AssignmentField.class, assignment, varDataId, new byte[][]
+            {
+               data,
+               data2
+            }, assnVarData);
+
+            if (enterpriseCustomFieldMap != null)
+            {
+               enterpriseCustomFieldMap.populateContainer(AssignmentField.class, assignment, varDataId, null, assnVarData);
+            }
          }
 
          assignment.enableEvents();
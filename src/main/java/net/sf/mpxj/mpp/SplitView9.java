@@ -23,7 +23,6 @@
 
 package net.sf.mpxj.mpp;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 
 import net.sf.mpxj.ProjectFile;
@@ -51,7 +50,7 @@ public class SplitView9 extends GenericView9
       byte[] propsData = varData.getByteArray(m_id, PROPERTIES);
       if (propsData != null)
       {
-         Props9 props = new Props9(new ByteArrayInputStream(propsData));
+         Props9 props = new Props9(propsData);
 
          byte[] upperViewName = props.getByteArray(UPPER_VIEW_NAME);
          if (upperViewName != null)
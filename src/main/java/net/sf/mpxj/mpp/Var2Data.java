@@ -28,11 +28,9 @@ import java.io.InputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.Date;
-import java.util.Map;
-import java.util.TreeMap;
 
 import net.sf.mpxj.common.ByteArrayHelper;
-import net.sf.mpxj.common.StreamHelper;
+import net.sf.mpxj.common.IntIntMap;
 
 /**
  * This class represents a block of variable data. Each block of
@@ -54,57 +52,46 @@ final class Var2Data extends MPPComponent
       throws IOException
    {
       m_meta = meta;
-      byte[] data;
 
-      int currentOffset = 0;
       int available = is.available();
+      m_buffer = readAvailable(is);
 
-      for (int itemOffset : meta.getOffsets())
+      int[] offsets = meta.getOffsets();
+      m_index = new IntIntMap(offsets.length);
+
+      for (int itemOffset : offsets)
       {
-         if (itemOffset >= available)
+         if (itemOffset < 0 || itemOffset >= available)
          {
             continue;
          }
 
-         if (currentOffset > itemOffset)
-         {
-            is.reset();
-            StreamHelper.skip(is, itemOffset);
-         }
-         else
+         if (itemOffset + 4 > m_buffer.length)
          {
-            if (currentOffset < itemOffset)
-            {
-               StreamHelper.skip(is, itemOffset - currentOffset);
-            }
+            // POI fails to read certain MPP files:
+            // https://bz.apache.org/bugzilla/show_bug.cgi?id=61677
+            // There is no fix presently, we just have to bail out at
+            // this point - we're unable to read any more data.
+            break;
          }
 
-         int size = readInt(is);
+         int size = MPPUtility.getInt(m_buffer, itemOffset);
 
          //
          // Try our best to handle corrupt files gracefully
          //
-         if (size < 0 || size > is.available())
+         if (size < 0 || size > available - itemOffset - 4)
          {
             continue;
          }
 
-         try
-         {
-            data = readByteArray(is, size);
-         }
-
-         catch (IndexOutOfBoundsException ex)
+         if (itemOffset + 4 + size > m_buffer.length)
          {
-            // POI fails to read certain MPP files with this exception:
-            // https://bz.apache.org/bugzilla/show_bug.cgi?id=61677
-            // There is no fix presently, we just have to bail out at
-            // this point - we're unable to read any more data.
+            // See above - the data we need could not be read by POI
             break;
          }
 
-         m_map.put(Integer.valueOf(itemOffset), data);
-         currentOffset = itemOffset + 4 + size;
+         m_index.put(itemOffset, size);
       }
    }
 
@@ -120,9 +107,10 @@ final class Var2Data extends MPPComponent
    {
       byte[] result = null;
 
-      if (offset != null)
+      int size = getSize(offset);
+      if (size != -1)
       {
-         result = m_map.get(offset);
+         result = MPPUtility.cloneSubArray(m_buffer, offset.intValue() + 4, size);
       }
 
       return (result);
@@ -153,13 +141,10 @@ final class Var2Data extends MPPComponent
    {
       String result = null;
 
-      if (offset != null)
+      int size = getSize(offset);
+      if (size != -1)
       {
-         byte[] value = m_map.get(offset);
-         if (value != null)
-         {
-            result = MPPUtility.getUnicodeString(value, 0);
-         }
+         result = MPPUtility.getBoundedUnicodeString(m_buffer, offset.intValue() + 4, size);
       }
 
       return (result);
@@ -192,13 +177,9 @@ final class Var2Data extends MPPComponent
 
       Integer offset = m_meta.getOffset(id, type);
 
-      if (offset != null)
+      if (getSize(offset) >= 4)
       {
-         byte[] value = m_map.get(offset);
-         if (value != null && value.length >= 4)
-         {
-            result = MPPUtility.getTimestamp(value, 0);
-         }
+         result = MPPUtility.getTimestamp(m_buffer, offset.intValue() + 4);
       }
 
       return (result);
@@ -216,13 +197,10 @@ final class Var2Data extends MPPComponent
    {
       String result = null;
 
-      if (offset != null)
+      int size = getSize(offset);
+      if (size != -1)
       {
-         byte[] value = m_map.get(offset);
-         if (value != null)
-         {
-            result = MPPUtility.getString(value, 0);
-         }
+         result = MPPUtility.getBoundedString(m_buffer, offset.intValue() + 4, size);
       }
 
       return (result);
@@ -255,14 +233,9 @@ final class Var2Data extends MPPComponent
 
       Integer offset = m_meta.getOffset(id, type);
 
-      if (offset != null)
+      if (getSize(offset) >= 2)
       {
-         byte[] value = m_map.get(offset);
-
-         if (value != null && value.length >= 2)
-         {
-            result = MPPUtility.getShort(value, 0);
-         }
+         result = MPPUtility.getShort(m_buffer, offset.intValue() + 4);
       }
 
       return (result);
@@ -282,14 +255,9 @@ final class Var2Data extends MPPComponent
 
       Integer offset = m_meta.getOffset(id, type);
 
-      if (offset != null)
+      if (getSize(offset) >= 1)
       {
-         byte[] value = m_map.get(offset);
-
-         if (value != null)
-         {
-            result = MPPUtility.getByte(value, 0);
-         }
+         result = MPPUtility.getByte(m_buffer, offset.intValue() + 4);
       }
 
       return (result);
@@ -309,14 +277,9 @@ final class Var2Data extends MPPComponent
 
       Integer offset = m_meta.getOffset(id, type);
 
-      if (offset != null)
+      if (getSize(offset) >= 4)
       {
-         byte[] value = m_map.get(offset);
-
-         if (value != null && value.length >= 4)
-         {
-            result = MPPUtility.getInt(value, 0);
-         }
+         result = MPPUtility.getInt(m_buffer, offset.intValue() + 4);
       }
 
       return (result);
@@ -339,14 +302,9 @@ final class Var2Data extends MPPComponent
 
       Integer metaOffset = m_meta.getOffset(id, type);
 
-      if (metaOffset != null)
+      if (getSize(metaOffset) >= offset + 4)
       {
-         byte[] value = m_map.get(metaOffset);
-
-         if (value != null && value.length >= offset + 4)
-         {
-            result = MPPUtility.getInt(value, offset);
-         }
+         result = MPPUtility.getInt(m_buffer, metaOffset.intValue() + 4 + offset);
       }
 
       return (result);
@@ -366,14 +324,9 @@ final class Var2Data extends MPPComponent
 
       Integer offset = m_meta.getOffset(id, type);
 
-      if (offset != null)
+      if (getSize(offset) >= 8)
       {
-         byte[] value = m_map.get(offset);
-
-         if (value != null && value.length >= 8)
-         {
-            result = MPPUtility.getLong(value, 0);
-         }
+         result = MPPUtility.getLong(m_buffer, offset.intValue() + 4);
       }
 
       return (result);
@@ -396,14 +349,9 @@ final class Var2Data extends MPPComponent
 
       Integer metaOffset = m_meta.getOffset(id, type);
 
-      if (metaOffset != null)
+      if (getSize(metaOffset) >= offset + 4)
       {
-         byte[] value = m_map.get(metaOffset);
-
-         if (value != null && value.length >= offset + 4)
-         {
-            result = MPPUtility.getLong(value, offset);
-         }
+         result = MPPUtility.getLong(m_buffer, metaOffset.intValue() + 4 + offset);
       }
 
       return (result);
@@ -450,10 +398,11 @@ final class Var2Data extends MPPComponent
       PrintWriter pw = new PrintWriter(sw);
 
       pw.println("BEGIN Var2Data");
-      for (Map.Entry<Integer, byte[]> entry : m_map.entrySet())
+      for (int offset : m_index.keys())
       {
-         pw.println("   Data at offset: " + entry.getKey() + " size: " + entry.getValue().length);
-         pw.println(ByteArrayHelper.hexdump(entry.getValue(), true, 16, "   "));
+         int size = m_index.get(offset, 0);
+         pw.println("   Data at offset: " + offset + " size: " + size);
+         pw.println(ByteArrayHelper.hexdump(m_buffer, offset + 4, size, true, 16, "   "));
       }
 
       pw.println("END Var2Data");
@@ -478,9 +427,9 @@ final class Var2Data extends MPPComponent
       for (Integer type : m_meta.getTypes(id))
       {
          Integer offset = m_meta.getOffset(id, type);
-         byte[] data = m_map.get(offset);
-         pw.println("   Data at offset: " + offset + " size: " + data.length);
-         pw.println(ByteArrayHelper.hexdump(data, true, 16, "   "));
+         int size = getSize(offset);
+         pw.println("   Data at offset: " + offset + " size: " + size);
+         pw.println(ByteArrayHelper.hexdump(m_buffer, offset.intValue() + 4, size, true, 16, "   "));
       }
       pw.println("END Var2Data for " + id);
       pw.println();
@@ -489,9 +438,26 @@ final class Var2Data extends MPPComponent
    }
 
    /**
-    * Map containing data items indexed by offset.
+    * Retrieve the size of the data item at the given offset.
+    *
+    * @param offset offset of required data
+    * @return item size, or -1 if no data is present at this offset
+    */
+   private int getSize(Integer offset)
+   {
+      return offset == null ? -1 : m_index.get(offset.intValue(), -1);
+   }
+
+   /**
+    * Buffer containing the data for all items in this block. Each item
+    * is a four byte size, followed by the data itself.
+    */
+   private final byte[] m_buffer;
+
+   /**
+    * Map of item offsets to item sizes.
     */
-   private TreeMap<Integer, byte[]> m_map = new TreeMap<Integer, byte[]>();
+   private final IntIntMap m_index;
 
    /**
     * Reference to the meta data associated with this block.
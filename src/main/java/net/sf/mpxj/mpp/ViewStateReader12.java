@@ -23,7 +23,6 @@
 
 package net.sf.mpxj.mpp;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 
 /**
@@ -40,7 +39,7 @@ public final class ViewStateReader12 extends ViewStateReader
       byte[] propsData = varData.getByteArray(PROPS_ID, PROPS_TYPE);
       if (propsData != null)
       {
-         props = new Props12(new ByteArrayInputStream(propsData));
+         props = new Props12(propsData);
          //System.out.println(props);
       }
       return (props);
@@ -987,14 +987,15 @@ public final class DatatypeConverter
    /**
     * Print duration time units.
     *
+    * @param writer parent MSPDIWriter instance
     * @param duration Duration value
     * @param estimated is this an estimated duration
     * @return time units value
     */
-   public static final BigInteger printDurationTimeUnits(Duration duration, boolean estimated)
+   public static final BigInteger printDurationTimeUnits(MSPDIWriter writer, Duration duration, boolean estimated)
    {
       // SF-329: null default required to keep Powerproject happy when importing MSPDI files
-      TimeUnit units = duration == null ? PARENT_FILE.get().getProjectProperties().getDefaultDurationUnits() : duration.getUnits();
+      TimeUnit units = duration == null ? writer.getProjectFile().getProjectProperties().getDefaultDurationUnits() : duration.getUnits();
       return printDurationTimeUnits(units, estimated);
    }
 
@@ -1026,12 +1027,13 @@ public final class DatatypeConverter
     * Note that we don't differentiate between confirmed and unconfirmed
     * durations. Unrecognised duration types are default to hours.
     *
+    * @param file parent file
     * @param value BigInteger value
     * @return Duration units
     */
-   public static final TimeUnit parseDurationTimeUnits(BigInteger value)
+   public static final TimeUnit parseDurationTimeUnits(ProjectFile file, BigInteger value)
    {
-      return parseDurationTimeUnits(value, TimeUnit.HOURS);
+      return parseDurationTimeUnits(file, value, TimeUnit.HOURS);
    }
 
    /**
@@ -1040,11 +1042,12 @@ public final class DatatypeConverter
     * Note that we don't differentiate between confirmed and unconfirmed
     * durations. Unrecognised duration types are default the supplied default value.
     *
+    * @param file parent file
     * @param value BigInteger value
     * @param defaultValue if value is null, use this value as the result
     * @return Duration units
     */
-   public static final TimeUnit parseDurationTimeUnits(BigInteger value, TimeUnit defaultValue)
+   public static final TimeUnit parseDurationTimeUnits(ProjectFile file, BigInteger value, TimeUnit defaultValue)
    {
       TimeUnit result = defaultValue;
 
@@ -1139,7 +1142,7 @@ public final class DatatypeConverter
 
             default:
             {
-               result = PARENT_FILE.get().getProjectProperties().getDefaultDurationUnits();
+               result = file.getProjectProperties().getDefaultDurationUnits();
                break;
             }
          }
@@ -1616,11 +1619,6 @@ public final class DatatypeConverter
     */
    public static final String printTaskUID(Integer value)
    {
-      ProjectFile file = PARENT_FILE.get();
-      if (file != null)
-      {
-         file.getEventManager().fireTaskWrittenEvent(file.getTaskByUniqueID(value));
-      }
       return (value.toString());
    }
 
@@ -1643,11 +1641,6 @@ public final class DatatypeConverter
     */
    public static final String printResourceUID(Integer value)
    {
-      ProjectFile file = PARENT_FILE.get();
-      if (file != null)
-      {
-         file.getEventManager().fireResourceWrittenEvent(file.getResourceByUniqueID(value));
-      }
       return (value.toString());
    }
 
@@ -1771,18 +1764,6 @@ public final class DatatypeConverter
       return (value);
    }
 
-   /**
-    * This method is called to set the parent file for the current
-    * write operation. This allows task and resource write events
-    * to be captured and passed to any file listeners.
-    *
-    * @param file parent file instance
-    */
-   public static final void setParentFile(ProjectFile file)
-   {
-      PARENT_FILE.set(file);
-   }
-
    /**
     * Detect numbers using comma as a decimal separator and replace with period.
     *
@@ -1837,7 +1818,5 @@ public final class DatatypeConverter
       }
    };
 
-   private static final ThreadLocal<ProjectFile> PARENT_FILE = new ThreadLocal<ProjectFile>();
-
    private static final BigDecimal BIGDECIMAL_ONE = BigDecimal.valueOf(1);
 }
@@ -0,0 +1,556 @@
+/*
+ * file:       IndentingXMLStreamWriter.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.mspdi;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import net.sf.mpxj.common.CharsetHelper;
+
+/**
+ * XMLStreamWriter implementation which writes UTF-8 encoded XML, formatted
+ * and escaped in the same way as the formatted output produced by the JAXB
+ * implementation included with the JDK, which uses hexadecimal character
+ * references for the characters it escapes. This allows a document to be generated by
+ * marshalling a series of fragments, with the result being identical
+ * to marshalling the complete document in a single operation.
+ *
+ * The end tag of the root element is only written when the end of the
+ * document is written, allowing the root element to be populated by
+ * marshalling several fragments in turn.
+ */
+class IndentingXMLStreamWriter implements XMLStreamWriter
+{
+   /**
+    * Constructor.
+    *
+    * @param stream output stream
+    */
+   public IndentingXMLStreamWriter(OutputStream stream)
+   {
+      m_writer = new OutputStreamWriter(stream, CharsetHelper.UTF8);
+   }
+
+   @Override public void writeStartElement(String localName) throws XMLStreamException
+   {
+      writeStartElement(null, localName, null);
+   }
+
+   @Override public void writeStartElement(String namespaceURI, String localName) throws XMLStreamException
+   {
+      writeStartElement(null, localName, namespaceURI);
+   }
+
+   @Override public void writeStartElement(String prefix, String localName, String namespaceURI) throws XMLStreamException
+   {
+      closeStartTag();
+      writeIndent();
+      String name = getName(prefix, localName);
+      m_elements.addFirst(new Element(name));
+      write('<');
+      write(name);
+      m_startTagOpen = true;
+      m_textWritten = false;
+   }
+
+   @Override public void writeEmptyElement(String localName) throws XMLStreamException
+   {
+      writeStartElement(localName);
+      writeEndElement();
+   }
+
+   @Override public void writeEmptyElement(String namespaceURI, String localName) throws XMLStreamException
+   {
+      writeStartElement(namespaceURI, localName);
+      writeEndElement();
+   }
+
+   @Override public void writeEmptyElement(String prefix, String localName, String namespaceURI) throws XMLStreamException
+   {
+      writeStartElement(prefix, localName, namespaceURI);
+      writeEndElement();
+   }
+
+   @Override public void writeEndElement() throws XMLStreamException
+   {
+      if (m_elements.size() > 1)
+      {
+         endElement();
+      }
+   }
+
+   @Override public void writeEndDocument() throws XMLStreamException
+   {
+      while (!m_elements.isEmpty())
+      {
+         endElement();
+      }
+      write('\n');
+      flush();
+   }
+
+   @Override public void close() throws XMLStreamException
+   {
+      flush();
+   }
+
+   @Override public void flush() throws XMLStreamException
+   {
+      try
+      {
+         m_writer.flush();
+      }
+
+      catch (IOException ex)
+      {
+         throw new XMLStreamException(ex);
+      }
+   }
+
+   @Override public void writeAttribute(String localName, String value) throws XMLStreamException
+   {
+      writeAttribute(null, null, localName, value);
+   }
+
+   @Override public void writeAttribute(String prefix, String namespaceURI, String localName, String value) throws XMLStreamException
+   {
+      if (!m_startTagOpen)
+      {
+         throw new XMLStreamException("Attribute written outside a start tag");
+      }
+
+      write(' ');
+      write(getName(prefix, localName));
+      write("=\"");
+      writeEscaped(value, true);
+      write('"');
+   }
+
+   @Override public void writeAttribute(String namespaceURI, String localName, String value) throws XMLStreamException
+   {
+      writeAttribute(null, namespaceURI, localName, value);
+   }
+
+   @Override public void writeNamespace(String prefix, String namespaceURI) throws XMLStreamException
+   {
+      if (prefix == null || prefix.isEmpty() || prefix.equals("xmlns"))
+      {
+         writeDefaultNamespace(namespaceURI);
+      }
+      else
+      {
+         declareNamespace(prefix, namespaceURI);
+      }
+   }
+
+   @Override public void writeDefaultNamespace(String namespaceURI) throws XMLStreamException
+   {
+      declareNamespace("", namespaceURI);
+   }
+
+   @Override public void writeComment(String data) throws XMLStreamException
+   {
+      closeStartTag();
+      write("<!--");
+      write(data);
+      write("-->");
+   }
+
+   @Override public void writeProcessingInstruction(String target) throws XMLStreamException
+   {
+      writeProcessingInstruction(target, null);
+   }
+
+   @Override public void writeProcessingInstruction(String target, String data) throws XMLStreamException
+   {
+      closeStartTag();
+      write("<?");
+      write(target);
+      if (data != null)
+      {
+         write(' ');
+         write(data);
+      }
+      write("?>");
+   }
+
+   @Override public void writeCData(String data) throws XMLStreamException
+   {
+      closeStartTag();
+      write("<![CDATA[");
+      write(data);
+      write("]]>");
+      m_textWritten = true;
+   }
+
+   @Override public void writeDTD(String dtd) throws XMLStreamException
+   {
+      write(dtd);
+   }
+
+   @Override public void writeEntityRef(String name) throws XMLStreamException
+   {
+      closeStartTag();
+      write('&');
+      write(name);
+      write(';');
+      m_textWritten = true;
+   }
+
+   @Override public void writeStartDocument() throws XMLStreamException
+   {
+      write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>");
+   }
+
+   @Override public void writeStartDocument(String version) throws XMLStreamException
+   {
+      writeStartDocument();
+   }
+
+   @Override public void writeStartDocument(String encoding, String version) throws XMLStreamException
+   {
+      writeStartDocument();
+   }
+
+   @Override public void writeCharacters(String text) throws XMLStreamException
+   {
+      closeStartTag();
+      writeEscaped(text, false);
+      m_textWritten = true;
+   }
+
+   @Override public void writeCharacters(char[] text, int start, int len) throws XMLStreamException
+   {
+      writeCharacters(new String(text, start, len));
+   }
+
+   @Override public String getPrefix(String uri)
+   {
+      String result = null;
+      for (Element element : m_elements)
+      {
+         if (element.m_namespaces != null)
+         {
+            for (Map.Entry<String, String> entry : element.m_namespaces.entrySet())
+            {
+               if (entry.getValue().equals(uri) && getNamespaceURI(entry.getKey()).equals(uri))
+               {
+                  result = entry.getKey();
+                  break;
+               }
+            }
+         }
+
+         if (result != null)
+         {
+            break;
+         }
+      }
+      return result;
+   }
+
+   @Override public void setPrefix(String prefix, String uri)
+   {
+      // Namespace bindings are only created by namespace declarations
+   }
+
+   @Override public void setDefaultNamespace(String uri)
+   {
+      // Namespace bindings are only created by namespace declarations
+   }
+
+   @Override public void setNamespaceContext(NamespaceContext context)
+   {
+      // Namespace bindings are only created by namespace declarations
+   }
+
+   @Override public NamespaceContext getNamespaceContext()
+   {
+      return null;
+   }
+
+   @Override public Object getProperty(String name)
+   {
+      throw new IllegalArgumentException(name);
+   }
+
+   /**
+    * Write a namespace declaration, unless an identical declaration
+    * is already in scope.
+    *
+    * @param prefix namespace prefix, empty for the default namespace
+    * @param namespaceURI namespace URI
+    */
+   private void declareNamespace(String prefix, String namespaceURI) throws XMLStreamException
+   {
+      if (!namespaceURI.equals(getNamespaceURI(prefix)))
+      {
+         Element element = m_elements.getFirst();
+         if (element.m_namespaces == null)
+         {
+            element.m_namespaces = new HashMap<String, String>();
+         }
+         element.m_namespaces.put(prefix, namespaceURI);
+         writeAttribute(prefix.isEmpty() ? null : "xmlns", null, prefix.isEmpty() ? "xmlns" : prefix, namespaceURI);
+      }
+   }
+
+   /**
+    * Retrieve the namespace URI currently bound to a prefix.
+    *
+    * @param prefix namespace prefix, empty for the default namespace
+    * @return namespace URI
+    */
+   private String getNamespaceURI(String prefix)
+   {
+      String result = "";
+      for (Element element : m_elements)
+      {
+         if (element.m_namespaces != null && element.m_namespaces.containsKey(prefix))
+         {
+            result = element.m_namespaces.get(prefix);
+            break;
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Write the end tag for the current element. An element with no
+    * content is written as an empty element.
+    */
+   private void endElement() throws XMLStreamException
+   {
+      Element element = m_elements.removeFirst();
+      if (m_startTagOpen)
+      {
+         write("/>");
+         m_startTagOpen = false;
+      }
+      else
+      {
+         if (!m_textWritten)
+         {
+            writeIndent();
+         }
+         write("</");
+         write(element.m_name);
+         write('>');
+      }
+      m_textWritten = false;
+   }
+
+   /**
+    * If the current start tag is still open, close it.
+    */
+   private void closeStartTag() throws XMLStreamException
+   {
+      if (m_startTagOpen)
+      {
+         write('>');
+         m_startTagOpen = false;
+      }
+   }
+
+   /**
+    * Start a new line, indented to the current depth.
+    */
+   private void writeIndent() throws XMLStreamException
+   {
+      write('\n');
+      for (int index = 0; index < m_elements.size(); index++)
+      {
+         write(INDENT);
+      }
+   }
+
+   /**
+    * Build a qualified name.
+    *
+    * @param prefix namespace prefix, may be null or empty
+    * @param localName local name
+    * @return qualified name
+    */
+   private String getName(String prefix, String localName)
+   {
+      return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+   }
+
+   /**
+    * Write text, escaping characters as required.
+    *
+    * @param text text to write
+    * @param attribute true if the text is an attribute value
+    */
+   private void writeEscaped(String text, boolean attribute) throws XMLStreamException
+   {
+      int start = 0;
+      int length = text.length();
+      for (int index = 0; index < length; index++)
+      {
+         String entity;
+         switch (text.charAt(index))
+         {
+            case '&':
+            {
+               entity = "&amp;";
+               break;
+            }
+
+            case '<':
+            {
+               entity = "&lt;";
+               break;
+            }
+
+            case '>':
+            {
+               entity = "&gt;";
+               break;
+            }
+
+            case '\r':
+            {
+               entity = "&#xD;";
+               break;
+            }
+
+            case '"':
+            {
+               entity = attribute ? "&quot;" : null;
+               break;
+            }
+
+            case '\t':
+            {
+               entity = attribute ? "&#x9;" : null;
+               break;
+            }
+
+            case '\n':
+            {
+               entity = attribute ? "&#xA;" : null;
+               break;
+            }
+
+            default:
+            {
+               entity = null;
+               break;
+            }
+         }
+
+         if (entity != null)
+         {
+            write(text, start, index - start);
+            write(entity);
+            start = index + 1;
+         }
+      }
+      write(text, start, length - start);
+   }
+
+   /**
+    * Write a single character.
+    *
+    * @param c character
+    */
+   private void write(char c) throws XMLStreamException
+   {
+      try
+      {
+         m_writer.write(c);
+      }
+
+      catch (IOException ex)
+      {
+         throw new XMLStreamException(ex);
+      }
+   }
+
+   /**
+    * Write a string.
+    *
+    * @param text string
+    */
+   private void write(String text) throws XMLStreamException
+   {
+      write(text, 0, text.length());
+   }
+
+   /**
+    * Write part of a string.
+    *
+    * @param text string
+    * @param offset start offset
+    * @param length number of characters to write
+    */
+   private void write(String text, int offset, int length) throws XMLStreamException
+   {
+      try
+      {
+         m_writer.write(text, offset, length);
+      }
+
+      catch (IOException ex)
+      {
+         throw new XMLStreamException(ex);
+      }
+   }
+
+   /**
+    * An open element.
+    */
+   private static final class Element
+   {
+      /**
+       * Constructor.
+       *
+       * @param name element name
+       */
+      public Element(String name)
+      {
+         m_name = name;
+      }
+
+      final String m_name;
+      Map<String, String> m_namespaces;
+   }
+
+   private final Writer m_writer;
+   private final LinkedList<Element> m_elements = new LinkedList<Element>();
+   private boolean m_startTagOpen;
+   private boolean m_textWritten;
+
+   private static final String INDENT = "    ";
+}
@@ -26,8 +26,11 @@ package net.sf.mpxj.mspdi;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.math.BigInteger;
 import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -45,12 +48,20 @@ import javax.xml.bind.ValidationEventHandler;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.transform.stream.StreamSource;
 
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.XMLFilter;
 import org.xml.sax.XMLReader;
 
+import net.sf.mpxj.ArrayFieldStorage;
 import net.sf.mpxj.AssignmentField;
 import net.sf.mpxj.Availability;
 import net.sf.mpxj.AvailabilityTable;
@@ -61,6 +72,7 @@ import net.sf.mpxj.Day;
 import net.sf.mpxj.DayType;
 import net.sf.mpxj.Duration;
 import net.sf.mpxj.EventManager;
+import net.sf.mpxj.FieldStorageFactory;
 import net.sf.mpxj.FieldType;
 import net.sf.mpxj.MPXJException;
 import net.sf.mpxj.ProjectCalendar;
@@ -183,21 +195,15 @@ public final class MSPDIReader extends AbstractProjectReader
          config.setAutoWBS(false);
          config.setAutoCalendarUniqueID(false);
          config.setAutoAssignmentUniqueID(false);
+         config.setFieldStorageFactory(m_fieldStorageFactory);
 
          m_eventManager.addProjectListeners(m_projectListeners);
 
-         SAXParserFactory factory = SAXParserFactory.newInstance();
-         factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
-         factory.setNamespaceAware(true);
-         SAXParser saxParser = factory.newSAXParser();
-         XMLReader xmlReader = saxParser.getXMLReader();
-
          if (CONTEXT == null)
          {
             throw CONTEXT_EXCEPTION;
          }
 
-         DatatypeConverter.setParentFile(m_projectFile);
          Unmarshaller unmarshaller = CONTEXT.createUnmarshaller();
 
          //
@@ -215,21 +221,37 @@ public final class MSPDIReader extends AbstractProjectReader
             });
          }
 
-         XMLFilter filter = new NamespaceFilter();
-         filter.setParent(xmlReader);
-         UnmarshallerHandler unmarshallerHandler = unmarshaller.getUnmarshallerHandler();
-         filter.setContentHandler(unmarshallerHandler);
-         filter.parse(new InputSource(new InputStreamReader(stream, getCharset())));
-         Project project = (Project) unmarshallerHandler.getResult();
-
          HashMap<BigInteger, ProjectCalendar> calendarMap = new HashMap<BigInteger, ProjectCalendar>();
+         BigInteger calendarUID;
 
-         readProjectProperties(project);
-         readProjectExtendedAttributes(project);
-         readCalendars(project, calendarMap);
-         readResources(project, calendarMap);
-         readTasks(project);
-         readAssignments(project);
+         if (m_streamingInput)
+         {
+            calendarUID = readStreaming(stream, unmarshaller, calendarMap);
+         }
+         else
+         {
+            SAXParserFactory factory = SAXParserFactory.newInstance();
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            factory.setNamespaceAware(true);
+            SAXParser saxParser = factory.newSAXParser();
+            XMLReader xmlReader = saxParser.getXMLReader();
+
+            XMLFilter filter = new NamespaceFilter();
+            filter.setParent(xmlReader);
+            UnmarshallerHandler unmarshallerHandler = unmarshaller.getUnmarshallerHandler();
+            filter.setContentHandler(unmarshallerHandler);
+            filter.parse(new InputSource(new InputStreamReader(stream, getCharset())));
+            Project project = (Project) unmarshallerHandler.getResult();
+
+            readProjectProperties(project);
+            readProjectExtendedAttributes(project);
+            readCalendars(project, calendarMap);
+            readResources(project, calendarMap);
+            readTasks(project);
+            readAssignments(project);
+
+            calendarUID = project.getCalendarUID();
+         }
 
          //
          // Ensure that the unique ID counters are correct
@@ -239,7 +261,7 @@ public final class MSPDIReader extends AbstractProjectReader
          //
          // Ensure that the default calendar name is set in the project properties
          //
-         ProjectCalendar defaultCalendar = calendarMap.get(project.getCalendarUID());
+         ProjectCalendar defaultCalendar = calendarMap.get(calendarUID);
          if (defaultCalendar != null)
          {
             m_projectFile.getProjectProperties().setDefaultCalendarName(defaultCalendar.getName());
@@ -268,12 +290,326 @@ public final class MSPDIReader extends AbstractProjectReader
          throw new MPXJException("Failed to parse file", ex);
       }
 
+      catch (XMLStreamException ex)
+      {
+         throw new MPXJException("Failed to parse file", ex);
+      }
+
       finally
       {
          m_projectFile = null;
       }
    }
 
+   /**
+    * Read an MSPDI file incrementally. The elements which make up the
+    * project header are small, so these are collected and unmarshalled
+    * as a single Project instance. Each calendar, task, resource and
+    * assignment is unmarshalled individually, converted, then discarded.
+    *
+    * @param stream input stream
+    * @param unmarshaller JAXB unmarshaller
+    * @param calendarMap Map of calendar UIDs to calendars
+    * @return default calendar unique ID
+    */
+   private BigInteger readStreaming(InputStream stream, Unmarshaller unmarshaller, HashMap<BigInteger, ProjectCalendar> calendarMap) throws XMLStreamException, JAXBException
+   {
+      XMLInputFactory factory = XMLInputFactory.newInstance();
+      factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+      factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+      XMLStreamReader reader = new NamespaceStreamReader(factory.createXMLStreamReader(new InputStreamReader(stream, getCharset())));
+
+      StringWriter headerText = new StringWriter();
+      XMLStreamWriter header = XMLOutputFactory.newInstance().createXMLStreamWriter(headerText);
+      header.writeStartElement("Project");
+      header.writeDefaultNamespace(NamespaceFilter.NAMESPACE);
+
+      Project project = null;
+      Set<String> sections = new HashSet<String>();
+
+      try
+      {
+         reader.nextTag();
+         reader.next();
+
+         while (reader.getEventType() != XMLStreamConstants.END_ELEMENT)
+         {
+            if (reader.getEventType() != XMLStreamConstants.START_ELEMENT)
+            {
+               reader.next();
+               continue;
+            }
+
+            String name = reader.getLocalName();
+            if (STREAMED_SECTIONS.contains(name))
+            {
+               if (project == null)
+               {
+                  project = readStreamingHeader(header, headerText, unmarshaller);
+               }
+
+               reader.next();
+               if (name.equals("Calendars"))
+               {
+                  readStreamingCalendars(reader, unmarshaller, calendarMap);
+               }
+               else
+               {
+                  if (name.equals("Tasks"))
+                  {
+                     readStreamingTasks(reader, unmarshaller);
+                  }
+                  else
+                  {
+                     if (name.equals("Resources"))
+                     {
+                        readStreamingResources(reader, unmarshaller, calendarMap);
+                     }
+                     else
+                     {
+                        readStreamingAssignments(reader, unmarshaller);
+                     }
+                  }
+               }
+               sections.add(name);
+               reader.next();
+            }
+            else
+            {
+               copyElement(reader, header);
+            }
+         }
+      }
+
+      finally
+      {
+         reader.close();
+      }
+
+      if (project == null)
+      {
+         project = readStreamingHeader(header, headerText, unmarshaller);
+      }
+
+      if (!sections.contains("Calendars"))
+      {
+         updateDefaultCalendar(calendarMap);
+      }
+
+      if (!sections.contains("Tasks"))
+      {
+         m_projectFile.updateStructure();
+      }
+
+      return project.getCalendarUID();
+   }
+
+   /**
+    * Unmarshal the project header elements collected while reading the file
+    * incrementally, and extract the project properties.
+    *
+    * @param header writer used to collect the header elements
+    * @param headerText header elements
+    * @param unmarshaller JAXB unmarshaller
+    * @return Project instance representing the header
+    */
+   private Project readStreamingHeader(XMLStreamWriter header, StringWriter headerText, Unmarshaller unmarshaller) throws XMLStreamException, JAXBException
+   {
+      header.writeEndElement();
+      header.close();
+
+      Project project = (Project) unmarshaller.unmarshal(new StreamSource(new StringReader(headerText.toString())));
+      readProjectProperties(project);
+      readProjectExtendedAttributes(project);
+      return project;
+   }
+
+   /**
+    * Read calendars incrementally.
+    *
+    * @param reader XML stream reader
+    * @param unmarshaller JAXB unmarshaller
+    * @param map Map of calendar UIDs to calendars
+    */
+   private void readStreamingCalendars(XMLStreamReader reader, Unmarshaller unmarshaller, HashMap<BigInteger, ProjectCalendar> map) throws XMLStreamException, JAXBException
+   {
+      LinkedList<Pair<ProjectCalendar, BigInteger>> baseCalendars = new LinkedList<Pair<ProjectCalendar, BigInteger>>();
+      Project.Calendars.Calendar cal;
+      while ((cal = readStreamingElement(reader, unmarshaller, "Calendar", Project.Calendars.Calendar.class)) != null)
+      {
+         readCalendar(cal, map, baseCalendars);
+      }
+      updateBaseCalendarNames(baseCalendars, map);
+      updateDefaultCalendar(map);
+   }
+
+   /**
+    * Read tasks incrementally. Predecessor links are retained
+    * and processed once all tasks have been read.
+    *
+    * @param reader XML stream reader
+    * @param unmarshaller JAXB unmarshaller
+    */
+   private void readStreamingTasks(XMLStreamReader reader, Unmarshaller unmarshaller) throws XMLStreamException, JAXBException
+   {
+      List<Pair<Integer, List<Project.Tasks.Task.PredecessorLink>>> predecessors = new LinkedList<Pair<Integer, List<Project.Tasks.Task.PredecessorLink>>>();
+      int taskCount = 0;
+      int tasksWithoutIDCount = 0;
+
+      Project.Tasks.Task task;
+      while ((task = readStreamingElement(reader, unmarshaller, "Task", Project.Tasks.Task.class)) != null)
+      {
+         ++taskCount;
+         Task mpxjTask = readTask(task);
+         if (mpxjTask.getID() == null)
+         {
+            ++tasksWithoutIDCount;
+         }
+
+         if (!task.getPredecessorLink().isEmpty())
+         {
+            predecessors.add(new Pair<Integer, List<Project.Tasks.Task.PredecessorLink>>(task.getUID(), task.getPredecessorLink()));
+         }
+      }
+
+      for (Pair<Integer, List<Project.Tasks.Task.PredecessorLink>> pair : predecessors)
+      {
+         readPredecessors(pair.getFirst(), pair.getSecond());
+      }
+
+      updateTaskIDs(taskCount, tasksWithoutIDCount);
+      m_projectFile.updateStructure();
+   }
+
+   /**
+    * Read resources incrementally.
+    *
+    * @param reader XML stream reader
+    * @param unmarshaller JAXB unmarshaller
+    * @param calendarMap Map of calendar UIDs to calendars
+    */
+   private void readStreamingResources(XMLStreamReader reader, Unmarshaller unmarshaller, HashMap<BigInteger, ProjectCalendar> calendarMap) throws XMLStreamException, JAXBException
+   {
+      Project.Resources.Resource resource;
+      while ((resource = readStreamingElement(reader, unmarshaller, "Resource", Project.Resources.Resource.class)) != null)
+      {
+         readResource(resource, calendarMap);
+      }
+   }
+
+   /**
+    * Read assignments incrementally.
+    *
+    * @param reader XML stream reader
+    * @param unmarshaller JAXB unmarshaller
+    */
+   private void readStreamingAssignments(XMLStreamReader reader, Unmarshaller unmarshaller) throws XMLStreamException, JAXBException
+   {
+      SplitTaskFactory splitFactory = new SplitTaskFactory();
+      TimephasedWorkNormaliser normaliser = new MSPDITimephasedWorkNormaliser();
+      Project.Assignments.Assignment assignment;
+      while ((assignment = readStreamingElement(reader, unmarshaller, "Assignment", Project.Assignments.Assignment.class)) != null)
+      {
+         readAssignment(assignment, splitFactory, normaliser);
+      }
+   }
+
+   /**
+    * Unmarshal the next child element with the given name from the current
+    * section of the file. Any other elements are skipped. Returns null
+    * when the end of the section is reached, leaving the reader positioned
+    * on the section's end element.
+    *
+    * @param reader XML stream reader
+    * @param unmarshaller JAXB unmarshaller
+    * @param name element name
+    * @param type class representing the element
+    * @return unmarshalled element or null
+    */
+   private <T> T readStreamingElement(XMLStreamReader reader, Unmarshaller unmarshaller, String name, Class<T> type) throws XMLStreamException, JAXBException
+   {
+      T result = null;
+      while (result == null && reader.getEventType() != XMLStreamConstants.END_ELEMENT)
+      {
+         if (reader.getEventType() == XMLStreamConstants.START_ELEMENT)
+         {
+            if (name.equals(reader.getLocalName()))
+            {
+               result = unmarshaller.unmarshal(reader, type).getValue();
+            }
+            else
+            {
+               copyElement(reader, null);
+            }
+         }
+         else
+         {
+            reader.next();
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Copy the element at the current reader position to a writer,
+    * leaving the reader positioned after the element's end tag.
+    * If the writer is null the element is skipped.
+    *
+    * @param reader XML stream reader
+    * @param writer XML stream writer, or null
+    */
+   private void copyElement(XMLStreamReader reader, XMLStreamWriter writer) throws XMLStreamException
+   {
+      int depth = 0;
+      do
+      {
+         switch (reader.getEventType())
+         {
+            case XMLStreamConstants.START_ELEMENT:
+            {
+               ++depth;
+               if (writer != null)
+               {
+                  writer.writeStartElement(reader.getLocalName());
+                  for (int index = 0; index < reader.getAttributeCount(); index++)
+                  {
+                     writer.writeAttribute(reader.getAttributeLocalName(index), reader.getAttributeValue(index));
+                  }
+               }
+               break;
+            }
+
+            case XMLStreamConstants.END_ELEMENT:
+            {
+               --depth;
+               if (writer != null)
+               {
+                  writer.writeEndElement();
+               }
+               break;
+            }
+
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.CDATA:
+            case XMLStreamConstants.SPACE:
+            {
+               if (writer != null)
+               {
+                  writer.writeCharacters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+               }
+               break;
+            }
+
+            default:
+            {
+               break;
+            }
+         }
+         reader.next();
+      }
+      while (depth != 0);
+   }
+
    /**
     * This method extracts project properties from an MSPDI file.
     *
@@ -300,7 +636,7 @@ public final class MSPDIReader extends AbstractProjectReader
       properties.setCurrencySymbol(project.getCurrencySymbol());
       properties.setCurrentDate(project.getCurrentDate());
       properties.setDaysPerMonth(NumberHelper.getInteger(project.getDaysPerMonth()));
-      properties.setDefaultDurationUnits(DatatypeConverter.parseDurationTimeUnits(project.getDurationFormat()));
+      properties.setDefaultDurationUnits(DatatypeConverter.parseDurationTimeUnits(m_projectFile, project.getDurationFormat()));
       properties.setDefaultEndTime(project.getDefaultFinishTime());
       properties.setDefaultFixedCostAccrual(project.getDefaultFixedCostAccrual());
       properties.setDefaultOvertimeRate(DatatypeConverter.parseRate(project.getDefaultOvertimeRate()));
@@ -394,6 +730,17 @@ public final class MSPDIReader extends AbstractProjectReader
          updateBaseCalendarNames(baseCalendars, map);
       }
 
+      updateDefaultCalendar(map);
+   }
+
+   /**
+    * Set the project's default calendar, using the calendar unique ID
+    * read from the project properties.
+    *
+    * @param map Map of calendar UIDs to calendars
+    */
+   private void updateDefaultCalendar(HashMap<BigInteger, ProjectCalendar> map)
+   {
       try
       {
          ProjectProperties properties = m_projectFile.getProjectProperties();
@@ -1009,7 +1356,7 @@ public final class MSPDIReader extends AbstractProjectReader
       {
          int xmlFieldID = Integer.parseInt(attrib.getFieldID()) & 0x0000FFFF;
          ResourceField mpxFieldID = MPPResourceField.getInstance(xmlFieldID);
-         TimeUnit durationFormat = DatatypeConverter.parseDurationTimeUnits(attrib.getDurationFormat(), null);
+         TimeUnit durationFormat = DatatypeConverter.parseDurationTimeUnits(m_projectFile, attrib.getDurationFormat(), null);
          DatatypeConverter.parseExtendedAttribute(m_projectFile, mpx, attrib.getValue(), mpxFieldID, durationFormat);
       }
    }
@@ -1124,23 +1471,31 @@ public final class MSPDIReader extends AbstractProjectReader
 
          for (Project.Tasks.Task task : tasks.getTask())
          {
-            readPredecessors(task);
+            readPredecessors(task.getUID(), task.getPredecessorLink());
          }
 
-         //
-         // MS Project will happily read tasks from an MSPDI file without IDs,
-         // it will just generate ID values based on the task order in the file.
-         // If we find that there are no ID values present, we'll do the same.
-         //
-         if (tasksWithoutIDCount == tasks.getTask().size())
-         {
-            m_projectFile.getTasks().renumberIDs();
-         }
+         updateTaskIDs(tasks.getTask().size(), tasksWithoutIDCount);
       }
 
       m_projectFile.updateStructure();
    }
 
+   /**
+    * MS Project will happily read tasks from an MSPDI file without IDs,
+    * it will just generate ID values based on the task order in the file.
+    * If we find that there are no ID values present, we'll do the same.
+    *
+    * @param taskCount number of tasks read
+    * @param tasksWithoutIDCount number of tasks read without an ID
+    */
+   private void updateTaskIDs(int taskCount, int tasksWithoutIDCount)
+   {
+      if (tasksWithoutIDCount == taskCount)
+      {
+         m_projectFile.getTasks().renumberIDs();
+      }
+   }
+
    /**
     * This method extracts data for a single task from an MSPDI file.
     *
@@ -1159,7 +1514,7 @@ public final class MSPDIReader extends AbstractProjectReader
          //
          // Set the duration format up front as this is required later
          //
-         TimeUnit durationFormat = DatatypeConverter.parseDurationTimeUnits(xml.getDurationFormat());
+         TimeUnit durationFormat = DatatypeConverter.parseDurationTimeUnits(m_projectFile, xml.getDurationFormat());
 
          mpx.setActive(xml.isActive() == null ? true : BooleanHelper.getBoolean(xml.isActive()));
          mpx.setActualCost(DatatypeConverter.parseCurrency(xml.getActualCost()));
@@ -1239,7 +1594,7 @@ public final class MSPDIReader extends AbstractProjectReader
          mpx.setLateStart(xml.getLateStart());
          mpx.setLevelAssignments(BooleanHelper.getBoolean(xml.isLevelAssignments()));
          mpx.setLevelingCanSplit(BooleanHelper.getBoolean(xml.isLevelingCanSplit()));
-         mpx.setLevelingDelayFormat(DatatypeConverter.parseDurationTimeUnits(xml.getLevelingDelayFormat()));
+         mpx.setLevelingDelayFormat(DatatypeConverter.parseDurationTimeUnits(m_projectFile, xml.getLevelingDelayFormat()));
          if (xml.getLevelingDelay() != null && mpx.getLevelingDelayFormat() != null)
          {
             double duration = xml.getLevelingDelay().doubleValue();
@@ -1454,7 +1809,7 @@ public final class MSPDIReader extends AbstractProjectReader
       {
          int xmlFieldID = Integer.parseInt(attrib.getFieldID()) & 0x0000FFFF;
          TaskField mpxFieldID = MPPTaskField.getInstance(xmlFieldID);
-         TimeUnit durationFormat = DatatypeConverter.parseDurationTimeUnits(attrib.getDurationFormat(), null);
+         TimeUnit durationFormat = DatatypeConverter.parseDurationTimeUnits(m_projectFile, attrib.getDurationFormat(), null);
          DatatypeConverter.parseExtendedAttribute(m_projectFile, mpx, attrib.getValue(), mpxFieldID, durationFormat);
       }
    }
@@ -1474,7 +1829,7 @@ public final class MSPDIReader extends AbstractProjectReader
       BigInteger calendarID = task.getCalendarUID();
       if (calendarID != null)
       {
-         calendar = m_projectFile.getCalendarByUniqueID(Integer.valueOf(calendarID.intValue()));
+         calendar = m_projectFile.getCalendarByUniqueID(calendarID.intValue());
       }
 
       return (calendar);
@@ -1483,17 +1838,17 @@ public final class MSPDIReader extends AbstractProjectReader
    /**
     * This method extracts predecessor data from an MSPDI file.
     *
-    * @param task Task data
+    * @param uid unique ID of the successor task
+    * @param links predecessor data
     */
-   private void readPredecessors(Project.Tasks.Task task)
+   private void readPredecessors(Integer uid, List<Project.Tasks.Task.PredecessorLink> links)
    {
-      Integer uid = task.getUID();
       if (uid != null)
       {
          Task currTask = m_projectFile.getTaskByUniqueID(uid);
          if (currTask != null)
          {
-            for (Project.Tasks.Task.PredecessorLink link : task.getPredecessorLink())
+            for (Project.Tasks.Task.PredecessorLink link : links)
             {
                readPredecessor(currTask, link);
             }
@@ -1512,7 +1867,7 @@ public final class MSPDIReader extends AbstractProjectReader
       BigInteger uid = link.getPredecessorUID();
       if (uid != null)
       {
-         Task prevTask = m_projectFile.getTaskByUniqueID(Integer.valueOf(uid.intValue()));
+         Task prevTask = m_projectFile.getTaskByUniqueID(uid.intValue());
          if (prevTask != null)
          {
             RelationType type;
@@ -1525,7 +1880,7 @@ public final class MSPDIReader extends AbstractProjectReader
                type = RelationType.FINISH_START;
             }
 
-            TimeUnit lagUnits = DatatypeConverter.parseDurationTimeUnits(link.getLagFormat());
+            TimeUnit lagUnits = DatatypeConverter.parseDurationTimeUnits(m_projectFile, link.getLagFormat());
 
             Duration lagDuration;
             int lag = NumberHelper.getInt(link.getLinkLag());
@@ -1583,10 +1938,10 @@ public final class MSPDIReader extends AbstractProjectReader
       BigInteger resourceUID = assignment.getResourceUID();
       if (taskUID != null && resourceUID != null)
       {
-         Task task = m_projectFile.getTaskByUniqueID(Integer.valueOf(taskUID.intValue()));
+         Task task = m_projectFile.getTaskByUniqueID(taskUID.intValue());
          if (task != null)
          {
-            Resource resource = m_projectFile.getResourceByUniqueID(Integer.valueOf(resourceUID.intValue()));
+            Resource resource = m_projectFile.getResourceByUniqueID(resourceUID.intValue());
             ProjectCalendar calendar = null;
             if (resource != null)
             {
@@ -1640,7 +1995,7 @@ public final class MSPDIReader extends AbstractProjectReader
             mpx.setHyperlink(assignment.getHyperlink());
             mpx.setHyperlinkAddress(assignment.getHyperlinkAddress());
             mpx.setHyperlinkSubAddress(assignment.getHyperlinkSubAddress());
-            mpx.setLevelingDelay(DatatypeConverter.parseDurationInTenthsOfMinutes(m_projectFile.getProjectProperties(), assignment.getLevelingDelay(), DatatypeConverter.parseDurationTimeUnits(assignment.getLevelingDelayFormat())));
+            mpx.setLevelingDelay(DatatypeConverter.parseDurationInTenthsOfMinutes(m_projectFile.getProjectProperties(), assignment.getLevelingDelay(), DatatypeConverter.parseDurationTimeUnits(m_projectFile, assignment.getLevelingDelayFormat())));
             mpx.setNotes(assignment.getNotes());
             mpx.setOvertimeCost(DatatypeConverter.parseCurrency(assignment.getOvertimeCost()));
             mpx.setOvertimeWork(DatatypeConverter.parseDuration(m_projectFile, TimeUnit.HOURS, assignment.getOvertimeWork()));
@@ -1730,7 +2085,7 @@ public final class MSPDIReader extends AbstractProjectReader
       {
          int xmlFieldID = Integer.parseInt(attrib.getFieldID()) & 0x0000FFFF;
          AssignmentField mpxFieldID = MPPAssignmentField.getInstance(xmlFieldID);
-         TimeUnit durationFormat = DatatypeConverter.parseDurationTimeUnits(attrib.getDurationFormat(), null);
+         TimeUnit durationFormat = DatatypeConverter.parseDurationTimeUnits(m_projectFile, attrib.getDurationFormat(), null);
          DatatypeConverter.parseExtendedAttribute(m_projectFile, mpx, attrib.getValue(), mpxFieldID, durationFormat);
       }
    }
@@ -1836,6 +2191,59 @@ public final class MSPDIReader extends AbstractProjectReader
       return (m_compatibleInput);
    }
 
+   /**
+    * Setting this flag to true causes the file to be read incrementally
+    * using a pull parser. Rather than building an object tree representing
+    * the whole file before it is converted, each calendar, task, resource
+    * and assignment is converted as soon as it has been read, and the
+    * intermediate representation is discarded. This substantially reduces
+    * the memory required to read large files.
+    *
+    * @param flag true if the file should be read incrementally
+    */
+   public void setStreamingInput(boolean flag)
+   {
+      m_streamingInput = flag;
+   }
+
+   /**
+    * Retrieves a flag indicating that the file will be read incrementally.
+    *
+    * @return Boolean flag
+    */
+   public boolean getStreamingInput()
+   {
+      return (m_streamingInput);
+   }
+
+   /**
+    * Retrieve the factory used to create the storage which holds field
+    * values for the tasks, resources and assignments read.
+    *
+    * @return field storage factory
+    */
+   public FieldStorageFactory getFieldStorageFactory()
+   {
+      return m_fieldStorageFactory;
+   }
+
+   /**
+    * Set the factory used to create the storage which holds field values
+    * for the tasks, resources and assignments read. For example
+    * CompactFieldStorage.FACTORY can be used to reduce the memory used
+    * by large projects. The default is ArrayFieldStorage.FACTORY.
+    *
+    * @param factory field storage factory
+    */
+   public void setFieldStorageFactory(FieldStorageFactory factory)
+   {
+      if (factory == null)
+      {
+         throw new IllegalArgumentException("Field storage factory must not be null");
+      }
+      m_fieldStorageFactory = factory;
+   }
+
    /**
     * Cached context to minimise construction cost.
     */
@@ -1869,12 +2277,16 @@ public final class MSPDIReader extends AbstractProjectReader
    }
 
    private boolean m_compatibleInput = true;
+   private boolean m_streamingInput;
+   private FieldStorageFactory m_fieldStorageFactory = ArrayFieldStorage.FACTORY;
    private String m_encoding;
    private Charset m_charset;
    private ProjectFile m_projectFile;
    private EventManager m_eventManager;
    private List<ProjectListener> m_projectListeners;
 
+   private static final Set<String> STREAMED_SECTIONS = new HashSet<String>(Arrays.asList("Calendars", "Tasks", "Resources", "Assignments"));
+
    private static final RecurrenceType[] RECURRENCE_TYPES =
    {
       null,
@@ -38,8 +38,12 @@ import java.util.List;
 import java.util.Set;
 
 import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 import net.sf.mpxj.AccrueType;
 import net.sf.mpxj.AssignmentField;
@@ -53,6 +57,7 @@ import net.sf.mpxj.Day;
 import net.sf.mpxj.DayType;
 import net.sf.mpxj.Duration;
 import net.sf.mpxj.EventManager;
+import net.sf.mpxj.FieldContainer;
 import net.sf.mpxj.FieldType;
 import net.sf.mpxj.ProjectCalendar;
 import net.sf.mpxj.ProjectCalendarException;
@@ -165,6 +170,32 @@ public final class MSPDIWriter extends AbstractProjectWriter
       return m_saveVersion;
    }
 
+   /**
+    * Setting this flag to true causes the file to be written incrementally.
+    * Rather than building an object tree representing the whole file
+    * before writing it, each calendar, task, resource and assignment is
+    * written as soon as it has been converted. The file content is
+    * identical to that produced when this flag is false, but the memory
+    * required is no longer proportional to the size of the project,
+    * and output begins immediately.
+    *
+    * @param flag true if the file should be written incrementally
+    */
+   public void setStreamingOutput(boolean flag)
+   {
+      m_streamingOutput = flag;
+   }
+
+   /**
+    * Retrieves a flag indicating that the file will be written incrementally.
+    *
+    * @return boolean flag
+    */
+   public boolean getStreamingOutput()
+   {
+      return m_streamingOutput;
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -180,10 +211,8 @@ public final class MSPDIWriter extends AbstractProjectWriter
          m_projectFile = projectFile;
          m_projectFile.validateUniqueIDsForMicrosoftProject();
          m_eventManager = m_projectFile.getEventManager();
-         DatatypeConverter.setParentFile(m_projectFile);
 
          Marshaller marshaller = CONTEXT.createMarshaller();
-         marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
 
          m_extendedAttributesInUse = new HashSet<FieldType>();
 
@@ -191,13 +220,22 @@ public final class MSPDIWriter extends AbstractProjectWriter
          Project project = m_factory.createProject();
 
          writeProjectProperties(project);
-         writeCalendars(project);
-         writeResources(project);
-         writeTasks(project);
-         writeAssignments(project);
-         writeProjectExtendedAttributes(project);
 
-         marshaller.marshal(project, stream);
+         if (m_streamingOutput)
+         {
+            writeStreaming(project, marshaller, stream);
+         }
+         else
+         {
+            writeCalendars(project);
+            writeResources(project);
+            writeTasks(project);
+            writeAssignments(project);
+            writeProjectExtendedAttributes(project);
+
+            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+            marshaller.marshal(project, stream);
+         }
       }
 
       catch (JAXBException ex)
@@ -205,6 +243,11 @@ public final class MSPDIWriter extends AbstractProjectWriter
          throw new IOException(ex.toString());
       }
 
+      catch (XMLStreamException ex)
+      {
+         throw new IOException(ex.toString());
+      }
+
       finally
       {
          m_projectFile = null;
@@ -213,6 +256,64 @@ public final class MSPDIWriter extends AbstractProjectWriter
       }
    }
 
+   /**
+    * Write the file incrementally. The project header is marshalled first,
+    * followed by each calendar, task, resource and assignment in turn.
+    * As the extended attribute definitions appear in the header, the
+    * extended attributes in use are determined before the header is written.
+    *
+    * @param project Root node of the MSPDI file, populated with project properties
+    * @param marshaller JAXB marshaller
+    * @param stream output stream
+    */
+   private void writeStreaming(Project project, Marshaller marshaller, OutputStream stream) throws JAXBException, XMLStreamException
+   {
+      marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+
+      addExtendedAttributesInUse();
+      writeProjectExtendedAttributes(project);
+
+      XMLStreamWriter writer = new IndentingXMLStreamWriter(stream);
+      writer.writeStartDocument();
+      marshaller.marshal(project, writer);
+
+      writer.writeStartElement("Calendars");
+      for (ProjectCalendar cal : m_projectFile.getCalendars())
+      {
+         marshaller.marshal(new JAXBElement<Project.Calendars.Calendar>(new QName(NamespaceFilter.NAMESPACE, "Calendar"), Project.Calendars.Calendar.class, writeCalendar(cal)), writer);
+      }
+      writer.writeEndElement();
+
+      writer.writeStartElement("Tasks");
+      for (Task task : m_projectFile.getTasks())
+      {
+         marshaller.marshal(new JAXBElement<Project.Tasks.Task>(new QName(NamespaceFilter.NAMESPACE, "Task"), Project.Tasks.Task.class, writeTask(task)), writer);
+      }
+      writer.writeEndElement();
+
+      writer.writeStartElement("Resources");
+      for (Resource resource : m_projectFile.getResources())
+      {
+         marshaller.marshal(new JAXBElement<Project.Resources.Resource>(new QName(NamespaceFilter.NAMESPACE, "Resource"), Project.Resources.Resource.class, writeResource(resource)), writer);
+      }
+      writer.writeEndElement();
+
+      writer.writeStartElement("Assignments");
+      for (ResourceAssignment assignment : m_projectFile.getResourceAssignments())
+      {
+         marshaller.marshal(new JAXBElement<Project.Assignments.Assignment>(new QName(NamespaceFilter.NAMESPACE, "Assignment"), Project.Assignments.Assignment.class, writeAssignment(assignment)), writer);
+      }
+
+      for (ResourceAssignment assignment : createDummyAssignments())
+      {
+         marshaller.marshal(new JAXBElement<Project.Assignments.Assignment>(new QName(NamespaceFilter.NAMESPACE, "Assignment"), Project.Assignments.Assignment.class, writeAssignment(assignment)), writer);
+      }
+      writer.writeEndElement();
+
+      writer.writeEndDocument();
+      writer.close();
+   }
+
    /**
     * This method writes project properties to an MSPDI file.
     *
@@ -845,6 +946,8 @@ public final class MSPDIWriter extends AbstractProjectWriter
 
       writeAvailability(xml, mpx);
 
+      m_eventManager.fireResourceWrittenEvent(mpx);
+
       return (xml);
    }
 
@@ -1077,7 +1180,7 @@ public final class MSPDIWriter extends AbstractProjectWriter
       xml.setDeadline(mpx.getDeadline());
       xml.setDuration(DatatypeConverter.printDurationMandatory(this, mpx.getDuration()));
       xml.setDurationText(mpx.getDurationText());
-      xml.setDurationFormat(DatatypeConverter.printDurationTimeUnits(mpx.getDuration(), mpx.getEstimated()));
+      xml.setDurationFormat(DatatypeConverter.printDurationTimeUnits(this, mpx.getDuration(), mpx.getEstimated()));
       xml.setEarlyFinish(mpx.getEarlyFinish());
       xml.setEarlyStart(mpx.getEarlyStart());
       xml.setEarnedValueMethod(DatatypeConverter.printEarnedValueMethod(mpx.getEarnedValueMethod()));
@@ -1128,7 +1231,7 @@ public final class MSPDIWriter extends AbstractProjectWriter
          xml.setLevelingDelay(BigInteger.valueOf((long) tenthMinutes));
          // We're assuming that the caller has configured the leveling delay with the correct units
          // so we're not using the leveling delay format attribute of the task.
-         xml.setLevelingDelayFormat(DatatypeConverter.printDurationTimeUnits(levelingDelay, false));
+         xml.setLevelingDelayFormat(DatatypeConverter.printDurationTimeUnits(this, levelingDelay, false));
       }
 
       xml.setManual(Boolean.valueOf(mpx.getTaskMode() == TaskMode.MANUALLY_SCHEDULED));
@@ -1210,6 +1313,8 @@ public final class MSPDIWriter extends AbstractProjectWriter
 
       writeTaskBaselines(xml, mpx);
 
+      m_eventManager.fireTaskWrittenEvent(mpx);
+
       return (xml);
    }
 
@@ -1236,7 +1341,7 @@ public final class MSPDIWriter extends AbstractProjectWriter
       {
          populated = true;
          baseline.setDuration(DatatypeConverter.printDuration(this, duration));
-         baseline.setDurationFormat(DatatypeConverter.printDurationTimeUnits(duration, false));
+         baseline.setDurationFormat(DatatypeConverter.printDurationTimeUnits(this, duration, false));
       }
 
       Date date = mpxjTask.getBaselineFinish();
@@ -1283,7 +1388,7 @@ public final class MSPDIWriter extends AbstractProjectWriter
          {
             populated = true;
             baseline.setDuration(DatatypeConverter.printDuration(this, duration));
-            baseline.setDurationFormat(DatatypeConverter.printDurationTimeUnits(duration, false));
+            baseline.setDurationFormat(DatatypeConverter.printDurationTimeUnits(this, duration, false));
          }
 
          date = mpxjTask.getBaselineFinish(loop);
@@ -1460,12 +1565,23 @@ public final class MSPDIWriter extends AbstractProjectWriter
          list.add(writeAssignment(assignment));
       }
 
-      //
-      // Check to see if we have any tasks that have a percent complete value
-      // but do not have resource assignments. If any exist, then we must
-      // write a dummy resource assignment record to ensure that the MSPDI
-      // file shows the correct percent complete amount for the task.
-      //
+      for (ResourceAssignment assignment : createDummyAssignments())
+      {
+         list.add(writeAssignment(assignment));
+      }
+   }
+
+   /**
+    * Check to see if we have any tasks that have a percent complete value
+    * but do not have resource assignments. If any exist, then we must
+    * write a dummy resource assignment record to ensure that the MSPDI
+    * file shows the correct percent complete amount for the task.
+    *
+    * @return dummy resource assignments
+    */
+   private List<ResourceAssignment> createDummyAssignments()
+   {
+      List<ResourceAssignment> result = new ArrayList<ResourceAssignment>();
       ProjectConfig config = m_projectFile.getProjectConfig();
       boolean autoUniqueID = config.getAutoAssignmentUniqueID();
       if (!autoUniqueID)
@@ -1500,11 +1616,12 @@ public final class MSPDIWriter extends AbstractProjectWriter
                dummy.setActualFinish(task.getActualStart());
             }
             
-            list.add(writeAssignment(dummy));
+            result.add(dummy);
          }
       }
 
       config.setAutoAssignmentUniqueID(autoUniqueID);
+      return result;
    }
 
    /**
@@ -1546,7 +1663,7 @@ public final class MSPDIWriter extends AbstractProjectWriter
       xml.setHyperlinkAddress(mpx.getHyperlinkAddress());
       xml.setHyperlinkSubAddress(mpx.getHyperlinkSubAddress());
       xml.setLevelingDelay(DatatypeConverter.printDurationInIntegerTenthsOfMinutes(mpx.getLevelingDelay()));
-      xml.setLevelingDelayFormat(DatatypeConverter.printDurationTimeUnits(mpx.getLevelingDelay(), false));
+      xml.setLevelingDelayFormat(DatatypeConverter.printDurationTimeUnits(this, mpx.getLevelingDelay(), false));
 
       if (!mpx.getNotes().isEmpty())
       {
@@ -1925,11 +2042,53 @@ public final class MSPDIWriter extends AbstractProjectWriter
          xml.setFinish(mpx.getFinish());
          xml.setType(BigInteger.valueOf(type));
          xml.setUID(assignmentID);
-         xml.setUnit(DatatypeConverter.printDurationTimeUnits(mpx.getTotalAmount(), false));
+         xml.setUnit(DatatypeConverter.printDurationTimeUnits(this, mpx.getTotalAmount(), false));
          xml.setValue(DatatypeConverter.printDuration(this, mpx.getTotalAmount()));
       }
    }
 
+   /**
+    * Determine which extended attributes are in use by tasks, resources
+    * and assignments, without writing them.
+    */
+   private void addExtendedAttributesInUse()
+   {
+      List<TaskField> taskFields = getAllTaskExtendedAttributes();
+      for (Task task : m_projectFile.getTasks())
+      {
+         addExtendedAttributesInUse(task, taskFields);
+      }
+
+      List<ResourceField> resourceFields = getAllResourceExtendedAttributes();
+      for (Resource resource : m_projectFile.getResources())
+      {
+         addExtendedAttributesInUse(resource, resourceFields);
+      }
+
+      List<AssignmentField> assignmentFields = getAllAssignmentExtendedAttributes();
+      for (ResourceAssignment assignment : m_projectFile.getResourceAssignments())
+      {
+         addExtendedAttributesInUse(assignment, assignmentFields);
+      }
+   }
+
+   /**
+    * Add the extended attributes in use by a single entity.
+    *
+    * @param container entity
+    * @param fields extended attributes to test
+    */
+   private void addExtendedAttributesInUse(FieldContainer container, List<? extends FieldType> fields)
+   {
+      for (FieldType field : fields)
+      {
+         if (FieldTypeHelper.valueIsNotDefault(field, container.getCachedValue(field)))
+         {
+            m_extendedAttributesInUse.add(field);
+         }
+      }
+   }
+
    /**
     * Retrieve list of assignment extended attributes.
     *
@@ -2077,6 +2236,8 @@ public final class MSPDIWriter extends AbstractProjectWriter
 
    private boolean m_writeTimphasedData;
 
+   private boolean m_streamingOutput;
+
    private SaveVersion m_saveVersion = SaveVersion.Project2016;
 
    private static final BigInteger BIGINTEGER_ZERO = BigInteger.valueOf(0);
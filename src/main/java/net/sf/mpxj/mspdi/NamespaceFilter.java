@@ -42,5 +42,5 @@ class NamespaceFilter extends XMLFilterImpl
       super.endElement(NAMESPACE, localName, qName);
    }
 
-   private static final String NAMESPACE = "http://schemas.microsoft.com/project";
+   static final String NAMESPACE = "http://schemas.microsoft.com/project";
 }
\ No newline at end of file
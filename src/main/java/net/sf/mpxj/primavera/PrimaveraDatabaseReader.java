@@ -36,6 +36,8 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 
 import javax.sql.DataSource;
 
@@ -103,10 +105,22 @@ public final class PrimaveraDatabaseReader implements ProjectReader
     * @throws MPXJException
     */
    public ProjectFile read() throws MPXJException
+   {
+      return readProject().getProject();
+   }
+
+   /**
+    * Read a project from the current data source.
+    *
+    * @return PrimaveraReader instance used to read the project
+    * @throws MPXJException
+    */
+   private PrimaveraReader readProject() throws MPXJException
    {
       try
       {
-         m_reader = new PrimaveraReader(m_taskUdfCounters, m_resourceUdfCounters, m_assignmentUdfCounters, m_resourceFields, m_wbsFields, m_taskFields, m_assignmentFields, m_aliases, m_matchPrimaveraWBS);
+         PrimaveraReader reader = new PrimaveraReader(m_taskUdfCounters, m_resourceUdfCounters, m_assignmentUdfCounters, m_resourceFields, m_wbsFields, m_taskFields, m_assignmentFields, m_aliases, m_matchPrimaveraWBS);
+         m_reader = reader;
          ProjectFile project = m_reader.getProject();
          project.getEventManager().addProjectListeners(m_projectListeners);
 
@@ -124,7 +138,7 @@ public final class PrimaveraDatabaseReader implements ProjectReader
          m_reader = null;
          project.updateStructure();
 
-         return (project);
+         return (reader);
       }
 
       catch (SQLException ex)
@@ -134,20 +148,7 @@ public final class PrimaveraDatabaseReader implements ProjectReader
 
       finally
       {
-         if (m_allocatedConnection && m_connection != null)
-         {
-            try
-            {
-               m_connection.close();
-            }
-
-            catch (SQLException ex)
-            {
-               // silently ignore errors on close
-            }
-
-            m_connection = null;
-         }
+         closeConnection();
       }
    }
 
@@ -160,16 +161,95 @@ public final class PrimaveraDatabaseReader implements ProjectReader
     */
    public List<ProjectFile> readAll() throws MPXJException
    {
+      return readAll(false, null);
+   }
+
+   /**
+    * Convenience method which allows all projects in the database to
+    * be read in a single operation. If an executor is supplied, and
+    * this reader has been configured with a DataSource, each project
+    * is read by a separate task submitted to the executor, using its
+    * own connection. Otherwise projects are read sequentially. Note that
+    * when projects are read concurrently any project listeners added
+    * to this reader may be called from multiple threads.
+    *
+    * @param linkCrossProjectRelations add Relation links that cross ProjectFile boundaries
+    * @param executor executor used to read each project, or null to read projects sequentially
+    * @return list of ProjectFile instances
+    * @throws MPXJException
+    */
+   public List<ProjectFile> readAll(boolean linkCrossProjectRelations, ExecutorService executor) throws MPXJException
+   {
+      List<PrimaveraReader> readers;
       Map<Integer, String> projects = listProjects();
-      List<ProjectFile> result = new ArrayList<ProjectFile>(projects.keySet().size());
-      for (Integer id : projects.keySet())
+
+      if (executor == null || m_dataSource == null)
+      {
+         readers = new ArrayList<PrimaveraReader>(projects.size());
+         for (Integer id : projects.keySet())
+         {
+            setProjectID(id.intValue());
+            readers.add(readProject());
+         }
+      }
+      else
       {
-         setProjectID(id.intValue());
-         result.add(read());
+         closeConnection();
+         List<Callable<PrimaveraReader>> tasks = new ArrayList<Callable<PrimaveraReader>>(projects.size());
+         for (Integer id : projects.keySet())
+         {
+            tasks.add(getProjectTask(id));
+         }
+         readers = PrimaveraReader.readProjects(tasks, executor);
+      }
+
+      if (linkCrossProjectRelations)
+      {
+         PrimaveraReader.linkExternalPredecessors(readers);
+      }
+
+      List<ProjectFile> result = new ArrayList<ProjectFile>(readers.size());
+      for (PrimaveraReader reader : readers)
+      {
+         result.add(reader.getProject());
       }
       return result;
    }
 
+   /**
+    * Creates a task which will read a single project. Each task uses
+    * its own copy of this reader's configuration, and allocates its
+    * own connection, so tasks can safely be run concurrently.
+    *
+    * @param projectID ID of the project to read
+    * @return task which returns the reader used to read the project
+    */
+   private Callable<PrimaveraReader> getProjectTask(Integer projectID)
+   {
+      final PrimaveraDatabaseReader reader = new PrimaveraDatabaseReader();
+      reader.m_projectID = projectID;
+      reader.m_schema = m_schema;
+      reader.m_dataSource = m_dataSource;
+      reader.m_projectListeners = m_projectListeners;
+      reader.m_taskUdfCounters = new UserFieldCounters(m_taskUdfCounters);
+      reader.m_resourceUdfCounters = new UserFieldCounters(m_resourceUdfCounters);
+      reader.m_assignmentUdfCounters = new UserFieldCounters(m_assignmentUdfCounters);
+      reader.m_resourceFields = m_resourceFields;
+      reader.m_wbsFields = m_wbsFields;
+      reader.m_taskFields = m_taskFields;
+      reader.m_assignmentFields = m_assignmentFields;
+      reader.m_aliases = m_aliases;
+      reader.m_matchPrimaveraWBS = m_matchPrimaveraWBS;
+
+      return new Callable<PrimaveraReader>()
+      {
+         @Override public PrimaveraReader call() throws MPXJException
+         {
+            return reader.readProject();
+         }
+      };
+   }
+
    /**
     * Populate data for analytics.
     */
@@ -504,6 +584,27 @@ public final class PrimaveraDatabaseReader implements ProjectReader
       }
    }
 
+   /**
+    * Closes the current connection, if it was allocated by this reader.
+    */
+   private void closeConnection()
+   {
+      if (m_allocatedConnection && m_connection != null)
+      {
+         try
+         {
+            m_connection.close();
+         }
+
+         catch (SQLException ex)
+         {
+            // silently ignore errors on close
+         }
+
+         m_connection = null;
+      }
+   }
+
    /**
     * Releases a database connection, and cleans up any resources
     * associated with that connection.
@@ -360,7 +360,7 @@ public final class PrimaveraPMFileWriter extends AbstractProjectWriter
       m_apibo.getProject().add(m_project);
 
       ProjectProperties mpxj = m_projectFile.getProjectProperties();
-      Task rootTask = m_projectFile.getTaskByUniqueID(Integer.valueOf(0));
+      Task rootTask = m_projectFile.getTaskByUniqueID(0);
       UUID guid = rootTask == null ? null : rootTask.getGUID();
 
       m_project.setActivityDefaultActivityType("Task Dependent");
@@ -36,6 +36,10 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import net.sf.mpxj.ActivityCode;
 import net.sf.mpxj.ActivityCodeContainer;
@@ -57,6 +61,7 @@ import net.sf.mpxj.EventManager;
 import net.sf.mpxj.FieldContainer;
 import net.sf.mpxj.FieldType;
 import net.sf.mpxj.FieldTypeClass;
+import net.sf.mpxj.MPXJException;
 import net.sf.mpxj.Priority;
 import net.sf.mpxj.ProjectCalendar;
 import net.sf.mpxj.ProjectCalendarDateRanges;
@@ -147,6 +152,130 @@ final class PrimaveraReader
       return m_externalPredecessors;
    }
 
+   /**
+    * Run a set of tasks, each of which reads a single project. If an
+    * executor is supplied the tasks are submitted to it and may run
+    * concurrently, otherwise they are run one after another on the
+    * calling thread. Results are returned in the same order as the tasks.
+    *
+    * @param tasks tasks which read individual projects
+    * @param executor optional executor
+    * @return list of readers, one per project
+    * @throws MPXJException
+    */
+   static List<PrimaveraReader> readProjects(List<Callable<PrimaveraReader>> tasks, ExecutorService executor) throws MPXJException
+   {
+      List<PrimaveraReader> result = new ArrayList<PrimaveraReader>(tasks.size());
+
+      try
+      {
+         if (executor == null)
+         {
+            for (Callable<PrimaveraReader> task : tasks)
+            {
+               result.add(task.call());
+            }
+         }
+         else
+         {
+            List<Future<PrimaveraReader>> futures = new ArrayList<Future<PrimaveraReader>>(tasks.size());
+            for (Callable<PrimaveraReader> task : tasks)
+            {
+               futures.add(executor.submit(task));
+            }
+
+            try
+            {
+               for (Future<PrimaveraReader> future : futures)
+               {
+                  result.add(future.get());
+               }
+            }
+
+            finally
+            {
+               for (Future<PrimaveraReader> future : futures)
+               {
+                  future.cancel(true);
+               }
+            }
+         }
+      }
+
+      catch (ExecutionException ex)
+      {
+         Throwable cause = ex.getCause();
+         if (cause instanceof MPXJException)
+         {
+            throw (MPXJException) cause;
+         }
+
+         if (cause instanceof Error)
+         {
+            throw (Error) cause;
+         }
+
+         throw new MPXJException(MPXJException.READ_ERROR, (Exception) cause);
+      }
+
+      catch (InterruptedException ex)
+      {
+         Thread.currentThread().interrupt();
+         throw new MPXJException(MPXJException.READ_ERROR, ex);
+      }
+
+      catch (MPXJException ex)
+      {
+         throw ex;
+      }
+
+      catch (Exception ex)
+      {
+         throw new MPXJException(MPXJException.READ_ERROR, ex);
+      }
+
+      return result;
+   }
+
+   /**
+    * Add relations between tasks in different projects. The unique IDs
+    * of the tasks in all projects are indexed once, so each external
+    * predecessor can be resolved without searching every project. Where
+    * a unique ID appears in more than one project, the task from the
+    * first project is used. External predecessors which do not match
+    * a task in any of the projects are ignored.
+    *
+    * @param readers readers used to read each project
+    */
+   static void linkExternalPredecessors(List<PrimaveraReader> readers)
+   {
+      Map<Integer, Task> tasks = new HashMap<Integer, Task>();
+      for (int index = readers.size() - 1; index >= 0; index--)
+      {
+         for (Task task : readers.get(index).getProject().getTasks())
+         {
+            Integer uniqueID = task.getUniqueID();
+            if (uniqueID != null)
+            {
+               tasks.put(uniqueID, task);
+            }
+         }
+      }
+
+      for (PrimaveraReader reader : readers)
+      {
+         for (ExternalPredecessorRelation externalRelation : reader.getExternalPredecessors())
+         {
+            Task predecessorTask = tasks.get(externalRelation.getSourceUniqueID());
+            if (predecessorTask != null)
+            {
+               Relation relation = externalRelation.getTargetTask().addPredecessor(predecessorTask, externalRelation.getType(), externalRelation.getLag());
+               relation.setUniqueID(externalRelation.getUniqueID());
+            }
+         }
+      }
+   }
+
    /**
     * Process project properties.
     *
@@ -40,15 +40,14 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 
 import net.sf.mpxj.FieldType;
 import net.sf.mpxj.MPXJException;
 import net.sf.mpxj.ProjectFile;
-import net.sf.mpxj.Relation;
-import net.sf.mpxj.Task;
 import net.sf.mpxj.common.CharsetHelper;
 import net.sf.mpxj.common.MultiDateFormat;
-import net.sf.mpxj.common.NumberHelper;
 import net.sf.mpxj.common.ReaderTokenizer;
 import net.sf.mpxj.common.Tokenizer;
 import net.sf.mpxj.listener.ProjectListener;
@@ -109,7 +108,7 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
    {
       try
       {
-         m_tables = new HashMap<String, List<Row>>();
+         m_tables = new HashMap<String, XerTable>();
          m_numberFormat = new DecimalFormat();
 
          processFile(is);
@@ -150,46 +149,50 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
     * @throws MPXJException
     */
    public List<ProjectFile> readAll(InputStream is, boolean linkCrossProjectRelations) throws MPXJException
+   {
+      return readAll(is, linkCrossProjectRelations, null);
+   }
+
+   /**
+    * This is a convenience method which allows all projects in an
+    * XER file to be read in a single pass. The file is parsed once,
+    * then each project is built by a separate task. If an executor
+    * is supplied these tasks are submitted to it, allowing projects
+    * to be built concurrently. Note that in this case any project
+    * listeners added to this reader may be called from multiple threads.
+    *
+    * @param is input stream
+    * @param linkCrossProjectRelations add Relation links that cross ProjectFile boundaries
+    * @param executor executor used to build each project, or null to build projects sequentially
+    * @return list of ProjectFile instances
+    * @throws MPXJException
+    */
+   public List<ProjectFile> readAll(InputStream is, boolean linkCrossProjectRelations, ExecutorService executor) throws MPXJException
    {
       try
       {
-         m_tables = new HashMap<String, List<Row>>();
+         m_tables = new HashMap<String, XerTable>();
          m_numberFormat = new DecimalFormat();
 
          processFile(is);
 
          List<Row> rows = getRows("project", null, null);
-         List<ProjectFile> result = new ArrayList<ProjectFile>(rows.size());
-         List<ExternalPredecessorRelation> externalPredecessors = new ArrayList<ExternalPredecessorRelation>();
+         List<Callable<PrimaveraReader>> tasks = new ArrayList<Callable<PrimaveraReader>>(rows.size());
          for (Row row : rows)
          {
-            setProjectID(row.getInt("proj_id"));
-            m_reader = new PrimaveraReader(m_taskUdfCounters, m_resourceUdfCounters, m_assignmentUdfCounters, m_resourceFields, m_wbsFields, m_taskFields, m_assignmentFields, m_aliases, m_matchPrimaveraWBS);
-            ProjectFile project = readProject();
-            externalPredecessors.addAll(m_reader.getExternalPredecessors());
-
-            result.add(project);
+            tasks.add(getProjectTask(row.getInteger("proj_id")));
          }
 
+         List<PrimaveraReader> readers = PrimaveraReader.readProjects(tasks, executor);
          if (linkCrossProjectRelations)
          {
-            for (ExternalPredecessorRelation externalRelation : externalPredecessors)
-            {
-               Task predecessorTask;
-               // we could aggregate the project task id maps but that's likely more work
-               // than just looping through the projects
-               for (ProjectFile proj : result)
-               {
-                  predecessorTask = proj.getTaskByUniqueID(externalRelation.getSourceUniqueID());
-                  if (predecessorTask != null)
-                  {
-                     Relation relation = externalRelation.getTargetTask().addPredecessor(predecessorTask, externalRelation.getType(), externalRelation.getLag());
-                     relation.setUniqueID(externalRelation.getUniqueID());
-                     break;
-                  }
-               }
-               // if predecessorTask not found the external task is outside of the file so ignore
-            }
+            PrimaveraReader.linkExternalPredecessors(readers);
+         }
+
+         List<ProjectFile> result = new ArrayList<ProjectFile>(readers.size());
+         for (PrimaveraReader reader : readers)
+         {
+            result.add(reader.getProject());
          }
 
          return result;
@@ -200,9 +203,46 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
          m_tables = null;
          m_numberFormat = null;
          m_reader = null;
+         m_defaultCurrencyData = null;
       }
    }
 
+   /**
+    * Creates a task which will build a single project from the tables
+    * read from the current file. Each task uses its own copy of this
+    * reader's configuration, so tasks can safely be run concurrently.
+    *
+    * @param projectID ID of the project to read
+    * @return task which returns the reader used to build the project
+    */
+   private Callable<PrimaveraReader> getProjectTask(Integer projectID)
+   {
+      final PrimaveraXERFileReader reader = new PrimaveraXERFileReader();
+      reader.m_projectID = projectID;
+      reader.m_tables = m_tables;
+      reader.m_defaultCurrencyData = m_defaultCurrencyData;
+      reader.m_projectListeners = m_projectListeners;
+      reader.m_taskUdfCounters = new UserFieldCounters(m_taskUdfCounters);
+      reader.m_resourceUdfCounters = new UserFieldCounters(m_resourceUdfCounters);
+      reader.m_assignmentUdfCounters = new UserFieldCounters(m_assignmentUdfCounters);
+      reader.m_resourceFields = m_resourceFields;
+      reader.m_wbsFields = m_wbsFields;
+      reader.m_taskFields = m_taskFields;
+      reader.m_assignmentFields = m_assignmentFields;
+      reader.m_aliases = m_aliases;
+      reader.m_matchPrimaveraWBS = m_matchPrimaveraWBS;
+
+      return new Callable<PrimaveraReader>()
+      {
+         @Override public PrimaveraReader call()
+         {
+            reader.m_reader = new PrimaveraReader(reader.m_taskUdfCounters, reader.m_resourceUdfCounters, reader.m_assignmentUdfCounters, reader.m_resourceFields, reader.m_wbsFields, reader.m_taskFields, reader.m_assignmentFields, reader.m_aliases, reader.m_matchPrimaveraWBS);
+            reader.readProject();
+            return reader.m_reader;
+         }
+      };
+   }
+
    /**
     * Common project read functionality.
     * 
@@ -238,6 +278,7 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
          m_currentTableName = null;
          m_currentTable = null;
          m_currentFieldNames = null;
+         m_currentFieldTypes = null;
          m_defaultCurrencyName = null;
          m_currencyMap.clear();
          m_numberFormat = null;
@@ -360,7 +401,8 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
 
    /**
     * Populates a Map instance representing the IDs and names of
-    * projects available in the current file.
+    * projects available in the current file. Reading stops once the
+    * project table has been read, so the remainder of the file is not parsed.
     *
     * @param is input stream used to read XER file
     * @return Map instance containing ID and name pairs
@@ -370,7 +412,9 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
    {
       try
       {
-         m_tables = new HashMap<String, List<Row>>();
+         m_tables = new HashMap<String, XerTable>();
+         m_numberFormat = new DecimalFormat();
+         m_projectTableOnly = true;
          processFile(is);
 
          Map<Integer, String> result = new HashMap<Integer, String>();
@@ -391,6 +435,9 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
          m_tables = null;
          m_currentTable = null;
          m_currentFieldNames = null;
+         m_currentFieldTypes = null;
+         m_numberFormat = null;
+         m_projectTableOnly = false;
       }
    }
 
@@ -559,16 +606,22 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
 
          case TABLE:
          {
+            if (m_projectTableOnly && m_tables.containsKey("project"))
+            {
+               // We only need the project table, so stop here
+               done = true;
+               break;
+            }
+
             m_currentTableName = record.get(1).toLowerCase();
-            m_skipTable = !REQUIRED_TABLES.contains(m_currentTableName);
+            m_skipTable = !(m_projectTableOnly ? PROJECT_TABLES : REQUIRED_TABLES).contains(m_currentTableName);
             if (m_skipTable)
             {
                m_currentTable = null;
             }
             else
             {
-               m_currentTable = new LinkedList<Row>();
-               m_tables.put(m_currentTableName, m_currentTable);
+               m_currentTable = null;
             }
             break;
          }
@@ -582,10 +635,17 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
             else
             {
                m_currentFieldNames = record.toArray(new String[record.size()]);
+               m_currentFieldTypes = new XerFieldType[m_currentFieldNames.length];
                for (int loop = 0; loop < m_currentFieldNames.length; loop++)
                {
-                  m_currentFieldNames[loop] = m_currentFieldNames[loop].toLowerCase();
+                  String fieldName = m_currentFieldNames[loop].toLowerCase();
+                  XerFieldType fieldType = FIELD_TYPE_MAP.get(fieldName);
+                  m_currentFieldNames[loop] = fieldName;
+                  m_currentFieldTypes[loop] = fieldType == null ? XerFieldType.STRING : fieldType;
                }
+
+               m_currentTable = new XerTable(m_currentFieldNames);
+               m_tables.put(m_currentTableName, m_currentTable);
             }
             break;
          }
@@ -594,16 +654,12 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
          {
             if (!m_skipTable)
             {
-               Map<String, Object> map = new HashMap<String, Object>();
-               for (int loop = 1; loop < record.size(); loop++)
+               int fieldCount = Math.min(record.size(), m_currentFieldNames.length);
+               Object[] values = new Object[fieldCount];
+               for (int loop = 1; loop < fieldCount; loop++)
                {
-                  String fieldName = m_currentFieldNames[loop];
                   String fieldValue = record.get(loop);
-                  XerFieldType fieldType = FIELD_TYPE_MAP.get(fieldName);
-                  if (fieldType == null)
-                  {
-                     fieldType = XerFieldType.STRING;
-                  }
+                  XerFieldType fieldType = m_currentFieldTypes[loop];
 
                   Object objectValue;
                   if (fieldValue.length() == 0)
@@ -659,11 +715,10 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
                      }
                   }
 
-                  map.put(fieldName, objectValue);
+                  values[loop] = objectValue;
                }
 
-               Row currentRow = new MapRow(map);
-               m_currentTable.add(currentRow);
+               m_currentTable.addRow(values);
 
                //
                // Special case - we need to know the default currency format
@@ -672,7 +727,7 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
                //
                if (m_currentTableName.equals("currtype"))
                {
-                  processCurrency(currentRow);
+                  processCurrency(m_currentTable.getRows().get(m_currentTable.getRowCount() - 1));
                }
             }
             break;
@@ -789,7 +844,9 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
    /**
     * Filters a list of rows from the named table. If a column name and a value
     * are supplied, then use this to filter the rows. If no column name is
-    * supplied, then return all rows.
+    * supplied, then return all rows. Filtering uses an index built on the
+    * named column, so repeated calls for different values do not need
+    * to scan the whole table.
     *
     * @param tableName table name
     * @param columnName filter column name
@@ -799,7 +856,7 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
    private List<Row> getRows(String tableName, String columnName, Integer id)
    {
       List<Row> result;
-      List<Row> table = m_tables.get(tableName);
+      XerTable table = m_tables.get(tableName);
       if (table == null)
       {
          result = Collections.<Row> emptyList();
@@ -808,21 +865,14 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
       {
          if (columnName == null)
          {
-            result = table;
+            result = table.getRows();
          }
          else
          {
-            result = new LinkedList<Row>();
-            for (Row row : table)
-            {
-               if (NumberHelper.equals(id, row.getInteger(columnName)))
-               {
-                  result.add(row);
-               }
-            }
+            result = table.getRows(columnName, id);
          }
       }
-      return result;
+      return new ArrayList<Row>(result);
    }
 
    /**
@@ -854,10 +904,11 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
    private PrimaveraReader m_reader;
    private Integer m_projectID;
    boolean m_skipTable;
-   private Map<String, List<Row>> m_tables;
+   private Map<String, XerTable> m_tables;
    private String m_currentTableName;
-   private List<Row> m_currentTable;
+   private XerTable m_currentTable;
    private String[] m_currentFieldNames;
+   private XerFieldType[] m_currentFieldTypes;
    private String m_defaultCurrencyName;
    private Map<String, DecimalFormat> m_currencyMap = new HashMap<String, DecimalFormat>();
    private DecimalFormat m_numberFormat;
@@ -873,6 +924,7 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
    private Map<FieldType, String> m_assignmentFields = PrimaveraReader.getDefaultAssignmentFieldMap();
    private Map<FieldType, String> m_aliases = PrimaveraReader.getDefaultAliases();
    private boolean m_matchPrimaveraWBS = true;
+   private boolean m_projectTableOnly;
 
    /**
     * Represents expected record types.
@@ -1046,5 +1098,12 @@ public final class PrimaveraXERFileReader extends AbstractProjectReader
       REQUIRED_TABLES.add("taskactv");
    }
 
+   private static final Set<String> PROJECT_TABLES = new HashSet<String>();
+   static
+   {
+      PROJECT_TABLES.add("project");
+      PROJECT_TABLES.add("currtype");
+   }
+
    private static final WbsRowComparatorXER WBS_ROW_COMPARATOR = new WbsRowComparatorXER();
 }
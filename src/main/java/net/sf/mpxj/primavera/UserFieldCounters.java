@@ -47,6 +47,17 @@ class UserFieldCounters
       }
    }
 
+   /**
+    * Copy constructor. The new instance uses the same field names
+    * as the source, but maintains its own counters.
+    *
+    * @param source instance to copy
+    */
+   public UserFieldCounters(UserFieldCounters source)
+   {
+      System.arraycopy(source.m_names, 0, m_names, 0, m_names.length);
+   }
+
    /**
     * Allow the caller to override the default field name assigned
     * to a user defined data type.
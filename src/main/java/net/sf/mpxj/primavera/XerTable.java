@@ -0,0 +1,298 @@
+/*
+ * file:       XerTable.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.primavera;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Compact columnar storage for the rows of a single table read from an XER file.
+ * Rather than holding a map per row, values are held in one array per column,
+ * and rows are exposed as lightweight views onto these arrays. An index can be
+ * built on an integer column to allow the rows matching a given value to be
+ * retrieved without scanning the whole table.
+ */
+final class XerTable
+{
+   /**
+    * Constructor.
+    *
+    * @param fieldNames column names, in the order they appear in each record
+    */
+   public XerTable(String[] fieldNames)
+   {
+      m_columnIndexes = new HashMap<String, Integer>();
+      for (int index = 0; index < fieldNames.length; index++)
+      {
+         String name = fieldNames[index];
+         if (name != null && !m_columnIndexes.containsKey(name))
+         {
+            m_columnIndexes.put(name, Integer.valueOf(index));
+         }
+      }
+
+      m_columns = new Object[fieldNames.length][INITIAL_CAPACITY];
+   }
+
+   /**
+    * Add a row to the table.
+    *
+    * @param values column values, in the order they appear in each record
+    */
+   public void addRow(Object[] values)
+   {
+      if (m_rowCount == m_columns[0].length)
+      {
+         int capacity = m_rowCount + (m_rowCount >> 1);
+         for (int index = 0; index < m_columns.length; index++)
+         {
+            m_columns[index] = Arrays.copyOf(m_columns[index], capacity);
+         }
+      }
+
+      int count = Math.min(values.length, m_columns.length);
+      for (int index = 0; index < count; index++)
+      {
+         m_columns[index][m_rowCount] = values[index];
+      }
+
+      ++m_rowCount;
+      m_indexes.clear();
+   }
+
+   /**
+    * Retrieve the number of rows in the table.
+    *
+    * @return row count
+    */
+   public int getRowCount()
+   {
+      return m_rowCount;
+   }
+
+   /**
+    * Retrieve all rows in this table.
+    *
+    * @return list of rows
+    */
+   public List<Row> getRows()
+   {
+      return new RowList(null, m_rowCount);
+   }
+
+   /**
+    * Retrieve the rows where the named integer column matches
+    * the supplied value. An index on the column is built the first
+    * time this method is called for that column.
+    *
+    * @param columnName column name
+    * @param value column value
+    * @return list of rows
+    */
+   public List<Row> getRows(String columnName, Integer value)
+   {
+      List<Row> result;
+      Map<Integer, int[]> index = getIndex(columnName);
+      if (index == null)
+      {
+         result = Collections.emptyList();
+      }
+      else
+      {
+         int[] rows = index.get(value);
+         result = rows == null ? Collections.<Row> emptyList() : new RowList(rows, rows.length);
+      }
+      return result;
+   }
+
+   /**
+    * Retrieve a value from the table.
+    *
+    * @param row row number
+    * @param name column name
+    * @return column value
+    */
+   Object getObject(int row, String name)
+   {
+      Integer column = m_columnIndexes.get(name);
+      return column == null ? null : m_columns[column.intValue()][row];
+   }
+
+   /**
+    * Retrieve the index for the named column, building it if necessary.
+    *
+    * @param columnName column name
+    * @return map of column values to row numbers, or null if the column does not exist
+    */
+   private synchronized Map<Integer, int[]> getIndex(String columnName)
+   {
+      Map<Integer, int[]> result = m_indexes.get(columnName);
+      if (result == null)
+      {
+         Integer column = m_columnIndexes.get(columnName);
+         if (column != null)
+         {
+            result = buildIndex(m_columns[column.intValue()]);
+            m_indexes.put(columnName, result);
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Build an index mapping integer values to the rows in which they appear.
+    * Rows are listed in the order they were added to the table.
+    *
+    * @param values column values
+    * @return index
+    */
+   private Map<Integer, int[]> buildIndex(Object[] values)
+   {
+      Map<Integer, int[]> counts = new HashMap<Integer, int[]>();
+      for (int row = 0; row < m_rowCount; row++)
+      {
+         Integer key = getKey(values[row]);
+         int[] count = counts.get(key);
+         if (count == null)
+         {
+            count = new int[1];
+            counts.put(key, count);
+         }
+         ++count[0];
+      }
+
+      Map<Integer, int[]> result = new HashMap<Integer, int[]>(counts.size() * 2);
+      for (Map.Entry<Integer, int[]> entry : counts.entrySet())
+      {
+         result.put(entry.getKey(), new int[entry.getValue()[0]]);
+         entry.getValue()[0] = 0;
+      }
+
+      for (int row = 0; row < m_rowCount; row++)
+      {
+         Integer key = getKey(values[row]);
+         int[] position = counts.get(key);
+         result.get(key)[position[0]++] = row;
+      }
+
+      return result;
+   }
+
+   /**
+    * Convert a column value to an index key.
+    *
+    * @param value column value
+    * @return index key
+    */
+   private Integer getKey(Object value)
+   {
+      Integer result;
+      if (value instanceof Integer || value == null)
+      {
+         result = (Integer) value;
+      }
+      else
+      {
+         if (value instanceof Number)
+         {
+            result = Integer.valueOf(((Number) value).intValue());
+         }
+         else
+         {
+            result = null;
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Read only list of row views.
+    */
+   private final class RowList extends AbstractList<Row> implements RandomAccess
+   {
+      /**
+       * Constructor.
+       *
+       * @param rows row numbers, or null to represent all rows
+       * @param size number of rows
+       */
+      public RowList(int[] rows, int size)
+      {
+         m_rows = rows;
+         m_size = size;
+      }
+
+      @Override public Row get(int index)
+      {
+         if (index < 0 || index >= m_size)
+         {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+         }
+         return new XerRow(m_rows == null ? index : m_rows[index]);
+      }
+
+      @Override public int size()
+      {
+         return m_size;
+      }
+
+      private final int[] m_rows;
+      private final int m_size;
+   }
+
+   /**
+    * A view of a single row in the table.
+    */
+   private final class XerRow extends AbstractRow
+   {
+      /**
+       * Constructor.
+       *
+       * @param row row number
+       */
+      public XerRow(int row)
+      {
+         m_row = row;
+      }
+
+      @Override protected Object getObject(String name)
+      {
+         return XerTable.this.getObject(m_row, name);
+      }
+
+      private final int m_row;
+   }
+
+   private final Map<String, Integer> m_columnIndexes;
+   private final Object[][] m_columns;
+   private final Map<String, Map<Integer, int[]>> m_indexes = new HashMap<String, Map<Integer, int[]>>();
+   private int m_rowCount;
+
+   private static final int INITIAL_CAPACITY = 16;
+}
@@ -184,8 +184,8 @@ public class Blast
          if (bits(1) != 0)
          {
             /* get length */
-            symbol = decode(LENCODE);
-            len = BASE[symbol] + bits(EXTRA[symbol]);
+            symbol = decode(Huffman.LENCODE);
+            len = Huffman.BASE[symbol] + bits(Huffman.EXTRA[symbol]);
             if (len == 519)
             {
                break; /* end code */
@@ -193,7 +193,7 @@ public class Blast
 
             /* get distance */
             symbol = len == 2 ? 2 : dict;
-            dist = decode(DISTCODE) << symbol;
+            dist = decode(Huffman.DISTCODE) << symbol;
             dist += bits(symbol);
             dist++;
             if (m_first != 0 && dist > m_next)
@@ -239,7 +239,7 @@ public class Blast
          else
          {
             /* get literal and write it */
-            symbol = lit != 0 ? decode(LITCODE) : bits(8);
+            symbol = lit != 0 ? decode(Huffman.LITCODE) : bits(8);
             m_out[m_next++] = (byte) symbol;
             if (m_next == MAXWIN)
             {
@@ -364,7 +364,7 @@ public class Blast
             code <<= 1;
             len++;
          }
-         left = (MAXBITS + 1) - len;
+         left = (Huffman.MAXBITS + 1) - len;
          if (left == 0)
          {
             break;
@@ -388,104 +388,6 @@ public class Blast
       return -9; /* ran out of codes */
    }
 
-   /**
-    * Given a list of repeated code lengths rep[0..n-1], where each byte is a
-    * count (high four bits + 1) and a code length (low four bits), generate the
-    * list of code lengths.  This compaction reduces the size of the object code.
-    * Then given the list of code lengths length[0..n-1] representing a canonical
-    * Huffman code for n symbols, construct the tables required to decode those
-    * codes.  Those tables are the number of codes of each length, and the symbols
-    * sorted by length, retaining their original order within each length.  The
-    * return value is zero for a complete code set, negative for an over-
-    * subscribed code set, and positive for an incomplete code set.  The tables
-    * can be used if the return value is zero or positive, but they cannot be used
-    * if the return value is negative.  If the return value is zero, it is not
-    * possible for decode() using that table to return an error--any stream of
-    * enough bits will resolve to a symbol.  If the return value is positive, then
-    * it is possible for decode() using that table to return an error for received
-    * codes past the end of the incomplete lengths.
-    *
-    * @param h Huffman table
-    * @param rep repeated code lengths
-    * @param n number of repeated codes
-    * @return zero if successful
-    */
-   private static int construct(Huffman h, int[] rep, int n)
-   {
-      int symbol; /* current symbol when stepping through length[] */
-      int len; /* current length when stepping through h->count[] */
-      int left; /* number of possible codes left of current length */
-      short[] offs = new short[MAXBITS + 1]; /* offsets in symbol table for each length */
-      short[] length = new short[256]; /* code lengths */
-
-      /* convert compact repeat counts into symbol bit length list */
-      symbol = 0;
-      int repIndex = 0;
-      do
-      {
-         len = rep[repIndex++];
-         left = (len >> 4) + 1;
-         len &= 15;
-         do
-         {
-            length[symbol++] = (short) len;
-         }
-         while (--left != 0);
-      }
-      while (--n != 0);
-      n = symbol;
-
-      /* count number of codes of each length */
-      for (len = 0; len <= MAXBITS; len++)
-      {
-         h.m_count[len] = 0;
-      }
-
-      for (symbol = 0; symbol < n; symbol++)
-      {
-         (h.m_count[length[symbol]])++; /* assumes lengths are within bounds */
-      }
-
-      if (h.m_count[0] == n) /* no codes! */
-      {
-         return 0; /* complete, but decode() will fail */
-      }
-
-      /* check for an over-subscribed or incomplete set of lengths */
-      left = 1; /* one possible code of zero length */
-      for (len = 1; len <= MAXBITS; len++)
-      {
-         left <<= 1; /* one more bit, double codes left */
-         left -= h.m_count[len]; /* deduct count from possible codes */
-         if (left < 0)
-         {
-            return left; /* over-subscribed--return negative */
-         }
-      } /* left > 0 means incomplete */
-
-      /* generate offsets into symbol table for each length for sorting */
-      offs[1] = 0;
-      for (len = 1; len < MAXBITS; len++)
-      {
-         offs[len + 1] = (short) (offs[len] + h.m_count[len]);
-      }
-
-      /*
-       * put symbols in table sorted by length, by symbol order within each
-       * length
-       */
-      for (symbol = 0; symbol < n; symbol++)
-      {
-         if (length[symbol] != 0)
-         {
-            h.m_symbol[offs[length[symbol]]++] = (short) symbol;
-         }
-      }
-
-      /* return zero for complete set, positive for incomplete set */
-      return left;
-   }
-
    private int m_bitbuf;
    private int m_bitcnt;
    private InputStream m_input;
@@ -496,204 +398,5 @@ public class Blast
    private int m_next;
    private byte[] m_out = new byte[MAXWIN];
 
-   private static final int MAXBITS = 13; /* maximum code length */
    private static final int MAXWIN = 4096; /* maximum window size */
-
-   /* bit lengths of literal codes */
-   private static final int[] LITLEN =
-   {
-      11,
-      124,
-      8,
-      7,
-      28,
-      7,
-      188,
-      13,
-      76,
-      4,
-      10,
-      8,
-      12,
-      10,
-      12,
-      10,
-      8,
-      23,
-      8,
-      9,
-      7,
-      6,
-      7,
-      8,
-      7,
-      6,
-      55,
-      8,
-      23,
-      24,
-      12,
-      11,
-      7,
-      9,
-      11,
-      12,
-      6,
-      7,
-      22,
-      5,
-      7,
-      24,
-      6,
-      11,
-      9,
-      6,
-      7,
-      22,
-      7,
-      11,
-      38,
-      7,
-      9,
-      8,
-      25,
-      11,
-      8,
-      11,
-      9,
-      12,
-      8,
-      12,
-      5,
-      38,
-      5,
-      38,
-      5,
-      11,
-      7,
-      5,
-      6,
-      21,
-      6,
-      10,
-      53,
-      8,
-      7,
-      24,
-      10,
-      27,
-      44,
-      253,
-      253,
-      253,
-      252,
-      252,
-      252,
-      13,
-      12,
-      45,
-      12,
-      45,
-      12,
-      61,
-      12,
-      45,
-      44,
-      173
-   };
-
-   /* bit lengths of length codes 0..15 */
-   private static final int[] LENLEN =
-   {
-      2,
-      35,
-      36,
-      53,
-      38,
-      23
-   };
-
-   /* bit lengths of distance codes 0..63 */
-   private static final int[] DISTLEN =
-   {
-      2,
-      20,
-      53,
-      230,
-      247,
-      151,
-      248
-   };
-
-   private static final short[] BASE =
-   { /* base for length codes */
-      3,
-      2,
-      4,
-      5,
-      6,
-      7,
-      8,
-      9,
-      10,
-      12,
-      16,
-      24,
-      40,
-      72,
-      136,
-      264
-   };
-
-   private static final int[] EXTRA =
-   { /* extra bits for length codes */
-      0,
-      0,
-      0,
-      0,
-      0,
-      0,
-      0,
-      0,
-      1,
-      2,
-      3,
-      4,
-      5,
-      6,
-      7,
-      8
-   };
-
-   private static final Huffman LITCODE = new Huffman(MAXBITS + 1, 256); /* length code */
-   private static final Huffman LENCODE = new Huffman(MAXBITS + 1, 16); /* length code */
-   private static final Huffman DISTCODE = new Huffman(MAXBITS + 1, 64);/* distance code */
-
-   static
-   {
-      construct(LITCODE, LITLEN, LITLEN.length);
-      construct(LENCODE, LENLEN, LENLEN.length);
-      construct(DISTCODE, DISTLEN, DISTLEN.length);
-   }
-}
-
-/**
- * Class to represent a Huffman table.
- */
-class Huffman
-{
-   /**
-    * Constructor.
-    *
-    * @param countSize number of counts
-    * @param symbolSize number of symbols
-    */
-   public Huffman(int countSize, int symbolSize)
-   {
-      m_count = new short[countSize];
-      m_symbol = new short[symbolSize];
-   }
-
-   short[] m_count;
-   short[] m_symbol;
 }
@@ -0,0 +1,317 @@
+/*
+ * file:       FastBlast.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.primavera.common;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import net.sf.mpxj.common.InputStreamHelper;
+
+/**
+ * Table driven decompressor for data compressed using the PKWare Compression
+ * Library. This produces the same output as {@link Blast}, but rather than
+ * decoding Huffman codes a bit at a time it looks up each code in a table
+ * indexed by the next group of bits from the input. The compressed data
+ * is read in bulk before decoding starts, and the decompressed data
+ * is written in a single operation once decoding is complete.
+ */
+public final class FastBlast
+{
+   /**
+    * Decode PKWare Compression Library stream. All of the data available
+    * from the input stream is read. See {@link Blast} for details of the format
+    * and the status codes returned.
+    *
+    * @param input InputStream instance
+    * @param output OutputStream instance
+    * @return status code
+    */
+   public int blast(InputStream input, OutputStream output) throws IOException
+   {
+      m_data = InputStreamHelper.read(input);
+      m_pos = 0;
+      m_bitbuf = 0;
+      m_bitcnt = 0;
+      m_out = new byte[Math.max(MIN_OUTPUT_SIZE, m_data.length * 4)];
+      m_next = 0;
+
+      try
+      {
+         int result = decode();
+         if (result == 0)
+         {
+            output.write(m_out, 0, m_next);
+         }
+         return result;
+      }
+
+      finally
+      {
+         m_data = null;
+         m_out = null;
+      }
+   }
+
+   /**
+    * Decode literals and length/distance pairs.
+    *
+    * @return status code
+    */
+   private int decode() throws IOException
+   {
+      int lit = bits(8);
+      if (lit > 1)
+      {
+         return -1;
+      }
+
+      int dict = bits(8);
+      if (dict < 4 || dict > 6)
+      {
+         return -2;
+      }
+
+      while (true)
+      {
+         if (bits(1) != 0)
+         {
+            int symbol = decode(LENCODE_TABLE, LENCODE_BITS);
+            int len = Huffman.BASE[symbol] + bits(Huffman.EXTRA[symbol]);
+            if (len == 519)
+            {
+               break;
+            }
+
+            symbol = len == 2 ? 2 : dict;
+            int dist = decode(DISTCODE_TABLE, DISTCODE_BITS) << symbol;
+            dist += bits(symbol);
+            dist++;
+
+            copy(dist, len);
+         }
+         else
+         {
+            int symbol = lit != 0 ? decode(LITCODE_TABLE, LITCODE_BITS) : bits(8);
+            ensureCapacity(1);
+            m_out[m_next++] = (byte) symbol;
+         }
+      }
+
+      return 0;
+   }
+
+   /**
+    * Copy length bytes from distance bytes back. As with {@link Blast},
+    * bytes before the start of the output are treated as zero.
+    * Overlapping copies are performed a byte at a time.
+    *
+    * @param dist distance
+    * @param len length
+    */
+   private void copy(int dist, int len)
+   {
+      ensureCapacity(len);
+
+      int from = m_next - dist;
+      if (from < 0)
+      {
+         int count = Math.min(-from, len);
+         Arrays.fill(m_out, m_next, m_next + count, (byte) 0);
+         m_next += count;
+         from += count;
+         len -= count;
+      }
+
+      if (len == 0)
+      {
+         return;
+      }
+
+      if (len <= dist)
+      {
+         System.arraycopy(m_out, from, m_out, m_next, len);
+         m_next += len;
+      }
+      else
+      {
+         while (len-- != 0)
+         {
+            m_out[m_next++] = m_out[from++];
+         }
+      }
+   }
+
+   /**
+    * Ensure that the output buffer has room for the given number of bytes.
+    *
+    * @param count number of bytes
+    */
+   private void ensureCapacity(int count)
+   {
+      if (m_next + count > m_out.length)
+      {
+         m_out = Arrays.copyOf(m_out, Math.max(m_next + count, m_out.length * 2));
+      }
+   }
+
+   /**
+    * Return need bits from the input.
+    *
+    * @param need number of bits required, at most 24
+    * @return bit values
+    */
+   private int bits(int need) throws IOException
+   {
+      fill();
+      int value = m_bitbuf & ((1 << need) - 1);
+      drop(need);
+      return value;
+   }
+
+   /**
+    * Decode a Huffman code using a lookup table.
+    *
+    * @param table lookup table
+    * @param tableBits number of bits used to index the table
+    * @return symbol
+    */
+   private int decode(int[] table, int tableBits) throws IOException
+   {
+      fill();
+      int entry = table[m_bitbuf & ((1 << tableBits) - 1)];
+      drop(entry & 0x0F);
+      return entry >>> 4;
+   }
+
+   /**
+    * Ensure that the bit buffer holds at least 25 bits. Once the end of the
+    * input has been reached the bit buffer is padded with zeros.
+    */
+   private void fill()
+   {
+      while (m_bitcnt <= 24)
+      {
+         int value = m_pos < m_data.length ? m_data[m_pos] & 0xFF : 0;
+         ++m_pos;
+         m_bitbuf |= value << m_bitcnt;
+         m_bitcnt += 8;
+      }
+   }
+
+   /**
+    * Discard bits from the bit buffer, ensuring that we have not consumed
+    * any of the padding added after the end of the input.
+    *
+    * @param count number of bits
+    */
+   private void drop(int count) throws IOException
+   {
+      m_bitbuf >>>= count;
+      m_bitcnt -= count;
+
+      if (m_pos > m_data.length && (m_pos - m_data.length) * 8 > m_bitcnt)
+      {
+         throw new IOException("out of input");
+      }
+   }
+
+   /**
+    * Create a lookup table for a Huffman code. The table is indexed by the
+    * next tableBits bits from the input, each entry holds the symbol in the
+    * upper bits and the length of the code in the lower four bits.
+    * See {@link Blast} for details of how the codes are represented.
+    *
+    * @param h Huffman code
+    * @param tableBits length of the longest code
+    * @return lookup table
+    */
+   private static int[] createTable(Huffman h, int tableBits)
+   {
+      int[] table = new int[1 << tableBits];
+      int code = 0;
+      int index = 0;
+
+      for (int len = 1; len <= tableBits; len++)
+      {
+         int count = h.m_count[len];
+         for (int symbolIndex = index; symbolIndex < index + count; symbolIndex++)
+         {
+            //
+            // Codes are stored inverted, with the most significant bit first
+            //
+            int pattern = 0;
+            for (int bit = 0; bit < len; bit++)
+            {
+               pattern |= (((code >> (len - 1 - bit)) & 1) ^ 1) << bit;
+            }
+
+            int entry = (h.m_symbol[symbolIndex] << 4) | len;
+            for (int tableIndex = pattern; tableIndex < table.length; tableIndex += (1 << len))
+            {
+               table[tableIndex] = entry;
+            }
+            ++code;
+         }
+         index += count;
+         code <<= 1;
+      }
+
+      return table;
+   }
+
+   /**
+    * Determine the length of the longest code.
+    *
+    * @param h Huffman code
+    * @return code length
+    */
+   private static int getMaxCodeLength(Huffman h)
+   {
+      int len = Huffman.MAXBITS;
+      while (h.m_count[len] == 0)
+      {
+         --len;
+      }
+      return len;
+   }
+
+   private byte[] m_data;
+   private int m_pos;
+   private int m_bitbuf;
+   private int m_bitcnt;
+   private byte[] m_out;
+   private int m_next;
+
+   private static final int MIN_OUTPUT_SIZE = 4096;
+
+   private static final int LITCODE_BITS = getMaxCodeLength(Huffman.LITCODE);
+   private static final int LENCODE_BITS = getMaxCodeLength(Huffman.LENCODE);
+   private static final int DISTCODE_BITS = getMaxCodeLength(Huffman.DISTCODE);
+
+   private static final int[] LITCODE_TABLE = createTable(Huffman.LITCODE, LITCODE_BITS);
+   private static final int[] LENCODE_TABLE = createTable(Huffman.LENCODE, LENCODE_BITS);
+   private static final int[] DISTCODE_TABLE = createTable(Huffman.DISTCODE, DISTCODE_BITS);
+}
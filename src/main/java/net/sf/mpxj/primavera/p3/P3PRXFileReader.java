@@ -37,7 +37,7 @@ import net.sf.mpxj.common.FileHelper;
 import net.sf.mpxj.common.FixedLengthInputStream;
 import net.sf.mpxj.common.StreamHelper;
 import net.sf.mpxj.listener.ProjectListener;
-import net.sf.mpxj.primavera.common.Blast;
+import net.sf.mpxj.primavera.common.FastBlast;
 import net.sf.mpxj.primavera.suretrak.SureTrakDatabaseReader;
 import net.sf.mpxj.reader.AbstractProjectReader;
 
@@ -124,7 +124,7 @@ public final class P3PRXFileReader extends AbstractProjectReader
       {
          OutputStream os = new FileOutputStream(file);
          FixedLengthInputStream inputStream = new FixedLengthInputStream(stream, dataSizeValue);
-         Blast blast = new Blast();
+         FastBlast blast = new FastBlast();
          blast.blast(inputStream, os);
          os.close();
       }
@@ -37,7 +37,7 @@ import net.sf.mpxj.common.FileHelper;
 import net.sf.mpxj.common.FixedLengthInputStream;
 import net.sf.mpxj.common.StreamHelper;
 import net.sf.mpxj.listener.ProjectListener;
-import net.sf.mpxj.primavera.common.Blast;
+import net.sf.mpxj.primavera.common.FastBlast;
 import net.sf.mpxj.reader.AbstractProjectReader;
 
 /**
@@ -111,7 +111,7 @@ public final class SureTrakSTXFileReader extends AbstractProjectReader
       {
          OutputStream os = new FileOutputStream(file);
          FixedLengthInputStream inputStream = new FixedLengthInputStream(stream, dataSizeValue);
-         Blast blast = new Blast();
+         FastBlast blast = new FastBlast();
          blast.blast(inputStream, os);
          os.close();
       }
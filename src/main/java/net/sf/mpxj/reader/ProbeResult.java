@@ -0,0 +1,168 @@
+/*
+ * file:       ProbeResult.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.reader;
+
+import java.util.Map;
+
+/**
+ * Describes a file examined by the UniversalProjectReader probe methods.
+ * As well as the detected file format, basic metadata is available
+ * for file formats where this can be determined cheaply.
+ */
+public final class ProbeResult
+{
+   /**
+    * Constructor.
+    *
+    * @param format detected file format
+    */
+   ProbeResult(ProjectFileFormat format)
+   {
+      m_format = format;
+   }
+
+   /**
+    * Retrieve the detected file format.
+    *
+    * @return file format
+    */
+   public ProjectFileFormat getFormat()
+   {
+      return m_format;
+   }
+
+   /**
+    * For MPP files, retrieve the file format name from the CompObj stream,
+    * for example "MSProject.MPP9".
+    *
+    * @return file format name, or null if not available
+    */
+   public String getFileFormat()
+   {
+      return m_fileFormat;
+   }
+
+   /**
+    * Set the file format name.
+    *
+    * @param fileFormat file format name
+    */
+   void setFileFormat(String fileFormat)
+   {
+      m_fileFormat = fileFormat;
+   }
+
+   /**
+    * For MPP files, retrieve the name of the application which wrote the file.
+    *
+    * @return application name, or null if not available
+    */
+   public String getApplicationName()
+   {
+      return m_applicationName;
+   }
+
+   /**
+    * Set the application name.
+    *
+    * @param applicationName application name
+    */
+   void setApplicationName(String applicationName)
+   {
+      m_applicationName = applicationName;
+   }
+
+   /**
+    * For MPP files, retrieve the version of the application which wrote the file.
+    *
+    * @return application version, or null if not available
+    */
+   public Integer getApplicationVersion()
+   {
+      return m_applicationVersion;
+   }
+
+   /**
+    * Set the application version.
+    *
+    * @param applicationVersion application version
+    */
+   void setApplicationVersion(Integer applicationVersion)
+   {
+      m_applicationVersion = applicationVersion;
+   }
+
+   /**
+    * For XER files, retrieve the IDs and short names of the projects in the file.
+    *
+    * @return map of project IDs to project short names, or null if not available
+    */
+   public Map<Integer, String> getProjects()
+   {
+      return m_projects;
+   }
+
+   /**
+    * Set the project IDs and names.
+    *
+    * @param projects map of project IDs to project short names
+    */
+   void setProjects(Map<Integer, String> projects)
+   {
+      m_projects = projects;
+   }
+
+   /**
+    * For MSPDI files, retrieve the attributes of the root element.
+    * Namespace declarations are included, keyed by "xmlns" or "xmlns:prefix".
+    *
+    * @return map of attribute names to values, or null if not available
+    */
+   public Map<String, String> getRootAttributes()
+   {
+      return m_rootAttributes;
+   }
+
+   /**
+    * Set the root element attributes.
+    *
+    * @param rootAttributes map of attribute names to values
+    */
+   void setRootAttributes(Map<String, String> rootAttributes)
+   {
+      m_rootAttributes = rootAttributes;
+   }
+
+   @Override public String toString()
+   {
+      return "[ProbeResult format=" + m_format + "]";
+   }
+
+   private final ProjectFileFormat m_format;
+   private String m_fileFormat;
+   private String m_applicationName;
+   private Integer m_applicationVersion;
+   private Map<Integer, String> m_projects;
+   private Map<String, String> m_rootAttributes;
+}
@@ -0,0 +1,55 @@
+/*
+ * file:       ProjectFileFormat.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.reader;
+
+/**
+ * File formats which can be recognised by the UniversalProjectReader.
+ * Formats which act as containers for other files, for example zip
+ * archives and databases, are reported as the container type.
+ */
+public enum ProjectFileFormat
+{
+   MPP,
+   MPX,
+   MSPDI,
+   XER,
+   PMXML,
+   PLANNER,
+   ASTA,
+   PHOENIX,
+   FASTTRACK,
+   PROJECTLIBRE,
+   GANTTPROJECT,
+   TURBOPROJECT,
+   CONCEPT_DRAW,
+   SYNCHRO,
+   GANTT_DESIGNER,
+   SDEF,
+   MDB,
+   SQLITE,
+   ZIP,
+   DOS_EXE,
+   BINARY_PLIST,
+   UNKNOWN
+}
@@ -31,6 +31,7 @@ import net.sf.mpxj.MPXJException;
 import net.sf.mpxj.asta.AstaFileReader;
 import net.sf.mpxj.fasttrack.FastTrackReader;
 import net.sf.mpxj.ganttproject.GanttProjectReader;
+import net.sf.mpxj.json.JsonReader;
 import net.sf.mpxj.mpd.MPDDatabaseReader;
 import net.sf.mpxj.mpp.MPPReader;
 import net.sf.mpxj.mpx.MPXReader;
@@ -118,5 +119,6 @@ public final class ProjectReaderUtility
       READER_MAP.put("FTS", FastTrackReader.class);
       READER_MAP.put("POD", ProjectLibreReader.class);
       READER_MAP.put("GAN", GanttProjectReader.class);
+      READER_MAP.put("JSON", JsonReader.class);
    }
 }
@@ -24,9 +24,14 @@
 package net.sf.mpxj.reader;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
 import java.nio.charset.Charset;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
@@ -36,12 +41,19 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.regex.Pattern;
 
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
 
 import net.sf.mpxj.MPXJException;
@@ -52,6 +64,7 @@ import net.sf.mpxj.asta.AstaFileReader;
 import net.sf.mpxj.common.CharsetHelper;
 import net.sf.mpxj.common.FileHelper;
 import net.sf.mpxj.common.InputStreamHelper;
+import net.sf.mpxj.common.SQLiteDatabaseImage;
 import net.sf.mpxj.common.StreamHelper;
 import net.sf.mpxj.conceptdraw.ConceptDrawProjectReader;
 import net.sf.mpxj.fasttrack.FastTrackReader;
@@ -119,6 +132,54 @@ public final class UniversalProjectReader implements ProjectReader
       m_charset = charset;
    }
 
+   /**
+    * Set the maximum size of SQLite database whose schema will be read from memory.
+    * The table names of SQLite databases up to this size are read directly
+    * from memory, and a temporary file is only written if the database
+    * contains a schedule. Larger databases are always written to a temporary
+    * file before their table names are read. Setting this value to zero
+    * ensures that a temporary file is always used.
+    *
+    * @param threshold size in bytes
+    */
+   public void setSQLiteInMemoryThreshold(int threshold)
+   {
+      m_sqliteInMemoryThreshold = threshold;
+   }
+
+   /**
+    * Retrieve the maximum size of SQLite database whose schema will be read from memory.
+    *
+    * @return size in bytes
+    */
+   public int getSQLiteInMemoryThreshold()
+   {
+      return m_sqliteInMemoryThreshold;
+   }
+
+   /**
+    * Set the maximum size of zip file which will be read from memory.
+    * Zip files up to this size are read directly from memory,
+    * larger zip files are extracted to a temporary directory before being read.
+    * Setting this value to zero ensures that a temporary directory is always used.
+    *
+    * @param threshold size in bytes
+    */
+   public void setZipInMemoryThreshold(int threshold)
+   {
+      m_zipInMemoryThreshold = threshold;
+   }
+
+   /**
+    * Retrieve the maximum size of zip file which will be read from memory.
+    *
+    * @return size in bytes
+    */
+   public int getZipInMemoryThreshold()
+   {
+      return m_zipInMemoryThreshold;
+   }
+
    @Override public ProjectFile read(String fileName) throws MPXJException
    {
       return read(new File(fileName));
@@ -135,6 +196,11 @@ public final class UniversalProjectReader implements ProjectReader
          }
          else
          {
+            if (matchesFingerprint(file, OLE_COMPOUND_DOC_FINGERPRINT))
+            {
+               return handleOleCompoundDocument(file);
+            }
+
             FileInputStream fis = null;
 
             try
@@ -201,128 +267,366 @@ public final class UniversalProjectReader implements ProjectReader
             return handleByteOrderMark(bis, UTF16LE_BOM_FINGERPRINT.length, CharsetHelper.UTF16LE);
          }
 
-         //
-         // Now check for file fingerprints
-         //
-         if (matchesFingerprint(buffer, BINARY_PLIST))
+         switch (getFormat(buffer))
          {
-            return handleBinaryPropertyList(bis);
-         }
+            case BINARY_PLIST:
+            {
+               return handleBinaryPropertyList(bis);
+            }
 
-         if (matchesFingerprint(buffer, OLE_COMPOUND_DOC_FINGERPRINT))
-         {
-            return handleOleCompoundDocument(bis);
-         }
+            case MPP:
+            {
+               return handleOleCompoundDocument(bis);
+            }
 
-         if (matchesFingerprint(buffer, MSPDI_FINGERPRINT_1) || matchesFingerprint(buffer, MSPDI_FINGERPRINT_2))
-         {
-            MSPDIReader reader = new MSPDIReader();
-            reader.setCharset(m_charset);
-            return reader.read(bis);
-         }
+            case MSPDI:
+            {
+               MSPDIReader reader = new MSPDIReader();
+               reader.setCharset(m_charset);
+               return reader.read(bis);
+            }
 
-         if (matchesFingerprint(buffer, PP_FINGERPRINT))
-         {
-            return readProjectFile(new AstaFileReader(), bis);
-         }
+            case ASTA:
+            {
+               return readProjectFile(new AstaFileReader(), bis);
+            }
 
-         if (matchesFingerprint(buffer, MPX_FINGERPRINT))
-         {
-            return readProjectFile(new MPXReader(), bis);
-         }
+            case MPX:
+            {
+               return readProjectFile(new MPXReader(), bis);
+            }
 
-         if (matchesFingerprint(buffer, XER_FINGERPRINT))
-         {
-            return handleXerFile(bis);
-         }
+            case XER:
+            {
+               return handleXerFile(bis);
+            }
 
-         if (matchesFingerprint(buffer, PLANNER_FINGERPRINT))
-         {
-            return readProjectFile(new PlannerReader(), bis);
-         }
+            case PLANNER:
+            {
+               return readProjectFile(new PlannerReader(), bis);
+            }
 
-         if (matchesFingerprint(buffer, PMXML_FINGERPRINT))
-         {
-            return readProjectFile(new PrimaveraPMFileReader(), bis);
-         }
+            case PMXML:
+            {
+               return readProjectFile(new PrimaveraPMFileReader(), bis);
+            }
 
-         if (matchesFingerprint(buffer, MDB_FINGERPRINT))
-         {
-            return handleMDBFile(bis);
-         }
+            case MDB:
+            {
+               return handleMDBFile(bis);
+            }
 
-         if (matchesFingerprint(buffer, SQLITE_FINGERPRINT))
-         {
-            return handleSQLiteFile(bis);
-         }
+            case SQLITE:
+            {
+               return handleSQLiteFile(bis);
+            }
 
-         if (matchesFingerprint(buffer, ZIP_FINGERPRINT))
-         {
-            return handleZipFile(bis);
-         }
+            case ZIP:
+            {
+               return handleZipFile(bis);
+            }
 
-         if (matchesFingerprint(buffer, PHOENIX_FINGERPRINT))
-         {
-            return readProjectFile(new PhoenixReader(), new PhoenixInputStream(bis));
-         }
+            case PHOENIX:
+            {
+               return readProjectFile(new PhoenixReader(), matchesFingerprint(buffer, PHOENIX_FINGERPRINT) ? new PhoenixInputStream(bis) : bis);
+            }
 
-         if (matchesFingerprint(buffer, PHOENIX_XML_FINGERPRINT))
-         {
-            return readProjectFile(new PhoenixReader(), bis);
-         }
+            case FASTTRACK:
+            {
+               return readProjectFile(new FastTrackReader(), bis);
+            }
 
-         if (matchesFingerprint(buffer, FASTTRACK_FINGERPRINT))
-         {
-            return readProjectFile(new FastTrackReader(), bis);
-         }
+            case PROJECTLIBRE:
+            {
+               return readProjectFile(new ProjectLibreReader(), bis);
+            }
 
-         if (matchesFingerprint(buffer, PROJECTLIBRE_FINGERPRINT))
-         {
-            return readProjectFile(new ProjectLibreReader(), bis);
-         }
+            case GANTTPROJECT:
+            {
+               return readProjectFile(new GanttProjectReader(), bis);
+            }
 
-         if (matchesFingerprint(buffer, GANTTPROJECT_FINGERPRINT))
-         {
-            return readProjectFile(new GanttProjectReader(), bis);
+            case TURBOPROJECT:
+            {
+               return readProjectFile(new TurboProjectReader(), bis);
+            }
+
+            case DOS_EXE:
+            {
+               return handleDosExeFile(bis);
+            }
+
+            case CONCEPT_DRAW:
+            {
+               return readProjectFile(new ConceptDrawProjectReader(), bis);
+            }
+
+            case SYNCHRO:
+            {
+               return readProjectFile(new SynchroReader(), bis);
+            }
+
+            case GANTT_DESIGNER:
+            {
+               return readProjectFile(new GanttDesignerReader(), bis);
+            }
+
+            case SDEF:
+            {
+               return readProjectFile(new SDEFReader(), bis);
+            }
+
+            default:
+            {
+               return null;
+            }
          }
+      }
+
+      catch (Exception ex)
+      {
+         throw new MPXJException(MPXJException.INVALID_FILE, ex);
+      }
+   }
 
-         if (matchesFingerprint(buffer, TURBOPROJECT_FINGERPRINT))
+   /**
+    * Determine the format of a file without reading it into a ProjectFile instance.
+    * The format is determined from the first few bytes of the file. Where this can be
+    * done cheaply, basic metadata is also retrieved: for MPP files this is the
+    * file format and application details from the CompObj stream, for XER files
+    * this is the list of projects, and for MSPDI files this is the attributes of the
+    * root element.
+    *
+    * Note that for XER and MSPDI files only the start of the stream is read.
+    * OLE compound documents (MPP files) must be read in their entirety from a stream
+    * in order to locate the CompObj stream, use probe(File) to avoid this.
+    *
+    * @param inputStream file data
+    * @return ProbeResult instance
+    * @throws MPXJException
+    */
+   public ProbeResult probe(InputStream inputStream) throws MPXJException
+   {
+      try
+      {
+         BufferedInputStream bis = new BufferedInputStream(inputStream);
+         bis.skip(m_skipBytes);
+         bis.mark(BUFFER_SIZE);
+         byte[] buffer = new byte[BUFFER_SIZE];
+         int bytesRead = bis.read(buffer);
+         bis.reset();
+
+         if (bytesRead != BUFFER_SIZE)
          {
-            return readProjectFile(new TurboProjectReader(), bis);
+            return new ProbeResult(ProjectFileFormat.UNKNOWN);
          }
 
-         if (matchesFingerprint(buffer, DOS_EXE_FINGERPRINT))
+         if (matchesFingerprint(buffer, UTF8_BOM_FINGERPRINT))
          {
-            return handleDosExeFile(bis);
+            return probeByteOrderMark(bis, UTF8_BOM_FINGERPRINT.length, CharsetHelper.UTF8);
          }
 
-         if (matchesFingerprint(buffer, CONCEPT_DRAW_FINGERPRINT))
+         if (matchesFingerprint(buffer, UTF16_BOM_FINGERPRINT))
          {
-            return readProjectFile(new ConceptDrawProjectReader(), bis);
+            return probeByteOrderMark(bis, UTF16_BOM_FINGERPRINT.length, CharsetHelper.UTF16);
          }
 
-         if (matchesFingerprint(buffer, SYNCHRO_FINGERPRINT))
+         if (matchesFingerprint(buffer, UTF16LE_BOM_FINGERPRINT))
          {
-            return readProjectFile(new SynchroReader(), bis);
+            return probeByteOrderMark(bis, UTF16LE_BOM_FINGERPRINT.length, CharsetHelper.UTF16LE);
          }
 
-         if (matchesFingerprint(buffer, GANTT_DESIGNER_FINGERPRINT))
+         ProjectFileFormat format = getFormat(buffer);
+         switch (format)
          {
-            return readProjectFile(new GanttDesignerReader(), bis);
+            case MPP:
+            {
+               return probeOleCompoundDocument(new POIFSFileSystem(POIFSFileSystem.createNonClosingInputStream(bis)));
+            }
+
+            case MSPDI:
+            {
+               return probeMSPDIFile(bis);
+            }
+
+            case XER:
+            {
+               return probeXerFile(bis);
+            }
+
+            default:
+            {
+               return new ProbeResult(format);
+            }
          }
+      }
+
+      catch (Exception ex)
+      {
+         throw new MPXJException(MPXJException.INVALID_FILE, ex);
+      }
+   }
+
+   /**
+    * Determine the format of a file without reading it into a ProjectFile instance.
+    * This behaves in the same way as probe(InputStream), except that OLE compound
+    * documents are read directly from the file, so only the parts of the file
+    * required to locate the CompObj stream are read.
+    *
+    * @param file file to probe
+    * @return ProbeResult instance
+    * @throws MPXJException
+    */
+   public ProbeResult probe(File file) throws MPXJException
+   {
+      if (file.isDirectory())
+      {
+         return new ProbeResult(ProjectFileFormat.UNKNOWN);
+      }
 
-         if (matchesFingerprint(buffer, SDEF_FINGERPRINT))
+      FileInputStream fis = null;
+      POIFSFileSystem fs = null;
+
+      try
+      {
+         if (matchesFingerprint(file, OLE_COMPOUND_DOC_FINGERPRINT))
          {
-            return readProjectFile(new SDEFReader(), bis);
+            fs = new POIFSFileSystem(file, true);
+            return probeOleCompoundDocument(fs);
          }
 
-         return null;
+         fis = new FileInputStream(file);
+         return probe(fis);
       }
 
-      catch (Exception ex)
+      catch (IOException ex)
       {
          throw new MPXJException(MPXJException.INVALID_FILE, ex);
       }
+
+      finally
+      {
+         StreamHelper.closeQuietly(fis);
+         StreamHelper.closeQuietly(fs);
+      }
+   }
+
+   /**
+    * Determine the file format by comparing the start of the file with
+    * known fingerprints. Note that the order in which these tests are
+    * applied is significant.
+    *
+    * @param buffer bytes from the start of the file
+    * @return file format
+    */
+   private ProjectFileFormat getFormat(byte[] buffer)
+   {
+      if (matchesFingerprint(buffer, BINARY_PLIST))
+      {
+         return ProjectFileFormat.BINARY_PLIST;
+      }
+
+      if (matchesFingerprint(buffer, OLE_COMPOUND_DOC_FINGERPRINT))
+      {
+         return ProjectFileFormat.MPP;
+      }
+
+      if (matchesFingerprint(buffer, MSPDI_FINGERPRINT_1) || matchesFingerprint(buffer, MSPDI_FINGERPRINT_2))
+      {
+         return ProjectFileFormat.MSPDI;
+      }
+
+      if (matchesFingerprint(buffer, PP_FINGERPRINT))
+      {
+         return ProjectFileFormat.ASTA;
+      }
+
+      if (matchesFingerprint(buffer, MPX_FINGERPRINT))
+      {
+         return ProjectFileFormat.MPX;
+      }
+
+      if (matchesFingerprint(buffer, XER_FINGERPRINT))
+      {
+         return ProjectFileFormat.XER;
+      }
+
+      if (matchesFingerprint(buffer, PLANNER_FINGERPRINT))
+      {
+         return ProjectFileFormat.PLANNER;
+      }
+
+      if (matchesFingerprint(buffer, PMXML_FINGERPRINT))
+      {
+         return ProjectFileFormat.PMXML;
+      }
+
+      if (matchesFingerprint(buffer, MDB_FINGERPRINT))
+      {
+         return ProjectFileFormat.MDB;
+      }
+
+      if (matchesFingerprint(buffer, SQLITE_FINGERPRINT))
+      {
+         return ProjectFileFormat.SQLITE;
+      }
+
+      if (matchesFingerprint(buffer, ZIP_FINGERPRINT))
+      {
+         return ProjectFileFormat.ZIP;
+      }
+
+      if (matchesFingerprint(buffer, PHOENIX_FINGERPRINT) || matchesFingerprint(buffer, PHOENIX_XML_FINGERPRINT))
+      {
+         return ProjectFileFormat.PHOENIX;
+      }
+
+      if (matchesFingerprint(buffer, FASTTRACK_FINGERPRINT))
+      {
+         return ProjectFileFormat.FASTTRACK;
+      }
+
+      if (matchesFingerprint(buffer, PROJECTLIBRE_FINGERPRINT))
+      {
+         return ProjectFileFormat.PROJECTLIBRE;
+      }
+
+      if (matchesFingerprint(buffer, GANTTPROJECT_FINGERPRINT))
+      {
+         return ProjectFileFormat.GANTTPROJECT;
+      }
+
+      if (matchesFingerprint(buffer, TURBOPROJECT_FINGERPRINT))
+      {
+         return ProjectFileFormat.TURBOPROJECT;
+      }
+
+      if (matchesFingerprint(buffer, DOS_EXE_FINGERPRINT))
+      {
+         return ProjectFileFormat.DOS_EXE;
+      }
+
+      if (matchesFingerprint(buffer, CONCEPT_DRAW_FINGERPRINT))
+      {
+         return ProjectFileFormat.CONCEPT_DRAW;
+      }
+
+      if (matchesFingerprint(buffer, SYNCHRO_FINGERPRINT))
+      {
+         return ProjectFileFormat.SYNCHRO;
+      }
+
+      if (matchesFingerprint(buffer, GANTT_DESIGNER_FINGERPRINT))
+      {
+         return ProjectFileFormat.GANTT_DESIGNER;
+      }
+
+      if (matchesFingerprint(buffer, SDEF_FINGERPRINT))
+      {
+         return ProjectFileFormat.SDEF;
+      }
+
+      return ProjectFileFormat.UNKNOWN;
    }
 
    /**
@@ -337,6 +641,29 @@ public final class UniversalProjectReader implements ProjectReader
       return Arrays.equals(fingerprint, Arrays.copyOf(buffer, fingerprint.length));
    }
 
+   /**
+    * Determine if the start of a file matches a fingerprint byte array.
+    *
+    * @param file file
+    * @param fingerprint fingerprint bytes
+    * @return true if the file matches the fingerprint
+    */
+   private boolean matchesFingerprint(File file, byte[] fingerprint) throws IOException
+   {
+      FileInputStream fis = new FileInputStream(file);
+
+      try
+      {
+         byte[] buffer = new byte[fingerprint.length];
+         return fis.read(buffer) == buffer.length && matchesFingerprint(buffer, fingerprint);
+      }
+
+      finally
+      {
+         fis.close();
+      }
+   }
+
    /**
     * Determine if the buffer, when expressed as text, matches a fingerprint regular expression.
     *
@@ -394,6 +721,36 @@ public final class UniversalProjectReader implements ProjectReader
       return null;
    }
 
+   /**
+    * We have an OLE compound document in a file... but is it an MPP file?
+    * The document is opened read-only directly from the file, rather than
+    * being read into memory in its entirety.
+    *
+    * @param file schedule data
+    * @return ProjectFile instance
+    */
+   private ProjectFile handleOleCompoundDocument(File file) throws Exception
+   {
+      POIFSFileSystem fs = new POIFSFileSystem(file, true);
+
+      try
+      {
+         String fileFormat = MPPReader.getFileFormat(fs);
+         if (fileFormat != null && fileFormat.startsWith("MSProject"))
+         {
+            MPPReader reader = new MPPReader();
+            addListeners(reader);
+            return reader.read(fs);
+         }
+         return null;
+      }
+
+      finally
+      {
+         fs.close();
+      }
+   }
+
    /**
     * We have a binary property list.
     *
@@ -422,11 +779,12 @@ public final class UniversalProjectReader implements ProjectReader
     */
    private ProjectFile handleMDBFile(InputStream stream) throws Exception
    {
+      // Ensure the driver is available before we write the file to disk
+      Class.forName("sun.jdbc.odbc.JdbcOdbcDriver");
       File file = InputStreamHelper.writeStreamToTempFile(stream, ".mdb");
 
       try
       {
-         Class.forName("sun.jdbc.odbc.JdbcOdbcDriver");
          String url = "jdbc:odbc:DRIVER=Microsoft Access Driver (*.mdb);DBQ=" + file.getCanonicalPath();
          Set<String> tableNames = populateTableNames(url);
 
@@ -451,19 +809,73 @@ public final class UniversalProjectReader implements ProjectReader
 
    /**
     * We have identified that we have a SQLite file. This could be a Primavera Project database
-    * or an Asta database. Open the database and use the table names present to determine
-    * which type this is.
+    * or an Asta database. Use the table names present to determine which type this is.
     *
     * @param stream schedule data
     * @return ProjectFile instance
     */
    private ProjectFile handleSQLiteFile(InputStream stream) throws Exception
    {
-      File file = InputStreamHelper.writeStreamToTempFile(stream, ".sqlite");
+      Class.forName("org.sqlite.JDBC");
+
+      File file = writeSQLiteTempFile(stream);
+      return file == null ? null : handleSQLiteDatabaseFile(file);
+   }
+
+   /**
+    * Write a SQLite database to a temporary file so that it can be read by the
+    * JDBC driver. The schema of databases up to the in-memory threshold is
+    * read from memory first, and no file is written if the database doesn't
+    * contain any of the tables we recognise.
+    *
+    * @param stream schedule data
+    * @return temporary file, or null if this database doesn't contain a schedule
+    */
+   private File writeSQLiteTempFile(InputStream stream) throws IOException
+   {
+      ByteArrayOutputStream os = new ByteArrayOutputStream();
+      boolean complete = InputStreamHelper.copy(stream, os, m_sqliteInMemoryThreshold) <= m_sqliteInMemoryThreshold;
+      byte[] data = os.toByteArray();
 
+      if (complete)
+      {
+         Set<String> tableNames;
+         try
+         {
+            tableNames = new SQLiteDatabaseImage(data).getTableNames();
+         }
+
+         catch (IOException ex)
+         {
+            // Not a schema we can read from memory, let the driver examine the file
+            tableNames = null;
+         }
+
+         if (tableNames != null && !tableNames.contains("EXCEPTIONN") && !tableNames.contains("PROJWBS") && !tableNames.contains("ZSCHEDULEITEM"))
+         {
+            return null;
+         }
+      }
+
+      InputStream is = new ByteArrayInputStream(data);
+      if (!complete)
+      {
+         is = new SequenceInputStream(is, stream);
+      }
+
+      return InputStreamHelper.writeStreamToTempFile(is, ".sqlite");
+   }
+
+   /**
+    * Read a SQLite database from a temporary file. The file is deleted once it has been read.
+    *
+    * @param file SQLite database file
+    * @return ProjectFile instance
+    */
+   private ProjectFile handleSQLiteDatabaseFile(File file) throws Exception
+   {
       try
       {
-         Class.forName("org.sqlite.JDBC");
          String url = "jdbc:sqlite:" + file.getCanonicalPath();
          Set<String> tableNames = populateTableNames(url);
 
@@ -509,34 +921,156 @@ public final class UniversalProjectReader implements ProjectReader
    }
 
    /**
-    * We have identified that we have a zip file. Extract the contents into
-    * a temporary directory and process.
+    * We have identified that we have a zip file. Zip files up to the in-memory
+    * threshold are read into memory, and the fingerprint of each file they
+    * contain is examined. Only the content of files whose format we may
+    * understand is decompressed. Larger zip files are extracted into a
+    * temporary directory and processed from there.
     *
     * @param stream schedule data
     * @return ProjectFile instance
     */
    private ProjectFile handleZipFile(InputStream stream) throws Exception
    {
-      File dir = null;
+      ByteArrayOutputStream os = new ByteArrayOutputStream();
+      if (InputStreamHelper.copy(stream, os, m_zipInMemoryThreshold) <= m_zipInMemoryThreshold)
+      {
+         return handleZipDirectory(ZipDirectory.read(os.toByteArray(), BUFFER_SIZE));
+      }
 
+      InputStream is = new SequenceInputStream(new ByteArrayInputStream(os.toByteArray()), stream);
+      File dir = null;
       try
       {
-         dir = InputStreamHelper.writeZipStreamToTempDir(stream);
-         ProjectFile result = handleDirectory(dir);
-         if (result != null)
-         {
-            return result;
-         }
+         dir = InputStreamHelper.writeZipStreamToTempDir(is);
+         return handleDirectory(dir);
       }
 
       finally
       {
          FileHelper.deleteQuietly(dir);
       }
+   }
+
+   /**
+    * Process a directory within a zip file. Determine if this contains a multi-file
+    * database we understand, if so process it. If it does not contain a database,
+    * test each file within the directory structure to determine if it contains
+    * a file whose format we understand.
+    *
+    * @param directory directory to process
+    * @return ProjectFile instance if we can process anything, or null
+    */
+   private ProjectFile handleZipDirectory(ZipDirectory directory) throws Exception
+   {
+      ProjectFile result = handleDatabaseInZipDirectory(directory);
+      if (result == null)
+      {
+         result = handleFileInZipDirectory(directory);
+      }
+      return result;
+   }
+
+   /**
+    * Given a directory within a zip file, determine if it contains a multi-file
+    * database whose format we can process. The database readers work with
+    * files on disk, so the files in this directory are extracted before
+    * the database is read.
+    *
+    * @param directory directory to process
+    * @return ProjectFile instance if we can process anything, or null
+    */
+   private ProjectFile handleDatabaseInZipDirectory(ZipDirectory directory) throws Exception
+   {
+      for (ZipDirectory.Entry entry : directory.getFiles())
+      {
+         byte[] buffer = entry.getHeader();
+
+         //
+         // If the file is smaller than the buffer we are peeking into,
+         // it's probably not a valid schedule file.
+         //
+         if (buffer.length != BUFFER_SIZE)
+         {
+            continue;
+         }
+
+         if (matchesFingerprint(buffer, BTRIEVE_FINGERPRINT) || matchesFingerprint(buffer, STW_FINGERPRINT))
+         {
+            File dir = directory.extractFiles();
+            try
+            {
+               return handleDatabaseInDirectory(dir);
+            }
+
+            finally
+            {
+               FileHelper.deleteQuietly(dir);
+            }
+         }
+      }
+      return null;
+   }
+
+   /**
+    * Given a directory within a zip file, determine if it (or any subdirectory)
+    * contains a file whose format we understand.
+    *
+    * @param directory directory to process
+    * @return ProjectFile instance if we can process anything, or null
+    */
+   private ProjectFile handleFileInZipDirectory(ZipDirectory directory) throws Exception
+   {
+      // Try files first
+      for (ZipDirectory.Entry entry : directory.getFiles())
+      {
+         if (entry.getHeader().length != BUFFER_SIZE)
+         {
+            continue;
+         }
+
+         InputStream is = directory.getInputStream(entry);
+         try
+         {
+            ProjectFile result = createReader().read(is);
+            if (result != null)
+            {
+               return result;
+            }
+         }
+
+         finally
+         {
+            StreamHelper.closeQuietly(is);
+         }
+      }
+
+      // Haven't found a file we can read? Try the directories.
+      for (ZipDirectory child : directory.getDirectories())
+      {
+         ProjectFile result = handleZipDirectory(child);
+         if (result != null)
+         {
+            return result;
+         }
+      }
 
       return null;
    }
 
+   /**
+    * Create a reader used to read files found within a directory or zip file.
+    *
+    * @return UniversalProjectReader instance
+    */
+   private UniversalProjectReader createReader()
+   {
+      UniversalProjectReader reader = new UniversalProjectReader();
+      reader.setSQLiteInMemoryThreshold(m_sqliteInMemoryThreshold);
+      reader.setZipInMemoryThreshold(m_zipInMemoryThreshold);
+      return reader;
+   }
+
    /**
     * We have a directory. Determine if this contains a multi-file database we understand, if so
     * process it. If it does not contain a database, test each file within the directory
@@ -625,8 +1159,7 @@ public final class UniversalProjectReader implements ProjectReader
             }
             else
             {
-               UniversalProjectReader reader = new UniversalProjectReader();
-               ProjectFile result = reader.read(file);
+               ProjectFile result = createReader().read(file);
                if (result != null)
                {
                   return result;
@@ -679,7 +1212,7 @@ public final class UniversalProjectReader implements ProjectReader
     */
    private ProjectFile handleByteOrderMark(InputStream stream, int length, Charset charset) throws Exception
    {
-      UniversalProjectReader reader = new UniversalProjectReader();
+      UniversalProjectReader reader = createReader();
       reader.setSkipBytes(length);
       reader.setCharset(charset);
       return reader.read(stream);
@@ -779,6 +1312,111 @@ public final class UniversalProjectReader implements ProjectReader
       return project;
    }
 
+   /**
+    * Retrieve the file format and application details from an OLE compound document.
+    * If this is not an MPP file, the format is reported as unknown.
+    *
+    * @param fs POIFSFileSystem instance
+    * @return ProbeResult instance
+    */
+   private ProbeResult probeOleCompoundDocument(POIFSFileSystem fs) throws IOException
+   {
+      String fileFormat = MPPReader.getFileFormat(fs);
+      if (fileFormat == null || !fileFormat.startsWith("MSProject"))
+      {
+         return new ProbeResult(ProjectFileFormat.UNKNOWN);
+      }
+
+      ProbeResult result = new ProbeResult(ProjectFileFormat.MPP);
+      result.setFileFormat(fileFormat);
+      result.setApplicationName(MPPReader.getApplicationName(fs));
+      result.setApplicationVersion(MPPReader.getApplicationVersion(fs));
+      return result;
+   }
+
+   /**
+    * Retrieve the attributes of the root element of an MSPDI file.
+    * Only the stream content up to the end of the root element's start tag is read.
+    *
+    * @param stream schedule data
+    * @return ProbeResult instance
+    */
+   private ProbeResult probeMSPDIFile(InputStream stream) throws XMLStreamException
+   {
+      XMLInputFactory factory = XMLInputFactory.newInstance();
+      factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+      factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+
+      XMLStreamReader reader = m_charset == null ? factory.createXMLStreamReader(stream) : factory.createXMLStreamReader(new InputStreamReader(stream, m_charset));
+
+      try
+      {
+         while (reader.hasNext() && reader.next() != XMLStreamConstants.START_ELEMENT)
+         {
+            // Skip the prolog
+         }
+
+         Map<String, String> attributes = new LinkedHashMap<String, String>();
+         if (reader.isStartElement())
+         {
+            for (int index = 0; index < reader.getNamespaceCount(); index++)
+            {
+               String prefix = reader.getNamespacePrefix(index);
+               attributes.put(prefix == null || prefix.isEmpty() ? "xmlns" : "xmlns:" + prefix, reader.getNamespaceURI(index));
+            }
+
+            for (int index = 0; index < reader.getAttributeCount(); index++)
+            {
+               String prefix = reader.getAttributePrefix(index);
+               String name = reader.getAttributeLocalName(index);
+               attributes.put(prefix == null || prefix.isEmpty() ? name : prefix + ":" + name, reader.getAttributeValue(index));
+            }
+         }
+
+         ProbeResult result = new ProbeResult(ProjectFileFormat.MSPDI);
+         result.setRootAttributes(attributes);
+         return result;
+      }
+
+      finally
+      {
+         reader.close();
+      }
+   }
+
+   /**
+    * Retrieve the list of projects from an XER file. Reading stops
+    * once the project table has been read.
+    *
+    * @param stream schedule data
+    * @return ProbeResult instance
+    */
+   private ProbeResult probeXerFile(InputStream stream) throws MPXJException
+   {
+      PrimaveraXERFileReader reader = new PrimaveraXERFileReader();
+      reader.setCharset(m_charset);
+      ProbeResult result = new ProbeResult(ProjectFileFormat.XER);
+      result.setProjects(reader.listProjects(stream));
+      return result;
+   }
+
+   /**
+    * The file we are probing starts with a byte order mark. Skip the BOM
+    * and probe the remainder of the file using the indicated charset.
+    *
+    * @param stream schedule data
+    * @param length length of the byte order mark
+    * @param charset charset indicated by byte order mark
+    * @return ProbeResult instance
+    */
+   private ProbeResult probeByteOrderMark(InputStream stream, int length, Charset charset) throws MPXJException
+   {
+      UniversalProjectReader reader = createReader();
+      reader.setSkipBytes(length);
+      reader.setCharset(charset);
+      return reader.probe(stream);
+   }
+
    /**
     * Open a database and build a set of table names.
     *
@@ -837,9 +1475,15 @@ public final class UniversalProjectReader implements ProjectReader
    private int m_skipBytes;
    private Charset m_charset;
    private List<ProjectListener> m_projectListeners;
+   private int m_sqliteInMemoryThreshold = DEFAULT_SQLITE_IN_MEMORY_THRESHOLD;
+   private int m_zipInMemoryThreshold = DEFAULT_ZIP_IN_MEMORY_THRESHOLD;
 
    private static final int BUFFER_SIZE = 512;
 
+   private static final int DEFAULT_SQLITE_IN_MEMORY_THRESHOLD = 32 * 1024 * 1024;
+
+   private static final int DEFAULT_ZIP_IN_MEMORY_THRESHOLD = 32 * 1024 * 1024;
+
    private static final byte[] OLE_COMPOUND_DOC_FINGERPRINT =
    {
       (byte) 0xD0,
@@ -0,0 +1,274 @@
+/*
+ * file:       ZipDirectory.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.reader;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+
+import net.sf.mpxj.common.FileHelper;
+import net.sf.mpxj.common.InputStreamHelper;
+
+/**
+ * An in-memory view of the directory structure of a zip file. The zip file
+ * itself is held in memory, and for each file we retain only its first few
+ * bytes, allowing the file type to be determined from its fingerprint.
+ * The content of an individual file is decompressed on demand.
+ */
+final class ZipDirectory
+{
+   /**
+    * Constructor.
+    *
+    * @param data zip file data
+    */
+   private ZipDirectory(byte[] data)
+   {
+      m_data = data;
+   }
+
+   /**
+    * Read the structure of a zip file.
+    *
+    * @param data zip file data
+    * @param headerSize number of bytes to retain from the start of each file
+    * @return root directory
+    */
+   public static ZipDirectory read(byte[] data, int headerSize) throws IOException
+   {
+      ZipDirectory root = new ZipDirectory(data);
+      Map<String, ZipDirectory> directories = new LinkedHashMap<String, ZipDirectory>();
+      directories.put("", root);
+
+      ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(data));
+      try
+      {
+         int index = 0;
+         while (true)
+         {
+            ZipEntry entry = zip.getNextEntry();
+            if (entry == null)
+            {
+               break;
+            }
+
+            String name = entry.getName();
+            if (entry.isDirectory())
+            {
+               getDirectory(directories, name.substring(0, name.length() - 1));
+            }
+            else
+            {
+               int separator = name.lastIndexOf('/');
+               ZipDirectory directory = separator == -1 ? root : getDirectory(directories, name.substring(0, separator));
+               directory.m_files.add(new Entry(name.substring(separator + 1), index, readHeader(zip, headerSize)));
+            }
+
+            ++index;
+         }
+      }
+
+      catch (ZipException ex)
+      {
+         // Java doesn't support zip files with zero byte entries.
+         // As with InputStreamHelper.writeZipStreamToTempDir, we'll just
+         // stop at this point and work with the entries we have found so far.
+         if (!ex.getMessage().equals("only DEFLATED entries can have EXT descriptor"))
+         {
+            throw ex;
+         }
+      }
+
+      return root;
+   }
+
+   /**
+    * Retrieve the files in this directory.
+    *
+    * @return list of files
+    */
+   public List<Entry> getFiles()
+   {
+      return m_files;
+   }
+
+   /**
+    * Retrieve the subdirectories of this directory.
+    *
+    * @return list of directories
+    */
+   public List<ZipDirectory> getDirectories()
+   {
+      return m_directories;
+   }
+
+   /**
+    * Retrieve a stream containing the content of a file.
+    *
+    * @param entry file
+    * @return input stream
+    */
+   public InputStream getInputStream(Entry entry) throws IOException
+   {
+      ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(m_data));
+      for (int index = 0; index <= entry.m_index; index++)
+      {
+         zip.getNextEntry();
+      }
+      return zip;
+   }
+
+   /**
+    * Extract the files in this directory to a temporary directory.
+    * Subdirectories are not extracted.
+    *
+    * @return temporary directory
+    */
+   public File extractFiles() throws IOException
+   {
+      File dir = FileHelper.createTempDir();
+
+      for (Entry entry : m_files)
+      {
+         InputStream is = getInputStream(entry);
+         OutputStream os = new FileOutputStream(new File(dir, entry.m_name));
+
+         try
+         {
+            InputStreamHelper.copy(is, os);
+         }
+
+         finally
+         {
+            os.close();
+            is.close();
+         }
+      }
+
+      return dir;
+   }
+
+   /**
+    * Retrieve a directory, creating it and its parents if necessary.
+    *
+    * @param directories directories keyed by path
+    * @param path directory path
+    * @return directory
+    */
+   private static ZipDirectory getDirectory(Map<String, ZipDirectory> directories, String path)
+   {
+      ZipDirectory directory = directories.get(path);
+      if (directory == null)
+      {
+         int separator = path.lastIndexOf('/');
+         ZipDirectory parent = getDirectory(directories, separator == -1 ? "" : path.substring(0, separator));
+         directory = new ZipDirectory(parent.m_data);
+         parent.m_directories.add(directory);
+         directories.put(path, directory);
+      }
+      return directory;
+   }
+
+   /**
+    * Read the first few bytes of the current zip file entry.
+    *
+    * @param zip zip file stream
+    * @param headerSize maximum number of bytes to read
+    * @return bytes read
+    */
+   private static byte[] readHeader(InputStream zip, int headerSize) throws IOException
+   {
+      byte[] header = new byte[headerSize];
+      int offset = 0;
+      while (offset < headerSize)
+      {
+         int bytesRead = zip.read(header, offset, headerSize - offset);
+         if (bytesRead == -1)
+         {
+            break;
+         }
+         offset += bytesRead;
+      }
+      return offset == headerSize ? header : Arrays.copyOf(header, offset);
+   }
+
+   /**
+    * A file in the zip directory.
+    */
+   public static final class Entry
+   {
+      /**
+       * Constructor.
+       *
+       * @param name file name
+       * @param index index of the entry in the zip file
+       * @param header first few bytes of the file
+       */
+      Entry(String name, int index, byte[] header)
+      {
+         m_name = name;
+         m_index = index;
+         m_header = header;
+      }
+
+      /**
+       * Retrieve the file name.
+       *
+       * @return file name
+       */
+      public String getName()
+      {
+         return m_name;
+      }
+
+      /**
+       * Retrieve the first few bytes of the file.
+       *
+       * @return file header
+       */
+      public byte[] getHeader()
+      {
+         return m_header;
+      }
+
+      private final String m_name;
+      private final int m_index;
+      private final byte[] m_header;
+   }
+
+   private final byte[] m_data;
+   private final List<Entry> m_files = new ArrayList<Entry>();
+   private final List<ZipDirectory> m_directories = new ArrayList<ZipDirectory>();
+}
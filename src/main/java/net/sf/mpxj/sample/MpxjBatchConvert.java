@@ -24,11 +24,16 @@
 package net.sf.mpxj.sample;
 
 import java.io.File;
-import java.io.FileFilter;
+
+import net.sf.mpxj.reader.ProjectFileFormat;
+import net.sf.mpxj.utility.BatchConvertResult;
+import net.sf.mpxj.utility.BatchConvertSummary;
+import net.sf.mpxj.utility.BatchConvertUtility;
 
 /**
- * This is a general utility designed to multiple files in one directory
- * into a different file format.
+ * This is a general utility designed to convert multiple files in one directory
+ * into a different file format. Files are converted concurrently, and a failure
+ * to convert one file does not prevent the remaining files from being converted.
  */
 public final class MpxjBatchConvert
 {
@@ -41,39 +46,28 @@ public final class MpxjBatchConvert
    {
       try
       {
-         if (args.length != 4)
+         int exitCode = 0;
+         if (args.length != 4 && args.length != 5)
          {
-            System.out.println("Usage: MpxjBatchConvert <source directory> <source suffix> <target directory> <target suffix>");
+            System.out.println("Usage: MpxjBatchConvert <source directory> <source suffix> <target directory> <target suffix> [thread count]");
          }
          else
          {
-            File sourceDirectory = new File(args[0]);
-            final String sourceSuffix = args[1];
-            String targetDirectory = args[2];
-            String targetSuffix = args[3];
-
-            File[] fileList = sourceDirectory.listFiles(new FileFilter()
+            BatchConvertUtility utility = new BatchConvertUtility();
+            if (args.length == 5)
             {
-               @Override public boolean accept(File pathname)
-               {
-                  return pathname.getName().endsWith(sourceSuffix);
-               }
-            });
+               utility.setThreadCount(Integer.parseInt(args[4]));
+            }
 
-            if (fileList != null)
+            BatchConvertSummary summary = utility.process(new File(args[0]), args[1], new File(args[2]), args[3]);
+            report(summary);
+            if (!summary.getFailures().isEmpty())
             {
-               MpxjConvert convert = new MpxjConvert();
-               for (File file : fileList)
-               {
-                  String oldName = file.getName();
-                  String newName = oldName.substring(0, oldName.length() - sourceSuffix.length()) + targetSuffix;
-                  File newFile = new File(targetDirectory, newName);
-                  convert.process(file.getCanonicalPath(), newFile.getCanonicalPath());
-               }
+               exitCode = 1;
             }
          }
 
-         System.exit(0);
+         System.exit(exitCode);
       }
 
       catch (Exception ex)
@@ -85,4 +79,27 @@ public final class MpxjBatchConvert
          System.exit(1);
       }
    }
+
+   /**
+    * Write a summary of the batch conversion to the console.
+    *
+    * @param summary batch conversion summary
+    */
+   private static void report(BatchConvertSummary summary)
+   {
+      for (BatchConvertResult result : summary.getFailures())
+      {
+         System.out.println("Failed to convert " + result.getSourceFile() + ": " + result.getError());
+      }
+
+      System.out.println("Converted " + summary.getSuccessCount() + " of " + summary.getResults().size() + " files in " + summary.getElapsedTime() + "ms.");
+      System.out.println(String.format("Throughput: %.1f files/s, %.1f KB/s", Double.valueOf(summary.getFilesPerSecond()), Double.valueOf(summary.getBytesPerSecond() / 1024)));
+      System.out.println("Peak heap usage: " + summary.getPeakHeapUsage() / (1024 * 1024) + "MB");
+
+      for (ProjectFileFormat format : summary.getFormats())
+      {
+         int count = summary.getFileCount(format);
+         System.out.println(format + ": " + count + " files, average read " + summary.getReadTime(format) / count + "ms, average write " + summary.getWriteTime(format) / count + "ms, max allocated " + summary.getMaxAllocatedBytes(format) / (1024 * 1024) + "MB");
+      }
+   }
 }
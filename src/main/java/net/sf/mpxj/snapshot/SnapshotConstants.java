@@ -0,0 +1,154 @@
+/*
+ * file:       SnapshotConstants.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+
+package net.sf.mpxj.snapshot;
+
+/**
+ * This class contains definitions of constants used when reading and writing
+ * snapshot files.
+ *
+ * A snapshot starts with a magic number and a format version, followed by
+ * a sequence of sections. Each section is introduced by a one byte section
+ * identifier and a four byte section length, allowing a reader to skip
+ * sections it does not recognise. The sequence is terminated by an end
+ * section. All values are big-endian, as written by DataOutputStream.
+ */
+final class SnapshotConstants
+{
+   /**
+    * Private constructor to prevent instantiation.
+    */
+   private SnapshotConstants()
+   {
+      // Private constructor to prevent instantiation
+   }
+
+   /**
+    * Magic number identifying a snapshot file.
+    */
+   public static final byte[] MAGIC =
+   {
+      'M',
+      'P',
+      'X',
+      'J',
+      'S',
+      'N',
+      'A',
+      'P'
+   };
+
+   /**
+    * Current snapshot format version.
+    */
+   public static final int VERSION = 1;
+
+   /**
+    * End of the section sequence.
+    */
+   public static final byte SECTION_END = 0;
+
+   /**
+    * String table. Strings are referenced by index from other sections.
+    */
+   public static final byte SECTION_STRINGS = 1;
+
+   /**
+    * Enum class table. Enum values are referenced by class index and ordinal.
+    */
+   public static final byte SECTION_ENUMS = 2;
+
+   /**
+    * Project properties.
+    */
+   public static final byte SECTION_PROPERTIES = 3;
+
+   /**
+    * Custom field definitions.
+    */
+   public static final byte SECTION_CUSTOM_FIELDS = 4;
+
+   /**
+    * Calendars.
+    */
+   public static final byte SECTION_CALENDARS = 5;
+
+   /**
+    * Resources.
+    */
+   public static final byte SECTION_RESOURCES = 6;
+
+   /**
+    * Tasks.
+    */
+   public static final byte SECTION_TASKS = 7;
+
+   /**
+    * Task hierarchy.
+    */
+   public static final byte SECTION_HIERARCHY = 8;
+
+   /**
+    * Task relationships.
+    */
+   public static final byte SECTION_RELATIONS = 9;
+
+   /**
+    * Resource assignments.
+    */
+   public static final byte SECTION_ASSIGNMENTS = 10;
+
+   /**
+    * Marks the end of a list of field values.
+    */
+   public static final short END_OF_FIELDS = -1;
+
+   /**
+    * Value type tags.
+    */
+   public static final byte TYPE_NULL = 0;
+   public static final byte TYPE_STRING = 1;
+   public static final byte TYPE_TRUE = 2;
+   public static final byte TYPE_FALSE = 3;
+   public static final byte TYPE_INTEGER = 4;
+   public static final byte TYPE_LONG = 5;
+   public static final byte TYPE_SHORT = 6;
+   public static final byte TYPE_FLOAT = 7;
+   public static final byte TYPE_DOUBLE = 8;
+   public static final byte TYPE_BIG_INTEGER = 9;
+   public static final byte TYPE_BIG_DECIMAL = 10;
+   public static final byte TYPE_DATE = 11;
+   public static final byte TYPE_DURATION = 12;
+   public static final byte TYPE_RATE = 13;
+   public static final byte TYPE_ENUM = 14;
+   public static final byte TYPE_PRIORITY = 15;
+   public static final byte TYPE_UUID = 16;
+   public static final byte TYPE_CHARACTER = 17;
+   public static final byte TYPE_CALENDAR = 18;
+   public static final byte TYPE_LIST = 19;
+   public static final byte TYPE_DATE_RANGE = 20;
+   public static final byte TYPE_MAP = 21;
+   public static final byte TYPE_SUBPROJECT = 22;
+   public static final byte TYPE_BYTE_ARRAY = 23;
+}
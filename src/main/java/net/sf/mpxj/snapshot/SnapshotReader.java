@@ -0,0 +1,1028 @@
+/*
+ * file:       SnapshotReader.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+
+package net.sf.mpxj.snapshot;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import net.sf.mpxj.AssignmentField;
+import net.sf.mpxj.Availability;
+import net.sf.mpxj.CostRateTable;
+import net.sf.mpxj.CostRateTableEntry;
+import net.sf.mpxj.DateRange;
+import net.sf.mpxj.Day;
+import net.sf.mpxj.DayType;
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.EventManager;
+import net.sf.mpxj.FieldType;
+import net.sf.mpxj.MPXJException;
+import net.sf.mpxj.Priority;
+import net.sf.mpxj.ProjectCalendar;
+import net.sf.mpxj.ProjectCalendarDateRanges;
+import net.sf.mpxj.ProjectCalendarException;
+import net.sf.mpxj.ProjectCalendarWeek;
+import net.sf.mpxj.ProjectConfig;
+import net.sf.mpxj.ProjectField;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.ProjectProperties;
+import net.sf.mpxj.Rate;
+import net.sf.mpxj.RecurrenceType;
+import net.sf.mpxj.RecurringData;
+import net.sf.mpxj.RecurringTask;
+import net.sf.mpxj.Relation;
+import net.sf.mpxj.RelationType;
+import net.sf.mpxj.Resource;
+import net.sf.mpxj.ResourceAssignment;
+import net.sf.mpxj.ResourceField;
+import net.sf.mpxj.SubProject;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.TaskField;
+import net.sf.mpxj.TimeUnit;
+import net.sf.mpxj.TimephasedCost;
+import net.sf.mpxj.TimephasedItem;
+import net.sf.mpxj.TimephasedWork;
+import net.sf.mpxj.common.CharsetHelper;
+import net.sf.mpxj.common.DefaultTimephasedCostContainer;
+import net.sf.mpxj.common.DefaultTimephasedWorkContainer;
+import net.sf.mpxj.listener.ProjectListener;
+import net.sf.mpxj.reader.AbstractProjectReader;
+
+/**
+ * This class reads a snapshot written by the SnapshotWriter class,
+ * and creates a ProjectFile instance from it.
+ *
+ * Each section of the snapshot is read into memory in a single operation
+ * and decoded directly, so the cost of reading a snapshot is dominated by
+ * the creation of the entities it contains.
+ */
+public final class SnapshotReader extends AbstractProjectReader
+{
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void addProjectListener(ProjectListener listener)
+   {
+      if (m_projectListeners == null)
+      {
+         m_projectListeners = new LinkedList<ProjectListener>();
+      }
+      m_projectListeners.add(listener);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override public ProjectFile read(InputStream stream) throws MPXJException
+   {
+      try
+      {
+         m_projectFile = new ProjectFile();
+         m_eventManager = m_projectFile.getEventManager();
+         m_calendars = new ArrayList<ProjectCalendar>();
+
+         ProjectConfig config = m_projectFile.getProjectConfig();
+         config.setAutoTaskID(false);
+         config.setAutoTaskUniqueID(false);
+         config.setAutoResourceID(false);
+         config.setAutoResourceUniqueID(false);
+         config.setAutoOutlineLevel(false);
+         config.setAutoOutlineNumber(false);
+         config.setAutoWBS(false);
+         config.setAutoCalendarUniqueID(false);
+         config.setAutoAssignmentUniqueID(false);
+
+         m_eventManager.addProjectListeners(m_projectListeners);
+
+         DataInputStream data = new DataInputStream(stream);
+         byte[] magic = new byte[SnapshotConstants.MAGIC.length];
+         data.readFully(magic);
+         if (!Arrays.equals(magic, SnapshotConstants.MAGIC))
+         {
+            throw new MPXJException("File is not a snapshot");
+         }
+
+         int version = data.readInt();
+         if (version > SnapshotConstants.VERSION)
+         {
+            throw new MPXJException("Unsupported snapshot version " + version);
+         }
+
+         byte section;
+         while ((section = data.readByte()) != SnapshotConstants.SECTION_END)
+         {
+            byte[] bytes = new byte[data.readInt()];
+            data.readFully(bytes);
+            m_buffer = ByteBuffer.wrap(bytes);
+            readSection(section);
+         }
+
+         //
+         // Ensure that the unique ID counters are correct
+         //
+         config.updateUniqueCounters();
+
+         return m_projectFile;
+      }
+
+      catch (IOException ex)
+      {
+         throw new MPXJException(MPXJException.READ_ERROR, ex);
+      }
+
+      catch (RuntimeException ex)
+      {
+         throw new MPXJException(MPXJException.READ_ERROR, ex);
+      }
+
+      finally
+      {
+         m_projectFile = null;
+         m_eventManager = null;
+         m_buffer = null;
+         m_strings = null;
+         m_enums = null;
+         m_calendars = null;
+         m_tasks = null;
+      }
+   }
+
+   /**
+    * Read a section. Sections which are not recognised are ignored.
+    *
+    * @param section section identifier
+    */
+   private void readSection(byte section) throws IOException
+   {
+      switch (section)
+      {
+         case SnapshotConstants.SECTION_STRINGS:
+         {
+            readStrings();
+            break;
+         }
+
+         case SnapshotConstants.SECTION_ENUMS:
+         {
+            readEnums();
+            break;
+         }
+
+         case SnapshotConstants.SECTION_PROPERTIES:
+         {
+            readProperties();
+            break;
+         }
+
+         case SnapshotConstants.SECTION_CUSTOM_FIELDS:
+         {
+            readCustomFields();
+            break;
+         }
+
+         case SnapshotConstants.SECTION_CALENDARS:
+         {
+            readCalendars();
+            break;
+         }
+
+         case SnapshotConstants.SECTION_RESOURCES:
+         {
+            readResources();
+            break;
+         }
+
+         case SnapshotConstants.SECTION_TASKS:
+         {
+            readTasks();
+            break;
+         }
+
+         case SnapshotConstants.SECTION_HIERARCHY:
+         {
+            readHierarchy();
+            break;
+         }
+
+         case SnapshotConstants.SECTION_RELATIONS:
+         {
+            readRelations();
+            break;
+         }
+
+         case SnapshotConstants.SECTION_ASSIGNMENTS:
+         {
+            readAssignments();
+            break;
+         }
+
+         default:
+         {
+            break;
+         }
+      }
+   }
+
+   /**
+    * Read the string table.
+    */
+   private void readStrings()
+   {
+      m_strings = new String[m_buffer.getInt()];
+      for (int index = 0; index < m_strings.length; index++)
+      {
+         m_strings[index] = readUTF8();
+      }
+   }
+
+   /**
+    * Read the enum class table. Only enums defined by MPXJ are accepted.
+    */
+   private void readEnums() throws IOException
+   {
+      m_enums = new Object[m_buffer.getShort()][];
+      for (int index = 0; index < m_enums.length; index++)
+      {
+         String name = readUTF8();
+         if (!name.startsWith(ENUM_PACKAGE))
+         {
+            throw new IOException("Unexpected enum class " + name);
+         }
+
+         try
+         {
+            Class<?> c = Class.forName(name);
+            if (!c.isEnum())
+            {
+               throw new IOException("Unexpected enum class " + name);
+            }
+            m_enums[index] = c.getEnumConstants();
+         }
+
+         catch (ClassNotFoundException ex)
+         {
+            throw new IOException("Unknown enum class " + name);
+         }
+      }
+   }
+
+   /**
+    * Read a length prefixed UTF-8 string.
+    *
+    * @return string value
+    */
+   private String readUTF8()
+   {
+      int length = m_buffer.getInt();
+      String result = new String(m_buffer.array(), m_buffer.position(), length, CharsetHelper.UTF8);
+      m_buffer.position(m_buffer.position() + length);
+      return result;
+   }
+
+   /**
+    * Read project properties. The defaults applied when the project
+    * properties are created are removed, as the snapshot will supply
+    * these values if they were present.
+    */
+   private void readProperties() throws IOException
+   {
+      ProjectProperties properties = m_projectFile.getProjectProperties();
+      for (ProjectField field : PROJECT_FIELDS)
+      {
+         properties.set(field, null);
+      }
+
+      short fieldValue;
+      while ((fieldValue = m_buffer.getShort()) != SnapshotConstants.END_OF_FIELDS)
+      {
+         properties.set(ProjectField.getInstance(fieldValue), readValue());
+      }
+   }
+
+   /**
+    * Read custom field definitions.
+    */
+   private void readCustomFields() throws IOException
+   {
+      int count = m_buffer.getInt();
+      for (int index = 0; index < count; index++)
+      {
+         FieldType field = (FieldType) readValue();
+         String alias = (String) readValue();
+         m_projectFile.getCustomFields().getCustomField(field).setAlias(alias);
+      }
+   }
+
+   /**
+    * Read calendars.
+    */
+   private void readCalendars() throws IOException
+   {
+      int containerCount = m_buffer.getInt();
+      List<Integer> parents = new ArrayList<Integer>();
+
+      while (m_buffer.get() != 0)
+      {
+         ProjectCalendar calendar;
+         if (m_calendars.size() < containerCount)
+         {
+            calendar = m_projectFile.addCalendar();
+         }
+         else
+         {
+            calendar = new ProjectCalendar(m_projectFile);
+         }
+         m_calendars.add(calendar);
+
+         Integer uniqueID = (Integer) readValue();
+         if (uniqueID != null)
+         {
+            calendar.setUniqueID(uniqueID);
+         }
+         parents.add(Integer.valueOf(m_buffer.getInt()));
+         calendar.setMinutesPerDay((Integer) readValue());
+         calendar.setMinutesPerWeek((Integer) readValue());
+         calendar.setMinutesPerMonth((Integer) readValue());
+         calendar.setMinutesPerYear((Integer) readValue());
+         readWeek(calendar);
+
+         int weekCount = m_buffer.getInt();
+         for (int index = 0; index < weekCount; index++)
+         {
+            ProjectCalendarWeek week = calendar.addWorkWeek();
+            readWeek(week);
+            week.setDateRange((DateRange) readValue());
+         }
+
+         int exceptionCount = m_buffer.getInt();
+         for (int index = 0; index < exceptionCount; index++)
+         {
+            Date fromDate = (Date) readValue();
+            Date toDate = (Date) readValue();
+            ProjectCalendarException exception = calendar.addCalendarException(fromDate, toDate);
+            exception.setName((String) readValue());
+            readRanges(exception, m_buffer.getInt());
+            if (m_buffer.get() != 0)
+            {
+               RecurringData recurring = new RecurringData();
+               readRecurringData(recurring);
+               exception.setRecurring(recurring);
+            }
+         }
+      }
+
+      for (int index = 0; index < m_calendars.size(); index++)
+      {
+         int parent = parents.get(index).intValue();
+         if (parent != -1)
+         {
+            m_calendars.get(index).setParent(m_calendars.get(parent));
+         }
+      }
+
+      for (int index = 0; index < containerCount; index++)
+      {
+         m_eventManager.fireCalendarReadEvent(m_calendars.get(index));
+      }
+   }
+
+   /**
+    * Read the name, day types and working hours of a calendar week.
+    *
+    * @param week calendar week
+    */
+   private void readWeek(ProjectCalendarWeek week) throws IOException
+   {
+      week.setName((String) readValue());
+      for (Day day : Day.values())
+      {
+         byte type = m_buffer.get();
+         if (type != -1)
+         {
+            week.setWorkingDay(day, DAY_TYPES[type]);
+         }
+
+         int count = m_buffer.getInt();
+         if (count != -1)
+         {
+            readRanges(week.addCalendarHours(day), count);
+         }
+      }
+   }
+
+   /**
+    * Read a list of date ranges.
+    *
+    * @param ranges target date ranges
+    * @param count number of ranges
+    */
+   private void readRanges(ProjectCalendarDateRanges ranges, int count) throws IOException
+   {
+      for (int index = 0; index < count; index++)
+      {
+         ranges.addRange((DateRange) readValue());
+      }
+   }
+
+   /**
+    * Read recurrence details.
+    *
+    * @param data recurring data
+    */
+   private void readRecurringData(RecurringData data) throws IOException
+   {
+      data.setStartDate((Date) readValue());
+      data.setFinishDate((Date) readValue());
+      data.setOccurrences((Integer) readValue());
+      data.setRecurrenceType((RecurrenceType) readValue());
+      data.setUseEndDate(m_buffer.get() != 0);
+      data.setWorkingDaysOnly(m_buffer.get() != 0);
+      int days = m_buffer.get();
+      for (Day day : Day.values())
+      {
+         data.setWeeklyDay(day, (days & (1 << day.ordinal())) != 0);
+      }
+      data.setRelative(m_buffer.get() != 0);
+      data.setFrequency((Integer) readValue());
+      data.setDayNumber((Integer) readValue());
+      data.setMonthNumber((Integer) readValue());
+   }
+
+   /**
+    * Read resources.
+    */
+   private void readResources() throws IOException
+   {
+      int count = m_buffer.getInt();
+      for (int resourceIndex = 0; resourceIndex < count; resourceIndex++)
+      {
+         Resource resource = m_projectFile.addResource();
+         resource.disableEvents();
+         resource.set(ResourceField.TYPE, null);
+         short fieldValue;
+         while ((fieldValue = m_buffer.getShort()) != SnapshotConstants.END_OF_FIELDS)
+         {
+            resource.set(ResourceField.getInstance(fieldValue), readValue());
+         }
+         resource.enableEvents();
+
+         //
+         // Map the unique ID and ID now that the fields are populated
+         //
+         if (resource.getUniqueID() != null)
+         {
+            resource.setUniqueID(resource.getUniqueID());
+         }
+
+         if (resource.getID() != null)
+         {
+            resource.setID(resource.getID());
+         }
+
+         resource.setIsNull(m_buffer.get() != 0);
+         resource.setActveDirectoryGUID((String) readValue());
+
+         for (int tableIndex = 0; tableIndex < COST_RATE_TABLE_COUNT; tableIndex++)
+         {
+            int entryCount = m_buffer.getInt();
+            if (entryCount != -1)
+            {
+               CostRateTable table = new CostRateTable();
+               for (int entryIndex = 0; entryIndex < entryCount; entryIndex++)
+               {
+                  Rate standardRate = (Rate) readValue();
+                  TimeUnit standardRateFormat = (TimeUnit) readValue();
+                  Rate overtimeRate = (Rate) readValue();
+                  TimeUnit overtimeRateFormat = (TimeUnit) readValue();
+                  Number costPerUse = (Number) readValue();
+                  Date endDate = (Date) readValue();
+                  table.add(new CostRateTableEntry(standardRate, standardRateFormat, overtimeRate, overtimeRateFormat, costPerUse, endDate));
+               }
+               resource.setCostRateTable(tableIndex, table);
+            }
+         }
+
+         int availabilityCount = m_buffer.getInt();
+         for (int index = 0; index < availabilityCount; index++)
+         {
+            Date start = (Date) readValue();
+            Date end = (Date) readValue();
+            Number units = (Number) readValue();
+            resource.getAvailability().add(new Availability(start, end, units));
+         }
+
+         //
+         // Link the resource calendar to the resource, retaining the
+         // calendar's original name.
+         //
+         ProjectCalendar calendar = resource.getResourceCalendar();
+         if (calendar != null)
+         {
+            String name = calendar.getName();
+            calendar.setResource(resource);
+            calendar.setName(name);
+         }
+
+         m_eventManager.fireResourceReadEvent(resource);
+      }
+   }
+
+   /**
+    * Read tasks.
+    */
+   @SuppressWarnings("deprecation") private void readTasks() throws IOException
+   {
+      m_tasks = new Task[m_buffer.getInt()];
+      m_summaries = new Object[m_tasks.length];
+
+      for (int taskIndex = 0; taskIndex < m_tasks.length; taskIndex++)
+      {
+         Task task = m_projectFile.addTask();
+         m_tasks[taskIndex] = task;
+
+         //
+         // Remove the defaults applied by the Task constructor, the
+         // snapshot will supply these values if they were present.
+         //
+         task.disableEvents();
+         for (TaskField field : DEFAULT_TASK_FIELDS)
+         {
+            task.set(field, null);
+         }
+
+         short fieldValue;
+         while ((fieldValue = m_buffer.getShort()) != SnapshotConstants.END_OF_FIELDS)
+         {
+            task.set(TaskField.getInstance(fieldValue), readValue());
+         }
+         task.enableEvents();
+
+         //
+         // Map the unique ID and ID now that the fields are populated
+         //
+         if (task.getUniqueID() != null)
+         {
+            task.setUniqueID(task.getUniqueID());
+         }
+
+         if (task.getID() != null)
+         {
+            task.setID(task.getID());
+         }
+
+         m_summaries[taskIndex] = task.getCachedValue(TaskField.SUMMARY);
+
+         task.setNull(m_buffer.get() != 0);
+         task.setWBSLevel((String) readValue());
+         task.setResumeValid(m_buffer.get() != 0);
+         task.setExternalTaskProject((String) readValue());
+         task.setExpanded(m_buffer.get() != 0);
+
+         if (m_buffer.get() != 0)
+         {
+            RecurringTask recurring = task.addRecurringTask();
+            readRecurringData(recurring);
+            recurring.setDuration((Duration) readValue());
+         }
+
+         m_eventManager.fireTaskReadEvent(task);
+      }
+   }
+
+   /**
+    * Read the task hierarchy. Adding child tasks marks the parent as
+    * a summary task, so the original summary flags are restored once
+    * the hierarchy is complete.
+    */
+   private void readHierarchy()
+   {
+      List<Task> topLevelTasks = m_projectFile.getChildTasks();
+      topLevelTasks.clear();
+      int count = m_buffer.getInt();
+      for (int index = 0; index < count; index++)
+      {
+         topLevelTasks.add(m_tasks[m_buffer.getInt()]);
+      }
+
+      for (Task task : m_tasks)
+      {
+         count = m_buffer.getInt();
+         for (int index = 0; index < count; index++)
+         {
+            task.addChildTask(m_tasks[m_buffer.getInt()]);
+         }
+      }
+
+      for (int index = 0; index < m_tasks.length; index++)
+      {
+         m_tasks[index].set(TaskField.SUMMARY, m_summaries[index]);
+      }
+   }
+
+   /**
+    * Read task relationships.
+    */
+   private void readRelations() throws IOException
+   {
+      for (Task task : m_tasks)
+      {
+         int count = m_buffer.getInt();
+         for (int index = 0; index < count; index++)
+         {
+            Task targetTask = m_tasks[m_buffer.getInt()];
+            RelationType type = (RelationType) readValue();
+            Duration lag = (Duration) readValue();
+            Integer uniqueID = (Integer) readValue();
+
+            Relation relation = task.addPredecessor(targetTask, type, lag);
+            relation.setUniqueID(uniqueID);
+            m_eventManager.fireRelationReadEvent(relation);
+         }
+      }
+   }
+
+   /**
+    * Read resource assignments.
+    */
+   private void readAssignments() throws IOException
+   {
+      int count = m_buffer.getInt();
+      for (int assignmentIndex = 0; assignmentIndex < count; assignmentIndex++)
+      {
+         Task task = m_tasks[m_buffer.getInt()];
+         ResourceAssignment assignment = new ResourceAssignment(m_projectFile, task);
+         assignment.disableEvents();
+         short fieldValue;
+         while ((fieldValue = m_buffer.getShort()) != SnapshotConstants.END_OF_FIELDS)
+         {
+            assignment.set(AssignmentField.getInstance(fieldValue), readValue());
+         }
+         assignment.enableEvents();
+         task.addResourceAssignment(assignment);
+
+         List<TimephasedWork> work = readTimephasedWork();
+         if (work != null)
+         {
+            assignment.setTimephasedWork(new DefaultTimephasedWorkContainer(null, null, work, false));
+         }
+
+         work = readTimephasedWork();
+         if (work != null)
+         {
+            assignment.setTimephasedActualWork(new DefaultTimephasedWorkContainer(null, null, work, false));
+         }
+
+         work = readTimephasedWork();
+         if (work != null)
+         {
+            assignment.setTimephasedActualOvertimeWork(new DefaultTimephasedWorkContainer(null, null, work, false));
+         }
+
+         for (int index = 0; index < BASELINE_COUNT; index++)
+         {
+            work = readTimephasedWork();
+            if (work != null)
+            {
+               assignment.setTimephasedBaselineWork(index, new DefaultTimephasedWorkContainer(null, null, work, false));
+            }
+
+            List<TimephasedCost> cost = readTimephasedCost();
+            if (cost != null)
+            {
+               assignment.setTimephasedBaselineCost(index, new DefaultTimephasedCostContainer(null, null, cost, false));
+            }
+         }
+
+         m_eventManager.fireAssignmentReadEvent(assignment);
+      }
+   }
+
+   /**
+    * Read timephased work.
+    *
+    * @return timephased work, or null if not present
+    */
+   private List<TimephasedWork> readTimephasedWork() throws IOException
+   {
+      List<TimephasedWork> result = null;
+      int count = m_buffer.getInt();
+      if (count != -1)
+      {
+         result = new LinkedList<TimephasedWork>();
+         for (int index = 0; index < count; index++)
+         {
+            TimephasedWork item = new TimephasedWork();
+            readTimephasedItem(item);
+            result.add(item);
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Read timephased cost.
+    *
+    * @return timephased cost, or null if not present
+    */
+   private List<TimephasedCost> readTimephasedCost() throws IOException
+   {
+      List<TimephasedCost> result = null;
+      int count = m_buffer.getInt();
+      if (count != -1)
+      {
+         result = new LinkedList<TimephasedCost>();
+         for (int index = 0; index < count; index++)
+         {
+            TimephasedCost item = new TimephasedCost();
+            readTimephasedItem(item);
+            result.add(item);
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Read a single timephased item.
+    *
+    * @param item timephased item to populate
+    */
+   @SuppressWarnings("unchecked") private <T> void readTimephasedItem(TimephasedItem<T> item) throws IOException
+   {
+      item.setStart((Date) readValue());
+      item.setFinish((Date) readValue());
+      item.setTotalAmount((T) readValue());
+      item.setAmountPerDay((T) readValue());
+      item.setModified(m_buffer.get() != 0);
+   }
+
+   /**
+    * Read a tagged value.
+    *
+    * @return value
+    */
+   private Object readValue() throws IOException
+   {
+      Object result;
+      byte type = m_buffer.get();
+
+      switch (type)
+      {
+         case SnapshotConstants.TYPE_NULL:
+         {
+            result = null;
+            break;
+         }
+
+         case SnapshotConstants.TYPE_STRING:
+         {
+            result = m_strings[m_buffer.getInt()];
+            break;
+         }
+
+         case SnapshotConstants.TYPE_TRUE:
+         {
+            result = Boolean.TRUE;
+            break;
+         }
+
+         case SnapshotConstants.TYPE_FALSE:
+         {
+            result = Boolean.FALSE;
+            break;
+         }
+
+         case SnapshotConstants.TYPE_INTEGER:
+         {
+            result = Integer.valueOf(m_buffer.getInt());
+            break;
+         }
+
+         case SnapshotConstants.TYPE_LONG:
+         {
+            result = Long.valueOf(m_buffer.getLong());
+            break;
+         }
+
+         case SnapshotConstants.TYPE_SHORT:
+         {
+            result = Short.valueOf(m_buffer.getShort());
+            break;
+         }
+
+         case SnapshotConstants.TYPE_FLOAT:
+         {
+            result = Float.valueOf(m_buffer.getFloat());
+            break;
+         }
+
+         case SnapshotConstants.TYPE_DOUBLE:
+         {
+            result = Double.valueOf(m_buffer.getDouble());
+            break;
+         }
+
+         case SnapshotConstants.TYPE_BIG_INTEGER:
+         {
+            result = new BigInteger(m_strings[m_buffer.getInt()]);
+            break;
+         }
+
+         case SnapshotConstants.TYPE_BIG_DECIMAL:
+         {
+            result = new BigDecimal(m_strings[m_buffer.getInt()]);
+            break;
+         }
+
+         case SnapshotConstants.TYPE_DATE:
+         {
+            result = new Date(m_buffer.getLong());
+            break;
+         }
+
+         case SnapshotConstants.TYPE_DURATION:
+         {
+            double duration = m_buffer.getDouble();
+            result = Duration.getInstance(duration, TIME_UNITS[m_buffer.get()]);
+            break;
+         }
+
+         case SnapshotConstants.TYPE_RATE:
+         {
+            double amount = m_buffer.getDouble();
+            result = new Rate(amount, TIME_UNITS[m_buffer.get()]);
+            break;
+         }
+
+         case SnapshotConstants.TYPE_ENUM:
+         {
+            Object[] values = m_enums[m_buffer.getShort()];
+            result = values[m_buffer.getShort()];
+            break;
+         }
+
+         case SnapshotConstants.TYPE_PRIORITY:
+         {
+            result = Priority.getInstance(m_buffer.getInt());
+            break;
+         }
+
+         case SnapshotConstants.TYPE_UUID:
+         {
+            long mostSignificantBits = m_buffer.getLong();
+            result = new UUID(mostSignificantBits, m_buffer.getLong());
+            break;
+         }
+
+         case SnapshotConstants.TYPE_CHARACTER:
+         {
+            result = Character.valueOf(m_buffer.getChar());
+            break;
+         }
+
+         case SnapshotConstants.TYPE_CALENDAR:
+         {
+            result = m_calendars.get(m_buffer.getInt());
+            break;
+         }
+
+         case SnapshotConstants.TYPE_LIST:
+         {
+            int count = m_buffer.getInt();
+            List<Object> list = new ArrayList<Object>(count);
+            for (int index = 0; index < count; index++)
+            {
+               list.add(readValue());
+            }
+            result = list;
+            break;
+         }
+
+         case SnapshotConstants.TYPE_DATE_RANGE:
+         {
+            Date start = (Date) readValue();
+            result = new DateRange(start, (Date) readValue());
+            break;
+         }
+
+         case SnapshotConstants.TYPE_MAP:
+         {
+            int count = m_buffer.getInt();
+            Map<Object, Object> map = new LinkedHashMap<Object, Object>();
+            for (int index = 0; index < count; index++)
+            {
+               Object key = readValue();
+               map.put(key, readValue());
+            }
+            result = map;
+            break;
+         }
+
+         case SnapshotConstants.TYPE_SUBPROJECT:
+         {
+            result = readSubProject();
+            break;
+         }
+
+         case SnapshotConstants.TYPE_BYTE_ARRAY:
+         {
+            byte[] bytes = new byte[m_buffer.getInt()];
+            m_buffer.get(bytes);
+            result = bytes;
+            break;
+         }
+
+         default:
+         {
+            throw new IOException("Unknown value type " + type);
+         }
+      }
+
+      return result;
+   }
+
+   /**
+    * Read sub project details.
+    *
+    * @return sub project
+    */
+   private SubProject readSubProject() throws IOException
+   {
+      SubProject result = new SubProject();
+      result.setDosFileName((String) readValue());
+      result.setDosFullPath((String) readValue());
+      result.setFileName((String) readValue());
+      result.setFullPath((String) readValue());
+      result.setUniqueIDOffset((Integer) readValue());
+      result.setTaskUniqueID((Integer) readValue());
+      List<?> externalTaskUniqueIDs = (List<?>) readValue();
+      if (externalTaskUniqueIDs != null)
+      {
+         for (Object uniqueID : externalTaskUniqueIDs)
+         {
+            result.addExternalTaskUniqueID((Integer) uniqueID);
+         }
+      }
+      return result;
+   }
+
+   private ProjectFile m_projectFile;
+   private EventManager m_eventManager;
+   private List<ProjectListener> m_projectListeners;
+   private ByteBuffer m_buffer;
+   private String[] m_strings;
+   private Object[][] m_enums;
+   private List<ProjectCalendar> m_calendars;
+   private Task[] m_tasks;
+   private Object[] m_summaries;
+
+   private static final String ENUM_PACKAGE = "net.sf.mpxj.";
+   private static final int COST_RATE_TABLE_COUNT = 5;
+   private static final int BASELINE_COUNT = 11;
+   private static final TimeUnit[] TIME_UNITS = TimeUnit.values();
+   private static final DayType[] DAY_TYPES = DayType.values();
+   private static final ProjectField[] PROJECT_FIELDS = ProjectField.values();
+
+   /**
+    * Task fields populated by default when a task is created.
+    */
+   private static final TaskField[] DEFAULT_TASK_FIELDS =
+   {
+      TaskField.TYPE,
+      TaskField.CONSTRAINT_TYPE,
+      TaskField.TASK_MODE,
+      TaskField.ACTIVE
+   };
+}
@@ -0,0 +1,941 @@
+/*
+ * file:       SnapshotWriter.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+
+package net.sf.mpxj.snapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import net.sf.mpxj.AssignmentField;
+import net.sf.mpxj.Availability;
+import net.sf.mpxj.CostRateTable;
+import net.sf.mpxj.CostRateTableEntry;
+import net.sf.mpxj.CustomField;
+import net.sf.mpxj.DataType;
+import net.sf.mpxj.DateRange;
+import net.sf.mpxj.Day;
+import net.sf.mpxj.DayType;
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.FieldContainer;
+import net.sf.mpxj.FieldType;
+import net.sf.mpxj.Priority;
+import net.sf.mpxj.ProjectCalendar;
+import net.sf.mpxj.ProjectCalendarDateRanges;
+import net.sf.mpxj.ProjectCalendarException;
+import net.sf.mpxj.ProjectCalendarWeek;
+import net.sf.mpxj.ProjectField;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.ProjectProperties;
+import net.sf.mpxj.Rate;
+import net.sf.mpxj.RecurringData;
+import net.sf.mpxj.RecurringTask;
+import net.sf.mpxj.Relation;
+import net.sf.mpxj.Resource;
+import net.sf.mpxj.ResourceAssignment;
+import net.sf.mpxj.ResourceField;
+import net.sf.mpxj.SubProject;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.TaskField;
+import net.sf.mpxj.TimephasedCost;
+import net.sf.mpxj.TimephasedItem;
+import net.sf.mpxj.TimephasedWork;
+import net.sf.mpxj.common.CharsetHelper;
+import net.sf.mpxj.common.NumberHelper;
+import net.sf.mpxj.writer.AbstractProjectWriter;
+
+/**
+ * This class writes the contents of a ProjectFile instance as a compact
+ * binary snapshot, which can be read using the SnapshotReader class.
+ *
+ * A snapshot is intended to be used as a cache: a project which is
+ * expensive to read from its original format can be written once as a
+ * snapshot, then reloaded quickly as required. The snapshot holds
+ * the field values of the project properties, tasks, resources
+ * and resource assignments, along with custom field aliases, calendars,
+ * the task hierarchy, relationships, cost rate tables, availability tables
+ * and timephased assignment data. Views, tables, filters, groups,
+ * activity codes, data links, sub projects, and custom field lookup tables
+ * and graphical indicators are not written.
+ *
+ * The snapshot format is specific to MPXJ, and is not intended for
+ * interchange or long term storage.
+ */
+public final class SnapshotWriter extends AbstractProjectWriter
+{
+   /**
+    * {@inheritDoc}
+    */
+   @Override public void write(ProjectFile projectFile, OutputStream stream) throws IOException
+   {
+      try
+      {
+         m_projectFile = projectFile;
+         m_buffer = new ByteArrayOutputStream();
+         m_data = new DataOutputStream(m_buffer);
+         m_sections = new byte[SECTION_ORDER.length + 1][];
+         m_strings = new ArrayList<String>();
+         m_stringMap = new HashMap<String, Integer>();
+         m_enums = new ArrayList<Class<?>>();
+         m_enumMap = new HashMap<Class<?>, Integer>();
+         m_calendars = new ArrayList<ProjectCalendar>(projectFile.getCalendars());
+         m_calendarMap = new HashMap<ProjectCalendar, Integer>();
+         m_taskMap = new HashMap<Task, Integer>();
+
+         for (ProjectCalendar calendar : m_calendars)
+         {
+            m_calendarMap.put(calendar, Integer.valueOf(m_calendarMap.size()));
+         }
+
+         for (Task task : projectFile.getTasks())
+         {
+            m_taskMap.put(task, Integer.valueOf(m_taskMap.size()));
+         }
+
+         //
+         // Calendars are written last as further calendars may be
+         // referenced by the other sections, and the string and
+         // enum tables are written once all other sections are complete.
+         //
+         writeProperties();
+         writeCustomFields();
+         writeResources();
+         writeTasks();
+         writeHierarchy();
+         writeRelations();
+         writeAssignments();
+         writeCalendars();
+         writeStrings();
+         writeEnums();
+
+         DataOutputStream data = new DataOutputStream(stream);
+         data.write(SnapshotConstants.MAGIC);
+         data.writeInt(SnapshotConstants.VERSION);
+         for (byte section : SECTION_ORDER)
+         {
+            byte[] bytes = m_sections[section];
+            data.writeByte(section);
+            data.writeInt(bytes.length);
+            data.write(bytes);
+         }
+         data.writeByte(SnapshotConstants.SECTION_END);
+         data.flush();
+      }
+
+      finally
+      {
+         m_projectFile = null;
+         m_buffer = null;
+         m_data = null;
+         m_sections = null;
+         m_strings = null;
+         m_stringMap = null;
+         m_enums = null;
+         m_enumMap = null;
+         m_calendars = null;
+         m_calendarMap = null;
+         m_taskMap = null;
+      }
+   }
+
+   /**
+    * Complete the current section, and prepare the buffer for the next.
+    *
+    * @param section section identifier
+    */
+   private void endSection(byte section)
+   {
+      m_sections[section] = m_buffer.toByteArray();
+      m_buffer.reset();
+   }
+
+   /**
+    * Write the string table.
+    */
+   private void writeStrings() throws IOException
+   {
+      m_data.writeInt(m_strings.size());
+      for (String value : m_strings)
+      {
+         byte[] bytes = value.getBytes(CharsetHelper.UTF8);
+         m_data.writeInt(bytes.length);
+         m_data.write(bytes);
+      }
+      endSection(SnapshotConstants.SECTION_STRINGS);
+   }
+
+   /**
+    * Write the enum class table.
+    */
+   private void writeEnums() throws IOException
+   {
+      m_data.writeShort(m_enums.size());
+      for (Class<?> value : m_enums)
+      {
+         byte[] bytes = value.getName().getBytes(CharsetHelper.UTF8);
+         m_data.writeInt(bytes.length);
+         m_data.write(bytes);
+      }
+      endSection(SnapshotConstants.SECTION_ENUMS);
+   }
+
+   /**
+    * Write project properties.
+    */
+   private void writeProperties() throws IOException
+   {
+      writeFields(m_projectFile.getProjectProperties(), PROJECT_FIELDS);
+      endSection(SnapshotConstants.SECTION_PROPERTIES);
+   }
+
+   /**
+    * Write custom field definitions.
+    */
+   private void writeCustomFields() throws IOException
+   {
+      List<CustomField> fields = new ArrayList<CustomField>();
+      for (CustomField field : m_projectFile.getCustomFields())
+      {
+         if (field.getFieldType() instanceof Enum<?>)
+         {
+            fields.add(field);
+         }
+      }
+
+      m_data.writeInt(fields.size());
+      for (CustomField field : fields)
+      {
+         writeValue(field.getFieldType());
+         writeValue(field.getAlias());
+      }
+      endSection(SnapshotConstants.SECTION_CUSTOM_FIELDS);
+   }
+
+   /**
+    * Write calendars. Calendars which are not held by the calendar container,
+    * but are referenced from elsewhere in the project, follow those which are.
+    */
+   private void writeCalendars() throws IOException
+   {
+      int containerCount = m_projectFile.getCalendars().size();
+      ProjectProperties properties = m_projectFile.getProjectProperties();
+
+      //
+      // Parent calendars may add to the list as we go
+      //
+      m_data.writeInt(containerCount);
+      for (int index = 0; index < m_calendars.size(); index++)
+      {
+         ProjectCalendar calendar = m_calendars.get(index);
+         m_data.writeBoolean(true);
+         writeValue(calendar.getUniqueID());
+         writeCalendarIndex(calendar.getParent());
+         writeMinutes(calendar.getMinutesPerDay(), NumberHelper.getInt(properties.getMinutesPerDay()));
+         writeMinutes(calendar.getMinutesPerWeek(), NumberHelper.getInt(properties.getMinutesPerWeek()));
+         writeMinutes(calendar.getMinutesPerMonth(), NumberHelper.getInt(properties.getMinutesPerMonth()));
+         writeMinutes(calendar.getMinutesPerYear(), NumberHelper.getInt(properties.getMinutesPerYear()));
+         writeWeek(calendar);
+
+         List<ProjectCalendarWeek> weeks = calendar.getWorkWeeks();
+         m_data.writeInt(weeks.size());
+         for (ProjectCalendarWeek week : weeks)
+         {
+            writeWeek(week);
+            writeValue(week.getDateRange());
+         }
+
+         List<ProjectCalendarException> exceptions = calendar.getCalendarExceptions();
+         m_data.writeInt(exceptions.size());
+         for (ProjectCalendarException exception : exceptions)
+         {
+            writeValue(exception.getFromDate());
+            writeValue(exception.getToDate());
+            writeValue(exception.getName());
+            writeRanges(exception);
+            writeRecurringData(exception.getRecurring());
+         }
+      }
+      m_data.writeBoolean(false);
+      endSection(SnapshotConstants.SECTION_CALENDARS);
+   }
+
+   /**
+    * Write a calendar's minutes per period value, if it differs from the
+    * default provided by the project properties.
+    *
+    * @param value calendar value
+    * @param defaultValue project default value
+    */
+   private void writeMinutes(int value, int defaultValue) throws IOException
+   {
+      writeValue(value == defaultValue ? null : Integer.valueOf(value));
+   }
+
+   /**
+    * Write the name, day types and working hours of a calendar week.
+    *
+    * @param week calendar week
+    */
+   private void writeWeek(ProjectCalendarWeek week) throws IOException
+   {
+      writeValue(week.getName());
+      for (Day day : Day.values())
+      {
+         DayType type = week.getWorkingDay(day);
+         m_data.writeByte(type == null ? -1 : type.ordinal());
+         ProjectCalendarDateRanges hours = week.getCalendarHours(day);
+         if (hours == null)
+         {
+            m_data.writeInt(-1);
+         }
+         else
+         {
+            writeRanges(hours);
+         }
+      }
+   }
+
+   /**
+    * Write a list of date ranges.
+    *
+    * @param ranges date ranges
+    */
+   private void writeRanges(ProjectCalendarDateRanges ranges) throws IOException
+   {
+      m_data.writeInt(ranges.getRangeCount());
+      for (DateRange range : ranges)
+      {
+         writeValue(range);
+      }
+   }
+
+   /**
+    * Write recurrence details.
+    *
+    * @param data recurring data, may be null
+    */
+   private void writeRecurringData(RecurringData data) throws IOException
+   {
+      m_data.writeBoolean(data != null);
+      if (data != null)
+      {
+         writeValue(data.getStartDate());
+         writeValue(data.getFinishDate());
+         writeValue(data.getOccurrences());
+         writeValue(data.getRecurrenceType());
+         m_data.writeBoolean(data.getUseEndDate());
+         m_data.writeBoolean(data.isWorkingDaysOnly());
+         int days = 0;
+         for (Day day : Day.values())
+         {
+            if (data.getWeeklyDay(day))
+            {
+               days |= (1 << day.ordinal());
+            }
+         }
+         m_data.writeByte(days);
+         m_data.writeBoolean(data.getRelative());
+         writeValue(data.getFrequency());
+         writeValue(data.getDayNumber());
+         writeValue(data.getMonthNumber());
+      }
+   }
+
+   /**
+    * Write resources.
+    */
+   private void writeResources() throws IOException
+   {
+      List<Resource> resources = m_projectFile.getResources();
+      m_data.writeInt(resources.size());
+      for (Resource resource : resources)
+      {
+         writeFields(resource, RESOURCE_FIELDS);
+         m_data.writeBoolean(resource.getNull());
+         writeValue(resource.getActiveDirectoryGUID());
+
+         for (int index = 0; index < COST_RATE_TABLE_COUNT; index++)
+         {
+            CostRateTable table = resource.getCostRateTable(index);
+            if (table == null)
+            {
+               m_data.writeInt(-1);
+            }
+            else
+            {
+               m_data.writeInt(table.size());
+               for (CostRateTableEntry entry : table)
+               {
+                  writeValue(entry.getStandardRate());
+                  writeValue(entry.getStandardRateFormat());
+                  writeValue(entry.getOvertimeRate());
+                  writeValue(entry.getOvertimeRateFormat());
+                  writeValue(entry.getCostPerUse());
+                  writeValue(entry.getEndDate());
+               }
+            }
+         }
+
+         List<Availability> availability = resource.getAvailability();
+         m_data.writeInt(availability.size());
+         for (Availability entry : availability)
+         {
+            writeValue(entry.getRange().getStart());
+            writeValue(entry.getRange().getEnd());
+            writeValue(entry.getUnits());
+         }
+      }
+      endSection(SnapshotConstants.SECTION_RESOURCES);
+   }
+
+   /**
+    * Write tasks.
+    */
+   @SuppressWarnings("deprecation") private void writeTasks() throws IOException
+   {
+      List<Task> tasks = m_projectFile.getTasks();
+      m_data.writeInt(tasks.size());
+      for (Task task : tasks)
+      {
+         writeFields(task, TASK_FIELDS);
+         m_data.writeBoolean(task.getNull());
+         writeValue(task.getWBSLevel());
+         m_data.writeBoolean(task.getResumeValid());
+         writeValue(task.getExternalTaskProject());
+         m_data.writeBoolean(task.getExpanded());
+
+         RecurringTask recurring = task.getRecurringTask();
+         writeRecurringData(recurring);
+         if (recurring != null)
+         {
+            writeValue(recurring.getDuration());
+         }
+      }
+      endSection(SnapshotConstants.SECTION_TASKS);
+   }
+
+   /**
+    * Write the task hierarchy as the list of top level tasks,
+    * followed by the list of child tasks for each task.
+    */
+   private void writeHierarchy() throws IOException
+   {
+      writeTaskList(m_projectFile.getChildTasks());
+      for (Task task : m_projectFile.getTasks())
+      {
+         writeTaskList(task.getChildTasks());
+      }
+      endSection(SnapshotConstants.SECTION_HIERARCHY);
+   }
+
+   /**
+    * Write a list of tasks as indexes into the task list.
+    *
+    * @param tasks list of tasks
+    */
+   private void writeTaskList(List<Task> tasks) throws IOException
+   {
+      m_data.writeInt(tasks.size());
+      for (Task task : tasks)
+      {
+         m_data.writeInt(getTaskIndex(task));
+      }
+   }
+
+   /**
+    * Write the predecessors of each task.
+    */
+   private void writeRelations() throws IOException
+   {
+      for (Task task : m_projectFile.getTasks())
+      {
+         List<Relation> predecessors = task.getPredecessors();
+         if (predecessors == null)
+         {
+            m_data.writeInt(0);
+         }
+         else
+         {
+            m_data.writeInt(predecessors.size());
+            for (Relation relation : predecessors)
+            {
+               m_data.writeInt(getTaskIndex(relation.getTargetTask()));
+               writeValue(relation.getType());
+               writeValue(relation.getLag());
+               writeValue(relation.getUniqueID());
+            }
+         }
+      }
+      endSection(SnapshotConstants.SECTION_RELATIONS);
+   }
+
+   /**
+    * Write resource assignments.
+    */
+   private void writeAssignments() throws IOException
+   {
+      List<ResourceAssignment> assignments = m_projectFile.getResourceAssignments();
+      m_data.writeInt(assignments.size());
+      for (ResourceAssignment assignment : assignments)
+      {
+         m_data.writeInt(getTaskIndex(assignment.getTask()));
+         writeFields(assignment, ASSIGNMENT_FIELDS);
+         writeTimephasedWork(assignment.getTimephasedWork());
+         writeTimephasedWork(assignment.getTimephasedActualWork());
+         writeTimephasedWork(assignment.getTimephasedActualOvertimeWork());
+         for (int index = 0; index < BASELINE_COUNT; index++)
+         {
+            writeTimephasedWork(assignment.getTimephasedBaselineWork(index));
+            writeTimephasedCost(assignment.getTimephasedBaselineCost(index));
+         }
+      }
+      endSection(SnapshotConstants.SECTION_ASSIGNMENTS);
+   }
+
+   /**
+    * Write timephased work.
+    *
+    * @param items timephased work, may be null
+    */
+   private void writeTimephasedWork(List<TimephasedWork> items) throws IOException
+   {
+      if (items == null)
+      {
+         m_data.writeInt(-1);
+      }
+      else
+      {
+         m_data.writeInt(items.size());
+         for (TimephasedWork item : items)
+         {
+            writeTimephasedItem(item);
+         }
+      }
+   }
+
+   /**
+    * Write timephased cost.
+    *
+    * @param items timephased cost, may be null
+    */
+   private void writeTimephasedCost(List<TimephasedCost> items) throws IOException
+   {
+      if (items == null)
+      {
+         m_data.writeInt(-1);
+      }
+      else
+      {
+         m_data.writeInt(items.size());
+         for (TimephasedCost item : items)
+         {
+            writeTimephasedItem(item);
+         }
+      }
+   }
+
+   /**
+    * Write a single timephased item.
+    *
+    * @param item timephased item
+    */
+   private void writeTimephasedItem(TimephasedItem<?> item) throws IOException
+   {
+      writeValue(item.getStart());
+      writeValue(item.getFinish());
+      writeValue(item.getTotalAmount());
+      writeValue(item.getAmountPerDay());
+      m_data.writeBoolean(item.getModified());
+   }
+
+   /**
+    * Write the populated fields of a container. Each field is written as
+    * its numeric value followed by the field's value. The list of fields
+    * is terminated by a marker value.
+    *
+    * @param container field container
+    * @param fields fields to write
+    */
+   private void writeFields(FieldContainer container, FieldType[] fields) throws IOException
+   {
+      for (FieldType field : fields)
+      {
+         Object value = container.getCachedValue(field);
+         if (value != null)
+         {
+            m_data.writeShort(field.getValue());
+            writeValue(value);
+         }
+      }
+      m_data.writeShort(SnapshotConstants.END_OF_FIELDS);
+   }
+
+   /**
+    * Write a tagged value.
+    *
+    * @param value value to write
+    */
+   private void writeValue(Object value) throws IOException
+   {
+      if (value == null)
+      {
+         m_data.writeByte(SnapshotConstants.TYPE_NULL);
+         return;
+      }
+
+      if (value instanceof String)
+      {
+         m_data.writeByte(SnapshotConstants.TYPE_STRING);
+         m_data.writeInt(getStringIndex((String) value));
+         return;
+      }
+
+      if (value instanceof Boolean)
+      {
+         m_data.writeByte(((Boolean) value).booleanValue() ? SnapshotConstants.TYPE_TRUE : SnapshotConstants.TYPE_FALSE);
+         return;
+      }
+
+      if (value instanceof Integer)
+      {
+         m_data.writeByte(SnapshotConstants.TYPE_INTEGER);
+         m_data.writeInt(((Integer) value).intValue());
+         return;
+      }
+
+      if (value instanceof Double)
+      {
+         m_data.writeByte(SnapshotConstants.TYPE_DOUBLE);
+         m_data.writeDouble(((Double) value).doubleValue());
+         return;
+      }
+
+      if (value instanceof Date)
+      {
+         m_data.writeByte(SnapshotConstants.TYPE_DATE);
+         m_data.writeLong(((Date) value).getTime());
+         return;
+      }
+
+      if (value instanceof Duration)
+      {
+         Duration duration = (Duration) value;
+         m_data.writeByte(SnapshotConstants.TYPE_DURATION);
+         m_data.writeDouble(duration.getDuration());
+         m_data.writeByte(duration.getUnits().ordinal());
+         return;
+      }
+
+      if (value instanceof Enum<?>)
+      {
+         Enum<?> e = (Enum<?>) value;
+         m_data.writeByte(SnapshotConstants.TYPE_ENUM);
+         m_data.writeShort(getEnumIndex(e.getDeclaringClass()));
+         m_data.writeShort(e.ordinal());
+         return;
+      }
+
+      if (value instanceof Rate)
+      {
+         Rate rate = (Rate) value;
+         m_data.writeByte(SnapshotConstants.TYPE_RATE);
+         m_data.writeDouble(rate.getAmount());
+         m_data.writeByte(rate.getUnits().ordinal());
+         return;
+      }
+
+      if (value instanceof ProjectCalendar)
+      {
+         m_data.writeByte(SnapshotConstants.TYPE_CALENDAR);
+         m_data.writeInt(getCalendarIndex((ProjectCalendar) value));
+         return;
+      }
+
+      if (value instanceof Priority)
+      {
+         m_data.writeByte(SnapshotConstants.TYPE_PRIORITY);
+         m_data.writeInt(((Priority) value).getValue());
+         return;
+      }
+
+      if (value instanceof Long)
+      {
+         m_data.writeByte(SnapshotConstants.TYPE_LONG);
+         m_data.writeLong(((Long) value).longValue());
+         return;
+      }
+
+      if (value instanceof Short)
+      {
+         m_data.writeByte(SnapshotConstants.TYPE_SHORT);
+         m_data.writeShort(((Short) value).shortValue());
+         return;
+      }
+
+      if (value instanceof Float)
+      {
+         m_data.writeByte(SnapshotConstants.TYPE_FLOAT);
+         m_data.writeFloat(((Float) value).floatValue());
+         return;
+      }
+
+      if (value instanceof BigInteger)
+      {
+         m_data.writeByte(SnapshotConstants.TYPE_BIG_INTEGER);
+         m_data.writeInt(getStringIndex(value.toString()));
+         return;
+      }
+
+      if (value instanceof BigDecimal)
+      {
+         m_data.writeByte(SnapshotConstants.TYPE_BIG_DECIMAL);
+         m_data.writeInt(getStringIndex(value.toString()));
+         return;
+      }
+
+      if (value instanceof UUID)
+      {
+         UUID uuid = (UUID) value;
+         m_data.writeByte(SnapshotConstants.TYPE_UUID);
+         m_data.writeLong(uuid.getMostSignificantBits());
+         m_data.writeLong(uuid.getLeastSignificantBits());
+         return;
+      }
+
+      if (value instanceof Character)
+      {
+         m_data.writeByte(SnapshotConstants.TYPE_CHARACTER);
+         m_data.writeChar(((Character) value).charValue());
+         return;
+      }
+
+      if (value instanceof DateRange)
+      {
+         DateRange range = (DateRange) value;
+         m_data.writeByte(SnapshotConstants.TYPE_DATE_RANGE);
+         writeValue(range.getStart());
+         writeValue(range.getEnd());
+         return;
+      }
+
+      if (value instanceof List<?>)
+      {
+         List<?> list = (List<?>) value;
+         m_data.writeByte(SnapshotConstants.TYPE_LIST);
+         m_data.writeInt(list.size());
+         for (Object item : list)
+         {
+            writeValue(item);
+         }
+         return;
+      }
+
+      if (value instanceof Map<?, ?>)
+      {
+         Map<?, ?> map = (Map<?, ?>) value;
+         m_data.writeByte(SnapshotConstants.TYPE_MAP);
+         m_data.writeInt(map.size());
+         for (Map.Entry<?, ?> entry : map.entrySet())
+         {
+            writeValue(entry.getKey());
+            writeValue(entry.getValue());
+         }
+         return;
+      }
+
+      if (value instanceof SubProject)
+      {
+         SubProject subProject = (SubProject) value;
+         m_data.writeByte(SnapshotConstants.TYPE_SUBPROJECT);
+         writeValue(subProject.getDosFileName());
+         writeValue(subProject.getDosFullPath());
+         writeValue(subProject.getFileName());
+         writeValue(subProject.getFullPath());
+         writeValue(subProject.getUniqueIDOffset());
+         writeValue(subProject.getTaskUniqueID());
+         writeValue(subProject.getAllExternalTaskUniqueIDs());
+         return;
+      }
+
+      if (value instanceof byte[])
+      {
+         byte[] bytes = (byte[]) value;
+         m_data.writeByte(SnapshotConstants.TYPE_BYTE_ARRAY);
+         m_data.writeInt(bytes.length);
+         m_data.write(bytes);
+         return;
+      }
+
+      throw new IOException("Unsupported value type: " + value.getClass().getName());
+   }
+
+   /**
+    * Write a calendar index, or -1 if the calendar is null.
+    *
+    * @param calendar calendar
+    */
+   private void writeCalendarIndex(ProjectCalendar calendar) throws IOException
+   {
+      m_data.writeInt(calendar == null ? -1 : getCalendarIndex(calendar));
+   }
+
+   /**
+    * Retrieve the index of a string in the string table,
+    * adding it if necessary.
+    *
+    * @param value string value
+    * @return string index
+    */
+   private int getStringIndex(String value)
+   {
+      Integer result = m_stringMap.get(value);
+      if (result == null)
+      {
+         result = Integer.valueOf(m_strings.size());
+         m_strings.add(value);
+         m_stringMap.put(value, result);
+      }
+      return result.intValue();
+   }
+
+   /**
+    * Retrieve the index of an enum class in the enum table,
+    * adding it if necessary.
+    *
+    * @param value enum class
+    * @return enum class index
+    */
+   private int getEnumIndex(Class<?> value)
+   {
+      Integer result = m_enumMap.get(value);
+      if (result == null)
+      {
+         result = Integer.valueOf(m_enums.size());
+         m_enums.add(value);
+         m_enumMap.put(value, result);
+      }
+      return result.intValue();
+   }
+
+   /**
+    * Retrieve the index of a calendar, adding the calendar to the list
+    * of calendars to be written if necessary.
+    *
+    * @param value calendar
+    * @return calendar index
+    */
+   private int getCalendarIndex(ProjectCalendar value)
+   {
+      Integer result = m_calendarMap.get(value);
+      if (result == null)
+      {
+         result = Integer.valueOf(m_calendars.size());
+         m_calendars.add(value);
+         m_calendarMap.put(value, result);
+      }
+      return result.intValue();
+   }
+
+   /**
+    * Retrieve the index of a task in the task list.
+    *
+    * @param task task
+    * @return task index
+    */
+   private int getTaskIndex(Task task) throws IOException
+   {
+      Integer result = m_taskMap.get(task);
+      if (result == null)
+      {
+         throw new IOException("Task not found in project: " + task);
+      }
+      return result.intValue();
+   }
+
+   /**
+    * Retrieve the fields to be written for a field container. Relationship
+    * fields are excluded as relationships are written separately.
+    *
+    * @param fields all fields for this container
+    * @return fields to write
+    */
+   private static FieldType[] getFields(FieldType[] fields)
+   {
+      List<FieldType> result = new ArrayList<FieldType>();
+      for (FieldType field : fields)
+      {
+         if (field.getDataType() != DataType.RELATION_LIST)
+         {
+            result.add(field);
+         }
+      }
+      return result.toArray(new FieldType[result.size()]);
+   }
+
+   private ProjectFile m_projectFile;
+   private ByteArrayOutputStream m_buffer;
+   private DataOutputStream m_data;
+   private byte[][] m_sections;
+   private List<String> m_strings;
+   private Map<String, Integer> m_stringMap;
+   private List<Class<?>> m_enums;
+   private Map<Class<?>, Integer> m_enumMap;
+   private List<ProjectCalendar> m_calendars;
+   private Map<ProjectCalendar, Integer> m_calendarMap;
+   private Map<Task, Integer> m_taskMap;
+
+   private static final int COST_RATE_TABLE_COUNT = 5;
+   private static final int BASELINE_COUNT = 11;
+
+   private static final FieldType[] PROJECT_FIELDS = getFields(ProjectField.values());
+   private static final FieldType[] RESOURCE_FIELDS = getFields(ResourceField.values());
+   private static final FieldType[] TASK_FIELDS = getFields(TaskField.values());
+   private static final FieldType[] ASSIGNMENT_FIELDS = getFields(AssignmentField.values());
+
+   /**
+    * Order in which sections appear in the snapshot.
+    */
+   private static final byte[] SECTION_ORDER =
+   {
+      SnapshotConstants.SECTION_STRINGS,
+      SnapshotConstants.SECTION_ENUMS,
+      SnapshotConstants.SECTION_PROPERTIES,
+      SnapshotConstants.SECTION_CUSTOM_FIELDS,
+      SnapshotConstants.SECTION_CALENDARS,
+      SnapshotConstants.SECTION_RESOURCES,
+      SnapshotConstants.SECTION_TASKS,
+      SnapshotConstants.SECTION_HIERARCHY,
+      SnapshotConstants.SECTION_RELATIONS,
+      SnapshotConstants.SECTION_ASSIGNMENTS
+   };
+}
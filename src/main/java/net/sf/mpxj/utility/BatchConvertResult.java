@@ -0,0 +1,208 @@
+/*
+ * file:       BatchConvertResult.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.utility;
+
+import java.io.File;
+
+import net.sf.mpxj.reader.ProjectFileFormat;
+
+/**
+ * Describes the outcome of converting a single file as part of a batch conversion.
+ */
+public final class BatchConvertResult
+{
+   /**
+    * Constructor.
+    *
+    * @param index position of the source file in the batch
+    * @param sourceFile source file
+    * @param targetFile target file
+    */
+   BatchConvertResult(int index, File sourceFile, File targetFile)
+   {
+      m_index = index;
+      m_sourceFile = sourceFile;
+      m_targetFile = targetFile;
+      m_format = ProjectFileFormat.UNKNOWN;
+      m_allocatedBytes = -1;
+   }
+
+   /**
+    * Retrieve the position of the source file in the batch.
+    *
+    * @return index
+    */
+   public int getIndex()
+   {
+      return m_index;
+   }
+
+   /**
+    * Retrieve the source file.
+    *
+    * @return source file
+    */
+   public File getSourceFile()
+   {
+      return m_sourceFile;
+   }
+
+   /**
+    * Retrieve the target file.
+    *
+    * @return target file
+    */
+   public File getTargetFile()
+   {
+      return m_targetFile;
+   }
+
+   /**
+    * Retrieve the format of the source file.
+    *
+    * @return source file format
+    */
+   public ProjectFileFormat getFormat()
+   {
+      return m_format;
+   }
+
+   /**
+    * Set the format of the source file.
+    *
+    * @param format source file format
+    */
+   void setFormat(ProjectFileFormat format)
+   {
+      m_format = format;
+   }
+
+   /**
+    * Retrieve the time taken to read the source file.
+    *
+    * @return read time in milliseconds
+    */
+   public long getReadTime()
+   {
+      return m_readTime;
+   }
+
+   /**
+    * Set the time taken to read the source file.
+    *
+    * @param readTime read time in milliseconds
+    */
+   void setReadTime(long readTime)
+   {
+      m_readTime = readTime;
+   }
+
+   /**
+    * Retrieve the time taken to write the target file.
+    *
+    * @return write time in milliseconds
+    */
+   public long getWriteTime()
+   {
+      return m_writeTime;
+   }
+
+   /**
+    * Set the time taken to write the target file.
+    *
+    * @param writeTime write time in milliseconds
+    */
+   void setWriteTime(long writeTime)
+   {
+      m_writeTime = writeTime;
+   }
+
+   /**
+    * Retrieve the number of bytes allocated on the heap while this file
+    * was converted. As the heap is shared between all of the files being
+    * converted concurrently, this is the measure of the memory demands
+    * of an individual file which is available. Returns -1 if the JVM
+    * does not support this measurement.
+    *
+    * @return allocated bytes
+    */
+   public long getAllocatedBytes()
+   {
+      return m_allocatedBytes;
+   }
+
+   /**
+    * Set the number of bytes allocated while this file was converted.
+    *
+    * @param allocatedBytes allocated bytes
+    */
+   void setAllocatedBytes(long allocatedBytes)
+   {
+      m_allocatedBytes = allocatedBytes;
+   }
+
+   /**
+    * Retrieve the error which caused the conversion to fail.
+    *
+    * @return error, or null if the conversion succeeded
+    */
+   public Throwable getError()
+   {
+      return m_error;
+   }
+
+   /**
+    * Set the error which caused the conversion to fail.
+    *
+    * @param error error
+    */
+   void setError(Throwable error)
+   {
+      m_error = error;
+   }
+
+   /**
+    * Determine if the file was converted successfully.
+    *
+    * @return true if the conversion succeeded
+    */
+   public boolean getSuccess()
+   {
+      return m_error == null;
+   }
+
+   @Override public String toString()
+   {
+      return "[BatchConvertResult source=" + m_sourceFile + " format=" + m_format + " success=" + getSuccess() + "]";
+   }
+
+   private final int m_index;
+   private final File m_sourceFile;
+   private final File m_targetFile;
+   private ProjectFileFormat m_format;
+   private long m_readTime;
+   private long m_writeTime;
+   private long m_allocatedBytes;
+   private Throwable m_error;
+}
@@ -0,0 +1,243 @@
+/*
+ * file:       BatchConvertSummary.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.utility;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import net.sf.mpxj.reader.ProjectFileFormat;
+
+/**
+ * Summarises the results of a batch conversion. Timings are aggregated
+ * by source file format, and the throughput and peak heap usage
+ * for the batch as a whole are available.
+ */
+public final class BatchConvertSummary
+{
+   /**
+    * Constructor.
+    *
+    * @param results results for each file, in source file order
+    * @param elapsedTime wall clock time taken to convert the batch in milliseconds
+    * @param bytesRead total size of the source files in bytes
+    * @param peakHeapUsage peak heap usage in bytes
+    */
+   BatchConvertSummary(List<BatchConvertResult> results, long elapsedTime, long bytesRead, long peakHeapUsage)
+   {
+      m_results = Collections.unmodifiableList(results);
+      m_elapsedTime = elapsedTime;
+      m_bytesRead = bytesRead;
+      m_peakHeapUsage = peakHeapUsage;
+   }
+
+   /**
+    * Retrieve the results for each file, in source file order.
+    *
+    * @return list of results
+    */
+   public List<BatchConvertResult> getResults()
+   {
+      return m_results;
+   }
+
+   /**
+    * Retrieve the results for files which could not be converted.
+    *
+    * @return list of results
+    */
+   public List<BatchConvertResult> getFailures()
+   {
+      List<BatchConvertResult> result = new ArrayList<BatchConvertResult>();
+      for (BatchConvertResult item : m_results)
+      {
+         if (!item.getSuccess())
+         {
+            result.add(item);
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Retrieve the number of files converted successfully.
+    *
+    * @return file count
+    */
+   public int getSuccessCount()
+   {
+      return m_results.size() - getFailures().size();
+   }
+
+   /**
+    * Retrieve the wall clock time taken to convert the batch.
+    *
+    * @return elapsed time in milliseconds
+    */
+   public long getElapsedTime()
+   {
+      return m_elapsedTime;
+   }
+
+   /**
+    * Retrieve the total size of the source files.
+    *
+    * @return size in bytes
+    */
+   public long getBytesRead()
+   {
+      return m_bytesRead;
+   }
+
+   /**
+    * Retrieve the number of files processed per second.
+    *
+    * @return files per second
+    */
+   public double getFilesPerSecond()
+   {
+      return m_elapsedTime == 0 ? 0 : (m_results.size() * 1000.0) / m_elapsedTime;
+   }
+
+   /**
+    * Retrieve the volume of source data processed per second.
+    *
+    * @return bytes per second
+    */
+   public double getBytesPerSecond()
+   {
+      return m_elapsedTime == 0 ? 0 : (m_bytesRead * 1000.0) / m_elapsedTime;
+   }
+
+   /**
+    * Retrieve the peak heap usage observed while the batch was converted.
+    * This is the sum of the peak usage of each heap memory pool, so may
+    * overstate the true peak. Returns -1 if this is not available.
+    *
+    * @return peak heap usage in bytes
+    */
+   public long getPeakHeapUsage()
+   {
+      return m_peakHeapUsage;
+   }
+
+   /**
+    * Retrieve the source file formats present in this batch.
+    *
+    * @return set of formats
+    */
+   public Set<ProjectFileFormat> getFormats()
+   {
+      Set<ProjectFileFormat> result = EnumSet.noneOf(ProjectFileFormat.class);
+      for (BatchConvertResult item : m_results)
+      {
+         result.add(item.getFormat());
+      }
+      return result;
+   }
+
+   /**
+    * Retrieve the number of files of the given format.
+    *
+    * @param format source file format
+    * @return file count
+    */
+   public int getFileCount(ProjectFileFormat format)
+   {
+      int result = 0;
+      for (BatchConvertResult item : m_results)
+      {
+         if (item.getFormat() == format)
+         {
+            ++result;
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Retrieve the total time taken to read files of the given format.
+    *
+    * @param format source file format
+    * @return read time in milliseconds
+    */
+   public long getReadTime(ProjectFileFormat format)
+   {
+      long result = 0;
+      for (BatchConvertResult item : m_results)
+      {
+         if (item.getFormat() == format)
+         {
+            result += item.getReadTime();
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Retrieve the total time taken to write files read from the given format.
+    *
+    * @param format source file format
+    * @return write time in milliseconds
+    */
+   public long getWriteTime(ProjectFileFormat format)
+   {
+      long result = 0;
+      for (BatchConvertResult item : m_results)
+      {
+         if (item.getFormat() == format)
+         {
+            result += item.getWriteTime();
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Retrieve the largest number of bytes allocated while converting
+    * a single file of the given format.
+    *
+    * @param format source file format
+    * @return allocated bytes, or -1 if not available
+    */
+   public long getMaxAllocatedBytes(ProjectFileFormat format)
+   {
+      long result = -1;
+      for (BatchConvertResult item : m_results)
+      {
+         if (item.getFormat() == format)
+         {
+            result = Math.max(result, item.getAllocatedBytes());
+         }
+      }
+      return result;
+   }
+
+   private final List<BatchConvertResult> m_results;
+   private final long m_elapsedTime;
+   private final long m_bytesRead;
+   private final long m_peakHeapUsage;
+}
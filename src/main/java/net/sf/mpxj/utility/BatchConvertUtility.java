@@ -0,0 +1,431 @@
+/*
+ * file:       BatchConvertUtility.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.utility;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import net.sf.mpxj.MPXJException;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.reader.UniversalProjectReader;
+import net.sf.mpxj.writer.ProjectWriter;
+import net.sf.mpxj.writer.ProjectWriterUtility;
+
+/**
+ * Converts a batch of schedule files into a different file format.
+ * Source files are read using the UniversalProjectReader, and the writer
+ * used for each target file is selected by ProjectWriterUtility based on the
+ * target file suffix.
+ *
+ * Files are converted concurrently by a fixed size pool of worker threads.
+ * The number of files submitted to the pool but not yet converted is bounded,
+ * so when source files are supplied by an Iterable, the Iterable is only
+ * consumed as quickly as the files can be converted. A failure to convert one
+ * file is recorded in the result for that file, and does not affect the
+ * conversion of the remaining files. An Error, for example an
+ * OutOfMemoryError, ends the batch and is thrown to the caller.
+ *
+ * Note that peak heap usage is measured using the JVM's memory pool statistics,
+ * which are reset at the start of each batch. If other work is carried out
+ * in the same JVM, this will be reflected in the figure reported.
+ */
+public final class BatchConvertUtility
+{
+   /**
+    * Set the number of worker threads used to convert files.
+    * Defaults to the number of available processors.
+    *
+    * @param threadCount thread count
+    */
+   public void setThreadCount(int threadCount)
+   {
+      if (threadCount < 1)
+      {
+         throw new IllegalArgumentException("Thread count must be at least 1");
+      }
+      m_threadCount = threadCount;
+   }
+
+   /**
+    * Retrieve the number of worker threads used to convert files.
+    *
+    * @return thread count
+    */
+   public int getThreadCount()
+   {
+      return m_threadCount;
+   }
+
+   /**
+    * Set the maximum number of files which have been submitted for conversion
+    * but have not yet been converted. No further files are taken from the source
+    * until one of these files has been converted. If this value is zero,
+    * twice the number of worker threads is used.
+    *
+    * @param maxPendingFiles maximum number of pending files
+    */
+   public void setMaxPendingFiles(int maxPendingFiles)
+   {
+      if (maxPendingFiles < 0)
+      {
+         throw new IllegalArgumentException("Maximum pending files must not be negative");
+      }
+      m_maxPendingFiles = maxPendingFiles;
+   }
+
+   /**
+    * Retrieve the maximum number of files which have been submitted for
+    * conversion but have not yet been converted.
+    *
+    * @return maximum number of pending files
+    */
+   public int getMaxPendingFiles()
+   {
+      return m_maxPendingFiles == 0 ? m_threadCount * 2 : m_maxPendingFiles;
+   }
+
+   /**
+    * Convert all files in a directory whose names end with the source suffix.
+    * Each target file is named by replacing the source suffix with the target suffix.
+    *
+    * @param sourceDirectory directory containing source files
+    * @param sourceSuffix source file suffix
+    * @param targetDirectory directory to which target files are written
+    * @param targetSuffix target file suffix, which determines the target file format
+    * @return batch conversion summary
+    */
+   public BatchConvertSummary process(File sourceDirectory, final String sourceSuffix, File targetDirectory, String targetSuffix) throws MPXJException
+   {
+      File[] files = sourceDirectory.listFiles(new FileFilter()
+      {
+         @Override public boolean accept(File pathname)
+         {
+            return pathname.isFile() && pathname.getName().endsWith(sourceSuffix);
+         }
+      });
+
+      if (files == null)
+      {
+         throw new IllegalArgumentException("Not a directory: " + sourceDirectory);
+      }
+
+      Arrays.sort(files);
+      return process(Arrays.asList(files), sourceSuffix, targetDirectory, targetSuffix);
+   }
+
+   /**
+    * Convert the supplied files. Each target file is named by replacing the
+    * source suffix with the target suffix. If a source file name does not end
+    * with the source suffix, the target suffix is appended to its name.
+    *
+    * @param sourceFiles source files
+    * @param sourceSuffix source file suffix
+    * @param targetDirectory directory to which target files are written
+    * @param targetSuffix target file suffix, which determines the target file format
+    * @return batch conversion summary
+    */
+   public BatchConvertSummary process(Iterable<File> sourceFiles, String sourceSuffix, File targetDirectory, String targetSuffix) throws MPXJException
+   {
+      int maxPendingFiles = getMaxPendingFiles();
+      List<BatchConvertResult> results = new ArrayList<BatchConvertResult>();
+      ExecutorService executor = Executors.newFixedThreadPool(m_threadCount);
+      CompletionService<BatchConvertResult> service = new ExecutorCompletionService<BatchConvertResult>(executor);
+
+      resetPeakHeapUsage();
+      long start = System.currentTimeMillis();
+      long bytesRead = 0;
+      int pendingFiles = 0;
+      int index = 0;
+
+      try
+      {
+         for (File sourceFile : sourceFiles)
+         {
+            if (pendingFiles == maxPendingFiles)
+            {
+               results.add(getResult(service));
+               --pendingFiles;
+            }
+
+            bytesRead += sourceFile.length();
+            service.submit(new ConvertTask(new BatchConvertResult(index++, sourceFile, getTargetFile(sourceFile, sourceSuffix, targetDirectory, targetSuffix))));
+            ++pendingFiles;
+         }
+
+         while (pendingFiles > 0)
+         {
+            results.add(getResult(service));
+            --pendingFiles;
+         }
+      }
+
+      catch (InterruptedException ex)
+      {
+         Thread.currentThread().interrupt();
+         throw new MPXJException(MPXJException.READ_ERROR, ex);
+      }
+
+      finally
+      {
+         executor.shutdownNow();
+      }
+
+      long elapsedTime = System.currentTimeMillis() - start;
+
+      Collections.sort(results, new Comparator<BatchConvertResult>()
+      {
+         @Override public int compare(BatchConvertResult o1, BatchConvertResult o2)
+         {
+            return o1.getIndex() - o2.getIndex();
+         }
+      });
+
+      return new BatchConvertSummary(results, elapsedTime, bytesRead, getPeakHeapUsage());
+   }
+
+   /**
+    * Wait for the next file to be converted, and retrieve its result.
+    *
+    * @param service completion service
+    * @return conversion result
+    */
+   private BatchConvertResult getResult(CompletionService<BatchConvertResult> service) throws InterruptedException, MPXJException
+   {
+      try
+      {
+         return service.take().get();
+      }
+
+      catch (ExecutionException ex)
+      {
+         // ConvertTask records its own exceptions, so we only get here if an Error is thrown
+         if (ex.getCause() instanceof Error)
+         {
+            throw (Error) ex.getCause();
+         }
+         throw new MPXJException(MPXJException.READ_ERROR, ex);
+      }
+   }
+
+   /**
+    * Determine the name of the target file.
+    *
+    * @param sourceFile source file
+    * @param sourceSuffix source file suffix
+    * @param targetDirectory target directory
+    * @param targetSuffix target file suffix
+    * @return target file
+    */
+   private File getTargetFile(File sourceFile, String sourceSuffix, File targetDirectory, String targetSuffix)
+   {
+      String name = sourceFile.getName();
+      if (name.endsWith(sourceSuffix))
+      {
+         name = name.substring(0, name.length() - sourceSuffix.length());
+      }
+      return new File(targetDirectory, name + targetSuffix);
+   }
+
+   /**
+    * Reset the peak usage statistics for each heap memory pool.
+    */
+   private void resetPeakHeapUsage()
+   {
+      for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+      {
+         if (pool.getType() == MemoryType.HEAP && pool.isValid())
+         {
+            pool.resetPeakUsage();
+         }
+      }
+   }
+
+   /**
+    * Retrieve the sum of the peak usage of each heap memory pool.
+    *
+    * @return peak heap usage in bytes, or -1 if not available
+    */
+   private long getPeakHeapUsage()
+   {
+      long result = -1;
+      for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+      {
+         if (pool.getType() == MemoryType.HEAP && pool.isValid() && pool.getPeakUsage() != null)
+         {
+            result = Math.max(result, 0) + pool.getPeakUsage().getUsed();
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Retrieve the number of bytes allocated by the current thread.
+    *
+    * @return allocated bytes, or -1 if not available
+    */
+   private static long getAllocatedBytes()
+   {
+      return ALLOCATION_COUNTER_SUPPORTED ? AllocationCounter.getAllocatedBytes() : -1;
+   }
+
+   /**
+    * Determine if the JVM can report the number of bytes allocated by a thread.
+    *
+    * @return true if allocated bytes are available
+    */
+   private static boolean isAllocationCounterSupported()
+   {
+      try
+      {
+         return AllocationCounter.isSupported();
+      }
+
+      catch (LinkageError ex)
+      {
+         // The com.sun.management extensions are not available
+         return false;
+      }
+   }
+
+   /**
+    * Converts a single file.
+    */
+   private static final class ConvertTask implements Callable<BatchConvertResult>
+   {
+      /**
+       * Constructor.
+       *
+       * @param result result to populate
+       */
+      public ConvertTask(BatchConvertResult result)
+      {
+         m_result = result;
+      }
+
+      @Override public BatchConvertResult call()
+      {
+         long allocatedBytes = getAllocatedBytes();
+         File targetFile = m_result.getTargetFile();
+         boolean writing = false;
+
+         try
+         {
+            File sourceFile = m_result.getSourceFile();
+            UniversalProjectReader reader = new UniversalProjectReader();
+            m_result.setFormat(reader.probe(sourceFile).getFormat());
+
+            long start = System.currentTimeMillis();
+            ProjectFile project = reader.read(sourceFile);
+            if (project == null)
+            {
+               throw new IllegalArgumentException("Unsupported file type");
+            }
+            m_result.setReadTime(System.currentTimeMillis() - start);
+
+            start = System.currentTimeMillis();
+            ProjectWriter writer = ProjectWriterUtility.getProjectWriter(targetFile.getName());
+            writing = true;
+            writer.write(project, targetFile);
+            m_result.setWriteTime(System.currentTimeMillis() - start);
+         }
+
+         catch (Exception ex)
+         {
+            // Isolate failures to the file which caused them
+            m_result.setError(ex);
+            if (writing)
+            {
+               targetFile.delete();
+            }
+         }
+
+         catch (Error ex)
+         {
+            // The JVM may not be in a usable state, so end the batch
+            if (writing)
+            {
+               targetFile.delete();
+            }
+            throw ex;
+         }
+
+         if (allocatedBytes != -1)
+         {
+            m_result.setAllocatedBytes(getAllocatedBytes() - allocatedBytes);
+         }
+
+         return m_result;
+      }
+
+      private final BatchConvertResult m_result;
+   }
+
+   /**
+    * Wraps access to the com.sun.management extensions, which may not be
+    * present in all JVMs.
+    */
+   private static final class AllocationCounter
+   {
+      /**
+       * Determine if thread allocated bytes are available.
+       *
+       * @return true if thread allocated bytes are available
+       */
+      public static boolean isSupported()
+      {
+         ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+         return bean instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemoryEnabled();
+      }
+
+      /**
+       * Retrieve the number of bytes allocated by the current thread.
+       *
+       * @return allocated bytes
+       */
+      public static long getAllocatedBytes()
+      {
+         return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+      }
+   }
+
+   private int m_threadCount = Runtime.getRuntime().availableProcessors();
+   private int m_maxPendingFiles;
+
+   private static final boolean ALLOCATION_COUNTER_SUPPORTED = isAllocationCounterSupported();
+}
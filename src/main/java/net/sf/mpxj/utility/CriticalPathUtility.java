@@ -0,0 +1,1114 @@
+/*
+ * file:       CriticalPathUtility.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.utility;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sf.mpxj.ConstraintType;
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.MPXJException;
+import net.sf.mpxj.ProjectCalendar;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.ProjectProperties;
+import net.sf.mpxj.Relation;
+import net.sf.mpxj.RelationType;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.TaskField;
+import net.sf.mpxj.TimeUnit;
+import net.sf.mpxj.common.DateHelper;
+
+/**
+ * Carries out a critical path analysis of a project. A forward pass through
+ * the task network calculates early start and finish dates, and a backward
+ * pass calculates late start and finish dates. From these the start, finish,
+ * free and total slack values are derived, and the critical flag is set.
+ * The results are written to the tasks' early start, early finish, late start,
+ * late finish, start slack, finish slack, free slack, total slack and critical
+ * attributes.
+ *
+ * The analysis takes account of relation types and lags, primary and
+ * secondary constraints, actual start and finish dates, the remaining
+ * duration of tasks in progress, the project status date, and the effective
+ * calendar for each task. Relations attached to summary tasks are applied
+ * to the summary task's descendants, and the results for summary tasks
+ * are rolled up from their children.
+ *
+ * Tasks are visited in topological order, so each pass takes time
+ * proportional to the number of tasks plus the number of relations.
+ * Calendar arithmetic is carried out using the ProjectCalendar methods,
+ * so compiling calendar indexes before scheduling large projects
+ * (see ProjectCalendar.compileIndex) will improve performance significantly.
+ */
+public final class CriticalPathUtility
+{
+   /**
+    * Schedule a project, starting from the project start date.
+    *
+    * @param file project to schedule
+    * @throws MPXJException if the task network contains a loop
+    */
+   public void schedule(ProjectFile file) throws MPXJException
+   {
+      Date startDate = file.getProjectProperties().getStartDate();
+      if (startDate == null)
+      {
+         startDate = DateHelper.getDayStartDate(new Date());
+      }
+      schedule(file, startDate);
+   }
+
+   /**
+    * Schedule a project, starting from the supplied date.
+    *
+    * @param file project to schedule
+    * @param startDate project start date
+    * @throws MPXJException if the task network contains a loop
+    */
+   public void schedule(ProjectFile file, Date startDate) throws MPXJException
+   {
+      m_file = file;
+      m_properties = file.getProjectProperties();
+
+      buildNetwork();
+      int[] order = getTopologicalOrder();
+      forwardPass(order, startDate);
+      backwardPass(order);
+      updateTasks(order);
+      updateSummaryTasks();
+
+      m_file = null;
+      m_properties = null;
+      m_tasks = null;
+      m_calendars = null;
+   }
+
+   /**
+    * Build an adjacency list representation of the task network.
+    * Tasks without child tasks are represented by a single node. Each
+    * summary task is represented by four zero duration nodes: a start and
+    * a finish node which pass the constraints of relations on the summary
+    * task down to its children, and a start and a finish node which pass
+    * the dates of its children on to the successors of the summary task.
+    * This keeps the size of the network proportional to the number of
+    * tasks plus the number of relations.
+    */
+   private void buildNetwork()
+   {
+      m_tasks = new ArrayList<Task>();
+      Map<Task, Integer> taskIndexes = new IdentityHashMap<Task, Integer>();
+      for (Task task : m_file.getTasks())
+      {
+         if (task.getNull() || task.hasChildTasks())
+         {
+            continue;
+         }
+         taskIndexes.put(task, Integer.valueOf(m_tasks.size()));
+         m_tasks.add(task);
+      }
+      m_leafTaskCount = m_tasks.size();
+
+      Map<Task, Integer> summaryIndexes = new IdentityHashMap<Task, Integer>();
+      for (Task task : m_file.getTasks())
+      {
+         if (task.getNull() || !task.hasChildTasks())
+         {
+            continue;
+         }
+         summaryIndexes.put(task, Integer.valueOf(m_tasks.size()));
+         for (int loop = 0; loop < SUMMARY_NODE_COUNT; loop++)
+         {
+            m_tasks.add(task);
+         }
+      }
+
+      int nodeCount = m_tasks.size();
+      m_calendars = new ProjectCalendar[nodeCount];
+      m_durations = new Duration[nodeCount];
+      for (int index = 0; index < nodeCount; index++)
+      {
+         Task task = m_tasks.get(index);
+         m_calendars[index] = task.getEffectiveCalendar();
+         Duration duration = index < m_leafTaskCount ? task.getDuration() : null;
+         m_durations[index] = duration == null ? ZERO_DURATION : duration;
+      }
+
+      //
+      // Link each summary task's nodes to its children
+      //
+      List<int[]> edges = new ArrayList<int[]>();
+      List<RelationType> types = new ArrayList<RelationType>();
+      List<Duration> lags = new ArrayList<Duration>();
+      for (Task task : m_file.getTasks())
+      {
+         Integer summaryIndex = summaryIndexes.get(task);
+         if (summaryIndex == null)
+         {
+            continue;
+         }
+
+         int summary = summaryIndex.intValue();
+         for (Task child : task.getChildTasks())
+         {
+            addEdge(edges, types, lags, summary + IN_START, getNode(child, IN_START, taskIndexes, summaryIndexes), RelationType.START_START, ZERO_DURATION);
+            addEdge(edges, types, lags, summary + IN_FINISH, getNode(child, IN_FINISH, taskIndexes, summaryIndexes), RelationType.FINISH_FINISH, ZERO_DURATION);
+            addEdge(edges, types, lags, getNode(child, OUT_START, taskIndexes, summaryIndexes), summary + OUT_START, RelationType.START_START, ZERO_DURATION);
+            addEdge(edges, types, lags, getNode(child, OUT_FINISH, taskIndexes, summaryIndexes), summary + OUT_FINISH, RelationType.FINISH_FINISH, ZERO_DURATION);
+         }
+      }
+
+      //
+      // Add the relations. Relations between a summary task and its own
+      // descendants are ignored, as they would form a loop.
+      //
+      for (Task task : m_file.getTasks())
+      {
+         for (Relation relation : task.getPredecessors())
+         {
+            Task predecessorTask = relation.getTargetTask();
+            if (isAncestor(task, predecessorTask) || isAncestor(predecessorTask, task))
+            {
+               continue;
+            }
+
+            RelationType type = relation.getType();
+            boolean predecessorStart = type == RelationType.START_START || type == RelationType.START_FINISH;
+            boolean successorStart = type == RelationType.START_START || type == RelationType.FINISH_START;
+            int predecessor = getNode(predecessorTask, predecessorStart ? OUT_START : OUT_FINISH, taskIndexes, summaryIndexes);
+            int successor = getNode(task, successorStart ? IN_START : IN_FINISH, taskIndexes, summaryIndexes);
+            if (predecessor != successor)
+            {
+               addEdge(edges, types, lags, predecessor, successor, type, relation.getLag());
+            }
+         }
+      }
+
+      int edgeCount = edges.size();
+      m_edgePredecessor = new int[edgeCount];
+      m_edgeSuccessor = new int[edgeCount];
+      m_edgeType = types.toArray(new RelationType[edgeCount]);
+      m_edgeLag = lags.toArray(new Duration[edgeCount]);
+
+      m_successorOffset = new int[nodeCount + 1];
+      m_predecessorOffset = new int[nodeCount + 1];
+      for (int index = 0; index < edgeCount; index++)
+      {
+         int[] edge = edges.get(index);
+         m_edgePredecessor[index] = edge[0];
+         m_edgeSuccessor[index] = edge[1];
+         ++m_successorOffset[edge[0] + 1];
+         ++m_predecessorOffset[edge[1] + 1];
+      }
+
+      for (int index = 0; index < nodeCount; index++)
+      {
+         m_successorOffset[index + 1] += m_successorOffset[index];
+         m_predecessorOffset[index + 1] += m_predecessorOffset[index];
+      }
+
+      m_successorEdges = new int[edgeCount];
+      m_predecessorEdges = new int[edgeCount];
+      int[] successorPosition = new int[nodeCount];
+      int[] predecessorPosition = new int[nodeCount];
+      for (int index = 0; index < edgeCount; index++)
+      {
+         int predecessor = m_edgePredecessor[index];
+         int successor = m_edgeSuccessor[index];
+         m_successorEdges[m_successorOffset[predecessor] + successorPosition[predecessor]++] = index;
+         m_predecessorEdges[m_predecessorOffset[successor] + predecessorPosition[successor]++] = index;
+      }
+   }
+
+   /**
+    * Add an edge to the network, ignoring edges with a missing end.
+    *
+    * @param edges edges
+    * @param types relation type for each edge
+    * @param lags lag for each edge
+    * @param predecessor predecessor node, -1 if missing
+    * @param successor successor node, -1 if missing
+    * @param type relation type
+    * @param lag lag
+    */
+   private void addEdge(List<int[]> edges, List<RelationType> types, List<Duration> lags, int predecessor, int successor, RelationType type, Duration lag)
+   {
+      if (predecessor != -1 && successor != -1)
+      {
+         edges.add(new int[]
+         {
+            predecessor,
+            successor
+         });
+         types.add(type);
+         lags.add(lag == null ? ZERO_DURATION : lag);
+      }
+   }
+
+   /**
+    * Retrieve the network node representing a task. For a summary task
+    * the requested one of its four nodes is returned.
+    *
+    * @param task task
+    * @param summaryNode summary node offset, used if the task is a summary task
+    * @param taskIndexes map of tasks without children to network nodes
+    * @param summaryIndexes map of summary tasks to their first network node
+    * @return network node, or -1 if the task is not part of the network
+    */
+   private int getNode(Task task, int summaryNode, Map<Task, Integer> taskIndexes, Map<Task, Integer> summaryIndexes)
+   {
+      Integer index = taskIndexes.get(task);
+      if (index != null)
+      {
+         return index.intValue();
+      }
+
+      index = summaryIndexes.get(task);
+      return index == null ? -1 : index.intValue() + summaryNode;
+   }
+
+   /**
+    * Determine if one task is an ancestor of another.
+    *
+    * @param ancestor candidate ancestor task
+    * @param task task
+    * @return true if ancestor is a parent, grandparent or earlier ancestor of task
+    */
+   private boolean isAncestor(Task ancestor, Task task)
+   {
+      for (Task parent = task.getParentTask(); parent != null; parent = parent.getParentTask())
+      {
+         if (parent == ancestor)
+         {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   /**
+    * Determine the order in which the tasks should be visited, such that
+    * each task appears after all of its predecessors.
+    *
+    * @return array of network indexes in topological order
+    * @throws MPXJException if the task network contains a loop
+    */
+   private int[] getTopologicalOrder() throws MPXJException
+   {
+      int taskCount = m_tasks.size();
+      int[] predecessorCount = new int[taskCount];
+      for (int index = 0; index < taskCount; index++)
+      {
+         predecessorCount[index] = m_predecessorOffset[index + 1] - m_predecessorOffset[index];
+      }
+
+      int[] order = new int[taskCount];
+      int head = 0;
+      int tail = 0;
+      for (int index = 0; index < taskCount; index++)
+      {
+         if (predecessorCount[index] == 0)
+         {
+            order[tail++] = index;
+         }
+      }
+
+      while (head < tail)
+      {
+         int task = order[head++];
+         for (int edgeIndex = m_successorOffset[task]; edgeIndex < m_successorOffset[task + 1]; edgeIndex++)
+         {
+            int successor = m_edgeSuccessor[m_successorEdges[edgeIndex]];
+            if (--predecessorCount[successor] == 0)
+            {
+               order[tail++] = successor;
+            }
+         }
+      }
+
+      if (tail != taskCount)
+      {
+         for (int index = 0; index < taskCount; index++)
+         {
+            if (predecessorCount[index] != 0)
+            {
+               throw new MPXJException(MPXJException.SCHEDULE_LOOP + ": " + m_tasks.get(index));
+            }
+         }
+      }
+
+      return order;
+   }
+
+   /**
+    * Calculate early start and finish dates.
+    *
+    * @param order tasks in topological order
+    * @param projectStartDate project start date
+    */
+   private void forwardPass(int[] order, Date projectStartDate)
+   {
+      int taskCount = m_tasks.size();
+      m_earlyStart = new Date[taskCount];
+      m_earlyFinish = new Date[taskCount];
+
+      for (int task : order)
+      {
+         Task mpxjTask = m_tasks.get(task);
+         ProjectCalendar calendar = m_calendars[task];
+         boolean summary = task >= m_leafTaskCount;
+         Date actualStart = summary ? null : mpxjTask.getActualStart();
+         Date actualFinish = summary ? null : mpxjTask.getActualFinish();
+
+         if (actualStart != null)
+         {
+            m_earlyStart[task] = actualStart;
+            m_earlyFinish[task] = actualFinish == null ? getRemainingWorkFinish(task, mpxjTask, actualStart) : actualFinish;
+            continue;
+         }
+
+         Date startDate = projectStartDate;
+         Date finishDate = null;
+
+         for (int edgeIndex = m_predecessorOffset[task]; edgeIndex < m_predecessorOffset[task + 1]; edgeIndex++)
+         {
+            int edge = m_predecessorEdges[edgeIndex];
+            int predecessor = m_edgePredecessor[edge];
+            Duration lag = getLag(edge, predecessor);
+
+            switch (m_edgeType[edge])
+            {
+               case START_START:
+               {
+                  startDate = DateHelper.max(startDate, addDuration(calendar, m_earlyStart[predecessor], lag));
+                  break;
+               }
+
+               case FINISH_FINISH:
+               {
+                  finishDate = DateHelper.max(finishDate, addDuration(calendar, m_earlyFinish[predecessor], lag));
+                  break;
+               }
+
+               case START_FINISH:
+               {
+                  finishDate = DateHelper.max(finishDate, addDuration(calendar, m_earlyStart[predecessor], lag));
+                  break;
+               }
+
+               case FINISH_START:
+               default:
+               {
+                  startDate = DateHelper.max(startDate, addDuration(calendar, m_earlyFinish[predecessor], lag));
+                  break;
+               }
+            }
+         }
+
+         if (!summary)
+         {
+            startDate = calendar.getNextWorkStart(startDate);
+         }
+
+         if (finishDate != null)
+         {
+            Date finishDrivenStartDate = subtractDuration(calendar, finishDate, m_durations[task]);
+            if (finishDrivenStartDate.getTime() > startDate.getTime())
+            {
+               startDate = finishDrivenStartDate;
+            }
+         }
+
+         if (!summary)
+         {
+            startDate = applyEarlyConstraint(task, mpxjTask.getConstraintType(), mpxjTask.getConstraintDate(), startDate);
+            startDate = applyEarlyConstraint(task, mpxjTask.getSecondaryConstraintType(), mpxjTask.getSecondaryConstraintDate(), startDate);
+         }
+
+         m_earlyStart[task] = startDate;
+         m_earlyFinish[task] = addDuration(calendar, startDate, m_durations[task]);
+      }
+   }
+
+   /**
+    * Calculate the early finish date of a task which has started but not
+    * finished. The remaining duration is scheduled from the point at which
+    * work resumes, or from the project status date if this is later.
+    *
+    * @param task network index of the task
+    * @param mpxjTask task
+    * @param actualStart actual start date
+    * @return early finish date
+    */
+   private Date getRemainingWorkFinish(int task, Task mpxjTask, Date actualStart)
+   {
+      ProjectCalendar calendar = m_calendars[task];
+      Duration duration = m_durations[task];
+      Duration remainingDuration = mpxjTask.getRemainingDuration();
+      if (remainingDuration == null)
+      {
+         Number percentComplete = mpxjTask.getPercentageComplete();
+         double percent = percentComplete == null ? 0 : percentComplete.doubleValue();
+         remainingDuration = Duration.getInstance((duration.getDuration() * (100.0 - percent)) / 100.0, duration.getUnits());
+      }
+
+      Date resumeDate = mpxjTask.getResume();
+      if (resumeDate == null)
+      {
+         Duration actualDuration = mpxjTask.getActualDuration();
+         if (actualDuration == null)
+         {
+            Duration remaining = remainingDuration.convertUnits(duration.getUnits(), m_properties);
+            actualDuration = Duration.getInstance(Math.max(0, duration.getDuration() - remaining.getDuration()), duration.getUnits());
+         }
+         resumeDate = addDuration(calendar, actualStart, actualDuration);
+      }
+
+      Date statusDate = m_properties.getStatusDate();
+      if (statusDate != null && statusDate.getTime() > resumeDate.getTime())
+      {
+         resumeDate = calendar.getNextWorkStart(statusDate);
+      }
+
+      return addDuration(calendar, resumeDate, remainingDuration);
+   }
+
+   /**
+    * Apply a constraint to a task's early start date.
+    *
+    * @param task network index of the task
+    * @param type constraint type
+    * @param date constraint date
+    * @param startDate early start date calculated from the task's predecessors
+    * @return early start date
+    */
+   private Date applyEarlyConstraint(int task, ConstraintType type, Date date, Date startDate)
+   {
+      if (type == null || date == null)
+      {
+         return startDate;
+      }
+
+      ProjectCalendar calendar = m_calendars[task];
+      Date result = startDate;
+
+      switch (type)
+      {
+         case MUST_START_ON:
+         case MANDATORY_START:
+         {
+            result = date;
+            break;
+         }
+
+         case MUST_FINISH_ON:
+         case MANDATORY_FINISH:
+         {
+            result = subtractDuration(calendar, date, m_durations[task]);
+            break;
+         }
+
+         case START_NO_EARLIER_THAN:
+         {
+            if (date.getTime() > startDate.getTime())
+            {
+               result = calendar.getNextWorkStart(date);
+            }
+            break;
+         }
+
+         case FINISH_NO_EARLIER_THAN:
+         {
+            if (date.getTime() > addDuration(calendar, startDate, m_durations[task]).getTime())
+            {
+               result = subtractDuration(calendar, date, m_durations[task]);
+            }
+            break;
+         }
+
+         default:
+         {
+            break;
+         }
+      }
+
+      return result;
+   }
+
+   /**
+    * Calculate late start and finish dates.
+    *
+    * @param order tasks in topological order
+    */
+   private void backwardPass(int[] order)
+   {
+      int taskCount = m_tasks.size();
+      m_lateStart = new Date[taskCount];
+      m_lateFinish = new Date[taskCount];
+
+      Date projectFinishDate = null;
+      for (int task = 0; task < m_leafTaskCount; task++)
+      {
+         projectFinishDate = DateHelper.max(projectFinishDate, m_earlyFinish[task]);
+      }
+
+      for (int orderIndex = order.length - 1; orderIndex >= 0; orderIndex--)
+      {
+         int task = order[orderIndex];
+         Task mpxjTask = m_tasks.get(task);
+         ProjectCalendar calendar = m_calendars[task];
+
+         Date finishDate = projectFinishDate;
+         Date startDate = null;
+
+         for (int edgeIndex = m_successorOffset[task]; edgeIndex < m_successorOffset[task + 1]; edgeIndex++)
+         {
+            int edge = m_successorEdges[edgeIndex];
+            int successor = m_edgeSuccessor[edge];
+            Duration lag = getLag(edge, task);
+
+            switch (m_edgeType[edge])
+            {
+               case START_START:
+               {
+                  startDate = DateHelper.min(startDate, subtractDuration(calendar, m_lateStart[successor], lag));
+                  break;
+               }
+
+               case FINISH_FINISH:
+               {
+                  finishDate = DateHelper.min(finishDate, subtractDuration(calendar, m_lateFinish[successor], lag));
+                  break;
+               }
+
+               case START_FINISH:
+               {
+                  startDate = DateHelper.min(startDate, subtractDuration(calendar, m_lateFinish[successor], lag));
+                  break;
+               }
+
+               case FINISH_START:
+               default:
+               {
+                  finishDate = DateHelper.min(finishDate, subtractDuration(calendar, m_lateStart[successor], lag));
+                  break;
+               }
+            }
+         }
+
+         boolean summary = task >= m_leafTaskCount;
+         if (!summary)
+         {
+            finishDate = getPreviousWorkFinish(calendar, finishDate);
+         }
+
+         if (startDate != null)
+         {
+            Date startDrivenFinishDate = addDuration(calendar, startDate, m_durations[task]);
+            if (startDrivenFinishDate.getTime() < finishDate.getTime())
+            {
+               finishDate = startDrivenFinishDate;
+            }
+         }
+
+         if (!summary)
+         {
+            finishDate = applyLateConstraint(task, mpxjTask.getConstraintType(), mpxjTask.getConstraintDate(), finishDate);
+            finishDate = applyLateConstraint(task, mpxjTask.getSecondaryConstraintType(), mpxjTask.getSecondaryConstraintDate(), finishDate);
+         }
+
+         m_lateFinish[task] = finishDate;
+         m_lateStart[task] = subtractDuration(calendar, finishDate, m_durations[task]);
+      }
+   }
+
+   /**
+    * Apply a constraint to a task's late finish date.
+    *
+    * @param task network index of the task
+    * @param type constraint type
+    * @param date constraint date
+    * @param finishDate late finish date calculated from the task's successors
+    * @return late finish date
+    */
+   private Date applyLateConstraint(int task, ConstraintType type, Date date, Date finishDate)
+   {
+      if (type == null || date == null)
+      {
+         return finishDate;
+      }
+
+      ProjectCalendar calendar = m_calendars[task];
+      Date result = finishDate;
+
+      switch (type)
+      {
+         case MUST_START_ON:
+         case MANDATORY_START:
+         {
+            result = addDuration(calendar, date, m_durations[task]);
+            break;
+         }
+
+         case MUST_FINISH_ON:
+         case MANDATORY_FINISH:
+         {
+            result = date;
+            break;
+         }
+
+         case START_NO_LATER_THAN:
+         {
+            if (date.getTime() < subtractDuration(calendar, finishDate, m_durations[task]).getTime())
+            {
+               result = addDuration(calendar, date, m_durations[task]);
+            }
+            break;
+         }
+
+         case FINISH_NO_LATER_THAN:
+         {
+            if (date.getTime() < finishDate.getTime())
+            {
+               result = getPreviousWorkFinish(calendar, date);
+            }
+            break;
+         }
+
+         default:
+         {
+            break;
+         }
+      }
+
+      return result;
+   }
+
+   /**
+    * Write the results of the analysis to each task.
+    *
+    * @param order tasks in topological order
+    */
+   private void updateTasks(int[] order)
+   {
+      //
+      // Calculate the free slack of the summary task nodes first,
+      // so that free slack can be followed through them.
+      //
+      double[] nodeFreeSlack = new double[m_tasks.size()];
+      for (int orderIndex = order.length - 1; orderIndex >= 0; orderIndex--)
+      {
+         int node = order[orderIndex];
+         if (node >= m_leafTaskCount)
+         {
+            nodeFreeSlack[node] = getFreeSlack(node, nodeFreeSlack);
+         }
+      }
+
+      for (int task = 0; task < m_leafTaskCount; task++)
+      {
+         Task mpxjTask = m_tasks.get(task);
+         ProjectCalendar calendar = m_calendars[task];
+         TimeUnit units = m_durations[task].getUnits();
+         if (units.getValue() >= TimeUnit.ELAPSED_MINUTES.getValue() || units == TimeUnit.PERCENT)
+         {
+            units = TimeUnit.DAYS;
+         }
+
+         Duration startSlack = getVariance(calendar, m_earlyStart[task], m_lateStart[task], units);
+         Duration finishSlack = getVariance(calendar, m_earlyFinish[task], m_lateFinish[task], units);
+         Duration totalSlack = startSlack.getDuration() < finishSlack.getDuration() ? startSlack : finishSlack;
+
+         //
+         // Free slack is the amount by which this task can be delayed
+         // without delaying any of its successors.
+         //
+         Duration freeSlack = totalSlack;
+         double freeSlackMinutes = getFreeSlack(task, nodeFreeSlack);
+         if (freeSlackMinutes != Double.POSITIVE_INFINITY)
+         {
+            Duration slack = Duration.getInstance(freeSlackMinutes, TimeUnit.MINUTES);
+            if (units != TimeUnit.MINUTES)
+            {
+               slack = slack.convertUnits(units, m_properties);
+            }
+
+            if (slack.getDuration() < freeSlack.getDuration())
+            {
+               freeSlack = slack;
+            }
+         }
+
+         if (freeSlack.getDuration() < 0)
+         {
+            freeSlack = Duration.getInstance(0, units);
+         }
+
+         mpxjTask.setEarlyStart(m_earlyStart[task]);
+         mpxjTask.setEarlyFinish(m_earlyFinish[task]);
+         mpxjTask.setLateStart(m_lateStart[task]);
+         mpxjTask.setLateFinish(m_lateFinish[task]);
+         mpxjTask.setStartSlack(startSlack);
+         mpxjTask.setFinishSlack(finishSlack);
+         mpxjTask.setTotalSlack(totalSlack);
+         mpxjTask.setFreeSlack(freeSlack);
+
+         //
+         // Let the task derive the critical flag from the new total slack value
+         //
+         mpxjTask.set(TaskField.CRITICAL, null);
+         mpxjTask.getCritical();
+      }
+   }
+
+   /**
+    * Calculate the amount of working time in minutes by which a node can
+    * be delayed without delaying any of the tasks which follow it. Summary
+    * task nodes are followed through to the tasks beyond them.
+    *
+    * @param node network node
+    * @param nodeFreeSlack free slack of summary task nodes visited so far
+    * @return free slack in minutes, or positive infinity if no task follows the node
+    */
+   private double getFreeSlack(int node, double[] nodeFreeSlack)
+   {
+      ProjectCalendar calendar = m_calendars[node];
+      double result = Double.POSITIVE_INFINITY;
+
+      for (int edgeIndex = m_successorOffset[node]; edgeIndex < m_successorOffset[node + 1]; edgeIndex++)
+      {
+         int edge = m_successorEdges[edgeIndex];
+         int successor = m_edgeSuccessor[edge];
+         double successorSlack = successor < m_leafTaskCount ? 0 : nodeFreeSlack[successor];
+         if (successorSlack == Double.POSITIVE_INFINITY)
+         {
+            continue;
+         }
+
+         Duration lag = getLag(edge, node);
+         Date predecessorDate;
+         Date successorDate;
+
+         switch (m_edgeType[edge])
+         {
+            case START_START:
+            {
+               predecessorDate = m_earlyStart[node];
+               successorDate = m_earlyStart[successor];
+               break;
+            }
+
+            case FINISH_FINISH:
+            {
+               predecessorDate = m_earlyFinish[node];
+               successorDate = m_earlyFinish[successor];
+               break;
+            }
+
+            case START_FINISH:
+            {
+               predecessorDate = m_earlyStart[node];
+               successorDate = m_earlyFinish[successor];
+               break;
+            }
+
+            case FINISH_START:
+            default:
+            {
+               predecessorDate = m_earlyFinish[node];
+               successorDate = m_earlyStart[successor];
+               break;
+            }
+         }
+
+         double slack = successorSlack + getVariance(calendar, addDuration(calendar, predecessorDate, lag), successorDate, TimeUnit.MINUTES).getDuration();
+         if (slack < result)
+         {
+            result = slack;
+         }
+      }
+
+      return result;
+   }
+
+   /**
+    * Roll up the results of the analysis to summary tasks.
+    */
+   private void updateSummaryTasks()
+   {
+      Map<Task, Integer> taskIndexes = new IdentityHashMap<Task, Integer>();
+      for (int index = 0; index < m_leafTaskCount; index++)
+      {
+         taskIndexes.put(m_tasks.get(index), Integer.valueOf(index));
+      }
+
+      List<Task> summaryTasks = new ArrayList<Task>();
+      for (Task task : m_file.getTasks())
+      {
+         if (!task.getNull() && task.hasChildTasks())
+         {
+            summaryTasks.add(task);
+         }
+      }
+
+      //
+      // Visit the deepest summary tasks first, so that
+      // each summary task can use its children's values.
+      //
+      Collections.reverse(summaryTasks);
+      for (Task summary : summaryTasks)
+      {
+         Date earlyStart = null;
+         Date earlyFinish = null;
+         Date lateStart = null;
+         Date lateFinish = null;
+         Duration totalSlack = null;
+         boolean critical = false;
+
+         for (Task child : summary.getChildTasks())
+         {
+            if (child.getNull() || (!child.hasChildTasks() && !taskIndexes.containsKey(child)))
+            {
+               continue;
+            }
+
+            earlyStart = DateHelper.min(earlyStart, child.getEarlyStart());
+            earlyFinish = DateHelper.max(earlyFinish, child.getEarlyFinish());
+            lateStart = DateHelper.min(lateStart, child.getLateStart());
+            lateFinish = DateHelper.max(lateFinish, child.getLateFinish());
+
+            Duration childSlack = (Duration) child.getCachedValue(TaskField.TOTAL_SLACK);
+            if (childSlack != null)
+            {
+               if (totalSlack == null)
+               {
+                  totalSlack = childSlack;
+               }
+               else
+               {
+                  if (childSlack.getUnits() != totalSlack.getUnits())
+                  {
+                     childSlack = childSlack.convertUnits(totalSlack.getUnits(), m_properties);
+                  }
+
+                  if (childSlack.getDuration() < totalSlack.getDuration())
+                  {
+                     totalSlack = childSlack;
+                  }
+               }
+            }
+            critical |= child.getCritical();
+         }
+
+         if (earlyStart == null)
+         {
+            continue;
+         }
+
+         summary.setEarlyStart(earlyStart);
+         summary.setEarlyFinish(earlyFinish);
+         summary.setLateStart(lateStart);
+         summary.setLateFinish(lateFinish);
+         summary.setTotalSlack(totalSlack);
+         summary.setCritical(critical);
+      }
+   }
+
+   /**
+    * Retrieve the lag for a relation, converting percentage lags
+    * into durations based on the predecessor's duration.
+    *
+    * @param edge relation index
+    * @param predecessor network index of the predecessor task
+    * @return lag duration
+    */
+   private Duration getLag(int edge, int predecessor)
+   {
+      Duration lag = m_edgeLag[edge];
+      TimeUnit units = lag.getUnits();
+      if (units == TimeUnit.PERCENT || units == TimeUnit.ELAPSED_PERCENT)
+      {
+         Duration duration = predecessor < m_leafTaskCount ? m_durations[predecessor] : m_tasks.get(predecessor).getDuration();
+         if (duration == null)
+         {
+            duration = ZERO_DURATION;
+         }
+         lag = Duration.getInstance((duration.getDuration() * lag.getDuration()) / 100.0, duration.getUnits());
+      }
+      return lag;
+   }
+
+   /**
+    * Add a duration to a date. Elapsed durations are added directly,
+    * other durations are added using the supplied calendar.
+    *
+    * @param calendar calendar
+    * @param date date
+    * @param duration duration, may be negative
+    * @return new date
+    */
+   private Date addDuration(ProjectCalendar calendar, Date date, Duration duration)
+   {
+      double value = duration.getDuration();
+      if (value == 0)
+      {
+         return date;
+      }
+
+      if (value < 0)
+      {
+         return subtractDuration(calendar, date, Duration.getInstance(-value, duration.getUnits()));
+      }
+
+      if (isElapsed(duration))
+      {
+         return new Date(date.getTime() + getElapsedMilliseconds(duration));
+      }
+
+      return calendar.getDate(date, duration, false);
+   }
+
+   /**
+    * Subtract a duration from a date. Elapsed durations are subtracted directly,
+    * other durations are subtracted using the supplied calendar.
+    *
+    * @param calendar calendar
+    * @param date date
+    * @param duration duration, may be negative
+    * @return new date
+    */
+   private Date subtractDuration(ProjectCalendar calendar, Date date, Duration duration)
+   {
+      double value = duration.getDuration();
+      if (value == 0)
+      {
+         return date;
+      }
+
+      if (value < 0)
+      {
+         return addDuration(calendar, date, Duration.getInstance(-value, duration.getUnits()));
+      }
+
+      if (isElapsed(duration))
+      {
+         return new Date(date.getTime() - getElapsedMilliseconds(duration));
+      }
+
+      Date result = calendar.getStartDate(date, duration);
+      return result == null ? date : result;
+   }
+
+   /**
+    * If the supplied date falls in non-working time, move it back to the
+    * end of the previous working period.
+    *
+    * @param calendar calendar
+    * @param date date
+    * @return adjusted date
+    */
+   private Date getPreviousWorkFinish(ProjectCalendar calendar, Date date)
+   {
+      Date previousMinute = new Date(date.getTime() - DateHelper.MS_PER_MINUTE);
+      if (calendar.getWork(previousMinute, date, TimeUnit.MINUTES).getDuration() > 0)
+      {
+         return date;
+      }
+      return calendar.getPreviousWorkFinish(date);
+   }
+
+   /**
+    * Calculate the working time between two dates.
+    *
+    * @param calendar calendar
+    * @param startDate start date
+    * @param endDate end date
+    * @param units required units
+    * @return duration
+    */
+   private Duration getVariance(ProjectCalendar calendar, Date startDate, Date endDate, TimeUnit units)
+   {
+      Duration variance = calendar.getWork(startDate, endDate, TimeUnit.MINUTES);
+      if (units != TimeUnit.MINUTES)
+      {
+         variance = variance.convertUnits(units, m_properties);
+      }
+      return variance;
+   }
+
+   /**
+    * Determine if a duration is expressed in elapsed units.
+    *
+    * @param duration duration
+    * @return true if the duration is elapsed
+    */
+   private boolean isElapsed(Duration duration)
+   {
+      return duration.getUnits().getValue() >= TimeUnit.ELAPSED_MINUTES.getValue() && duration.getUnits() != TimeUnit.ELAPSED_PERCENT;
+   }
+
+   /**
+    * Convert an elapsed duration to milliseconds.
+    *
+    * @param duration elapsed duration
+    * @return milliseconds
+    */
+   private long getElapsedMilliseconds(Duration duration)
+   {
+      return Math.round(duration.convertUnits(TimeUnit.ELAPSED_MINUTES, m_properties).getDuration() * DateHelper.MS_PER_MINUTE);
+   }
+
+   private ProjectFile m_file;
+   private ProjectProperties m_properties;
+
+   private List<Task> m_tasks;
+   private int m_leafTaskCount;
+   private ProjectCalendar[] m_calendars;
+   private Duration[] m_durations;
+
+   private int[] m_edgePredecessor;
+   private int[] m_edgeSuccessor;
+   private RelationType[] m_edgeType;
+   private Duration[] m_edgeLag;
+   private int[] m_successorOffset;
+   private int[] m_successorEdges;
+   private int[] m_predecessorOffset;
+   private int[] m_predecessorEdges;
+
+   private Date[] m_earlyStart;
+   private Date[] m_earlyFinish;
+   private Date[] m_lateStart;
+   private Date[] m_lateFinish;
+
+   private static final Duration ZERO_DURATION = Duration.getInstance(0, TimeUnit.DAYS);
+
+   private static final int IN_START = 0;
+   private static final int IN_FINISH = 1;
+   private static final int OUT_START = 2;
+   private static final int OUT_FINISH = 3;
+   private static final int SUMMARY_NODE_COUNT = 4;
+}
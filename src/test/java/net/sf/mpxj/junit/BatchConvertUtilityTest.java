@@ -0,0 +1,131 @@
+/*
+ * file:       BatchConvertUtilityTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.mspdi.MSPDIReader;
+import net.sf.mpxj.reader.ProjectFileFormat;
+import net.sf.mpxj.utility.BatchConvertResult;
+import net.sf.mpxj.utility.BatchConvertSummary;
+import net.sf.mpxj.utility.BatchConvertUtility;
+
+/**
+ * Tests for the batch conversion utility.
+ */
+public class BatchConvertUtilityTest
+{
+   /**
+    * Convert a batch of files, one of which is invalid, ensuring that
+    * the invalid file does not prevent the other files being converted.
+    *
+    * @throws Exception
+    */
+   @Test public void testBatchConvert() throws Exception
+   {
+      File targetDirectory = createTemporaryDirectory();
+      File invalidFile = File.createTempFile("invalid", ".mpp");
+
+      try
+      {
+         FileOutputStream os = new FileOutputStream(invalidFile);
+         os.write(new byte[1024]);
+         os.close();
+
+         List<File> sourceFiles = new ArrayList<File>();
+         sourceFiles.add(new File(MpxjTestData.filePath("mpp9task.mpp")));
+         sourceFiles.add(invalidFile);
+         sourceFiles.add(new File(MpxjTestData.filePath("mpxrecurring.mpx")));
+         sourceFiles.add(new File(MpxjTestData.filePath("mpp14task.mpp")));
+
+         BatchConvertUtility utility = new BatchConvertUtility();
+         utility.setThreadCount(2);
+         utility.setMaxPendingFiles(1);
+         assertEquals(1, utility.getMaxPendingFiles());
+
+         BatchConvertSummary summary = utility.process(sourceFiles, ".mpp", targetDirectory, ".xml");
+         List<BatchConvertResult> results = summary.getResults();
+         assertEquals(4, results.size());
+         assertEquals(3, summary.getSuccessCount());
+         assertEquals(1, summary.getFailures().size());
+         assertEquals(invalidFile, summary.getFailures().get(0).getSourceFile());
+         assertFalse(summary.getFailures().get(0).getTargetFile().exists());
+
+         for (int index = 0; index < results.size(); index++)
+         {
+            BatchConvertResult result = results.get(index);
+            assertEquals(index, result.getIndex());
+            assertEquals(sourceFiles.get(index), result.getSourceFile());
+         }
+
+         assertEquals(new File(targetDirectory, "mpp9task.xml"), results.get(0).getTargetFile());
+         assertEquals(new File(targetDirectory, "mpxrecurring.mpx.xml"), results.get(2).getTargetFile());
+
+         assertEquals(ProjectFileFormat.MPP, results.get(0).getFormat());
+         assertEquals(ProjectFileFormat.UNKNOWN, results.get(1).getFormat());
+         assertEquals(ProjectFileFormat.MPX, results.get(2).getFormat());
+         assertEquals(2, summary.getFileCount(ProjectFileFormat.MPP));
+
+         for (BatchConvertResult result : results)
+         {
+            if (result.getSuccess())
+            {
+               ProjectFile project = new MSPDIReader().read(result.getTargetFile());
+               assertFalse(project.getTasks().isEmpty());
+            }
+         }
+      }
+
+      finally
+      {
+         invalidFile.delete();
+         for (File file : targetDirectory.listFiles())
+         {
+            file.delete();
+         }
+         targetDirectory.delete();
+      }
+   }
+
+   /**
+    * Create a temporary directory.
+    *
+    * @return directory
+    */
+   private File createTemporaryDirectory() throws Exception
+   {
+      File result = File.createTempFile("batch", "");
+      result.delete();
+      result.mkdir();
+      return result;
+   }
+}
@@ -0,0 +1,233 @@
+/*
+ * file:       CompactFieldStorageTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+
+import net.sf.mpxj.ArrayFieldStorage;
+import net.sf.mpxj.CompactFieldStorage;
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.FieldStorage;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.TaskField;
+import net.sf.mpxj.TimeUnit;
+import net.sf.mpxj.mpp.MPPReader;
+import net.sf.mpxj.mspdi.MSPDIReader;
+
+/**
+ * Tests to exercise the compact field storage implementation.
+ */
+public class CompactFieldStorageTest
+{
+   /**
+    * Ensure that values held in primitive columns are stored and retrieved correctly.
+    */
+   @Test public void testColumnValues()
+   {
+      FieldStorage storage = new CompactFieldStorage(TaskField.class);
+      Date date = new Date(1500000000000L);
+      Duration duration = Duration.getInstance(2.5, TimeUnit.ELAPSED_WEEKS);
+
+      storage.set(TaskField.START.getValue(), date);
+      storage.set(TaskField.DURATION.getValue(), duration);
+      storage.set(TaskField.COST.getValue(), Double.valueOf(123.45));
+
+      assertEquals(date, storage.get(TaskField.START.getValue()));
+      assertEquals(duration, storage.get(TaskField.DURATION.getValue()));
+      assertEquals(Double.valueOf(123.45), storage.get(TaskField.COST.getValue()));
+      assertNull(storage.get(TaskField.FINISH.getValue()));
+
+      // A value which can't be held in a column replaces the column value
+      storage.set(TaskField.COST.getValue(), Integer.valueOf(10));
+      assertEquals(Integer.valueOf(10), storage.get(TaskField.COST.getValue()));
+
+      // ... and a column value replaces the value held elsewhere
+      storage.set(TaskField.COST.getValue(), Double.valueOf(20));
+      assertEquals(Double.valueOf(20), storage.get(TaskField.COST.getValue()));
+
+      storage.set(TaskField.START.getValue(), null);
+      assertNull(storage.get(TaskField.START.getValue()));
+   }
+
+   /**
+    * Ensure that Date values held in primitive columns are copied, so
+    * modifying a Date instance does not change the stored value.
+    */
+   @Test public void testColumnValuesCopied()
+   {
+      FieldStorage storage = new CompactFieldStorage(TaskField.class);
+      Date date = new Date(1500000000000L);
+      storage.set(TaskField.START.getValue(), date);
+      date.setTime(0);
+
+      Date value = (Date) storage.get(TaskField.START.getValue());
+      assertEquals(new Date(1500000000000L), value);
+      assertNotSame(value, storage.get(TaskField.START.getValue()));
+
+      value.setTime(0);
+      assertEquals(new Date(1500000000000L), storage.get(TaskField.START.getValue()));
+   }
+
+   /**
+    * Ensure that values held in the sparse map are stored and retrieved correctly.
+    */
+   @Test public void testSparseValues()
+   {
+      FieldStorage storage = new CompactFieldStorage(TaskField.class);
+      TaskField[] fields =
+      {
+         TaskField.TEXT30,
+         TaskField.NAME,
+         TaskField.FLAG1,
+         TaskField.NUMBER20,
+         TaskField.TEXT1,
+         TaskField.NOTES,
+         TaskField.WBS,
+         TaskField.TEXT2,
+         TaskField.NUMBER1,
+         TaskField.OUTLINE_LEVEL
+      };
+
+      for (int index = 0; index < fields.length; index++)
+      {
+         storage.set(fields[index].getValue(), Integer.valueOf(index));
+      }
+
+      for (int index = 0; index < fields.length; index++)
+      {
+         assertEquals(Integer.valueOf(index), storage.get(fields[index].getValue()));
+      }
+
+      storage.set(TaskField.NAME.getValue(), null);
+      storage.set(TaskField.TEXT1.getValue(), "Text");
+      assertNull(storage.get(TaskField.NAME.getValue()));
+      assertEquals("Text", storage.get(TaskField.TEXT1.getValue()));
+      assertEquals(Integer.valueOf(0), storage.get(TaskField.TEXT30.getValue()));
+      assertEquals(Integer.valueOf(9), storage.get(TaskField.OUTLINE_LEVEL.getValue()));
+      assertNull(storage.get(TaskField.TEXT3.getValue()));
+   }
+
+   /**
+    * Ensure that a project configured to use compact storage behaves as expected.
+    */
+   @Test public void testProjectConfig()
+   {
+      ProjectFile file = new ProjectFile();
+      file.getProjectConfig().setFieldStorageFactory(CompactFieldStorage.FACTORY);
+
+      Task task = file.addTask();
+      task.setName("Task 1");
+      task.setDuration(Duration.getInstance(5, TimeUnit.DAYS));
+      task.setText(1, "Text 1");
+
+      assertEquals("Task 1", task.getName());
+      assertEquals(Duration.getInstance(5, TimeUnit.DAYS), task.getDuration());
+      assertEquals("Text 1", task.getText(1));
+      assertEquals(Integer.valueOf(1), task.getUniqueID());
+      assertNull(task.getText(2));
+   }
+
+   /**
+    * Ensure that readers can be configured to use compact storage, and that
+    * the projects they read contain the same values as the default storage.
+    *
+    * @throws Exception
+    */
+   @Test public void testReaderOption() throws Exception
+   {
+      MPPReader mppReader = new MPPReader();
+      assertSame(ArrayFieldStorage.FACTORY, mppReader.getFieldStorageFactory());
+      ProjectFile expected = mppReader.read(MpxjTestData.filePath("mpp14task.mpp"));
+
+      mppReader.setFieldStorageFactory(CompactFieldStorage.FACTORY);
+      ProjectFile actual = mppReader.read(MpxjTestData.filePath("mpp14task.mpp"));
+      assertSame(CompactFieldStorage.FACTORY, actual.getProjectConfig().getFieldStorageFactory());
+      assertSame(ArrayFieldStorage.FACTORY, new ProjectFile().getProjectConfig().getFieldStorageFactory());
+      compareTasks(expected, actual);
+
+      MSPDIReader mspdiReader = new MSPDIReader();
+      assertSame(ArrayFieldStorage.FACTORY, mspdiReader.getFieldStorageFactory());
+      expected = mspdiReader.read(MpxjTestData.filePath("mspdisplittask.xml"));
+
+      mspdiReader.setFieldStorageFactory(CompactFieldStorage.FACTORY);
+      actual = mspdiReader.read(MpxjTestData.filePath("mspdisplittask.xml"));
+      assertSame(CompactFieldStorage.FACTORY, actual.getProjectConfig().getFieldStorageFactory());
+      compareTasks(expected, actual);
+   }
+
+   /**
+    * Ensure that the readers reject a null field storage factory.
+    */
+   @Test public void testReaderNullFactory()
+   {
+      try
+      {
+         new MPPReader().setFieldStorageFactory(null);
+         fail("Expected exception");
+      }
+
+      catch (IllegalArgumentException ex)
+      {
+         // expected
+      }
+
+      try
+      {
+         new MSPDIReader().setFieldStorageFactory(null);
+         fail("Expected exception");
+      }
+
+      catch (IllegalArgumentException ex)
+      {
+         // expected
+      }
+   }
+
+   /**
+    * Ensure that the tasks in two projects have the same field values.
+    *
+    * @param expected expected project
+    * @param actual actual project
+    */
+   private void compareTasks(ProjectFile expected, ProjectFile actual)
+   {
+      List<Task> expectedTasks = expected.getTasks();
+      List<Task> actualTasks = actual.getTasks();
+      assertEquals(expectedTasks.size(), actualTasks.size());
+      for (int index = 0; index < expectedTasks.size(); index++)
+      {
+         for (TaskField field : TaskField.values())
+         {
+            assertEquals(field.toString(), expectedTasks.get(index).getCachedValue(field), actualTasks.get(index).getCachedValue(field));
+         }
+      }
+   }
+}
@@ -0,0 +1,308 @@
+/*
+ * file:       CriticalPathTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+
+import org.junit.Test;
+
+import net.sf.mpxj.ConstraintType;
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.MPXJException;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.RelationType;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.TimeUnit;
+import net.sf.mpxj.utility.CriticalPathUtility;
+
+/**
+ * Tests to exercise the critical path analysis.
+ */
+public class CriticalPathTest
+{
+   /**
+    * Schedule a simple network and validate the results.
+    *
+    * @throws Exception
+    */
+   @Test public void testSimpleNetwork() throws Exception
+   {
+      DateFormat df = new SimpleDateFormat("dd/MM/yyyy HH:mm");
+      ProjectFile file = new ProjectFile();
+      file.addDefaultBaseCalendar();
+
+      Task summary = file.addTask();
+      summary.setName("Summary");
+      Task a = addTask(summary, "A", 2);
+      Task b = addTask(summary, "B", 3);
+      Task c = addTask(file, "C", 1);
+      Task d = addTask(file, "D", 1);
+      Task e = addTask(file, "E", 1);
+      Task f = addTask(file, "F", 1);
+
+      b.addPredecessor(a, RelationType.FINISH_START, null);
+      c.addPredecessor(a, RelationType.FINISH_START, null);
+      d.addPredecessor(b, RelationType.FINISH_START, null);
+      d.addPredecessor(c, RelationType.FINISH_START, null);
+      e.addPredecessor(a, RelationType.START_START, Duration.getInstance(1, TimeUnit.DAYS));
+      f.setConstraintType(ConstraintType.START_NO_EARLIER_THAN);
+      f.setConstraintDate(df.parse("09/01/2020 00:00"));
+
+      new CriticalPathUtility().schedule(file, df.parse("06/01/2020 08:00"));
+
+      assertDates(df, a, "06/01/2020 08:00", "07/01/2020 17:00", "06/01/2020 08:00", "07/01/2020 17:00");
+      assertDates(df, b, "08/01/2020 08:00", "10/01/2020 17:00", "08/01/2020 08:00", "10/01/2020 17:00");
+      assertDates(df, c, "08/01/2020 08:00", "08/01/2020 17:00", "10/01/2020 08:00", "10/01/2020 17:00");
+      assertDates(df, d, "13/01/2020 08:00", "13/01/2020 17:00", "13/01/2020 08:00", "13/01/2020 17:00");
+      assertDates(df, e, "07/01/2020 08:00", "07/01/2020 17:00", "13/01/2020 08:00", "13/01/2020 17:00");
+      assertDates(df, f, "09/01/2020 08:00", "09/01/2020 17:00", "13/01/2020 08:00", "13/01/2020 17:00");
+
+      assertEquals(0.0, a.getTotalSlack().getDuration(), 0.01);
+      assertEquals(2.0, c.getTotalSlack().getDuration(), 0.01);
+      assertEquals(2.0, c.getFreeSlack().getDuration(), 0.01);
+      assertEquals(4.0, e.getTotalSlack().getDuration(), 0.01);
+      assertEquals(TimeUnit.DAYS, c.getTotalSlack().getUnits());
+
+      assertTrue(a.getCritical());
+      assertTrue(b.getCritical());
+      assertFalse(c.getCritical());
+      assertTrue(d.getCritical());
+      assertFalse(e.getCritical());
+      assertFalse(f.getCritical());
+
+      assertDates(df, summary, "06/01/2020 08:00", "10/01/2020 17:00", "06/01/2020 08:00", "10/01/2020 17:00");
+      assertTrue(summary.getCritical());
+   }
+
+   /**
+    * Ensure that finish-finish and start-finish relations, negative lags
+    * and finish constraints are handled.
+    *
+    * @throws Exception
+    */
+   @Test public void testRelationTypes() throws Exception
+   {
+      DateFormat df = new SimpleDateFormat("dd/MM/yyyy HH:mm");
+      ProjectFile file = new ProjectFile();
+      file.addDefaultBaseCalendar();
+
+      Task a = addTask(file, "A", 5);
+      Task b = addTask(file, "B", 2);
+      Task c = addTask(file, "C", 1);
+      Task d = addTask(file, "D", 1);
+
+      b.addPredecessor(a, RelationType.FINISH_FINISH, null);
+      c.addPredecessor(a, RelationType.FINISH_START, Duration.getInstance(-1, TimeUnit.DAYS));
+      d.addPredecessor(a, RelationType.START_FINISH, null);
+      d.setConstraintType(ConstraintType.FINISH_NO_LATER_THAN);
+      d.setConstraintDate(df.parse("07/01/2020 17:00"));
+
+      new CriticalPathUtility().schedule(file, df.parse("06/01/2020 08:00"));
+
+      assertDates(df, a, "06/01/2020 08:00", "10/01/2020 17:00", "06/01/2020 08:00", "10/01/2020 17:00");
+      assertDates(df, b, "09/01/2020 08:00", "10/01/2020 17:00", "09/01/2020 08:00", "10/01/2020 17:00");
+      assertDates(df, c, "10/01/2020 08:00", "10/01/2020 17:00", "10/01/2020 08:00", "10/01/2020 17:00");
+      assertEquals("06/01/2020 17:00", df.format(d.getEarlyFinish()));
+      assertEquals("07/01/2020 17:00", df.format(d.getLateFinish()));
+      assertEquals(1.0, d.getTotalSlack().getDuration(), 0.01);
+   }
+
+   /**
+    * Ensure that relations between summary tasks constrain
+    * all of the tasks below them.
+    *
+    * @throws Exception
+    */
+   @Test public void testSummaryRelations() throws Exception
+   {
+      DateFormat df = new SimpleDateFormat("dd/MM/yyyy HH:mm");
+      ProjectFile file = new ProjectFile();
+      file.addDefaultBaseCalendar();
+
+      Task summary1 = file.addTask();
+      summary1.setName("Summary 1");
+      Task a = addTask(summary1, "A", 2);
+      Task b = addTask(summary1, "B", 1);
+
+      Task summary2 = file.addTask();
+      summary2.setName("Summary 2");
+      Task c = addTask(summary2, "C", 1);
+      Task d = addTask(summary2, "D", 2);
+
+      Task e = addTask(file, "E", 1);
+
+      summary2.addPredecessor(summary1, RelationType.FINISH_START, null);
+      e.addPredecessor(summary1, RelationType.FINISH_START, null);
+
+      new CriticalPathUtility().schedule(file, df.parse("06/01/2020 08:00"));
+
+      assertDates(df, a, "06/01/2020 08:00", "07/01/2020 17:00", "06/01/2020 08:00", "07/01/2020 17:00");
+      assertDates(df, b, "06/01/2020 08:00", "06/01/2020 17:00", "07/01/2020 08:00", "07/01/2020 17:00");
+      assertDates(df, c, "08/01/2020 08:00", "08/01/2020 17:00", "09/01/2020 08:00", "09/01/2020 17:00");
+      assertDates(df, d, "08/01/2020 08:00", "09/01/2020 17:00", "08/01/2020 08:00", "09/01/2020 17:00");
+      assertDates(df, e, "08/01/2020 08:00", "08/01/2020 17:00", "09/01/2020 08:00", "09/01/2020 17:00");
+
+      assertEquals(0.0, a.getFreeSlack().getDuration(), 0.01);
+      assertEquals(1.0, b.getTotalSlack().getDuration(), 0.01);
+      assertEquals(1.0, b.getFreeSlack().getDuration(), 0.01);
+      assertEquals(1.0, c.getTotalSlack().getDuration(), 0.01);
+
+      assertTrue(a.getCritical());
+      assertFalse(b.getCritical());
+      assertFalse(c.getCritical());
+      assertTrue(d.getCritical());
+      assertFalse(e.getCritical());
+
+      assertDates(df, summary2, "08/01/2020 08:00", "09/01/2020 17:00", "08/01/2020 08:00", "09/01/2020 17:00");
+   }
+
+   /**
+    * Ensure that the remaining duration of tasks in progress is scheduled
+    * from the point at which work resumes, or from the status date.
+    *
+    * @throws Exception
+    */
+   @Test public void testTasksInProgress() throws Exception
+   {
+      DateFormat df = new SimpleDateFormat("dd/MM/yyyy HH:mm");
+      ProjectFile file = new ProjectFile();
+      file.addDefaultBaseCalendar();
+
+      //
+      // One day complete, the remaining duration has been reduced to two days
+      //
+      Task a = addTask(file, "A", 4);
+      a.setActualStart(df.parse("06/01/2020 08:00"));
+      a.setActualDuration(Duration.getInstance(1, TimeUnit.DAYS));
+      a.setRemainingDuration(Duration.getInstance(2, TimeUnit.DAYS));
+
+      //
+      // Half complete, no remaining duration
+      //
+      Task b = addTask(file, "B", 4);
+      b.setActualStart(df.parse("06/01/2020 08:00"));
+      b.setPercentageComplete(Integer.valueOf(50));
+
+      Task c = addTask(file, "C", 1);
+      c.addPredecessor(a, RelationType.FINISH_START, null);
+
+      new CriticalPathUtility().schedule(file, df.parse("06/01/2020 08:00"));
+      assertEquals("08/01/2020 17:00", df.format(a.getEarlyFinish()));
+      assertEquals("09/01/2020 17:00", df.format(b.getEarlyFinish()));
+      assertEquals("09/01/2020 17:00", df.format(c.getEarlyFinish()));
+
+      //
+      // Remaining work can't be carried out before the status date
+      //
+      file.getProjectProperties().setStatusDate(df.parse("08/01/2020 17:00"));
+      new CriticalPathUtility().schedule(file, df.parse("06/01/2020 08:00"));
+      assertEquals("06/01/2020 08:00", df.format(a.getEarlyStart()));
+      assertEquals("10/01/2020 17:00", df.format(a.getEarlyFinish()));
+      assertEquals("10/01/2020 17:00", df.format(b.getEarlyFinish()));
+      assertEquals("13/01/2020 17:00", df.format(c.getEarlyFinish()));
+   }
+
+   /**
+    * Ensure that a loop in the task network is reported.
+    *
+    * @throws Exception
+    */
+   @Test public void testLoop() throws Exception
+   {
+      DateFormat df = new SimpleDateFormat("dd/MM/yyyy HH:mm");
+      ProjectFile file = new ProjectFile();
+      file.addDefaultBaseCalendar();
+
+      Task a = addTask(file, "A", 1);
+      Task b = addTask(file, "B", 1);
+      Task c = addTask(file, "C", 1);
+      b.addPredecessor(a, RelationType.FINISH_START, null);
+      c.addPredecessor(b, RelationType.FINISH_START, null);
+      a.addPredecessor(c, RelationType.FINISH_START, null);
+
+      try
+      {
+         new CriticalPathUtility().schedule(file, df.parse("06/01/2020 08:00"));
+         fail("Expected exception");
+      }
+
+      catch (MPXJException ex)
+      {
+         assertTrue(ex.getMessage().startsWith(MPXJException.SCHEDULE_LOOP));
+      }
+   }
+
+   /**
+    * Add a task to a project.
+    *
+    * @param file parent project
+    * @param name task name
+    * @param days task duration in days
+    * @return new task
+    */
+   private Task addTask(ProjectFile file, String name, int days)
+   {
+      Task task = file.addTask();
+      task.setName(name);
+      task.setDuration(Duration.getInstance(days, TimeUnit.DAYS));
+      return task;
+   }
+
+   /**
+    * Add a child task to a summary task.
+    *
+    * @param parent parent task
+    * @param name task name
+    * @param days task duration in days
+    * @return new task
+    */
+   private Task addTask(Task parent, String name, int days)
+   {
+      Task task = parent.addTask();
+      task.setName(name);
+      task.setDuration(Duration.getInstance(days, TimeUnit.DAYS));
+      return task;
+   }
+
+   /**
+    * Validate the early and late dates of a task.
+    *
+    * @param df date format
+    * @param task task to test
+    * @param earlyStart expected early start
+    * @param earlyFinish expected early finish
+    * @param lateStart expected late start
+    * @param lateFinish expected late finish
+    */
+   private void assertDates(DateFormat df, Task task, String earlyStart, String earlyFinish, String lateStart, String lateFinish)
+   {
+      assertEquals(task.getName() + " early start", earlyStart, df.format(task.getEarlyStart()));
+      assertEquals(task.getName() + " early finish", earlyFinish, df.format(task.getEarlyFinish()));
+      assertEquals(task.getName() + " late start", lateStart, df.format(task.getLateStart()));
+      assertEquals(task.getName() + " late finish", lateFinish, df.format(task.getLateFinish()));
+   }
+}
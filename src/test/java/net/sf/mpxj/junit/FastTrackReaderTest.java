@@ -0,0 +1,141 @@
+/*
+ * file:       FastTrackReaderTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.Resource;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.fasttrack.FastTrackReader;
+
+/**
+ * Tests to ensure that FastTrack files read from a file, from a stream,
+ * and with column data decoded concurrently all produce the same result.
+ */
+public class FastTrackReaderTest
+{
+   /**
+    * Ensure that reading from a stream produces the same result as reading from a file.
+    *
+    * @throws Exception
+    */
+   @Test public void testReadStream() throws Exception
+   {
+      File file = getFile();
+      ProjectFile expected = new FastTrackReader().read(file);
+
+      InputStream is = new FileInputStream(file);
+      try
+      {
+         compare(expected, new FastTrackReader().read(is));
+      }
+
+      finally
+      {
+         is.close();
+      }
+   }
+
+   /**
+    * Ensure that decoding column data concurrently produces the same
+    * result as decoding it sequentially.
+    *
+    * @throws Exception
+    */
+   @Test public void testReadConcurrently() throws Exception
+   {
+      File file = getFile();
+      ProjectFile expected = new FastTrackReader().read(file);
+
+      ExecutorService executor = Executors.newFixedThreadPool(4);
+      try
+      {
+         FastTrackReader reader = new FastTrackReader();
+         reader.setExecutor(executor);
+         compare(expected, reader.read(file));
+      }
+
+      finally
+      {
+         executor.shutdown();
+      }
+   }
+
+   /**
+    * Retrieve the test file.
+    *
+    * @return test file
+    */
+   private File getFile()
+   {
+      return new File(MpxjTestData.filePath("generated/resource-misc"), "resource-misc-fasttrack10.fts");
+   }
+
+   /**
+    * Compare the tasks and resources from two projects.
+    *
+    * @param expected expected project
+    * @param actual actual project
+    */
+   private void compare(ProjectFile expected, ProjectFile actual)
+   {
+      List<Task> expectedTasks = expected.getTasks();
+      List<Task> actualTasks = actual.getTasks();
+      assertEquals(expectedTasks.size(), actualTasks.size());
+      for (int index = 0; index < expectedTasks.size(); index++)
+      {
+         Task expectedTask = expectedTasks.get(index);
+         Task actualTask = actualTasks.get(index);
+         assertEquals(expectedTask.getUniqueID(), actualTask.getUniqueID());
+         assertEquals(expectedTask.getName(), actualTask.getName());
+         assertEquals(expectedTask.getStart(), actualTask.getStart());
+         assertEquals(expectedTask.getFinish(), actualTask.getFinish());
+         assertEquals(expectedTask.getDuration(), actualTask.getDuration());
+      }
+
+      List<Resource> expectedResources = expected.getResources();
+      List<Resource> actualResources = actual.getResources();
+      assertFalse(expectedResources.isEmpty());
+      assertEquals(expectedResources.size(), actualResources.size());
+      for (int index = 0; index < expectedResources.size(); index++)
+      {
+         Resource expectedResource = expectedResources.get(index);
+         Resource actualResource = actualResources.get(index);
+         assertEquals(expectedResource.getUniqueID(), actualResource.getUniqueID());
+         assertEquals(expectedResource.getName(), actualResource.getName());
+         assertEquals(expectedResource.getEmailAddress(), actualResource.getEmailAddress());
+         assertEquals(expectedResource.getNotes(), actualResource.getNotes());
+      }
+   }
+}
@@ -0,0 +1,105 @@
+/*
+ * file:       IntIntMapTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import net.sf.mpxj.common.IntIntMap;
+
+/**
+ * Tests to exercise the int keyed map used to index MPP data blocks.
+ */
+public class IntIntMapTest
+{
+   /**
+    * Ensure that values are stored, replaced and retrieved correctly.
+    */
+   @Test public void testPutAndGet()
+   {
+      IntIntMap map = new IntIntMap();
+      assertEquals(0, map.size());
+      assertEquals(-1, map.get(10, -1));
+      assertFalse(map.containsKey(10));
+
+      map.put(10, 1);
+      map.put(0, 2);
+      map.put(-5, 3);
+      map.put(Integer.MIN_VALUE, 4);
+      map.put(Integer.MAX_VALUE, 5);
+
+      assertEquals(5, map.size());
+      assertEquals(1, map.get(10, -1));
+      assertEquals(2, map.get(0, -1));
+      assertEquals(3, map.get(-5, -1));
+      assertEquals(4, map.get(Integer.MIN_VALUE, -1));
+      assertEquals(5, map.get(Integer.MAX_VALUE, -1));
+      assertTrue(map.containsKey(Integer.MIN_VALUE));
+
+      map.put(10, 6);
+      map.put(Integer.MIN_VALUE, 7);
+      assertEquals(5, map.size());
+      assertEquals(6, map.get(10, -1));
+      assertEquals(7, map.get(Integer.MIN_VALUE, -1));
+
+      assertArrayEquals(new int[]
+      {
+         Integer.MIN_VALUE,
+         -5,
+         0,
+         10,
+         Integer.MAX_VALUE
+      }, map.keys());
+   }
+
+   /**
+    * Ensure that the map behaves in the same way as a HashMap as it grows.
+    */
+   @Test public void testGrowth()
+   {
+      IntIntMap map = new IntIntMap(1);
+      Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+      Random random = new Random(1);
+
+      for (int loop = 0; loop < 50000; loop++)
+      {
+         // Offsets in MPP blocks are often multiples of a common stride
+         int key = loop % 2 == 0 ? loop * 64 : random.nextInt();
+         map.put(key, loop);
+         expected.put(Integer.valueOf(key), Integer.valueOf(loop));
+      }
+
+      assertEquals(expected.size(), map.size());
+      for (Map.Entry<Integer, Integer> entry : expected.entrySet())
+      {
+         assertEquals(entry.getValue().intValue(), map.get(entry.getKey().intValue(), -1));
+      }
+      assertEquals(expected.size(), map.keys().length);
+   }
+}
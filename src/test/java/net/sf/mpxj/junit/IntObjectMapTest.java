@@ -0,0 +1,195 @@
+/*
+ * file:       IntObjectMapTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.Resource;
+import net.sf.mpxj.ResourceAssignment;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.common.IntObjectMap;
+import net.sf.mpxj.mspdi.MSPDIWriter;
+
+/**
+ * Tests to exercise the int keyed map used to index project entities.
+ */
+public class IntObjectMapTest
+{
+   /**
+    * Ensure that values are stored, replaced, retrieved and removed correctly.
+    */
+   @Test public void testPutGetAndRemove()
+   {
+      IntObjectMap<String> map = new IntObjectMap<String>();
+      assertEquals(0, map.size());
+      assertNull(map.get(10));
+      assertFalse(map.containsKey(10));
+
+      assertNull(map.put(10, "A"));
+      map.put(0, "B");
+      map.put(-5, "C");
+      map.put(Integer.MIN_VALUE, "D");
+      map.put(Integer.MAX_VALUE, "E");
+
+      assertEquals(5, map.size());
+      assertEquals("A", map.get(10));
+      assertEquals("B", map.get(0));
+      assertEquals("C", map.get(-5));
+      assertEquals("D", map.get(Integer.MIN_VALUE));
+      assertEquals("E", map.get(Integer.MAX_VALUE));
+      assertTrue(map.containsKey(Integer.MIN_VALUE));
+
+      assertEquals("A", map.put(10, "F"));
+      assertEquals(5, map.size());
+      assertEquals("F", map.get(10));
+
+      assertEquals("B", map.remove(0));
+      assertNull(map.remove(0));
+      assertFalse(map.containsKey(0));
+      assertEquals(4, map.size());
+
+      // Adding a null value removes the entry
+      assertEquals("C", map.put(-5, null));
+      assertFalse(map.containsKey(-5));
+      assertEquals(3, map.size());
+
+      map.clear();
+      assertEquals(0, map.size());
+      assertNull(map.get(10));
+   }
+
+   /**
+    * Ensure that the map behaves in the same way as a HashMap as entries
+    * are added and removed, exercising collisions and growth.
+    */
+   @Test public void testGrowthAndRemoval()
+   {
+      IntObjectMap<Integer> map = new IntObjectMap<Integer>(1);
+      Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+      Random random = new Random(1);
+
+      for (int loop = 0; loop < 50000; loop++)
+      {
+         // Mix sequential IDs, common strides and random keys
+         int key = loop % 3 == 0 ? loop : loop % 3 == 1 ? loop * 64 : random.nextInt();
+         Integer value = Integer.valueOf(loop);
+         assertEquals(expected.put(Integer.valueOf(key), value), map.put(key, value));
+
+         if (loop % 7 == 0)
+         {
+            int removeKey = loop % 2 == 0 ? loop / 2 : (loop / 2) * 64;
+            assertEquals(expected.remove(Integer.valueOf(removeKey)), map.remove(removeKey));
+         }
+      }
+
+      assertEquals(expected.size(), map.size());
+      for (Map.Entry<Integer, Integer> entry : expected.entrySet())
+      {
+         assertEquals(entry.getValue(), map.get(entry.getKey().intValue()));
+      }
+
+      for (int loop = 0; loop < 50000; loop++)
+      {
+         if (!expected.containsKey(Integer.valueOf(loop)))
+         {
+            assertNull(map.get(loop));
+         }
+      }
+   }
+
+   /**
+    * Ensure that the entity containers keep their indexes up to date
+    * as entities are added, renumbered and removed.
+    */
+   @Test public void testContainerIndexes()
+   {
+      ProjectFile file = new ProjectFile();
+      Task task = file.addTask();
+      task.setID(Integer.valueOf(5));
+      task.setUniqueID(Integer.valueOf(50));
+      Resource resource = file.addResource();
+      resource.setUniqueID(Integer.valueOf(60));
+
+      assertSame(task, file.getTaskByID(5));
+      assertSame(task, file.getTaskByID(Integer.valueOf(5)));
+      assertSame(task, file.getTaskByUniqueID(50));
+      assertSame(resource, file.getResourceByUniqueID(60));
+      assertNull(file.getTaskByUniqueID((Integer) null));
+
+      task.setUniqueID(Integer.valueOf(51));
+      assertNull(file.getTaskByUniqueID(50));
+      assertSame(task, file.getTaskByUniqueID(51));
+
+      ResourceAssignment assignment = task.addResourceAssignment(resource);
+      assignment.setUniqueID(Integer.valueOf(70));
+      assertSame(assignment, file.getResourceAssignments().getByUniqueID(70));
+
+      assignment.setUniqueID(Integer.valueOf(71));
+      assertNull(file.getResourceAssignments().getByUniqueID(70));
+      assertSame(assignment, file.getResourceAssignments().getByUniqueID(71));
+
+      assignment.remove();
+      assertNull(file.getResourceAssignments().getByUniqueID(71));
+
+      task.remove();
+      assertNull(file.getTaskByID(5));
+      assertNull(file.getTaskByUniqueID(51));
+   }
+
+   /**
+    * Ensure that the temporary assignments created when writing an MSPDI
+    * file are not added to the assignment Unique ID index.
+    *
+    * @throws Exception
+    */
+   @Test public void testWriterAssignmentsNotIndexed() throws Exception
+   {
+      ProjectFile file = new ProjectFile();
+      Resource resource = file.addResource();
+      Task task1 = file.addTask();
+      ResourceAssignment assignment = task1.addResourceAssignment(resource);
+
+      // A task with progress but no assignments requires a dummy assignment
+      Task task2 = file.addTask();
+      task2.setPercentageComplete(Double.valueOf(50));
+
+      new MSPDIWriter().write(file, new ByteArrayOutputStream());
+
+      assertEquals(1, file.getResourceAssignments().size());
+      assertSame(assignment, file.getResourceAssignments().getByUniqueID(assignment.getUniqueID()));
+      for (int uniqueID = 0; uniqueID < 10; uniqueID++)
+      {
+         ResourceAssignment indexed = file.getResourceAssignments().getByUniqueID(uniqueID);
+         assertTrue(indexed == null || indexed == assignment);
+      }
+   }
+}
@@ -0,0 +1,190 @@
+/*
+ * file:       JsonReaderTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.List;
+
+import org.junit.Test;
+
+import net.sf.mpxj.AssignmentField;
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.RelationType;
+import net.sf.mpxj.Resource;
+import net.sf.mpxj.ResourceAssignment;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.TaskField;
+import net.sf.mpxj.TimeUnit;
+import net.sf.mpxj.WorkContour;
+import net.sf.mpxj.json.JsonReader;
+import net.sf.mpxj.json.JsonWriter;
+import net.sf.mpxj.mspdi.MSPDIReader;
+
+/**
+ * Tests to ensure that JSON files written by MPXJ can be read.
+ */
+public class JsonReaderTest
+{
+   /**
+    * Test all MSPDI files in the test data directory.
+    *
+    * @throws Exception
+    */
+   @Test public void testRoundTrip() throws Exception
+   {
+      int count = 0;
+      for (File file : MpxjTestData.listFiles("", "mspdi"))
+      {
+         if (file.getName().endsWith(".xml"))
+         {
+            testRoundTrip(file);
+            ++count;
+         }
+      }
+      assertTrue(count != 0);
+   }
+
+   /**
+    * Test reading a hand written file.
+    *
+    * @throws Exception
+    */
+   @Test public void testRead() throws Exception
+   {
+      ProjectFile project = read(JSON_DATA);
+
+      assertEquals("Test \"Project\"\n\u00e9", project.getProjectProperties().getProjectTitle());
+      assertEquals(TimeUnit.HOURS, project.getProjectProperties().getDefaultDurationUnits());
+      assertEquals(TimeUnit.HOURS, project.getProjectProperties().getDefaultWorkUnits());
+      assertEquals("Cost Code", project.getCustomFields().getCustomField(TaskField.TEXT1).getAlias());
+
+      Task summary = project.getTaskByUniqueID(Integer.valueOf(1));
+      Task task1 = project.getTaskByUniqueID(Integer.valueOf(2));
+      Task task2 = project.getTaskByUniqueID(Integer.valueOf(3));
+      assertEquals(1, project.getChildTasks().size());
+      assertEquals(2, summary.getChildTasks().size());
+      assertEquals(summary, task1.getParentTask());
+      assertEquals("A100", task1.getText(1));
+
+      assertEquals(Duration.getInstance(16, TimeUnit.HOURS), task1.getDuration());
+      assertEquals(Duration.getInstance(2, TimeUnit.DAYS), task2.getDuration());
+
+      assertEquals(1, task2.getPredecessors().size());
+      assertEquals(task1, task2.getPredecessors().get(0).getTargetTask());
+      assertEquals(RelationType.START_START, task2.getPredecessors().get(0).getType());
+      assertEquals(Duration.getInstance(1, TimeUnit.HOURS), task2.getPredecessors().get(0).getLag());
+
+      Resource resource = project.getResourceByUniqueID(Integer.valueOf(1));
+      assertEquals("Resource 1", resource.getName());
+
+      List<ResourceAssignment> assignments = task1.getResourceAssignments();
+      assertEquals(1, assignments.size());
+      ResourceAssignment assignment = assignments.get(0);
+      assertEquals(resource, assignment.getResource());
+      assertEquals(Duration.getInstance(16, TimeUnit.HOURS), assignment.getWork());
+      assertEquals(WorkContour.BACK_LOADED, assignment.getCachedValue(AssignmentField.WORK_CONTOUR));
+   }
+
+   /**
+    * Write a project as JSON and read it back, ensuring that the tasks,
+    * resources and assignments match, and that writing the project
+    * read from the JSON file reproduces the same JSON.
+    *
+    * @param file file to test
+    * @throws Exception
+    */
+   private void testRoundTrip(File file) throws Exception
+   {
+      ProjectFile expected = new MSPDIReader().read(file);
+      ProjectFile actual = read(write(expected));
+
+      String name = file.getName();
+      assertEquals(name, expected.getTasks().size(), actual.getTasks().size());
+      for (int index = 0; index < expected.getTasks().size(); index++)
+      {
+         Task expectedTask = expected.getTasks().get(index);
+         Task actualTask = actual.getTasks().get(index);
+         assertEquals(name, expectedTask.getUniqueID(), actualTask.getUniqueID());
+         assertEquals(name, expectedTask.getName(), actualTask.getName());
+         assertEquals(name, expectedTask.getStart(), actualTask.getStart());
+         assertEquals(name, expectedTask.getFinish(), actualTask.getFinish());
+         assertEquals(name, expectedTask.getPredecessors().size(), actualTask.getPredecessors().size());
+      }
+
+      assertEquals(name, expected.getResources().size(), actual.getResources().size());
+      for (int index = 0; index < expected.getResources().size(); index++)
+      {
+         assertEquals(name, expected.getResources().get(index).getUniqueID(), actual.getResources().get(index).getUniqueID());
+         assertEquals(name, expected.getResources().get(index).getName(), actual.getResources().get(index).getName());
+      }
+
+      assertEquals(name, expected.getResourceAssignments().size(), actual.getResourceAssignments().size());
+
+      String json = write(actual);
+      assertEquals(name, json, write(read(json)));
+   }
+
+   /**
+    * Read a project from JSON data.
+    *
+    * @param data JSON data
+    * @return project
+    * @throws Exception
+    */
+   private ProjectFile read(String data) throws Exception
+   {
+      return new JsonReader().read(new ByteArrayInputStream(data.getBytes("UTF-8")));
+   }
+
+   /**
+    * Write a project as JSON.
+    *
+    * @param project project to write
+    * @return JSON data
+    * @throws Exception
+    */
+   private String write(ProjectFile project) throws Exception
+   {
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      new JsonWriter().write(project, stream);
+      return stream.toString("UTF-8");
+   }
+
+   private static final String JSON_DATA = "{\"custom_fields\":[{\"field_type_class\":\"task\",\"field_type\":\"text1\",\"field_alias\":\"Cost Code\"}]," //
+      + "\"property_types\":{\"project_title\":\"1\"}," //
+      + "\"property_values\":{\"project_title\":\"Test \\\"Project\\\"\\n\\u00e9\",\"default_duration_units\":\"h\",\"unknown\":{\"a\":[1,2,{}]}}," //
+      + "\"resources\":[{\"unique_id\":1,\"id\":1,\"name\":\"Resource 1\"}]," //
+      + "\"tasks\":[" //
+      + "{\"unique_id\":1,\"id\":1,\"name\":\"Summary\",\"outline_level\":\"1\",\"parent_task_unique_id\":-1}," //
+      + "{\"unique_id\":2,\"id\":2,\"name\":\"Task 1\",\"text1\":\"A100\",\"duration\":57600,\"parent_task_unique_id\":1,\"notes\":null}," //
+      + "{\"unique_id\":3,\"id\":3,\"name\":\"Task 2\",\"duration\":57600,\"duration_units\":\"d\",\"parent_task_unique_id\":1," //
+      + "\"predecessors\":[{\"task_unique_id\":2,\"lag\":3600,\"type\":\"SS\"}]}" //
+      + "]," //
+      + "\"assignments\":[{\"task_unique_id\":2,\"resource_unique_id\":1,\"unique_id\":1,\"work\":57600,\"work_contour\":\"BACK_LOADED\"}]}";
+}
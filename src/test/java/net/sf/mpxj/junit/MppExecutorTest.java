@@ -0,0 +1,136 @@
+/*
+ * file:       MppExecutorTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.json.JsonWriter;
+import net.sf.mpxj.mpp.MPPReader;
+
+/**
+ * Tests to ensure that MPP files read using an executor match
+ * MPP files read on the calling thread.
+ */
+public class MppExecutorTest
+{
+   /**
+    * Read each MPP14 test file with and without an executor,
+    * and ensure that the results match.
+    *
+    * @throws Exception
+    */
+   @Test public void testExecutor() throws Exception
+   {
+      ExecutorService executor = Executors.newFixedThreadPool(3);
+      try
+      {
+         int count = 0;
+         for (File file : MpxjTestData.listFiles("", "mpp14"))
+         {
+            if (!file.getName().endsWith(".mpp"))
+            {
+               continue;
+            }
+
+            String expected = read(file, null);
+            String actual = read(file, executor);
+            assertEquals(file.getName(), expected, actual);
+            ++count;
+         }
+         assertTrue(count > 0);
+      }
+
+      finally
+      {
+         executor.shutdown();
+      }
+   }
+
+   /**
+    * Ensure that a file can still be read if the executor
+    * is unable to run any of the tasks submitted to it.
+    *
+    * @throws Exception
+    */
+   @Test public void testBusyExecutor() throws Exception
+   {
+      File file = new File(MpxjTestData.filePath("mpp14task.mpp"));
+      String expected = read(file, null);
+
+      ExecutorService executor = Executors.newSingleThreadExecutor();
+      final CountDownLatch latch = new CountDownLatch(1);
+      try
+      {
+         executor.submit(new Callable<Void>()
+         {
+            @Override public Void call() throws Exception
+            {
+               latch.await();
+               return null;
+            }
+         });
+
+         assertEquals(expected, read(file, executor));
+      }
+
+      finally
+      {
+         latch.countDown();
+         executor.shutdown();
+      }
+   }
+
+   /**
+    * Read an MPP file and convert it to JSON.
+    *
+    * @param file MPP file
+    * @param executor optional executor
+    * @return JSON representation of the file
+    * @throws Exception
+    */
+   private String read(File file, ExecutorService executor) throws Exception
+   {
+      MPPReader reader = new MPPReader();
+      reader.setExecutor(executor);
+      ProjectFile project = reader.read(file);
+
+      // defaults to the time the file was read
+      project.getProjectProperties().setCurrentDate(null);
+
+      ByteArrayOutputStream os = new ByteArrayOutputStream();
+      new JsonWriter().write(project, os);
+      return os.toString("UTF-8");
+   }
+}
@@ -0,0 +1,114 @@
+/*
+ * file:       MppFieldFilterTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.TaskField;
+import net.sf.mpxj.mpp.MPPReader;
+
+/**
+ * Tests to ensure that a field filter restricts the fields read from
+ * various versions of MPP file.
+ */
+public class MppFieldFilterTest
+{
+   /**
+    * Test filtered task data read from an MPP9 file.
+    *
+    * @throws Exception
+    */
+   @Test public void testMpp9FieldFilter() throws Exception
+   {
+      testFieldFilter("mpp9task.mpp");
+   }
+
+   /**
+    * Test filtered task data read from an MPP12 file.
+    *
+    * @throws Exception
+    */
+   @Test public void testMpp12FieldFilter() throws Exception
+   {
+      testFieldFilter("mpp12task.mpp");
+   }
+
+   /**
+    * Test filtered task data read from an MPP14 file.
+    *
+    * @throws Exception
+    */
+   @Test public void testMpp14FieldFilter() throws Exception
+   {
+      testFieldFilter("mpp14task.mpp");
+   }
+
+   /**
+    * Read a file with and without a field filter, and ensure that only
+    * the requested fields are populated when the filter is applied.
+    *
+    * @param fileName test file name
+    * @throws Exception
+    */
+   private void testFieldFilter(String fileName) throws Exception
+   {
+      ProjectFile expected = new MPPReader().read(MpxjTestData.filePath(fileName));
+
+      MPPReader reader = new MPPReader();
+      reader.setFieldFilter(new HashSet<TaskField>(Arrays.asList(TaskField.TEXT1)));
+      assertEquals(1, reader.getFieldFilter().size());
+      ProjectFile actual = reader.read(MpxjTestData.filePath(fileName));
+
+      List<Task> expectedTasks = expected.getTasks();
+      List<Task> actualTasks = actual.getTasks();
+      assertEquals(expectedTasks.size(), actualTasks.size());
+
+      boolean costFound = false;
+      for (int index = 0; index < expectedTasks.size(); index++)
+      {
+         Task expectedTask = expectedTasks.get(index);
+         Task actualTask = actualTasks.get(index);
+
+         assertEquals(expectedTask.getUniqueID(), actualTask.getUniqueID());
+         assertEquals(expectedTask.getName(), actualTask.getName());
+         assertEquals(expectedTask.getStart(), actualTask.getStart());
+         assertEquals(expectedTask.getFinish(), actualTask.getFinish());
+         assertEquals(expectedTask.getText(1), actualTask.getText(1));
+         assertNull(actualTask.getCachedValue(TaskField.COST));
+         assertNull(actualTask.getCachedValue(TaskField.TEXT2));
+
+         costFound |= expectedTask.getCachedValue(TaskField.COST) != null;
+      }
+
+      assertTrue(costFound);
+   }
+}
@@ -0,0 +1,227 @@
+/*
+ * file:       MppLoadFieldsOnDemandTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import net.sf.mpxj.AssignmentField;
+import net.sf.mpxj.FieldContainer;
+import net.sf.mpxj.FieldLoader;
+import net.sf.mpxj.FieldType;
+import net.sf.mpxj.ProjectEntityWithUniqueID;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.ResourceField;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.TaskField;
+import net.sf.mpxj.TaskType;
+import net.sf.mpxj.mpp.MPPReader;
+
+/**
+ * Tests to ensure that decoding fields on demand produces the same
+ * results as decoding all fields when an MPP file is read.
+ */
+public class MppLoadFieldsOnDemandTest
+{
+   /**
+    * Test fields decoded on demand from an MPP9 file.
+    *
+    * @throws Exception
+    */
+   @Test public void testMpp9LoadFieldsOnDemand() throws Exception
+   {
+      testLoadFieldsOnDemand("mpp9assignmentcustom.mpp");
+   }
+
+   /**
+    * Test fields decoded on demand from an MPP12 file.
+    *
+    * @throws Exception
+    */
+   @Test public void testMpp12LoadFieldsOnDemand() throws Exception
+   {
+      testLoadFieldsOnDemand("mpp12assignmentcustom.mpp");
+   }
+
+   /**
+    * Test fields decoded on demand from an MPP14 file.
+    *
+    * @throws Exception
+    */
+   @Test public void testMpp14LoadFieldsOnDemand() throws Exception
+   {
+      testLoadFieldsOnDemand("mpp14assignmentcustom.mpp");
+   }
+
+   /**
+    * Ensure that fields decoded on demand by several threads at once
+    * match the fields decoded when the file is read.
+    *
+    * @throws Exception
+    */
+   @Test public void testConcurrentLoadFieldsOnDemand() throws Exception
+   {
+      String fileName = "mpp14assignmentcustom.mpp";
+      final ProjectFile expected = new MPPReader().read(MpxjTestData.filePath(fileName));
+
+      MPPReader reader = new MPPReader();
+      reader.setLoadFieldsOnDemand(true);
+      final ProjectFile actual = reader.read(MpxjTestData.filePath(fileName));
+
+      ExecutorService executor = Executors.newFixedThreadPool(4);
+      try
+      {
+         List<Future<Object>> futures = new ArrayList<Future<Object>>();
+         for (int index = 0; index < 4; index++)
+         {
+            futures.add(executor.submit(new Callable<Object>()
+            {
+               @Override public Object call()
+               {
+                  testFields(expected.getTasks(), actual.getTasks(), TaskField.values());
+                  testFields(expected.getResources(), actual.getResources(), ResourceField.values());
+                  testFields(expected.getResourceAssignments(), actual.getResourceAssignments(), AssignmentField.values());
+                  return null;
+               }
+            }));
+         }
+
+         for (Future<Object> future : futures)
+         {
+            future.get();
+         }
+      }
+
+      finally
+      {
+         executor.shutdown();
+      }
+   }
+
+   /**
+    * Ensure that values set before a loader is supplied are retained,
+    * and that the loader is no longer used once every field it can
+    * supply has been loaded or set.
+    */
+   @Test public void testFieldLoaderReleased()
+   {
+      final AtomicInteger calls = new AtomicInteger();
+      FieldLoader loader = new FieldLoader()
+      {
+         @Override public boolean contains(FieldType field)
+         {
+            calls.incrementAndGet();
+            return field == TaskField.NAME || field == TaskField.TEXT1;
+         }
+
+         @Override public int getFieldCount()
+         {
+            return 2;
+         }
+
+         @Override public Object load(FieldType field)
+         {
+            calls.incrementAndGet();
+            return field == TaskField.NAME ? "Name" : "Text";
+         }
+      };
+
+      ProjectFile file = new ProjectFile();
+      Task task = file.addTask();
+      task.setFieldLoader(loader);
+
+      assertEquals(TaskType.FIXED_UNITS, task.getType());
+      assertEquals("Name", task.getName());
+      task.setText(1, "Updated");
+      assertEquals("Updated", task.getText(1));
+
+      int count = calls.get();
+      assertNull(task.getText(2));
+      assertEquals("Name", task.getName());
+      assertEquals(count, calls.get());
+   }
+
+   /**
+    * Read a file with and without fields decoded on demand, and ensure
+    * that the task, resource and assignment fields match.
+    *
+    * @param fileName test file name
+    * @throws Exception
+    */
+   private void testLoadFieldsOnDemand(String fileName) throws Exception
+   {
+      ProjectFile expected = new MPPReader().read(MpxjTestData.filePath(fileName));
+
+      MPPReader reader = new MPPReader();
+      reader.setLoadFieldsOnDemand(true);
+      assertTrue(reader.getLoadFieldsOnDemand());
+      ProjectFile actual = reader.read(MpxjTestData.filePath(fileName));
+
+      testFields(expected.getTasks(), actual.getTasks(), TaskField.values());
+      testFields(expected.getResources(), actual.getResources(), ResourceField.values());
+      testFields(expected.getResourceAssignments(), actual.getResourceAssignments(), AssignmentField.values());
+   }
+
+   /**
+    * Compare the cached values of all fields for two lists of entities.
+    *
+    * @param expected expected entities
+    * @param actual actual entities
+    * @param fields fields to compare
+    */
+   private void testFields(List<? extends FieldContainer> expected, List<? extends FieldContainer> actual, FieldType[] fields)
+   {
+      assertEquals(expected.size(), actual.size());
+      for (int index = 0; index < expected.size(); index++)
+      {
+         FieldContainer expectedContainer = expected.get(index);
+         FieldContainer actualContainer = actual.get(index);
+         for (FieldType field : fields)
+         {
+            assertEquals(field.toString(), getComparableValue(expectedContainer.getCachedValue(field)), getComparableValue(actualContainer.getCachedValue(field)));
+         }
+      }
+   }
+
+   /**
+    * Entities from different project files can't be compared directly,
+    * so their unique IDs are compared instead.
+    *
+    * @param value field value
+    * @return value to compare
+    */
+   private Object getComparableValue(Object value)
+   {
+      return value instanceof ProjectEntityWithUniqueID ? ((ProjectEntityWithUniqueID) value).getUniqueID() : value;
+   }
+}
@@ -0,0 +1,207 @@
+/*
+ * file:       MppPresentationDataTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import net.sf.mpxj.Filter;
+import net.sf.mpxj.Group;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.Table;
+import net.sf.mpxj.View;
+import net.sf.mpxj.ViewState;
+import net.sf.mpxj.mpp.MPPReader;
+
+/**
+ * Tests to ensure that presentation data decoded on demand matches
+ * presentation data decoded when an MPP file is read.
+ */
+public class MppPresentationDataTest
+{
+   /**
+    * Compare presentation data decoded on demand with presentation data
+    * decoded when the file is read, for each MPP test file.
+    *
+    * @throws Exception
+    */
+   @Test public void testPresentationData() throws Exception
+   {
+      int count = 0;
+      for (byte[] data : getTestData())
+      {
+         String expected = getPresentationData(read(data, false));
+         String actual = getPresentationData(read(data, true));
+         assertEquals(expected, actual);
+         ++count;
+      }
+      assertTrue(count > 0);
+   }
+
+   /**
+    * Ensure that presentation data is only decoded once when it is
+    * requested from several threads at the same time.
+    *
+    * @throws Exception
+    */
+   @Test public void testConcurrentAccess() throws Exception
+   {
+      byte[] data = MpxjTestData.readFile(new File(MpxjTestData.filePath("mpp14group.mpp")));
+      String expected = getPresentationData(read(data, false));
+
+      ExecutorService executor = Executors.newFixedThreadPool(4);
+      try
+      {
+         for (int iteration = 0; iteration < 10; iteration++)
+         {
+            final ProjectFile project = read(data, true);
+            List<Future<String>> results = new ArrayList<Future<String>>();
+            for (int index = 0; index < 4; index++)
+            {
+               results.add(executor.submit(new Callable<String>()
+               {
+                  @Override public String call()
+                  {
+                     return getPresentationData(project);
+                  }
+               }));
+            }
+
+            for (Future<String> result : results)
+            {
+               assertEquals(expected, result.get());
+            }
+         }
+      }
+
+      finally
+      {
+         executor.shutdown();
+      }
+   }
+
+   /**
+    * Retrieve the content of each MPP test file which can be read.
+    *
+    * @return list of file contents
+    * @throws Exception
+    */
+   private List<byte[]> getTestData() throws Exception
+   {
+      List<byte[]> result = new ArrayList<byte[]>();
+      for (File file : MpxjTestData.listFiles("", "mpp"))
+      {
+         if (!file.getName().endsWith(".mpp"))
+         {
+            continue;
+         }
+
+         byte[] data = MpxjTestData.readFile(file);
+         try
+         {
+            read(data, false);
+         }
+
+         catch (Exception ex)
+         {
+            // ignore files which can't be read, for example password protected files
+            continue;
+         }
+
+         result.add(data);
+      }
+      return result;
+   }
+
+   /**
+    * Read an MPP file.
+    *
+    * @param data file content
+    * @param onDemand true if presentation data is decoded on demand
+    * @return project file
+    * @throws Exception
+    */
+   private ProjectFile read(byte[] data, boolean onDemand) throws Exception
+   {
+      MPPReader reader = new MPPReader();
+      reader.setLoadPresentationDataOnDemand(onDemand);
+      return reader.read(new ByteArrayInputStream(data));
+   }
+
+   /**
+    * Generate a text representation of the presentation data held by a project.
+    *
+    * @param project project file
+    * @return presentation data
+    */
+   private String getPresentationData(ProjectFile project)
+   {
+      StringBuilder sb = new StringBuilder();
+      for (View view : project.getViews())
+      {
+         sb.append(view);
+      }
+
+      for (Table table : project.getTables())
+      {
+         sb.append(table);
+      }
+
+      for (Filter filter : project.getFilters().getTaskFilters())
+      {
+         sb.append(filter);
+      }
+
+      for (Filter filter : project.getFilters().getResourceFilters())
+      {
+         sb.append(filter);
+      }
+
+      for (Group group : project.getGroups())
+      {
+         sb.append(group);
+      }
+
+      ViewState state = project.getViews().getViewState();
+      if (state != null)
+      {
+         sb.append(state.getViewName());
+         sb.append(state.getUniqueIdList());
+         sb.append(state.getFilter());
+      }
+
+      return sb.toString();
+   }
+}
@@ -27,7 +27,11 @@ import static org.junit.Assert.*;
 
 import java.io.File;
 import java.io.FileFilter;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+
+import net.sf.mpxj.common.InputStreamHelper;
 
 /**
  * Simple utility class to provide access to named test data files.
@@ -98,4 +102,23 @@ public class MpxjTestData
       return result;
    }
 
+   /**
+    * Read the content of a file.
+    *
+    * @param file file
+    * @return file content
+    */
+   public static byte[] readFile(File file) throws IOException
+   {
+      InputStream is = new FileInputStream(file);
+      try
+      {
+         return InputStreamHelper.read(is);
+      }
+
+      finally
+      {
+         is.close();
+      }
+   }
 }
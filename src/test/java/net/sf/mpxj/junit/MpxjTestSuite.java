@@ -34,12 +34,15 @@ import net.sf.mpxj.junit.calendar.CalendarCalendarsTest;
 import net.sf.mpxj.junit.calendar.InvalidCalendarTest;
 import net.sf.mpxj.junit.calendar.RecurringExceptionsTest;
 import net.sf.mpxj.junit.legacy.BasicTest;
+import net.sf.mpxj.junit.primavera.BlastTest;
 import net.sf.mpxj.junit.primavera.PrimaveraDatabaseReaderTest;
+import net.sf.mpxj.junit.primavera.PrimaveraXERFileReaderTest;
 import net.sf.mpxj.junit.project.DataLinksTest;
 import net.sf.mpxj.junit.project.DefaultDurationFormatTest;
 import net.sf.mpxj.junit.project.ProjectPropertiesOnlyTest;
 import net.sf.mpxj.junit.project.ProjectPropertiesTest;
 import net.sf.mpxj.junit.project.ProjectValueListsTest;
+import net.sf.mpxj.junit.project.RelationContainerTest;
 import net.sf.mpxj.junit.project.TaskContainerTest;
 import net.sf.mpxj.junit.resource.MppResourceTypeTest;
 import net.sf.mpxj.junit.resource.ResourceFlagsTest;
@@ -92,6 +95,16 @@ import net.sf.mpxj.junit.task.TaskTextValuesTest;
    MppEmbeddedTest.class,
    MppRecurringTest.class,
    MppNullTaskTest.class,
+   MppFieldFilterTest.class,
+   MppLoadFieldsOnDemandTest.class,
+   MspdiStreamingReaderTest.class,
+   MspdiStreamingWriterTest.class,
+   MspdiConcurrentConversionTest.class,
+   JsonReaderTest.class,
+   SnapshotTest.class,
+   FastTrackReaderTest.class,
+   UniversalProjectReaderTest.class,
+   BatchConvertUtilityTest.class,
    ProjectWriterUtilityTest.class,
    PlannerCalendarTest.class,
    PlannerResourceTest.class,
@@ -134,7 +147,10 @@ import net.sf.mpxj.junit.task.TaskTextValuesTest;
    ProjectValueListsTest.class,
    CalendarCalendarsTest.class,
    PrimaveraDatabaseReaderTest.class,
+   PrimaveraXERFileReaderTest.class,
+   BlastTest.class,
    TaskContainerTest.class,
+   RelationContainerTest.class,
    AvailabilityTableTest.class,
    AssignmentAssignmentsTest.class,
    AssignmentFlagsTest.class,
@@ -148,7 +164,13 @@ import net.sf.mpxj.junit.task.TaskTextValuesTest;
    RecurringDataTest.class,
    DataLinksTest.class,
    LocaleDataTest.class,
-   CustomerDataTest.class
+   CustomerDataTest.class,
+   CriticalPathTest.class,
+   CompactFieldStorageTest.class,
+   IntIntMapTest.class,
+   MppPresentationDataTest.class,
+   MppExecutorTest.class,
+   IntObjectMapTest.class
 }) public class MpxjTestSuite
 {
    // No class body required
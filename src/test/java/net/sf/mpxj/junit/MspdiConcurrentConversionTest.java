@@ -0,0 +1,158 @@
+/*
+ * file:       MspdiConcurrentConversionTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.Resource;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.listener.DefaultProjectListener;
+import net.sf.mpxj.mspdi.MSPDIReader;
+import net.sf.mpxj.mspdi.MSPDIWriter;
+
+/**
+ * Tests to ensure that MSPDI files can be read and written concurrently,
+ * and that task and resource write events are still reported.
+ */
+public class MspdiConcurrentConversionTest
+{
+   /**
+    * Convert each MSPDI test file several times on a thread pool,
+    * ensuring that the results match a conversion on the current thread.
+    *
+    * @throws Exception
+    */
+   @Test public void testConcurrentConversion() throws Exception
+   {
+      List<File> files = new ArrayList<File>();
+      List<String> expected = new ArrayList<String>();
+      for (File file : MpxjTestData.listFiles("", "mspdi"))
+      {
+         if (file.getName().endsWith(".xml"))
+         {
+            files.add(file);
+            expected.add(convert(file));
+         }
+      }
+
+      ExecutorService executor = Executors.newFixedThreadPool(4);
+      try
+      {
+         List<Future<String>> results = new ArrayList<Future<String>>();
+         for (int iteration = 0; iteration < 4; iteration++)
+         {
+            for (final File file : files)
+            {
+               results.add(executor.submit(new Callable<String>()
+               {
+                  @Override public String call() throws Exception
+                  {
+                     return convert(file);
+                  }
+               }));
+            }
+         }
+
+         for (int index = 0; index < results.size(); index++)
+         {
+            assertEquals(files.get(index % files.size()).getName(), expected.get(index % files.size()), results.get(index).get());
+         }
+      }
+
+      finally
+      {
+         executor.shutdown();
+      }
+   }
+
+   /**
+    * Ensure that a write event is reported for each task and resource.
+    *
+    * @throws Exception
+    */
+   @Test public void testWriteEvents() throws Exception
+   {
+      ProjectFile project = new MSPDIReader().read(MpxjTestData.filePath("mspdiresource.xml"));
+      final List<Task> tasks = new ArrayList<Task>();
+      final List<Resource> resources = new ArrayList<Resource>();
+
+      project.getEventManager().addProjectListener(new DefaultProjectListener()
+      {
+         @Override public void taskWritten(Task task)
+         {
+            tasks.add(task);
+         }
+
+         @Override public void resourceWritten(Resource resource)
+         {
+            resources.add(resource);
+         }
+      });
+
+      new MSPDIWriter().write(project, new ByteArrayOutputStream());
+      assertEquals(project.getTasks(), tasks);
+      assertEquals(project.getResources(), resources);
+   }
+
+   /**
+    * Read an MSPDI file, write it, then read and write the result again.
+    *
+    * @param file MSPDI file
+    * @return MSPDI data
+    * @throws Exception
+    */
+   private String convert(File file) throws Exception
+   {
+      String data = write(new MSPDIReader().read(file));
+      return write(new MSPDIReader().read(new ByteArrayInputStream(data.getBytes("UTF-8"))));
+   }
+
+   /**
+    * Write a project as MSPDI, removing the element which records the
+    * time the file was written.
+    *
+    * @param project project to write
+    * @return MSPDI data
+    * @throws Exception
+    */
+   private String write(ProjectFile project) throws Exception
+   {
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      new MSPDIWriter().write(project, stream);
+      return stream.toString("UTF-8").replaceAll("<CurrentDate>[^<]*</CurrentDate>", "");
+   }
+}
@@ -0,0 +1,157 @@
+/*
+ * file:       MspdiStreamingReaderTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+
+import org.junit.Test;
+
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.mspdi.MSPDIReader;
+import net.sf.mpxj.mspdi.MSPDIWriter;
+
+/**
+ * Tests to ensure that reading an MSPDI file incrementally produces
+ * the same results as reading the file into an object tree.
+ */
+public class MspdiStreamingReaderTest
+{
+   /**
+    * Test all MSPDI files in the test data directory.
+    *
+    * @throws Exception
+    */
+   @Test public void testStreamingInput() throws Exception
+   {
+      int count = 0;
+      for (File file : MpxjTestData.listFiles("", "mspdi"))
+      {
+         if (file.getName().endsWith(".xml"))
+         {
+            testStreamingInput(file);
+            ++count;
+         }
+      }
+      assertTrue(count != 0);
+   }
+
+   /**
+    * Test a file which does not declare the MSPDI namespace.
+    *
+    * @throws Exception
+    */
+   @Test public void testNoNamespace() throws Exception
+   {
+      MSPDIReader reader = new MSPDIReader();
+      reader.setStreamingInput(true);
+      assertTrue(reader.getStreamingInput());
+      ProjectFile project = reader.read(new ByteArrayInputStream(NO_NAMESPACE_DATA.getBytes("UTF-8")));
+
+      assertEquals("Test", project.getProjectProperties().getProjectTitle());
+      assertEquals("Standard", project.getDefaultCalendar().getName());
+
+      Task task1 = project.getTaskByUniqueID(Integer.valueOf(1));
+      Task task2 = project.getTaskByUniqueID(Integer.valueOf(2));
+      assertEquals("Task 1", task1.getName());
+      assertEquals("Task 2", task2.getName());
+      assertEquals(1, task2.getPredecessors().size());
+      assertEquals(task1, task2.getPredecessors().get(0).getTargetTask());
+      assertEquals("Resource 1", project.getResourceByUniqueID(Integer.valueOf(1)).getName());
+      assertEquals(1, task1.getResourceAssignments().size());
+   }
+
+   /**
+    * Read a file with and without streaming enabled, and ensure
+    * that the MSPDI files written from each are identical.
+    *
+    * @param file file to test
+    * @throws Exception
+    */
+   private void testStreamingInput(File file) throws Exception
+   {
+      MSPDIReader reader = new MSPDIReader();
+      String expected = write(read(reader, file));
+
+      reader.setStreamingInput(true);
+      String actual = write(read(reader, file));
+
+      assertEquals(file.getName(), expected, actual);
+   }
+
+   /**
+    * Read a project from a file.
+    *
+    * @param reader MSPDI reader
+    * @param file file to read
+    * @return project
+    * @throws Exception
+    */
+   private ProjectFile read(MSPDIReader reader, File file) throws Exception
+   {
+      InputStream stream = new FileInputStream(file);
+      try
+      {
+         return reader.read(stream);
+      }
+
+      finally
+      {
+         stream.close();
+      }
+   }
+
+   /**
+    * Write a project as MSPDI, removing the element which records the
+    * time the file was written.
+    *
+    * @param project project to write
+    * @return MSPDI data
+    * @throws Exception
+    */
+   private String write(ProjectFile project) throws Exception
+   {
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      new MSPDIWriter().write(project, stream);
+      return stream.toString("UTF-8").replaceAll("<CurrentDate>[^<]*</CurrentDate>", "");
+   }
+
+   private static final String NO_NAMESPACE_DATA = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" //
+      + "<Project><Title>Test</Title><CalendarUID>1</CalendarUID>" //
+      + "<Calendars><Calendar><UID>1</UID><Name>Standard</Name><IsBaseCalendar>1</IsBaseCalendar></Calendar></Calendars>" //
+      + "<Tasks>" //
+      + "<Task><UID>1</UID><ID>1</ID><Name>Task 1</Name><OutlineLevel>1</OutlineLevel></Task>" //
+      + "<Task><UID>2</UID><ID>2</ID><Name>Task 2</Name><OutlineLevel>1</OutlineLevel>" //
+      + "<PredecessorLink><PredecessorUID>1</PredecessorUID><Type>1</Type></PredecessorLink></Task>" //
+      + "</Tasks>" //
+      + "<Resources><Resource><UID>1</UID><ID>1</ID><Name>Resource 1</Name></Resource></Resources>" //
+      + "<Assignments><Assignment><UID>1</UID><TaskUID>1</TaskUID><ResourceUID>1</ResourceUID></Assignment></Assignments>" //
+      + "</Project>";
+}
@@ -0,0 +1,141 @@
+/*
+ * file:       MspdiStreamingWriterTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+
+import org.junit.Test;
+
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.TaskField;
+import net.sf.mpxj.mspdi.MSPDIWriter;
+import net.sf.mpxj.reader.UniversalProjectReader;
+
+/**
+ * Tests to ensure that writing an MSPDI file incrementally produces
+ * the same output as writing the file from an object tree.
+ */
+public class MspdiStreamingWriterTest
+{
+   /**
+    * Test all MSPDI files in the test data directory.
+    *
+    * @throws Exception
+    */
+   @Test public void testStreamingOutput() throws Exception
+   {
+      int count = 0;
+      for (File file : MpxjTestData.listFiles("", "mspdi"))
+      {
+         if (file.getName().endsWith(".xml"))
+         {
+            testStreamingOutput(file, false);
+            testStreamingOutput(file, true);
+            ++count;
+         }
+      }
+      assertTrue(count != 0);
+   }
+
+   /**
+    * Test text requiring escaping, custom field aliases, and a task
+    * which requires a dummy assignment.
+    *
+    * @throws Exception
+    */
+   @Test public void testGeneratedProject() throws Exception
+   {
+      String expected = write(createProject(), false, false);
+      String actual = write(createProject(), true, false);
+      assertEquals(expected, actual);
+   }
+
+   /**
+    * Read a file twice, writing it with and without streaming enabled,
+    * and ensure that the output is identical.
+    *
+    * @param file file to test
+    * @param timephased true if timephased data is written
+    * @throws Exception
+    */
+   private void testStreamingOutput(File file, boolean timephased) throws Exception
+   {
+      String expected = write(new UniversalProjectReader().read(file), false, timephased);
+      String actual = write(new UniversalProjectReader().read(file), true, timephased);
+      assertEquals(file.getName(), expected, actual);
+   }
+
+   /**
+    * Create a small project for testing.
+    *
+    * @return project
+    */
+   private ProjectFile createProject()
+   {
+      StringBuilder name = new StringBuilder();
+      for (char c = 1; c < 128; c++)
+      {
+         name.append(c);
+      }
+      name.append("\u00E9\u20AC\uD83D\uDE00");
+
+      ProjectFile project = new ProjectFile();
+      project.getCustomFields().getCustomField(TaskField.TEXT2).setAlias("<Alias> & \"Text\"");
+
+      Task task = project.addTask();
+      task.setName(name.toString());
+      task.setNotes("Line 1\r\nLine 2");
+      task.setText(1, "");
+      task.setText(2, "A & B");
+      task.setPercentageComplete(Double.valueOf(50));
+
+      return project;
+   }
+
+   /**
+    * Write a project as MSPDI, removing the element which records the
+    * time the file was written.
+    *
+    * @param project project to write
+    * @param streaming true if streaming output is enabled
+    * @param timephased true if timephased data is written
+    * @return MSPDI data
+    * @throws Exception
+    */
+   private String write(ProjectFile project, boolean streaming, boolean timephased) throws Exception
+   {
+      MSPDIWriter writer = new MSPDIWriter();
+      writer.setStreamingOutput(streaming);
+      assertEquals(streaming, writer.getStreamingOutput());
+      writer.setWriteTimephasedData(timephased);
+
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      writer.write(project, stream);
+      return stream.toString("UTF-8").replaceAll("<CurrentDate>[^<]*</CurrentDate>", "");
+   }
+}
@@ -28,14 +28,18 @@ import static org.junit.Assert.*;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import net.sf.mpxj.DateRange;
 import net.sf.mpxj.Duration;
 import net.sf.mpxj.ProjectCalendar;
+import net.sf.mpxj.ProjectCalendarCache;
 import net.sf.mpxj.ProjectCalendarException;
+import net.sf.mpxj.ProjectCalendarIndex;
 import net.sf.mpxj.ProjectFile;
 import net.sf.mpxj.Task;
 import net.sf.mpxj.TimeUnit;
+import net.sf.mpxj.common.LruProjectCalendarCache;
 import net.sf.mpxj.mpp.MPPReader;
 
 import org.junit.Test;
@@ -710,4 +714,235 @@ public class ProjectCalendarTest
       //
       assertNull(cal.getStartTime(df.parse("11/10/2003 00:00")));
    }
+
+   /**
+    * Simple tests to exercise the ProjectCalendar.getPreviousWorkFinish method.
+    *
+    * @throws Exception
+    */
+   @Test public void testPreviousWorkFinish() throws Exception
+   {
+      ProjectFile file = new ProjectFile();
+      ProjectCalendar cal = file.addDefaultBaseCalendar();
+      SimpleDateFormat df = new SimpleDateFormat("dd/MM/yyyy HH:mm");
+
+      //
+      // After the last range of the day, the finish of that range is used
+      //
+      assertEquals("09/10/2003 17:00", df.format(cal.getPreviousWorkFinish(df.parse("09/10/2003 18:00"))));
+
+      //
+      // Between ranges
+      //
+      assertEquals("09/10/2003 12:00", df.format(cal.getPreviousWorkFinish(df.parse("09/10/2003 12:30"))));
+
+      //
+      // Before the first range of the day
+      //
+      assertEquals("08/10/2003 17:00", df.format(cal.getPreviousWorkFinish(df.parse("09/10/2003 07:00"))));
+
+      //
+      // Before the first range of the week
+      //
+      assertEquals("10/10/2003 17:00", df.format(cal.getPreviousWorkFinish(df.parse("13/10/2003 07:00"))));
+   }
+
+   /**
+    * Exercise the calendar cache, ensuring that results are cached,
+    * and that changes to a base calendar are seen by derived calendars.
+    *
+    * @throws Exception
+    */
+   @Test public void testCalendarCache() throws Exception
+   {
+      DateFormat df = new SimpleDateFormat("dd/MM/yyyy HH:mm");
+      ProjectFile file = new ProjectFile();
+      ProjectCalendarCache cache = new LruProjectCalendarCache(100);
+      file.getProjectConfig().setCalendarCache(cache);
+
+      ProjectCalendar base = file.addDefaultBaseCalendar();
+      ProjectCalendar derived = file.addDefaultDerivedCalendar();
+      derived.setParent(base);
+
+      Date startDate = df.parse("13/03/2006 08:00");
+      Date endDate = df.parse("20/03/2006 08:00");
+
+      assertEquals(5.0, derived.getWork(startDate, endDate, TimeUnit.DAYS).getDuration(), 0.01);
+      long hits = cache.getHitCount();
+      assertEquals(5.0, derived.getWork(startDate, endDate, TimeUnit.DAYS).getDuration(), 0.01);
+      assertEquals(hits + 1, cache.getHitCount());
+
+      assertTrue(derived.isWorkingDate(df.parse("15/03/2006 00:00")));
+      assertTrue(derived.isWorkingDate(df.parse("15/03/2006 00:00")));
+
+      //
+      // Adding an exception to the base calendar must be
+      // reflected in calculations using the derived calendar.
+      //
+      base.addCalendarException(df.parse("15/03/2006 00:00"), df.parse("15/03/2006 23:59"));
+      assertEquals(4.0, derived.getWork(startDate, endDate, TimeUnit.DAYS).getDuration(), 0.01);
+      assertFalse(derived.isWorkingDate(df.parse("15/03/2006 00:00")));
+      assertEquals("21/03/2006 08:00", df.format(derived.getDate(startDate, Duration.getInstance(5, TimeUnit.DAYS), true)));
+      assertEquals("13/03/2006 08:00", df.format(derived.getStartDate(df.parse("17/03/2006 17:00"), Duration.getInstance(4, TimeUnit.DAYS))));
+
+      //
+      // Working days are cached by day rather than by time of day
+      //
+      cache.clear();
+      for (int index = 0; index < 60; index++)
+      {
+         assertTrue(derived.isWorkingDate(new Date(startDate.getTime() + (index * 60000L))));
+         assertNotNull(derived.getStartTime(new Date(startDate.getTime() + (index * 60000L))));
+      }
+      assertEquals(2, cache.size());
+
+      //
+      // The cache is bounded
+      //
+      for (int index = 0; index < 500; index++)
+      {
+         derived.isWorkingDate(new Date(startDate.getTime() + (index * 86400000L)));
+      }
+      assertTrue(cache.size() <= 100);
+   }
+
+   /**
+    * Ensure that a calendar can be used concurrently from multiple threads.
+    *
+    * @throws Exception
+    */
+   @Test public void testConcurrentCalendarAccess() throws Exception
+   {
+      final DateFormat df = new SimpleDateFormat("dd/MM/yyyy HH:mm");
+      ProjectFile file = new ProjectFile();
+      final ProjectCalendar calendar = file.addDefaultBaseCalendar();
+      calendar.addCalendarException(df.parse("15/03/2006 00:00"), df.parse("15/03/2006 23:59"));
+      final Date startDate = df.parse("13/03/2006 08:00");
+      final double expected = calendar.getWork(startDate, df.parse("13/03/2007 08:00"), TimeUnit.DAYS).getDuration();
+
+      final AtomicInteger failures = new AtomicInteger();
+      Thread[] threads = new Thread[8];
+      for (int index = 0; index < threads.length; index++)
+      {
+         threads[index] = new Thread()
+         {
+            @Override public void run()
+            {
+               for (int loop = 0; loop < 200; loop++)
+               {
+                  Date endDate = new Date(startDate.getTime() + ((loop % 20) * 7L * 24 * 60 * 60 * 1000) + (365L * 24 * 60 * 60 * 1000));
+                  Duration work = calendar.getWork(startDate, endDate, TimeUnit.DAYS);
+                  if (loop % 20 == 0 && Math.abs(work.getDuration() - expected) > 0.01)
+                  {
+                     failures.incrementAndGet();
+                  }
+                  calendar.getDate(startDate, work, false);
+               }
+            }
+         };
+         threads[index].start();
+      }
+
+      for (Thread thread : threads)
+      {
+         thread.join();
+      }
+
+      assertEquals(0, failures.get());
+   }
+
+   /**
+    * Ensure that calculations using a compiled calendar index match
+    * those carried out by walking the calendar.
+    *
+    * @throws Exception
+    */
+   @Test public void testCalendarIndex() throws Exception
+   {
+      DateFormat df = new SimpleDateFormat("dd/MM/yyyy HH:mm");
+      ProjectFile file = new ProjectFile();
+      ProjectCalendar base = file.addDefaultBaseCalendar();
+      base.addCalendarException(df.parse("15/03/2006 00:00"), df.parse("16/03/2006 23:59"));
+      ProjectCalendarException exception = base.addCalendarException(df.parse("18/03/2006 00:00"), df.parse("18/03/2006 23:59"));
+      exception.addRange(new DateRange(df.parse("18/03/2006 09:00"), df.parse("18/03/2006 11:30")));
+
+      ProjectCalendar calendar = file.addDefaultDerivedCalendar();
+      calendar.setParent(base);
+      calendar.addCalendarException(df.parse("23/03/2006 00:00"), df.parse("23/03/2006 23:59"));
+
+      Date[] dates =
+      {
+         df.parse("13/03/2006 08:00"),
+         df.parse("13/03/2006 10:15"),
+         df.parse("14/03/2006 12:00"),
+         df.parse("14/03/2006 17:00"),
+         df.parse("17/03/2006 13:00"),
+         df.parse("18/03/2006 10:00"),
+         df.parse("20/03/2006 16:45"),
+         df.parse("24/03/2006 09:00"),
+         df.parse("03/04/2006 11:00")
+      };
+
+      Duration[] durations =
+      {
+         Duration.getInstance(30, TimeUnit.MINUTES),
+         Duration.getInstance(4, TimeUnit.HOURS),
+         Duration.getInstance(7.5, TimeUnit.HOURS),
+         Duration.getInstance(1, TimeUnit.DAYS),
+         Duration.getInstance(3.25, TimeUnit.DAYS),
+         Duration.getInstance(12, TimeUnit.DAYS)
+      };
+
+      int count = dates.length * dates.length + dates.length * durations.length * 3;
+      Object[] expected = new Object[count];
+      int index = 0;
+      for (Date startDate : dates)
+      {
+         for (Date endDate : dates)
+         {
+            expected[index++] = Double.valueOf(calendar.getWork(startDate, endDate, TimeUnit.MINUTES).getDuration());
+         }
+
+         for (Duration duration : durations)
+         {
+            expected[index++] = calendar.getDate(startDate, duration, false);
+            expected[index++] = calendar.getDate(startDate, duration, true);
+            expected[index++] = calendar.getStartDate(startDate, duration);
+         }
+      }
+
+      assertNull(calendar.getIndex());
+      calendar.compileIndex(df.parse("01/03/2006 00:00"), df.parse("30/04/2006 00:00"));
+      assertNotNull(calendar.getIndex());
+
+      index = 0;
+      for (Date startDate : dates)
+      {
+         for (Date endDate : dates)
+         {
+            assertEquals(((Double) expected[index++]).doubleValue(), calendar.getWork(startDate, endDate, TimeUnit.MINUTES).getDuration(), 0.01);
+         }
+
+         for (Duration duration : durations)
+         {
+            assertEquals(df.format(expected[index++]), df.format(calendar.getDate(startDate, duration, false)));
+            assertEquals(df.format(expected[index++]), df.format(calendar.getDate(startDate, duration, true)));
+            assertEquals(df.format(expected[index++]), df.format(calendar.getStartDate(startDate, duration)));
+         }
+      }
+
+      //
+      // Changes to the base calendar cause the index to be rebuilt
+      //
+      ProjectCalendarIndex calendarIndex = calendar.getIndex();
+      Date startDate = df.parse("20/03/2006 08:00");
+      Date endDate = df.parse("27/03/2006 08:00");
+      assertEquals(4.0, calendar.getWork(startDate, endDate, TimeUnit.DAYS).getDuration(), 0.01);
+      base.addCalendarException(df.parse("21/03/2006 00:00"), df.parse("21/03/2006 23:59"));
+      assertEquals(3.0, calendar.getWork(startDate, endDate, TimeUnit.DAYS).getDuration(), 0.01);
+      assertNotSame(calendarIndex, calendar.getIndex());
+
+      calendar.removeIndex();
+      assertNull(calendar.getIndex());
+   }
 }
@@ -0,0 +1,249 @@
+/*
+ * file:       SnapshotTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+
+import org.junit.Test;
+
+import net.sf.mpxj.MPXJException;
+import net.sf.mpxj.ProjectCalendar;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.Relation;
+import net.sf.mpxj.Resource;
+import net.sf.mpxj.ResourceAssignment;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.listener.DefaultProjectListener;
+import net.sf.mpxj.mpp.MPPReader;
+import net.sf.mpxj.mspdi.MSPDIReader;
+import net.sf.mpxj.mspdi.MSPDIWriter;
+import net.sf.mpxj.snapshot.SnapshotReader;
+import net.sf.mpxj.snapshot.SnapshotWriter;
+
+/**
+ * Tests to ensure that projects can be written to and read from snapshots.
+ */
+public class SnapshotTest
+{
+   /**
+    * Test all MSPDI files in the test data directory.
+    *
+    * @throws Exception
+    */
+   @Test public void testMspdiRoundTrip() throws Exception
+   {
+      int count = 0;
+      for (File file : MpxjTestData.listFiles("", "mspdi"))
+      {
+         if (file.getName().endsWith(".xml"))
+         {
+            testRoundTrip(file.getName(), new MSPDIReader().read(file));
+            ++count;
+         }
+      }
+      assertTrue(count != 0);
+   }
+
+   /**
+    * Test MPP files containing calendars, cost rate tables,
+    * availability tables and timephased data.
+    *
+    * @throws Exception
+    */
+   @Test public void testMppRoundTrip() throws Exception
+   {
+      for (String name : MPP_FILES)
+      {
+         testRoundTrip(name, new MPPReader().read(MpxjTestData.filePath(name)));
+      }
+   }
+
+   /**
+    * Ensure that the reader fires events as entities are read.
+    *
+    * @throws Exception
+    */
+   @Test public void testListener() throws Exception
+   {
+      ProjectFile expected = new MSPDIReader().read(MpxjTestData.filePath("mspdirelations.xml"));
+      final int[] counts = new int[5];
+
+      SnapshotReader reader = new SnapshotReader();
+      reader.addProjectListener(new DefaultProjectListener()
+      {
+         @Override public void taskRead(Task task)
+         {
+            ++counts[0];
+         }
+
+         @Override public void resourceRead(Resource resource)
+         {
+            ++counts[1];
+         }
+
+         @Override public void assignmentRead(ResourceAssignment assignment)
+         {
+            ++counts[2];
+         }
+
+         @Override public void calendarRead(ProjectCalendar calendar)
+         {
+            ++counts[3];
+         }
+
+         @Override public void relationRead(Relation relation)
+         {
+            ++counts[4];
+         }
+      });
+      reader.read(new ByteArrayInputStream(write(expected)));
+
+      int relationCount = 0;
+      for (Task task : expected.getTasks())
+      {
+         relationCount += task.getPredecessors().size();
+      }
+
+      assertEquals(expected.getTasks().size(), counts[0]);
+      assertEquals(expected.getResources().size(), counts[1]);
+      assertEquals(expected.getResourceAssignments().size(), counts[2]);
+      assertEquals(expected.getCalendars().size(), counts[3]);
+      assertEquals(relationCount, counts[4]);
+      assertTrue(relationCount != 0);
+   }
+
+   /**
+    * Ensure that sections which are not recognised are skipped.
+    *
+    * @throws Exception
+    */
+   @Test public void testUnknownSection() throws Exception
+   {
+      ProjectFile expected = new MSPDIReader().read(MpxjTestData.filePath("mspdirelations.xml"));
+      byte[] data = write(expected);
+
+      //
+      // Insert an unknown section following the magic number and version
+      //
+      byte[] section =
+      {
+         99,
+         0,
+         0,
+         0,
+         2,
+         1,
+         2
+      };
+      byte[] modified = new byte[data.length + section.length];
+      System.arraycopy(data, 0, modified, 0, HEADER_SIZE);
+      System.arraycopy(section, 0, modified, HEADER_SIZE, section.length);
+      System.arraycopy(data, HEADER_SIZE, modified, HEADER_SIZE + section.length, data.length - HEADER_SIZE);
+
+      ProjectFile actual = new SnapshotReader().read(new ByteArrayInputStream(modified));
+      assertEquals(mspdi(expected), mspdi(actual));
+   }
+
+   /**
+    * Ensure that data which is not a snapshot is rejected.
+    *
+    * @throws Exception
+    */
+   @Test public void testInvalidData() throws Exception
+   {
+      try
+      {
+         new SnapshotReader().read(new ByteArrayInputStream("Not a snapshot".getBytes()));
+         fail("Expected exception");
+      }
+
+      catch (MPXJException ex)
+      {
+         // expected
+      }
+   }
+
+   /**
+    * Write a project as a snapshot and read it back, ensuring that the
+    * MSPDI file written from the project read from the snapshot is
+    * identical to the MSPDI file written from the original project.
+    *
+    * @param name file name
+    * @param expected project to test
+    * @throws Exception
+    */
+   private void testRoundTrip(String name, ProjectFile expected) throws Exception
+   {
+      ProjectFile actual = new SnapshotReader().read(new ByteArrayInputStream(write(expected)));
+      assertEquals(name, expected.getTasks().size(), actual.getTasks().size());
+      assertEquals(name, expected.getResources().size(), actual.getResources().size());
+      assertEquals(name, expected.getResourceAssignments().size(), actual.getResourceAssignments().size());
+      assertEquals(name, expected.getCalendars().size(), actual.getCalendars().size());
+      assertEquals(name, mspdi(expected), mspdi(actual));
+   }
+
+   /**
+    * Write a project as a snapshot.
+    *
+    * @param project project to write
+    * @return snapshot data
+    */
+   private byte[] write(ProjectFile project) throws Exception
+   {
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      new SnapshotWriter().write(project, stream);
+      return stream.toByteArray();
+   }
+
+   /**
+    * Write a project as an MSPDI file.
+    *
+    * @param project project to write
+    * @return MSPDI file content
+    */
+   private String mspdi(ProjectFile project) throws Exception
+   {
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      new MSPDIWriter().write(project, stream);
+      return stream.toString("UTF-8");
+   }
+
+   private static final int HEADER_SIZE = 12;
+
+   private static final String[] MPP_FILES =
+   {
+      "mpp9calendar.mpp",
+      "mpp14calendar.mpp",
+      "mpp14costratetable.mpp",
+      "mpp14availability.mpp",
+      "mpp14timephased.mpp",
+      "mpp14timephasedsegments.mpp",
+      "mpp9baseline.mpp"
+   };
+}
@@ -0,0 +1,367 @@
+/*
+ * file:       UniversalProjectReaderTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Test;
+
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.common.SQLiteDatabaseImage;
+import net.sf.mpxj.mpp.MPPReader;
+import net.sf.mpxj.mpx.MPXReader;
+import net.sf.mpxj.reader.ProbeResult;
+import net.sf.mpxj.reader.ProjectFileFormat;
+import net.sf.mpxj.reader.UniversalProjectReader;
+
+/**
+ * Tests for the handling of zip files, SQLite databases and MPP files by the universal
+ * project reader, and for probing the format of a file.
+ */
+public class UniversalProjectReaderTest
+{
+   /**
+    * Ensure that a schedule in a subdirectory of a zip file is found,
+    * skipping files we can't read.
+    *
+    * @throws Exception
+    */
+   @Test public void testZipFile() throws Exception
+   {
+      File file = new File(MpxjTestData.filePath("mpxrecurring.mpx"));
+      byte[] schedule = MpxjTestData.readFile(file);
+      byte[] notSchedule = new byte[1024];
+
+      ByteArrayOutputStream os = new ByteArrayOutputStream();
+      ZipOutputStream zip = new ZipOutputStream(os);
+      addEntry(zip, "readme.txt", "Not a schedule".getBytes());
+      addEntry(zip, "data/empty.bin", notSchedule);
+      addEntry(zip, "data/project/schedule.mpx", schedule);
+      zip.close();
+
+      ProjectFile expected = new MPXReader().read(file);
+      testZipFile(expected, new UniversalProjectReader(), os.toByteArray());
+
+      // Zip files larger than the threshold are extracted to a temporary directory
+      UniversalProjectReader reader = new UniversalProjectReader();
+      reader.setZipInMemoryThreshold(0);
+      assertEquals(0, reader.getZipInMemoryThreshold());
+      testZipFile(expected, reader, os.toByteArray());
+   }
+
+   /**
+    * Read a zip file and compare the tasks with those from the expected schedule.
+    *
+    * @param expected expected schedule
+    * @param reader reader used to read the zip file
+    * @param data zip file data
+    * @throws Exception
+    */
+   private void testZipFile(ProjectFile expected, UniversalProjectReader reader, byte[] data) throws Exception
+   {
+      ProjectFile actual = reader.read(new ByteArrayInputStream(data));
+      assertNotNull(actual);
+
+      List<Task> expectedTasks = expected.getTasks();
+      List<Task> actualTasks = actual.getTasks();
+      assertEquals(expectedTasks.size(), actualTasks.size());
+      for (int index = 0; index < expectedTasks.size(); index++)
+      {
+         assertEquals(expectedTasks.get(index).getUniqueID(), actualTasks.get(index).getUniqueID());
+         assertEquals(expectedTasks.get(index).getName(), actualTasks.get(index).getName());
+      }
+   }
+
+   /**
+    * Ensure that the table names read from a SQLite database held in memory
+    * match those reported by the JDBC driver.
+    *
+    * @throws Exception
+    */
+   @Test public void testSQLiteDatabaseImage() throws Exception
+   {
+      File file = createDatabase();
+
+      try
+      {
+         SQLiteDatabaseImage image = new SQLiteDatabaseImage(MpxjTestData.readFile(file));
+         assertTrue(image.getTableNames().containsAll(Arrays.asList("ITEMS", "NOTES", "ITEM_VIEW")));
+
+         Set<String> expected = new HashSet<String>();
+         Connection connection = DriverManager.getConnection("jdbc:sqlite:" + file.getAbsolutePath());
+         try
+         {
+            Statement statement = connection.createStatement();
+            ResultSet rs = statement.executeQuery("select upper(name) from sqlite_master where type in ('table', 'view')");
+            while (rs.next())
+            {
+               expected.add(rs.getString(1));
+            }
+            rs.close();
+            statement.close();
+         }
+
+         finally
+         {
+            connection.close();
+         }
+
+         assertEquals(expected, image.getTableNames());
+      }
+
+      finally
+      {
+         file.delete();
+      }
+   }
+
+   /**
+    * Ensure that a SQLite database which doesn't contain a schedule is
+    * rejected, whether it is read from memory or from a temporary file.
+    *
+    * @throws Exception
+    */
+   @Test public void testUnrecognisedSQLiteDatabase() throws Exception
+   {
+      File file = createDatabase();
+
+      try
+      {
+         byte[] data = MpxjTestData.readFile(file);
+
+         UniversalProjectReader reader = new UniversalProjectReader();
+         assertNull(reader.read(new ByteArrayInputStream(data)));
+
+         reader.setSQLiteInMemoryThreshold(0);
+         assertEquals(0, reader.getSQLiteInMemoryThreshold());
+         assertNull(reader.read(new ByteArrayInputStream(data)));
+      }
+
+      finally
+      {
+         file.delete();
+      }
+   }
+
+   /**
+    * Create a SQLite database whose schema spans multiple pages, containing
+    * tables which span multiple pages and rows which overflow a page.
+    *
+    * @return database file
+    */
+   private File createDatabase() throws Exception
+   {
+      Class.forName("org.sqlite.JDBC");
+      File file = File.createTempFile("junit", ".sqlite");
+      file.delete();
+
+      Connection connection = DriverManager.getConnection("jdbc:sqlite:" + file.getAbsolutePath());
+      try
+      {
+         Statement statement = connection.createStatement();
+         statement.executeUpdate("create table items (item_id integer primary key, name text, cost real, data blob)");
+         statement.executeUpdate("create table notes (note text)");
+         statement.executeUpdate("create index items_name on items(name)");
+         statement.executeUpdate("create view item_view as select item_id, name from items");
+         for (int index = 0; index < 200; index++)
+         {
+            statement.executeUpdate("create table extra_table_with_a_long_name_" + index + " (extra_column_with_a_long_name text)");
+         }
+
+         connection.setAutoCommit(false);
+         PreparedStatement ps = connection.prepareStatement("insert into items values (?, ?, ?, ?)");
+         for (int index = 0; index < 2000; index++)
+         {
+            char[] name = new char[index % 100 == 0 ? 10000 : index % 20];
+            Arrays.fill(name, (char) ('a' + (index % 26)));
+            ps.setInt(1, (index * 7) + 3);
+            ps.setString(2, index % 13 == 0 ? null : new String(name) + "\u00e9");
+            ps.setDouble(3, index * 1.5);
+            ps.setBytes(4, new byte[index % 5]);
+            ps.executeUpdate();
+         }
+         ps.close();
+
+         statement.executeUpdate("insert into notes values ('before')");
+         connection.commit();
+         statement.executeUpdate("alter table notes add column priority integer default 5");
+         statement.executeUpdate("insert into notes values ('after', 1)");
+         connection.commit();
+         statement.close();
+      }
+
+      finally
+      {
+         connection.close();
+      }
+
+      return file;
+   }
+
+   /**
+    * Add an entry to a zip file.
+    *
+    * @param zip zip file
+    * @param name entry name
+    * @param data entry content
+    */
+   private void addEntry(ZipOutputStream zip, String name, byte[] data) throws Exception
+   {
+      zip.putNextEntry(new ZipEntry(name));
+      zip.write(data);
+      zip.closeEntry();
+   }
+
+   /**
+    * Ensure that MPP files read directly from a file match those read from a stream.
+    *
+    * @throws Exception
+    */
+   @Test public void testMppFile() throws Exception
+   {
+      for (String name : Arrays.asList("mpp9task.mpp", "mpp12task.mpp", "mpp14task.mpp"))
+      {
+         File file = new File(MpxjTestData.filePath(name));
+         ProjectFile expected = new MPPReader().read(new ByteArrayInputStream(MpxjTestData.readFile(file)));
+
+         for (ProjectFile actual : Arrays.asList(new MPPReader().read(file), new UniversalProjectReader().read(file)))
+         {
+            assertNotNull(actual);
+            List<Task> expectedTasks = expected.getTasks();
+            List<Task> actualTasks = actual.getTasks();
+            assertEquals(expectedTasks.size(), actualTasks.size());
+            for (int index = 0; index < expectedTasks.size(); index++)
+            {
+               Task expectedTask = expectedTasks.get(index);
+               Task actualTask = actualTasks.get(index);
+               assertEquals(expectedTask.getUniqueID(), actualTask.getUniqueID());
+               assertEquals(expectedTask.getName(), actualTask.getName());
+               assertEquals(expectedTask.getStart(), actualTask.getStart());
+               assertEquals(expectedTask.getText(1), actualTask.getText(1));
+            }
+            assertEquals(expected.getProjectProperties().getApplicationVersion(), actual.getProjectProperties().getApplicationVersion());
+         }
+      }
+   }
+
+   /**
+    * Ensure that the file format and application details can be retrieved
+    * from an MPP file, both from a stream and directly from a file.
+    *
+    * @throws Exception
+    */
+   @Test public void testProbeMpp() throws Exception
+   {
+      File file = new File(MpxjTestData.filePath("mpp14task.mpp"));
+      ProbeResult streamResult = new UniversalProjectReader().probe(new ByteArrayInputStream(MpxjTestData.readFile(file)));
+      ProbeResult fileResult = new UniversalProjectReader().probe(file);
+
+      for (ProbeResult result : Arrays.asList(streamResult, fileResult))
+      {
+         assertEquals(ProjectFileFormat.MPP, result.getFormat());
+         assertEquals("MSProject.MPP14", result.getFileFormat());
+         assertEquals("Microsoft.Project 14.0", result.getApplicationName());
+         assertEquals(Integer.valueOf(14), result.getApplicationVersion());
+      }
+   }
+
+   /**
+    * Ensure that the root element attributes can be retrieved from an MSPDI file.
+    *
+    * @throws Exception
+    */
+   @Test public void testProbeMspdi() throws Exception
+   {
+      ProbeResult result = new UniversalProjectReader().probe(new File(MpxjTestData.filePath("baselines.xml")));
+      assertEquals(ProjectFileFormat.MSPDI, result.getFormat());
+      assertEquals("http://schemas.microsoft.com/project", result.getRootAttributes().get("xmlns"));
+      assertNull(result.getProjects());
+   }
+
+   /**
+    * Ensure that the project list can be retrieved from an XER file, and that
+    * the file is not read beyond the project table.
+    *
+    * @throws Exception
+    */
+   @Test public void testProbeXer() throws Exception
+   {
+      StringBuilder data = new StringBuilder(XER_DATA);
+      while (data.length() < 1024)
+      {
+         // Invalid record types would cause an error if these records were processed
+         data.append("%X\tpadding\r\n");
+      }
+
+      ProbeResult result = new UniversalProjectReader().probe(new ByteArrayInputStream(data.toString().getBytes()));
+      assertEquals(ProjectFileFormat.XER, result.getFormat());
+
+      Map<Integer, String> projects = result.getProjects();
+      assertEquals(2, projects.size());
+      assertEquals("P1", projects.get(Integer.valueOf(1)));
+      assertEquals("P2", projects.get(Integer.valueOf(2)));
+   }
+
+   /**
+    * Ensure that other formats are recognised from their fingerprint,
+    * and that unrecognised data is reported as such.
+    *
+    * @throws Exception
+    */
+   @Test public void testProbeOtherFormats() throws Exception
+   {
+      UniversalProjectReader reader = new UniversalProjectReader();
+      assertEquals(ProjectFileFormat.MPX, reader.probe(new File(MpxjTestData.filePath("mpxrecurring.mpx"))).getFormat());
+      assertEquals(ProjectFileFormat.PLANNER, reader.probe(new File(MpxjTestData.filePath("planner-sample.planner"))).getFormat());
+      assertEquals(ProjectFileFormat.UNKNOWN, reader.probe(new ByteArrayInputStream(new byte[1024])).getFormat());
+      assertEquals(ProjectFileFormat.UNKNOWN, reader.probe(new ByteArrayInputStream(new byte[10])).getFormat());
+   }
+
+   private static final String XER_DATA = "ERMHDR\t8.4\t2020-01-01\tProject Management\tadmin\tadmin\tdbxDatabaseNoName\tProject Management\tUSD\r\n" //
+      + "%T\tCURRTYPE\r\n" //
+      + "%F\tcurr_id\tdecimal_digit_cnt\tcurr_symbol\tdecimal_symbol\tdigit_group_symbol\tpos_curr_fmt_type\tneg_curr_fmt_type\tcurr_type\tcurr_short_name\tgroup_digit_cnt\tbase_exch_rate\r\n" //
+      + "%R\t1\t2\t$\t.\t,\t#1.1\t(#1.1)\tDollar\tUSD\t3\t1\r\n" //
+      + "%T\tPROJECT\r\n" //
+      + "%F\tproj_id\tproj_short_name\tplan_start_date\r\n" //
+      + "%R\t1\tP1\t2020-01-06 08:00\r\n" //
+      + "%R\t2\tP2\t2020-01-06 08:00\r\n" //
+      + "%T\tPROJWBS\r\n";
+}
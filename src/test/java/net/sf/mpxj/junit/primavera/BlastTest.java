@@ -0,0 +1,231 @@
+/*
+ * file:       BlastTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit.primavera;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import net.sf.mpxj.junit.MpxjTestData;
+import net.sf.mpxj.primavera.common.Blast;
+import net.sf.mpxj.primavera.common.FastBlast;
+
+/**
+ * Tests to ensure that the Blast and FastBlast decompressors
+ * produce the same results.
+ */
+public class BlastTest
+{
+   /**
+    * Decompress the example from blast.c.
+    *
+    * @throws Exception
+    */
+   @Test public void testExample() throws Exception
+   {
+      byte[] data =
+      {
+         0x00,
+         0x04,
+         (byte) 0x82,
+         0x24,
+         0x25,
+         (byte) 0x8f,
+         (byte) 0x80,
+         0x7f
+      };
+
+      assertEquals("AIAIAIAIAIAIA", new String(blast(data), "US-ASCII"));
+      assertEquals("AIAIAIAIAIAIA", new String(fastBlast(data), "US-ASCII"));
+   }
+
+   /**
+    * Decompress data using coded literals and a 4K dictionary.
+    *
+    * @throws Exception
+    */
+   @Test public void testCodedLiterals() throws Exception
+   {
+      testFile("mpxrecurring.mpx");
+   }
+
+   /**
+    * Decompress data using uncoded literals and a 1K dictionary.
+    *
+    * @throws Exception
+    */
+   @Test public void testUncodedLiterals() throws Exception
+   {
+      testFile("mpp9task.mpp");
+   }
+
+   /**
+    * Ensure that invalid headers are reported.
+    *
+    * @throws Exception
+    */
+   @Test public void testInvalidHeader() throws Exception
+   {
+      ByteArrayOutputStream os = new ByteArrayOutputStream();
+      byte[] literalFlag =
+      {
+         2,
+         4
+      };
+      assertEquals(-1, new Blast().blast(new ByteArrayInputStream(literalFlag), os));
+      assertEquals(-1, new FastBlast().blast(new ByteArrayInputStream(literalFlag), os));
+
+      byte[] dictionarySize =
+      {
+         0,
+         7
+      };
+      assertEquals(-2, new Blast().blast(new ByteArrayInputStream(dictionarySize), os));
+      assertEquals(-2, new FastBlast().blast(new ByteArrayInputStream(dictionarySize), os));
+   }
+
+   /**
+    * Ensure that truncated data is reported.
+    *
+    * @throws Exception
+    */
+   @Test public void testTruncated() throws Exception
+   {
+      byte[] data = MpxjTestData.readFile(new File(MpxjTestData.filePath("blast"), "mpxrecurring.mpx.dcl"));
+      data = Arrays.copyOf(data, data.length - 1);
+      assertEquals("out of input", getResult(new Blast(), data));
+      assertEquals("out of input", getResult(new FastBlast(), data));
+   }
+
+   /**
+    * Ensure that both implementations behave in the same way when
+    * presented with arbitrary data.
+    *
+    * @throws Exception
+    */
+   @Test public void testRandomData() throws Exception
+   {
+      Random random = new Random(1);
+      for (int index = 0; index < 5000; index++)
+      {
+         byte[] data = new byte[2 + random.nextInt(256)];
+         random.nextBytes(data);
+         data[0] = (byte) random.nextInt(2);
+         data[1] = (byte) (4 + random.nextInt(3));
+
+         assertEquals(getResult(new Blast(), data), getResult(new FastBlast(), data));
+      }
+   }
+
+   /**
+    * Ensure that a compressed copy of a test file is decompressed
+    * correctly by both implementations.
+    *
+    * @param name test file name
+    */
+   private void testFile(String name) throws Exception
+   {
+      byte[] expected = MpxjTestData.readFile(new File(MpxjTestData.filePath(name)));
+      byte[] data = MpxjTestData.readFile(new File(MpxjTestData.filePath("blast"), name + ".dcl"));
+      assertArrayEquals(expected, blast(data));
+      assertArrayEquals(expected, fastBlast(data));
+   }
+
+   /**
+    * Decompress using Blast.
+    *
+    * @param data compressed data
+    * @return decompressed data
+    */
+   private byte[] blast(byte[] data) throws IOException
+   {
+      ByteArrayOutputStream os = new ByteArrayOutputStream();
+      assertEquals(0, new Blast().blast(new ByteArrayInputStream(data), os));
+      return os.toByteArray();
+   }
+
+   /**
+    * Decompress using FastBlast.
+    *
+    * @param data compressed data
+    * @return decompressed data
+    */
+   private byte[] fastBlast(byte[] data) throws IOException
+   {
+      ByteArrayOutputStream os = new ByteArrayOutputStream();
+      assertEquals(0, new FastBlast().blast(new ByteArrayInputStream(data), os));
+      return os.toByteArray();
+   }
+
+   /**
+    * Summarise the result of decompressing data with Blast.
+    *
+    * @param blast decompressor
+    * @param data compressed data
+    * @return status code and decompressed data, or error message
+    */
+   private String getResult(Blast blast, byte[] data)
+   {
+      ByteArrayOutputStream os = new ByteArrayOutputStream();
+      try
+      {
+         int status = blast.blast(new ByteArrayInputStream(data), os);
+         return status + ":" + Arrays.toString(os.toByteArray());
+      }
+
+      catch (IOException ex)
+      {
+         return ex.getMessage();
+      }
+   }
+
+   /**
+    * Summarise the result of decompressing data with FastBlast.
+    *
+    * @param blast decompressor
+    * @param data compressed data
+    * @return status code and decompressed data, or error message
+    */
+   private String getResult(FastBlast blast, byte[] data)
+   {
+      ByteArrayOutputStream os = new ByteArrayOutputStream();
+      try
+      {
+         int status = blast.blast(new ByteArrayInputStream(data), os);
+         return status + ":" + Arrays.toString(os.toByteArray());
+      }
+
+      catch (IOException ex)
+      {
+         return ex.getMessage();
+      }
+   }
+}
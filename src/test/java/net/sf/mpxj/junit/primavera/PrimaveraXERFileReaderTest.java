@@ -0,0 +1,160 @@
+/*
+ * file:       PrimaveraXERFileReaderTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit.primavera;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.Relation;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.primavera.PrimaveraXERFileReader;
+
+/**
+ * Tests for Primavera XER file reader functionality.
+ */
+public class PrimaveraXERFileReaderTest
+{
+   /**
+    * Ensure that projects can be listed.
+    */
+   @Test public void testListProjects() throws Exception
+   {
+      Map<Integer, String> projects = new PrimaveraXERFileReader().listProjects(getData());
+      assertEquals(2, projects.size());
+      assertEquals("P1", projects.get(Integer.valueOf(1)));
+      assertEquals("P2", projects.get(Integer.valueOf(2)));
+   }
+
+   /**
+    * Ensure that an individual project can be read, and that only
+    * the rows belonging to that project are used.
+    */
+   @Test public void testReadProject() throws Exception
+   {
+      PrimaveraXERFileReader reader = new PrimaveraXERFileReader();
+      reader.setProjectID(2);
+      ProjectFile project = reader.read(getData());
+
+      assertNotNull(project.getTaskByUniqueID(Integer.valueOf(200)));
+      assertNull(project.getTaskByUniqueID(Integer.valueOf(100)));
+      assertEquals("Task 3", project.getTaskByUniqueID(Integer.valueOf(200)).getName());
+   }
+
+   /**
+    * Ensure that all projects can be read from a single file.
+    */
+   @Test public void testReadAll() throws Exception
+   {
+      List<ProjectFile> projects = new PrimaveraXERFileReader().readAll(getData(), true);
+      assertEquals(2, projects.size());
+
+      ProjectFile project1 = projects.get(0);
+      ProjectFile project2 = projects.get(1);
+
+      Task task1 = project1.getTaskByUniqueID(Integer.valueOf(100));
+      Task task2 = project1.getTaskByUniqueID(Integer.valueOf(101));
+      Task task3 = project2.getTaskByUniqueID(Integer.valueOf(200));
+      assertNotNull(task1);
+      assertNotNull(task2);
+      assertNotNull(task3);
+      assertNull(project1.getTaskByUniqueID(Integer.valueOf(200)));
+      assertNull(project2.getTaskByUniqueID(Integer.valueOf(100)));
+
+      List<Relation> predecessors = task2.getPredecessors();
+      assertEquals(1, predecessors.size());
+      assertEquals(task1, predecessors.get(0).getTargetTask());
+
+      predecessors = task3.getPredecessors();
+      assertEquals(1, predecessors.size());
+      assertEquals(task2, predecessors.get(0).getTargetTask());
+   }
+
+   /**
+    * Ensure that reading projects concurrently produces the same
+    * result as reading them sequentially.
+    */
+   @Test public void testReadAllConcurrently() throws Exception
+   {
+      ExecutorService executor = Executors.newFixedThreadPool(2);
+      try
+      {
+         List<ProjectFile> projects = new PrimaveraXERFileReader().readAll(getData(), true, executor);
+         assertEquals(2, projects.size());
+         assertEquals("P1", projects.get(0).getProjectProperties().getName());
+         assertEquals("P2", projects.get(1).getProjectProperties().getName());
+
+         Task task2 = projects.get(0).getTaskByUniqueID(Integer.valueOf(101));
+         Task task3 = projects.get(1).getTaskByUniqueID(Integer.valueOf(200));
+         assertEquals(1, task3.getPredecessors().size());
+         assertEquals(task2, task3.getPredecessors().get(0).getTargetTask());
+      }
+
+      finally
+      {
+         executor.shutdown();
+      }
+   }
+
+   /**
+    * Retrieve a stream containing a small XER file with two projects.
+    *
+    * @return input stream
+    */
+   private InputStream getData()
+   {
+      return new ByteArrayInputStream(XER_DATA.getBytes());
+   }
+
+   private static final String XER_DATA = "ERMHDR\t8.4\t2020-01-01\tProject Management\tadmin\tadmin\tdbxDatabaseNoName\tProject Management\tUSD\r\n" //
+      + "%T\tCURRTYPE\r\n" //
+      + "%F\tcurr_id\tdecimal_digit_cnt\tcurr_symbol\tdecimal_symbol\tdigit_group_symbol\tpos_curr_fmt_type\tneg_curr_fmt_type\tcurr_type\tcurr_short_name\tgroup_digit_cnt\tbase_exch_rate\r\n" //
+      + "%R\t1\t2\t$\t.\t,\t#1.1\t(#1.1)\tDollar\tUSD\t3\t1\r\n" //
+      + "%T\tPROJECT\r\n" //
+      + "%F\tproj_id\tproj_short_name\tplan_start_date\r\n" //
+      + "%R\t1\tP1\t2020-01-06 08:00\r\n" //
+      + "%R\t2\tP2\t2020-01-06 08:00\r\n" //
+      + "%T\tPROJWBS\r\n" //
+      + "%F\twbs_id\tproj_id\tseq_num\tproj_node_flag\twbs_short_name\twbs_name\tparent_wbs_id\r\n" //
+      + "%R\t10\t1\t0\tY\tP1\tProject 1\t\r\n" //
+      + "%R\t20\t2\t0\tY\tP2\tProject 2\t\r\n" //
+      + "%T\tTASK\r\n" //
+      + "%F\ttask_id\tproj_id\twbs_id\ttask_code\ttask_name\ttask_type\tstatus_code\r\n" //
+      + "%R\t100\t1\t10\tA100\tTask 1\tTT_Task\tTK_NotStart\r\n" //
+      + "%R\t200\t2\t20\tB100\tTask 3\tTT_Task\tTK_NotStart\r\n" //
+      + "%R\t101\t1\t10\tA101\tTask 2\tTT_Task\tTK_NotStart\r\n" //
+      + "%T\tTASKPRED\r\n" //
+      + "%F\ttask_pred_id\ttask_id\tpred_task_id\tproj_id\tpred_proj_id\tpred_type\tlag_hr_cnt\r\n" //
+      + "%R\t1\t101\t100\t1\t1\tPR_FS\t0\r\n" //
+      + "%R\t2\t200\t101\t2\t1\tPR_FS\t0\r\n" //
+      + "%E\r\n";
+}
@@ -0,0 +1,149 @@
+/*
+ * file:       RelationContainerTest.java
+ * author:     Jon Iles
+ * copyright:  (c) Packwood Software 2026
+ * date:       18/10/2026
+ */
+
+/*
+ * This library is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published by the
+ * Free Software Foundation; either version 2.1 of the License, or (at your
+ * option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307, USA.
+ */
+
+package net.sf.mpxj.junit.project;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Set;
+
+import org.junit.Test;
+
+import net.sf.mpxj.Duration;
+import net.sf.mpxj.ProjectFile;
+import net.sf.mpxj.Relation;
+import net.sf.mpxj.RelationContainer;
+import net.sf.mpxj.RelationType;
+import net.sf.mpxj.Task;
+import net.sf.mpxj.TimeUnit;
+
+/**
+ * Test to exercise RelationContainer functionality.
+ */
+public class RelationContainerTest
+{
+   /**
+    * Ensure that duplicate relations are detected, and that relations
+    * can be found and removed.
+    */
+   @Test public void testAddAndRemove() throws Exception
+   {
+      ProjectFile file = new ProjectFile();
+      RelationContainer relations = file.getRelations();
+      Task task1 = file.addTask();
+      Task task2 = file.addTask();
+
+      Relation relation1 = task2.addPredecessor(task1, RelationType.FINISH_START, null);
+      assertSame(relation1, task2.addPredecessor(task1, RelationType.FINISH_START, Duration.getInstance(0, TimeUnit.HOURS)));
+      assertEquals(1, task2.getPredecessors().size());
+      assertEquals(1, task1.getSuccessors().size());
+      assertSame(relation1, relations.getRelation(task1, task2));
+      assertNull(relations.getRelation(task2, task1));
+      assertTrue(task2.isPredecessor(task1));
+      assertTrue(task1.isSucessor(task2));
+      assertFalse(task1.isPredecessor(task2));
+
+      // A relation with a different type is added alongside the first relation
+      Relation relation2 = task2.addPredecessor(task1, RelationType.START_START, null);
+      assertNotSame(relation1, relation2);
+      assertEquals(2, task2.getPredecessors().size());
+      assertEquals(2, task1.getSuccessors().size());
+
+      assertFalse(task2.removePredecessor(task1, RelationType.FINISH_FINISH, null));
+      assertTrue(task2.removePredecessor(task1, RelationType.FINISH_START, null));
+      assertSame(relation2, relations.getRelation(task1, task2));
+      assertTrue(task2.isPredecessor(task1));
+
+      assertTrue(task2.removePredecessor(task1, RelationType.START_START, null));
+      assertNull(relations.getRelation(task1, task2));
+      assertFalse(task2.isPredecessor(task1));
+      assertFalse(task1.isSucessor(task2));
+      assertTrue(task1.getSuccessors().isEmpty());
+
+      // Tasks are matched by identity, not by unique ID
+      Task otherTask = new ProjectFile().addTask();
+      otherTask.setUniqueID(task1.getUniqueID());
+      task2.addPredecessor(task1, RelationType.FINISH_START, null);
+      assertTrue(task2.isPredecessor(task1));
+      assertFalse(task2.isPredecessor(otherTask));
+   }
+
+   /**
+    * Ensure that relations involving a task are removed when the task is removed.
+    */
+   @Test public void testRemoveTask() throws Exception
+   {
+      ProjectFile file = new ProjectFile();
+      RelationContainer relations = file.getRelations();
+      Task task1 = file.addTask();
+      Task task2 = file.addTask();
+      Task task3 = file.addTask();
+
+      task2.addPredecessor(task1, RelationType.FINISH_START, null);
+      task3.addPredecessor(task2, RelationType.START_START, null);
+      task3.addPredecessor(task1, RelationType.FINISH_FINISH, null);
+
+      file.removeTask(task2);
+      assertNull(relations.getRelation(task1, task2));
+      assertNull(relations.getRelation(task2, task3));
+      assertFalse(task3.isPredecessor(task2));
+      assertFalse(task1.isSucessor(task2));
+      assertEquals(1, task1.getSuccessors().size());
+      assertEquals(1, task3.getPredecessors().size());
+      assertTrue(task2.getPredecessors().isEmpty());
+      assertTrue(task2.getSuccessors().isEmpty());
+      assertTrue(relations.hasPath(task1, task3));
+   }
+
+   /**
+    * Exercise graph traversal.
+    */
+   @Test public void testTraversal() throws Exception
+   {
+      ProjectFile file = new ProjectFile();
+      RelationContainer relations = file.getRelations();
+      Task task1 = file.addTask();
+      Task task2 = file.addTask();
+      Task task3 = file.addTask();
+      Task task4 = file.addTask();
+      Task task5 = file.addTask();
+
+      task2.addPredecessor(task1, RelationType.FINISH_START, null);
+      task3.addPredecessor(task1, RelationType.FINISH_START, null);
+      task4.addPredecessor(task2, RelationType.FINISH_START, null);
+      task4.addPredecessor(task3, RelationType.FINISH_START, null);
+
+      Set<Task> successors = relations.getAllSuccessors(task1);
+      assertEquals(Arrays.asList(task2, task3, task4), Arrays.asList(successors.toArray()));
+
+      Set<Task> predecessors = relations.getAllPredecessors(task4);
+      assertEquals(Arrays.asList(task2, task3, task1), Arrays.asList(predecessors.toArray()));
+
+      assertTrue(relations.hasPath(task1, task4));
+      assertFalse(relations.hasPath(task4, task1));
+      assertFalse(relations.hasPath(task1, task5));
+      assertFalse(relations.hasPath(task1, task1));
+      assertTrue(relations.getAllSuccessors(task5).isEmpty());
+   }
+}